@@ -6,14 +6,17 @@ import android.support.annotation.NonNull;
 import com.pushtorefresh.storio.sample.db.entities.Tweet;
 import com.pushtorefresh.storio.sample.db.entities.User;
 import com.pushtorefresh.storio.sample.db.entities.UserWithTweets;
-import com.pushtorefresh.storio.sample.db.tables.TweetsTable;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
-import java.util.List;
+import java.util.Collections;
 
+/**
+ * Maps users, please use it together with {@link UserWithTweetsRelation}
+ * which loads tweets of all users of the list at once instead of query per user.
+ */
 public final class UserWithTweetsGetResolver extends GetResolver<UserWithTweets> {
 
     // We can even reuse existing get resolvers for our needs
@@ -21,14 +24,6 @@ public final class UserWithTweetsGetResolver extends GetResolver<UserWithTweets>
     @NonNull
     private final GetResolver<User> userGetResolver;
 
-    // Sorry for this hack :(
-    // We will pass you an instance of StorIO
-    // into the mapFromCursor() in v2.0.0.
-    //
-    // At the moment, you can save this instance in performGet() and then null it at the end
-    @NonNull
-    private final ThreadLocal<StorIOSQLite> storIOSQLiteFromPerformGet = new ThreadLocal<StorIOSQLite>();
-
     public UserWithTweetsGetResolver(@NonNull GetResolver<User> userGetResolver) {
         this.userGetResolver = userGetResolver;
     }
@@ -36,40 +31,22 @@ public final class UserWithTweetsGetResolver extends GetResolver<UserWithTweets>
     @NonNull
     @Override
     public UserWithTweets mapFromCursor(@NonNull Cursor cursor) {
-        final StorIOSQLite storIOSQLite = storIOSQLiteFromPerformGet.get();
-
         // Or you can manually parse cursor (it will be sliiightly faster)
         final User user = userGetResolver.mapFromCursor(cursor);
 
-        // Yep, you can reuse StorIO here!
-        // Or, you can do manual low level requests here
-        // BTW, if you profiled your app and found that such queries are not very fast
-        // You can always add some optimized version for particular queries to improve the performance
-        final List<Tweet> tweetsOfTheUser = storIOSQLite
-                .get()
-                .listOfObjects(Tweet.class)
-                .withQuery(Query.builder()
-                        .table(TweetsTable.TABLE)
-                        .where(TweetsTable.COLUMN_AUTHOR + "=?")
-                        .whereArgs(user.nick())
-                        .build())
-                .prepare()
-                .executeAsBlocking();
-
-        return new UserWithTweets(user, tweetsOfTheUser);
+        // Tweets will be attached by UserWithTweetsRelation
+        return new UserWithTweets(user, Collections.<Tweet>emptyList());
     }
 
     @NonNull
     @Override
     public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
-        storIOSQLiteFromPerformGet.set(storIOSQLite);
         return storIOSQLite.internal().rawQuery(rawQuery);
     }
 
     @NonNull
     @Override
     public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
-        storIOSQLiteFromPerformGet.set(storIOSQLite);
         return storIOSQLite.internal().query(query);
     }
 }
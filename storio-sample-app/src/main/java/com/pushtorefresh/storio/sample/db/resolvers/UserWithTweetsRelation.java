@@ -0,0 +1,54 @@
+package com.pushtorefresh.storio.sample.db.resolvers;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sample.db.entities.Tweet;
+import com.pushtorefresh.storio.sample.db.entities.UserWithTweets;
+import com.pushtorefresh.storio.sample.db.tables.TweetsTable;
+import com.pushtorefresh.storio.sqlite.operations.get.Relation;
+
+import java.util.List;
+
+/**
+ * Loads tweets of all users of the list by their nicks:
+ * number of queries does not depend on number of users.
+ */
+public final class UserWithTweetsRelation extends Relation<UserWithTweets, Tweet> {
+
+    @NonNull
+    @Override
+    public Class<Tweet> childType() {
+        return Tweet.class;
+    }
+
+    @NonNull
+    @Override
+    public String childTable() {
+        return TweetsTable.TABLE;
+    }
+
+    @NonNull
+    @Override
+    public String childKeyColumn() {
+        return TweetsTable.COLUMN_AUTHOR;
+    }
+
+    @Nullable
+    @Override
+    public Object parentKey(@NonNull UserWithTweets parent) {
+        return parent.user().nick();
+    }
+
+    @NonNull
+    @Override
+    public Object childKey(@NonNull Tweet child) {
+        return child.author();
+    }
+
+    @NonNull
+    @Override
+    public UserWithTweets attach(@NonNull UserWithTweets parent, @NonNull List<Tweet> children) {
+        return new UserWithTweets(parent.user(), children);
+    }
+}
@@ -3,15 +3,20 @@ package com.pushtorefresh.storio.sample.sample_code;
 import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.sample.db.entities.TweetWithUser;
+import com.pushtorefresh.storio.sample.db.entities.UserStorIOSQLiteGetResolver;
+import com.pushtorefresh.storio.sample.db.entities.UserWithTweets;
+import com.pushtorefresh.storio.sample.db.resolvers.UserWithTweetsGetResolver;
+import com.pushtorefresh.storio.sample.db.resolvers.UserWithTweetsRelation;
 import com.pushtorefresh.storio.sample.db.tables.TweetsTable;
 import com.pushtorefresh.storio.sample.db.tables.UsersTable;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.List;
 
 /**
- * Examples with relations (SQL JOIN)
+ * Examples with relations (SQL JOIN and batch loading of children)
  */
 public class Relations {
 
@@ -35,4 +40,18 @@ public class Relations {
                 .prepare()
                 .executeAsBlocking();
     }
+
+    public List<UserWithTweets> userWithTweetsGet() {
+        // Tweets of all users are loaded by one query instead of query per user
+        return storIOSQLite
+                .get()
+                .listOfObjects(UserWithTweets.class)
+                .withQuery(Query.builder()
+                        .table(UsersTable.TABLE)
+                        .build())
+                .withGetResolver(new UserWithTweetsGetResolver(new UserStorIOSQLiteGetResolver()))
+                .withRelation(new UserWithTweetsRelation())
+                .prepare()
+                .executeAsBlocking();
+    }
 }
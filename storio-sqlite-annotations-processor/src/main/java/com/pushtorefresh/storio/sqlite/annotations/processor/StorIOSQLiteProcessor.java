@@ -179,6 +179,28 @@ public class StorIOSQLiteProcessor extends StorIOAnnotationsProcessor<StorIOSQLi
                                 + " annotation should have at least one KEY field marked with "
                                 + StorIOSQLiteColumn.class.getSimpleName() + " annotation");
             }
+
+            validateIdentityMap(annotatedClass.getKey(), annotatedClass.getValue());
+        }
+    }
+
+    private void validateIdentityMap(@NotNull TypeElement classElement, @NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final int identityMapSize = storIOSQLiteTypeMeta.storIOType.identityMapSize();
+
+        if (identityMapSize < 0) {
+            throw new ProcessingException(classElement, "identityMapSize should not be negative, but was = " + identityMapSize);
+        }
+
+        if (identityMapSize == 0) {
+            return;
+        }
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            // Arrays do not implement equals() and hashCode(), so they can not be keys of identity map
+            if (columnMeta.storIOColumn.key() && columnMeta.javaType == JavaType.BYTE_ARRAY) {
+                throw new ProcessingException(columnMeta.element,
+                        "KEY field of class with identity map can not be byte[]");
+            }
         }
     }
 
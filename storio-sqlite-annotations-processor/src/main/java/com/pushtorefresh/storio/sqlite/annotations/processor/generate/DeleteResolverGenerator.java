@@ -15,6 +15,7 @@ import java.util.Map;
 
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createMapToKeyMethodSpec;
 import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 
@@ -31,12 +32,19 @@ public class DeleteResolverGenerator implements Generator<StorIOSQLiteTypeMeta>
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
 
-        final TypeSpec deleteResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder deleteResolverBuilder = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Delete Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.delete", "DefaultDeleteResolver"), storIOSQLiteTypeClassName))
-                .addMethod(createMapToDeleteQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .build();
+                .addMethod(createMapToDeleteQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName));
+
+        final MethodSpec mapToKey = createMapToKeyMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName);
+
+        if (mapToKey != null) {
+            deleteResolverBuilder.addMethod(mapToKey);
+        }
+
+        final TypeSpec deleteResolver = deleteResolverBuilder.build();
 
         return JavaFile
                 .builder(storIOSQLiteTypeMeta.packageName, deleteResolver)
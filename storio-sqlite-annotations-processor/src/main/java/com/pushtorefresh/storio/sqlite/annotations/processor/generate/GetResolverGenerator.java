@@ -5,7 +5,10 @@ import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -14,6 +17,10 @@ import com.squareup.javapoet.TypeSpec;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN;
@@ -30,12 +37,31 @@ import static com.pushtorefresh.storio.common.annotations.processor.introspectio
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT_OBJECT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.STRING;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.addKeyStatement;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createIdentityMapConstructorSpec;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createIdentityMapFieldSpec;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
 
     public static final String SUFFIX = "StorIOSQLiteGetResolver";
 
+    private static final String COLUMN_INDICES = "ColumnIndices";
+
+    private static final ClassName CURSOR_CLASS_NAME = ClassName.get("android.database", "Cursor");
+
+    private static final ClassName STORIO_SQLITE_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite", "StorIOSQLite");
+
+    private static final ClassName QUERY_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite.queries", "Query");
+
+    private static final ClassName TEXT_UTILS_CLASS_NAME = ClassName.get("android.text", "TextUtils");
+
+    private static final ClassName RAW_QUERY_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite.queries", "RawQuery");
+
     @NotNull
     public static String generateName(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         return storIOSQLiteTypeMeta.simpleName + SUFFIX;
@@ -44,12 +70,28 @@ public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
     @NotNull
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
+        final ClassName columnIndicesClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, generateName(storIOSQLiteTypeMeta), COLUMN_INDICES);
 
-        final TypeSpec getResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder getResolverBuilder = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Get Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.get", "DefaultGetResolver"), storIOSQLiteTypeClassName))
-                .addMethod(createMapFromCursorMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
+                .addField(FieldSpec.builder(columnIndicesClassName, "columnIndices", PRIVATE, VOLATILE)
+                        .addJavadoc("Indices of columns for the last seen layout of columns, indices are immutable, so resolver stays thread-safe\n")
+                        .build());
+
+        if (storIOSQLiteTypeMeta.storIOType.identityMapSize() > 0) {
+            getResolverBuilder
+                    .addField(createIdentityMapFieldSpec(storIOSQLiteTypeClassName))
+                    .addMethod(createIdentityMapConstructorSpec(storIOSQLiteTypeClassName))
+                    .addMethod(createPerformGetMethodSpec(QUERY_CLASS_NAME, "query"))
+                    .addMethod(createPerformGetMethodSpec(RAW_QUERY_CLASS_NAME, "rawQuery"))
+                    .addMethod(createIsSameRowMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName, columnIndicesClassName));
+        }
+
+        final TypeSpec getResolver = getResolverBuilder
+                .addMethod(createMapFromCursorMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName, columnIndicesClassName))
+                .addType(createColumnIndicesTypeSpec(storIOSQLiteTypeMeta))
                 .build();
 
         return JavaFile
@@ -58,53 +100,219 @@ public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
                 .build();
     }
 
+    /**
+     * Generates override of {@code performGet()} that tracks cursor by identity map,
+     * so objects read before concurrent removal are not stored.
+     */
+    @NotNull
+    private static MethodSpec createPerformGetMethodSpec(@NotNull ClassName queryClassName, @NotNull String queryName) {
+        return MethodSpec.methodBuilder("performGet")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(CURSOR_CLASS_NAME)
+                .addParameter(ParameterSpec.builder(STORIO_SQLITE_CLASS_NAME, "storIOSQLite")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(queryClassName, queryName)
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addStatement("return identityMap.track(super.performGet(storIOSQLite, $L))", queryName)
+                .build();
+    }
+
+    /**
+     * Generates check that object was mapped from the row with same values,
+     * so object of the row changed after it was stored in identity map is not returned.
+     */
+    @NotNull
+    private static MethodSpec createIsSameRowMethodSpec(
+            @NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta,
+            @NotNull ClassName storIOSQLiteTypeClassName,
+            @NotNull ClassName columnIndicesClassName) {
+        final CodeBlock.Builder returnBuilder = CodeBlock.builder();
+        boolean first = true;
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            returnBuilder.add(first ? "return " : "\n" + INDENT + INDENT + "&& ");
+            first = false;
+
+            final String field = "object." + columnMeta.fieldName;
+            final String value = "cursor." + getFromCursor(columnMeta);
+
+            if (columnMeta.javaType == STRING) {
+                returnBuilder.add("$T.equals($L, $L)", TEXT_UTILS_CLASS_NAME, field, value);
+            } else if (columnMeta.javaType == BYTE_ARRAY) {
+                returnBuilder.add("$T.equals($L, $L)", Arrays.class, field, value);
+            } else if (columnMeta.javaType == BOOLEAN || columnMeta.javaType == BOOLEAN_OBJECT) {
+                returnBuilder.add("$L == ($L)", field, value);
+            } else {
+                returnBuilder.add("$L == $L", field, value);
+            }
+        }
+
+        return MethodSpec.methodBuilder("isSameRow")
+                .addJavadoc("Checks that object was mapped from the row with same values of columns\n")
+                .addModifiers(PRIVATE, STATIC)
+                .returns(boolean.class)
+                .addParameter(ParameterSpec.builder(storIOSQLiteTypeClassName, "object")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(columnIndicesClassName, "indices")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addCode(returnBuilder.add(";\n").build())
+                .build();
+    }
+
     @NotNull
-    private MethodSpec createMapFromCursorMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
+    private MethodSpec createMapFromCursorMethodSpec(
+            @NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta,
+            @NotNull ClassName storIOSQLiteTypeClassName,
+            @NotNull ClassName columnIndicesClassName) {
         final MethodSpec.Builder builder = MethodSpec.methodBuilder("mapFromCursor")
                 .addJavadoc("{@inheritDoc}\n")
                 .addAnnotation(Override.class)
                 .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                 .addModifiers(PUBLIC)
                 .returns(storIOSQLiteTypeClassName)
-                .addParameter(ParameterSpec.builder(ClassName.get("android.database", "Cursor"), "cursor")
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
                         .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                         .build())
+                .addStatement("$T indices = columnIndices", columnIndicesClassName)
+                .addCode("\n")
+                .beginControlFlow("if (indices == null || !indices.matches(cursor))")
+                .addStatement("indices = new $T(cursor)", columnIndicesClassName)
+                .addStatement("columnIndices = indices")
+                .endControlFlow()
+                .addCode("\n");
+
+        final boolean useIdentityMap = storIOSQLiteTypeMeta.storIOType.identityMapSize() > 0;
+
+        if (useIdentityMap) {
+            final List<String> keyValues = new ArrayList<String>();
+
+            for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+                if (columnMeta.storIOColumn.key()) {
+                    keyValues.add("cursor." + getFromCursor(columnMeta));
+                }
+            }
+
+            addKeyStatement(builder, "final Object key = ", keyValues);
+
+            builder
+                    .addStatement("final long identityMapVersion = identityMap.versionOf(cursor)")
+                    .addStatement("final $T existingObject = identityMap.get(key)", storIOSQLiteTypeClassName)
+                    .addCode("\n")
+                    .beginControlFlow("if (existingObject != null && isSameRow(existingObject, cursor, indices))")
+                    .addStatement("return existingObject")
+                    .endControlFlow()
+                    .addCode("\n");
+        }
+
+        builder
                 .addStatement("$T object = new $T()", storIOSQLiteTypeClassName, storIOSQLiteTypeClassName)
                 .addCode("\n");
 
         for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
-            final String columnIndex = "cursor.getColumnIndex(\"" + columnMeta.storIOColumn.name() + "\")";
-
-            final String getFromCursor;
-
-            final JavaType javaType = columnMeta.javaType;
-
-            if (javaType == BOOLEAN || javaType == BOOLEAN_OBJECT) {
-                getFromCursor = "getInt(" + columnIndex + ") == 1";
-            } else if (javaType == SHORT || javaType == SHORT_OBJECT) {
-                getFromCursor = "getShort(" + columnIndex + ")";
-            } else if (javaType == INTEGER || javaType == INTEGER_OBJECT) {
-                getFromCursor = "getInt(" + columnIndex + ")";
-            } else if (javaType == LONG || javaType == LONG_OBJECT) {
-                getFromCursor = "getLong(" + columnIndex + ")";
-            } else if (javaType == FLOAT || javaType == FLOAT_OBJECT) {
-                getFromCursor = "getFloat(" + columnIndex + ")";
-            } else if (javaType == DOUBLE || javaType == DOUBLE_OBJECT) {
-                getFromCursor = "getDouble(" + columnIndex + ")";
-            } else if (javaType == STRING) {
-                getFromCursor = "getString(" + columnIndex + ")";
-            } else if (javaType == BYTE_ARRAY) {
-                getFromCursor = "getBlob(" + columnIndex + ")";
-            } else {
-                throw new ProcessingException(columnMeta.element, "Can not generate GetResolver for field");
-            }
+            builder.addStatement("object.$L = cursor.$L", columnMeta.fieldName, getFromCursor(columnMeta));
+        }
 
-            builder.addStatement("object.$L = cursor.$L", columnMeta.fieldName, getFromCursor);
+        builder.addCode("\n");
+
+        if (useIdentityMap) {
+            builder.addStatement("identityMap.put(key, object, identityMapVersion)");
         }
 
         return builder
-                .addCode("\n")
                 .addStatement("return object")
                 .build();
     }
+
+    @NotNull
+    private static String getFromCursor(@NotNull StorIOSQLiteColumnMeta columnMeta) {
+        final String columnIndex = "indices." + columnIndexFieldName(columnMeta);
+
+        final JavaType javaType = columnMeta.javaType;
+
+        if (javaType == BOOLEAN || javaType == BOOLEAN_OBJECT) {
+            return "getInt(" + columnIndex + ") == 1";
+        } else if (javaType == SHORT || javaType == SHORT_OBJECT) {
+            return "getShort(" + columnIndex + ")";
+        } else if (javaType == INTEGER || javaType == INTEGER_OBJECT) {
+            return "getInt(" + columnIndex + ")";
+        } else if (javaType == LONG || javaType == LONG_OBJECT) {
+            return "getLong(" + columnIndex + ")";
+        } else if (javaType == FLOAT || javaType == FLOAT_OBJECT) {
+            return "getFloat(" + columnIndex + ")";
+        } else if (javaType == DOUBLE || javaType == DOUBLE_OBJECT) {
+            return "getDouble(" + columnIndex + ")";
+        } else if (javaType == STRING) {
+            return "getString(" + columnIndex + ")";
+        } else if (javaType == BYTE_ARRAY) {
+            return "getBlob(" + columnIndex + ")";
+        } else {
+            throw new ProcessingException(columnMeta.element, "Can not generate GetResolver for field");
+        }
+    }
+
+    /**
+     * Generates holder of column indices, so each row is mapped
+     * without looking up columns by their names.
+     */
+    @NotNull
+    private TypeSpec createColumnIndicesTypeSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final ArrayTypeName stringArrayTypeName = ArrayTypeName.of(String.class);
+
+        final MethodSpec.Builder constructorBuilder = MethodSpec.constructorBuilder()
+                .addParameter(CURSOR_CLASS_NAME, "cursor")
+                .addStatement("columnNames = cursor.getColumnNames()");
+
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(COLUMN_INDICES)
+                .addJavadoc("Indices of columns in the {@link $T} with particular layout of columns\n", CURSOR_CLASS_NAME)
+                .addModifiers(PRIVATE, STATIC, FINAL)
+                .addField(FieldSpec.builder(stringArrayTypeName, "columnNames", PRIVATE, VOLATILE)
+                        .addJavadoc("Same names as ones used for indices, replaced by array of the last matched cursor\n")
+                        .build());
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            final String fieldName = columnIndexFieldName(columnMeta);
+
+            builder.addField(int.class, fieldName, PRIVATE, FINAL);
+            constructorBuilder.addStatement("$L = cursor.getColumnIndex($S)", fieldName, columnMeta.storIOColumn.name());
+        }
+
+        final MethodSpec matchesMethodSpec = MethodSpec.methodBuilder("matches")
+                .returns(boolean.class)
+                .addParameter(CURSOR_CLASS_NAME, "cursor")
+                .addStatement("$T otherColumnNames = cursor.getColumnNames()", stringArrayTypeName)
+                .addCode("// Cursors usually return same array for each call, so in most cases it's just reference comparison\n")
+                .beginControlFlow("if (otherColumnNames == columnNames)")
+                .addStatement("return true")
+                .endControlFlow()
+                .addCode("\n")
+                .beginControlFlow("if ($T.equals(otherColumnNames, columnNames))", Arrays.class)
+                .addCode("// Remember array of this cursor, so its next rows are matched by reference\n")
+                .addStatement("columnNames = otherColumnNames")
+                .addStatement("return true")
+                .endControlFlow()
+                .addCode("\n")
+                .addStatement("return false")
+                .build();
+
+        return builder
+                .addMethod(constructorBuilder.build())
+                .addMethod(matchesMethodSpec)
+                .build();
+    }
+
+    @NotNull
+    private static String columnIndexFieldName(@NotNull StorIOSQLiteColumnMeta columnMeta) {
+        // Suffix prevents clash with "columnNames" field
+        return columnMeta.fieldName + "Index";
+    }
 }
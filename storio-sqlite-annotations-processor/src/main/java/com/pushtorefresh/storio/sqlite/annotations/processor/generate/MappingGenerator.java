@@ -3,20 +3,35 @@ package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NULLABLE_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.IDENTITY_MAP_CLASS_NAME;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.addKeyStatement;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createIdentityMapFieldSpec;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createKeyValues;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 public class MappingGenerator implements Generator<StorIOSQLiteTypeMeta> {
 
     public static final String SUFFIX = "SQLiteTypeMapping";
 
+    private static final ClassName KEY_FUNCTION_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite.operations.get", "ListDiff", "KeyFunction");
+
     @NotNull
     @Override
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
@@ -28,12 +43,24 @@ public class MappingGenerator implements Generator<StorIOSQLiteTypeMeta> {
                 ParameterizedTypeName.get(superclass, storIOSQLiteTypeClassName);
 
 
-        final TypeSpec mapping = TypeSpec.classBuilder(storIOSQLiteTypeMeta.simpleName + SUFFIX)
+        final TypeSpec.Builder mappingBuilder = TypeSpec.classBuilder(storIOSQLiteTypeMeta.simpleName + SUFFIX)
                 .addJavadoc("Generated mapping with collection of resolvers\n")
                 .addModifiers(PUBLIC)
-                .superclass(superclassParametrized)
-                .addMethod(createConstructor(storIOSQLiteTypeMeta))
-                .build();
+                .superclass(superclassParametrized);
+
+        if (storIOSQLiteTypeMeta.storIOType.identityMapSize() > 0) {
+            addIdentityMap(mappingBuilder, storIOSQLiteTypeMeta, storIOSQLiteTypeClassName);
+        } else {
+            mappingBuilder.addMethod(createConstructor(storIOSQLiteTypeMeta));
+        }
+
+        final List<String> keyValues = createKeyValues(storIOSQLiteTypeMeta, "object");
+
+        if (!keyValues.isEmpty()) {
+            addKeyFunction(mappingBuilder, storIOSQLiteTypeClassName, keyValues);
+        }
+
+        final TypeSpec mapping = mappingBuilder.build();
 
         return JavaFile
                 .builder(storIOSQLiteTypeMeta.packageName, mapping)
@@ -56,4 +83,89 @@ public class MappingGenerator implements Generator<StorIOSQLiteTypeMeta> {
                         putResolver, getResolver, deleteResolver)
                 .build();
     }
+
+    /**
+     * Generates mapping which gives identity map of its Get Resolver to StorIOSQLite,
+     * so objects of changed rows are removed after commit.
+     */
+    private void addIdentityMap(
+            @NotNull TypeSpec.Builder mappingBuilder,
+            @NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta,
+            @NotNull ClassName storIOSQLiteTypeClassName) {
+        final ClassName putResolver = ClassName.get(storIOSQLiteTypeMeta.packageName,
+                PutResolverGenerator.generateName(storIOSQLiteTypeMeta));
+        final ClassName getResolver = ClassName.get(storIOSQLiteTypeMeta.packageName,
+                GetResolverGenerator.generateName(storIOSQLiteTypeMeta));
+        final ClassName deleteResolver = ClassName.get(storIOSQLiteTypeMeta.packageName,
+                DeleteResolverGenerator.generateName(storIOSQLiteTypeMeta));
+        final ParameterizedTypeName identityMapTypeName =
+                ParameterizedTypeName.get(IDENTITY_MAP_CLASS_NAME, storIOSQLiteTypeClassName);
+
+        mappingBuilder
+                .addField(createIdentityMapFieldSpec(storIOSQLiteTypeClassName))
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(PUBLIC)
+                        .addStatement("this($T.<$T>newInstance($S, $L))",
+                                IDENTITY_MAP_CLASS_NAME, storIOSQLiteTypeClassName,
+                                storIOSQLiteTypeMeta.storIOType.table(), storIOSQLiteTypeMeta.storIOType.identityMapSize())
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(PRIVATE)
+                        .addParameter(ParameterSpec.builder(identityMapTypeName, "identityMap")
+                                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                                .build())
+                        .addStatement("super(new $T(),\nnew $T(identityMap),\nnew $T())",
+                                putResolver, getResolver, deleteResolver)
+                        .addStatement("this.identityMap = identityMap")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("identityMap")
+                        .addJavadoc("Returns identity map of this mapping, it's invalidated by StorIOSQLite after committed changes,\n"
+                                + "please clear it after changes that were not reported to StorIOSQLite\n")
+                        .addAnnotation(Override.class)
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .addModifiers(PUBLIC)
+                        .returns(identityMapTypeName)
+                        .addStatement("return identityMap")
+                        .build());
+    }
+
+    /**
+     * Generates key function from values of key columns,
+     * so diffs of results of the type are calculated without explicit key function.
+     */
+    private void addKeyFunction(
+            @NotNull TypeSpec.Builder mappingBuilder,
+            @NotNull ClassName storIOSQLiteTypeClassName,
+            @NotNull List<String> keyValues) {
+        final ParameterizedTypeName keyFunctionTypeName = ParameterizedTypeName.get(KEY_FUNCTION_CLASS_NAME, storIOSQLiteTypeClassName);
+
+        final MethodSpec.Builder keyOfBuilder = MethodSpec.methodBuilder("keyOf")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(Object.class)
+                .addParameter(ParameterSpec.builder(storIOSQLiteTypeClassName, "object")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build());
+
+        addKeyStatement(keyOfBuilder, "return ", keyValues);
+
+        final TypeSpec keyFunction = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(keyFunctionTypeName)
+                .addMethod(keyOfBuilder.build())
+                .build();
+
+        mappingBuilder
+                .addField(FieldSpec.builder(keyFunctionTypeName, "KEY_FUNCTION", PRIVATE, STATIC, FINAL)
+                        .initializer("$L", keyFunction)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("keyFunction")
+                        .addJavadoc("Returns function which gets key of the object from values of its key columns\n")
+                        .addAnnotation(Override.class)
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .addModifiers(PUBLIC)
+                        .returns(keyFunctionTypeName)
+                        .addStatement("return KEY_FUNCTION")
+                        .build());
+    }
 }
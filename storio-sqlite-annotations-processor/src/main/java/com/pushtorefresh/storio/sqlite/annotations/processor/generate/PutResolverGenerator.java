@@ -16,6 +16,7 @@ import java.util.Map;
 
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
+import static com.pushtorefresh.storio.sqlite.annotations.processor.generate.QueryGenerator.createMapToKeyMethodSpec;
 import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 
@@ -32,14 +33,25 @@ public class PutResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
 
-        final TypeSpec putResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder putResolverBuilder = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Put Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.put", "DefaultPutResolver"), storIOSQLiteTypeClassName))
                 .addMethod(createMapToInsertQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
                 .addMethod(createMapToUpdateQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .addMethod(createMapToContentValuesMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .build();
+                .addMethod(createMapToContentValuesMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName));
+
+        final MethodSpec mapToKey = createMapToKeyMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName);
+
+        if (mapToKey != null) {
+            putResolverBuilder.addMethod(mapToKey);
+        }
+
+        if (storIOSQLiteTypeMeta.storIOType.upsert()) {
+            putResolverBuilder.addMethod(createUseUpsertMethodSpec());
+        }
+
+        final TypeSpec putResolver = putResolverBuilder.build();
 
         return JavaFile
                 .builder(storIOSQLiteTypeMeta.packageName, putResolver)
@@ -89,6 +101,17 @@ public class PutResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
                 .build();
     }
 
+    @NotNull
+    private MethodSpec createUseUpsertMethodSpec() {
+        return MethodSpec.methodBuilder("useUpsert")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addModifiers(PROTECTED)
+                .returns(boolean.class)
+                .addStatement("return true")
+                .build();
+    }
+
     @NotNull
     private MethodSpec createMapToContentValuesMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
         final MethodSpec.Builder builder = MethodSpec.methodBuilder("mapToContentValues")
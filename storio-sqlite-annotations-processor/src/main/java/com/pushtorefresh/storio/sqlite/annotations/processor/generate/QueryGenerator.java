@@ -3,17 +3,36 @@ package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NULLABLE_ANNOTATION_CLASS_NAME;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
 public class QueryGenerator {
 
     public static final String WHERE_CLAUSE = "where";
     public static final String WHERE_ARGS = "whereArgs";
 
+    public static final ClassName IDENTITY_MAP_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite", "IdentityMap");
+
     @NotNull
     public static Map<String, String> createWhere(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull String varName) {
         final StringBuilder whereClause = new StringBuilder();
@@ -60,4 +79,91 @@ public class QueryGenerator {
             return result;
         }
     }
+
+    /**
+     * Creates values of key columns of the object for the key of identity map and key function.
+     *
+     * @return list of values, example: ["object.email", "object.userId"]
+     */
+    @NotNull
+    public static List<String> createKeyValues(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull String varName) {
+        final List<String> keyValues = new ArrayList<String>();
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            if (columnMeta.storIOColumn.key()) {
+                keyValues.add(varName + "." + columnMeta.fieldName);
+            }
+        }
+
+        return keyValues;
+    }
+
+    /**
+     * Adds statement which ends with key of the object:
+     * value of the only key column or list of values of key columns.
+     *
+     * @param statementPrefix beginning of the statement, example: "final Object key = ".
+     */
+    public static void addKeyStatement(@NotNull MethodSpec.Builder builder, @NotNull String statementPrefix, @NotNull List<String> keyValues) {
+        if (keyValues.size() == 1) {
+            builder.addStatement(statementPrefix + "$L", keyValues.get(0));
+        } else {
+            final StringBuilder values = new StringBuilder();
+
+            for (final String keyValue : keyValues) {
+                if (values.length() > 0) {
+                    values.append(", ");
+                }
+
+                values.append(keyValue);
+            }
+
+            builder.addStatement(statementPrefix + "$T.<Object>asList($L)", Arrays.class, values.toString());
+        }
+    }
+
+    /**
+     * Generates override of {@code mapToKey()} of default resolvers,
+     * so Put and Delete Operations notify about change of the row with that key only.
+     *
+     * @return spec of the method or {@code null} if type has no key or has composite key.
+     */
+    @Nullable
+    public static MethodSpec createMapToKeyMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
+        final List<String> keyValues = createKeyValues(storIOSQLiteTypeMeta, "object");
+
+        if (keyValues.size() != 1) {
+            return null;
+        }
+
+        return MethodSpec.methodBuilder("mapToKey")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(Object.class)
+                .addParameter(ParameterSpec.builder(storIOSQLiteTypeClassName, "object")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addStatement("return $L", keyValues.get(0))
+                .build();
+    }
+
+    @NotNull
+    public static FieldSpec createIdentityMapFieldSpec(@NotNull ClassName storIOSQLiteTypeClassName) {
+        return FieldSpec.builder(ParameterizedTypeName.get(IDENTITY_MAP_CLASS_NAME, storIOSQLiteTypeClassName), "identityMap", PRIVATE, FINAL)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .build();
+    }
+
+    @NotNull
+    public static MethodSpec createIdentityMapConstructorSpec(@NotNull ClassName storIOSQLiteTypeClassName) {
+        return MethodSpec.constructorBuilder()
+                .addModifiers(PUBLIC)
+                .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(IDENTITY_MAP_CLASS_NAME, storIOSQLiteTypeClassName), "identityMap")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addStatement("this.identityMap = identityMap")
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
+import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteColumn;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
@@ -83,4 +84,146 @@ public class DeleteResolverGeneratorTest {
                 "    }\n" +
                 "}\n");
     }
+
+    @Test
+    public void identityMapShouldNotAffectDeleteResolver() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.identityMapSize()).thenReturn(100);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn1 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn1.name()).thenReturn("column1");
+        when(storIOSQLiteColumn1.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta1 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                JavaType.LONG,
+                storIOSQLiteColumn1
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta1);
+
+        final StorIOSQLiteColumn storIOSQLiteColumn2 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn2.name()).thenReturn("column2");
+        when(storIOSQLiteColumn2.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta2 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field2",
+                JavaType.STRING,
+                storIOSQLiteColumn2
+        );
+        storIOSQLiteTypeMeta.columns.put("column2", storIOSQLiteColumnMeta2);
+
+        final JavaFile javaFile = new DeleteResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;\n" +
+                        "import java.lang.Override;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated resolver for Delete Operation\n" +
+                        " */\n" +
+                        "public class TestItemStorIOSQLiteDeleteResolver extends DefaultDeleteResolver<TestItem> {\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {\n" +
+                        "        return DeleteQuery.builder()\n" +
+                        "            .table(\"test_table\")\n" +
+                        "            .where(\"column1 = ? AND column2 = ?\")\n" +
+                        "            .whereArgs(object.field1, object.field2)\n" +
+                        "            .build();\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
+
+    @Test
+    public void generateJavaFileWithSingleKey() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn.name()).thenReturn("column1");
+        when(storIOSQLiteColumn.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                JavaType.LONG,
+                storIOSQLiteColumn
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta);
+
+        final JavaFile javaFile = new DeleteResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import android.support.annotation.Nullable;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;\n" +
+                        "import java.lang.Object;\n" +
+                        "import java.lang.Override;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated resolver for Delete Operation\n" +
+                        " */\n" +
+                        "public class TestItemStorIOSQLiteDeleteResolver extends DefaultDeleteResolver<TestItem> {\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {\n" +
+                        "        return DeleteQuery.builder()\n" +
+                        "            .table(\"test_table\")\n" +
+                        "            .where(\"column1 = ?\")\n" +
+                        "            .whereArgs(object.field1)\n" +
+                        "            .build();\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @Nullable\n" +
+                        "    protected Object mapToKey(@NonNull TestItem object) {\n" +
+                        "        return object.field1;\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
 }
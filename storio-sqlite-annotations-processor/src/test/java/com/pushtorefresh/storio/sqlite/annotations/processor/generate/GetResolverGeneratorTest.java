@@ -65,24 +65,244 @@ public class GetResolverGeneratorTest {
                 "import android.support.annotation.NonNull;\n" +
                 "import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;\n" +
                 "import java.lang.Override;\n" +
+                "import java.lang.String;\n" +
+                "import java.util.Arrays;\n" +
                 "\n" +
                 "/**\n" +
                 " * Generated resolver for Get Operation\n" +
                 " */\n" +
                 "public class TestItemStorIOSQLiteGetResolver extends DefaultGetResolver<TestItem> {\n" +
                 "    /**\n" +
+                "     * Indices of columns for the last seen layout of columns, indices are immutable, so resolver stays thread-safe\n" +
+                "     */\n" +
+                "    private volatile ColumnIndices columnIndices;\n" +
+                "\n" +
+                "    /**\n" +
                 "     * {@inheritDoc}\n" +
                 "     */\n" +
                 "    @Override\n" +
                 "    @NonNull\n" +
                 "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                "        ColumnIndices indices = columnIndices;\n" +
+                "\n" +
+                "        if (indices == null || !indices.matches(cursor)) {\n" +
+                "            indices = new ColumnIndices(cursor);\n" +
+                "            columnIndices = indices;\n" +
+                "        }\n" +
+                "\n" +
                 "        TestItem object = new TestItem();\n" +
                 "\n" +
-                "        object.field1 = cursor.getInt(cursor.getColumnIndex(\"column1\")) == 1;\n" +
-                "        object.field2 = cursor.getString(cursor.getColumnIndex(\"column2\"));\n" +
+                "        object.field1 = cursor.getInt(indices.field1Index) == 1;\n" +
+                "        object.field2 = cursor.getString(indices.field2Index);\n" +
                 "\n" +
                 "        return object;\n" +
                 "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Indices of columns in the {@link Cursor} with particular layout of columns\n" +
+                "     */\n" +
+                "    private static final class ColumnIndices {\n" +
+                "        /**\n" +
+                "         * Same names as ones used for indices, replaced by array of the last matched cursor\n" +
+                "         */\n" +
+                "        private volatile String[] columnNames;\n" +
+                "\n" +
+                "        private final int field1Index;\n" +
+                "\n" +
+                "        private final int field2Index;\n" +
+                "\n" +
+                "        ColumnIndices(Cursor cursor) {\n" +
+                "            columnNames = cursor.getColumnNames();\n" +
+                "            field1Index = cursor.getColumnIndex(\"column1\");\n" +
+                "            field2Index = cursor.getColumnIndex(\"column2\");\n" +
+                "        }\n" +
+                "\n" +
+                "        boolean matches(Cursor cursor) {\n" +
+                "            String[] otherColumnNames = cursor.getColumnNames();\n" +
+                "            // Cursors usually return same array for each call, so in most cases it's just reference comparison\n" +
+                "            if (otherColumnNames == columnNames) {\n" +
+                "                return true;\n" +
+                "            }\n" +
+                "\n" +
+                "            if (Arrays.equals(otherColumnNames, columnNames)) {\n" +
+                "                // Remember array of this cursor, so its next rows are matched by reference\n" +
+                "                columnNames = otherColumnNames;\n" +
+                "                return true;\n" +
+                "            }\n" +
+                "\n" +
+                "            return false;\n" +
+                "        }\n" +
+                "    }\n" +
                 "}\n");
     }
+
+    @Test
+    public void generateJavaFileWithIdentityMap() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.identityMapSize()).thenReturn(100);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn1 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn1.name()).thenReturn("column1");
+        when(storIOSQLiteColumn1.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta1 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                JavaType.LONG,
+                storIOSQLiteColumn1
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta1);
+
+        final StorIOSQLiteColumn storIOSQLiteColumn2 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn2.name()).thenReturn("column2");
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta2 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field2",
+                JavaType.STRING,
+                storIOSQLiteColumn2
+        );
+        storIOSQLiteTypeMeta.columns.put("column2", storIOSQLiteColumnMeta2);
+
+        final JavaFile javaFile = new GetResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.database.Cursor;\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import android.text.TextUtils;\n" +
+                        "import com.pushtorefresh.storio.sqlite.IdentityMap;\n" +
+                        "import com.pushtorefresh.storio.sqlite.StorIOSQLite;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.Query;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.RawQuery;\n" +
+                        "import java.lang.Override;\n" +
+                        "import java.lang.String;\n" +
+                        "import java.util.Arrays;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated resolver for Get Operation\n" +
+                        " */\n" +
+                        "public class TestItemStorIOSQLiteGetResolver extends DefaultGetResolver<TestItem> {\n" +
+                        "    /**\n" +
+                        "     * Indices of columns for the last seen layout of columns, indices are immutable, so resolver stays thread-safe\n" +
+                        "     */\n" +
+                        "    private volatile ColumnIndices columnIndices;\n" +
+                        "\n" +
+                        "    @NonNull\n" +
+                        "    private final IdentityMap<TestItem> identityMap;\n" +
+                        "\n" +
+                        "    public TestItemStorIOSQLiteGetResolver(@NonNull IdentityMap<TestItem> identityMap) {\n" +
+                        "        this.identityMap = identityMap;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {\n" +
+                        "        return identityMap.track(super.performGet(storIOSQLite, query));\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {\n" +
+                        "        return identityMap.track(super.performGet(storIOSQLite, rawQuery));\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * Checks that object was mapped from the row with same values of columns\n" +
+                        "     */\n" +
+                        "    private static boolean isSameRow(@NonNull TestItem object, @NonNull Cursor cursor, @NonNull ColumnIndices indices) {\n" +
+                        "        return object.field1 == cursor.getLong(indices.field1Index)\n" +
+                        "                && TextUtils.equals(object.field2, cursor.getString(indices.field2Index));\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                        "        ColumnIndices indices = columnIndices;\n" +
+                        "\n" +
+                        "        if (indices == null || !indices.matches(cursor)) {\n" +
+                        "            indices = new ColumnIndices(cursor);\n" +
+                        "            columnIndices = indices;\n" +
+                        "        }\n" +
+                        "\n" +
+                        "        final Object key = cursor.getLong(indices.field1Index);\n" +
+                        "        final long identityMapVersion = identityMap.versionOf(cursor);\n" +
+                        "        final TestItem existingObject = identityMap.get(key);\n" +
+                        "\n" +
+                        "        if (existingObject != null && isSameRow(existingObject, cursor, indices)) {\n" +
+                        "            return existingObject;\n" +
+                        "        }\n" +
+                        "\n" +
+                        "        TestItem object = new TestItem();\n" +
+                        "\n" +
+                        "        object.field1 = cursor.getLong(indices.field1Index);\n" +
+                        "        object.field2 = cursor.getString(indices.field2Index);\n" +
+                        "\n" +
+                        "        identityMap.put(key, object, identityMapVersion);\n" +
+                        "        return object;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * Indices of columns in the {@link Cursor} with particular layout of columns\n" +
+                        "     */\n" +
+                        "    private static final class ColumnIndices {\n" +
+                        "        /**\n" +
+                "         * Same names as ones used for indices, replaced by array of the last matched cursor\n" +
+                "         */\n" +
+                "        private volatile String[] columnNames;\n" +
+                        "\n" +
+                        "        private final int field1Index;\n" +
+                        "\n" +
+                        "        private final int field2Index;\n" +
+                        "\n" +
+                        "        ColumnIndices(Cursor cursor) {\n" +
+                        "            columnNames = cursor.getColumnNames();\n" +
+                        "            field1Index = cursor.getColumnIndex(\"column1\");\n" +
+                        "            field2Index = cursor.getColumnIndex(\"column2\");\n" +
+                        "        }\n" +
+                        "\n" +
+                        "        boolean matches(Cursor cursor) {\n" +
+                        "            String[] otherColumnNames = cursor.getColumnNames();\n" +
+                        "            // Cursors usually return same array for each call, so in most cases it's just reference comparison\n" +
+                        "            if (otherColumnNames == columnNames) {\n" +
+                "                return true;\n" +
+                "            }\n" +
+                "\n" +
+                "            if (Arrays.equals(otherColumnNames, columnNames)) {\n" +
+                "                // Remember array of this cursor, so its next rows are matched by reference\n" +
+                "                columnNames = otherColumnNames;\n" +
+                "                return true;\n" +
+                "            }\n" +
+                "\n" +
+                "            return false;\n" +
+                        "        }\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
 }
@@ -1,6 +1,9 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
+import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteColumn;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 import com.squareup.javapoet.JavaFile;
 
@@ -10,6 +13,7 @@ import java.io.IOException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class MappingGeneratorTest {
     @Test
@@ -46,4 +50,141 @@ public class MappingGeneratorTest {
 
         assertThat(out.toString()).isEqualTo(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void generateJavaFileWithIdentityMap() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.identityMapSize()).thenReturn(100);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final JavaFile javaFile = new MappingGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import com.pushtorefresh.storio.sqlite.IdentityMap;\n" +
+                        "import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;\n" +
+                        "import java.lang.Override;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated mapping with collection of resolvers\n" +
+                        " */\n" +
+                        "public class TestItemSQLiteTypeMapping extends SQLiteTypeMapping<TestItem> {\n" +
+                        "    @NonNull\n" +
+                        "    private final IdentityMap<TestItem> identityMap;\n" +
+                        "\n" +
+                        "    public TestItemSQLiteTypeMapping() {\n" +
+                        "        this(IdentityMap.<TestItem>newInstance(\"test_table\", 100));\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    private TestItemSQLiteTypeMapping(@NonNull IdentityMap<TestItem> identityMap) {\n" +
+                        "        super(new TestItemStorIOSQLitePutResolver(),\n" +
+                        "                new TestItemStorIOSQLiteGetResolver(identityMap),\n" +
+                        "                new TestItemStorIOSQLiteDeleteResolver());\n" +
+                        "        this.identityMap = identityMap;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * Returns identity map of this mapping, it's invalidated by StorIOSQLite after committed changes,\n" +
+                        "     * please clear it after changes that were not reported to StorIOSQLite\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public IdentityMap<TestItem> identityMap() {\n" +
+                        "        return identityMap;\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
+
+    @Test
+    public void generateJavaFileWithKeyFunction() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn1 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn1.name()).thenReturn("column1");
+        when(storIOSQLiteColumn1.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        storIOSQLiteTypeMeta.columns.put("column1", new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                JavaType.LONG,
+                storIOSQLiteColumn1
+        ));
+
+        final StorIOSQLiteColumn storIOSQLiteColumn2 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn2.name()).thenReturn("column2");
+        when(storIOSQLiteColumn2.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        storIOSQLiteTypeMeta.columns.put("column2", new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field2",
+                JavaType.STRING,
+                storIOSQLiteColumn2
+        ));
+
+        final JavaFile javaFile = new MappingGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import android.support.annotation.Nullable;\n" +
+                        "import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.get.ListDiff;\n" +
+                        "import java.lang.Object;\n" +
+                        "import java.lang.Override;\n" +
+                        "import java.util.Arrays;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated mapping with collection of resolvers\n" +
+                        " */\n" +
+                        "public class TestItemSQLiteTypeMapping extends SQLiteTypeMapping<TestItem> {\n" +
+                        "    private static final ListDiff.KeyFunction<TestItem> KEY_FUNCTION = new ListDiff.KeyFunction<TestItem>() {\n" +
+                        "        @Override\n" +
+                        "        @Nullable\n" +
+                        "        public Object keyOf(@NonNull TestItem object) {\n" +
+                        "            return Arrays.<Object>asList(object.field1, object.field2);\n" +
+                        "        }\n" +
+                        "    };\n" +
+                        "\n" +
+                        "    public TestItemSQLiteTypeMapping() {\n" +
+                        "        super(new TestItemStorIOSQLitePutResolver(),\n" +
+                        "                new TestItemStorIOSQLiteGetResolver(),\n" +
+                        "                new TestItemStorIOSQLiteDeleteResolver());\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * Returns function which gets key of the object from values of its key columns\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public ListDiff.KeyFunction<TestItem> keyFunction() {\n" +
+                        "        return KEY_FUNCTION;\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
+}
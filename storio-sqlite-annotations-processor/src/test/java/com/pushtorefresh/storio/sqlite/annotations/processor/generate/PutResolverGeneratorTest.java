@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
+import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteColumn;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
@@ -62,9 +63,11 @@ public class PutResolverGeneratorTest {
                 "\n" +
                 "import android.content.ContentValues;\n" +
                 "import android.support.annotation.NonNull;\n" +
+                "import android.support.annotation.Nullable;\n" +
                 "import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;\n" +
                 "import com.pushtorefresh.storio.sqlite.queries.InsertQuery;\n" +
                 "import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;\n" +
+                "import java.lang.Object;\n" +
                 "import java.lang.Override;\n" +
                 "\n" +
                 "/**\n" +
@@ -108,6 +111,225 @@ public class PutResolverGeneratorTest {
                 "\n" +
                 "        return contentValues;\n" +
                 "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @Nullable\n" +
+                "    protected Object mapToKey(@NonNull TestItem object) {\n" +
+                "        return object.column1Field;\n" +
+                "    }\n" +
                 "}\n");
     }
+
+    @Test
+    public void generateJavaFileWithUpsert() throws IOException {
+        final PutResolverGenerator putResolverGenerator = new PutResolverGenerator();
+
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.upsert()).thenReturn(true);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta("TestItem", "com.test", storIOSQLiteType);
+
+        final StorIOSQLiteColumn storIOSQLiteColumn = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn.name()).thenReturn("column1");
+        when(storIOSQLiteColumn.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "column1Field",
+                null,
+                storIOSQLiteColumn
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta);
+
+        final JavaFile javaFile = putResolverGenerator.generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo("package com.test;\n" +
+                "\n" +
+                "import android.content.ContentValues;\n" +
+                "import android.support.annotation.NonNull;\n" +
+                "import android.support.annotation.Nullable;\n" +
+                "import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;\n" +
+                "import com.pushtorefresh.storio.sqlite.queries.InsertQuery;\n" +
+                "import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;\n" +
+                "import java.lang.Object;\n" +
+                "import java.lang.Override;\n" +
+                "\n" +
+                "/**\n" +
+                " * Generated resolver for Put Operation\n" +
+                " */\n" +
+                "public class TestItemStorIOSQLitePutResolver extends DefaultPutResolver<TestItem> {\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @NonNull\n" +
+                "    protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {\n" +
+                "        return InsertQuery.builder()\n" +
+                "            .table(\"test_table\")\n" +
+                "            .build();\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @NonNull\n" +
+                "    protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {\n" +
+                "        return UpdateQuery.builder()\n" +
+                "            .table(\"test_table\")\n" +
+                "            .where(\"column1 = ?\")\n" +
+                "            .whereArgs(object.column1Field)\n" +
+                "            .build();\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @NonNull\n" +
+                "    public ContentValues mapToContentValues(@NonNull TestItem object) {\n" +
+                "        ContentValues contentValues = new ContentValues(1);\n" +
+                "\n" +
+                "        contentValues.put(\"column1\", object.column1Field);\n" +
+                "\n" +
+                "        return contentValues;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @Nullable\n" +
+                "    protected Object mapToKey(@NonNull TestItem object) {\n" +
+                "        return object.column1Field;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    protected boolean useUpsert() {\n" +
+                "        return true;\n" +
+                "    }\n" +
+                "}\n");
+    }
+
+    @Test
+    public void identityMapShouldNotAffectPutResolver() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.identityMapSize()).thenReturn(100);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn1 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn1.name()).thenReturn("column1");
+        when(storIOSQLiteColumn1.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta1 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                JavaType.LONG,
+                storIOSQLiteColumn1
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta1);
+
+        final StorIOSQLiteColumn storIOSQLiteColumn2 = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn2.name()).thenReturn("column2");
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta2 = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field2",
+                JavaType.STRING,
+                storIOSQLiteColumn2
+        );
+        storIOSQLiteTypeMeta.columns.put("column2", storIOSQLiteColumnMeta2);
+
+        final JavaFile javaFile = new PutResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo(
+                        "package com.test;\n" +
+                        "\n" +
+                        "import android.content.ContentValues;\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import android.support.annotation.Nullable;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.InsertQuery;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;\n" +
+                        "import java.lang.Object;\n" +
+                        "import java.lang.Override;\n" +
+                        "\n" +
+                        "/**\n" +
+                        " * Generated resolver for Put Operation\n" +
+                        " */\n" +
+                        "public class TestItemStorIOSQLitePutResolver extends DefaultPutResolver<TestItem> {\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {\n" +
+                        "        return InsertQuery.builder()\n" +
+                        "            .table(\"test_table\")\n" +
+                        "            .build();\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {\n" +
+                        "        return UpdateQuery.builder()\n" +
+                        "            .table(\"test_table\")\n" +
+                        "            .where(\"column1 = ?\")\n" +
+                        "            .whereArgs(object.field1)\n" +
+                        "            .build();\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    public ContentValues mapToContentValues(@NonNull TestItem object) {\n" +
+                        "        ContentValues contentValues = new ContentValues(2);\n" +
+                        "\n" +
+                        "        contentValues.put(\"column1\", object.field1);\n" +
+                        "        contentValues.put(\"column2\", object.field2);\n" +
+                        "\n" +
+                        "        return contentValues;\n" +
+                        "    }\n" +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @Nullable\n" +
+                        "    protected Object mapToKey(@NonNull TestItem object) {\n" +
+                        "        return object.field1;\n" +
+                        "    }\n" +
+                        "}\n"
+                );
+    }
 }
@@ -19,4 +19,21 @@ public @interface StorIOSQLiteType {
      * @return table name
      */
     String table();
+
+    /**
+     * Optional: generates Put Resolver that performs "update" first and "insert" only
+     * if no rows were updated, without querying for existing rows before write
+     *
+     * @return true if generated Put Resolver should perform upsert, false otherwise
+     */
+    boolean upsert() default false;
+
+    /**
+     * Optional: max number of objects in identity map of generated mapping,
+     * so Get Resolver returns same instance for unchanged row with same key instead of allocating new one.
+     * Objects are shared between readers, so please use it only for immutable objects
+     *
+     * @return size of identity map, 0 disables identity map
+     */
+    int identityMapSize() default 0;
 }
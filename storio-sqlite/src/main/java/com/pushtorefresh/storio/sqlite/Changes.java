@@ -1,14 +1,23 @@
 package com.pushtorefresh.storio.sqlite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 
 /**
  * Immutable container of information about one or more changes happened in {@link StorIOSQLite}.
+ * <p>
+ * Changes can optionally carry keys of affected rows per table, so Get Operations
+ * which observe only some rows can skip re-query if other rows were changed.
+ * Table without keys means that any row of it could be changed.
  */
 public final class Changes {
 
@@ -18,14 +27,22 @@ public final class Changes {
     @NonNull
     private final Set<String> affectedTables;
 
+    /**
+     * Immutable map of affected table to immutable set of keys of affected rows.
+     */
+    @NonNull
+    private final Map<String, Set<String>> affectedKeys;
+
     /**
      * Creates {@link Changes} container with info about changes.
      *
      * @param affectedTables set of tables which were affected by these changes.
+     * @param affectedKeys   keys of affected rows for tables with row-level info.
      */
-    private Changes(@NonNull Set<String> affectedTables) {
+    private Changes(@NonNull Set<String> affectedTables, @NonNull Map<String, Set<String>> affectedKeys) {
         checkNotNull(affectedTables, "Please specify affected tables");
         this.affectedTables = Collections.unmodifiableSet(affectedTables);
+        this.affectedKeys = Collections.unmodifiableMap(affectedKeys);
     }
 
     /**
@@ -36,7 +53,72 @@ public final class Changes {
      */
     @NonNull
     public static Changes newInstance(@NonNull Set<String> affectedTables) {
-        return new Changes(affectedTables);
+        return new Changes(affectedTables, Collections.<String, Set<String>>emptyMap());
+    }
+
+    /**
+     * Creates new instance of {@link Changes} with keys of affected rows.
+     *
+     * @param affectedTables non-null set of affected tables.
+     * @param affectedKeys   non-null map of table to non-empty collection of keys of affected rows,
+     *                       tables which are not present in the map are treated as changed entirely.
+     * @return new immutable instance of {@link Changes}.
+     */
+    @NonNull
+    public static Changes newInstance(@NonNull Set<String> affectedTables,
+                                      @NonNull Map<String, ? extends Collection<?>> affectedKeys) {
+        checkNotNull(affectedTables, "Please specify affected tables");
+        checkNotNull(affectedKeys, "Please specify affected keys");
+
+        final Map<String, Set<String>> keys = new HashMap<String, Set<String>>(affectedKeys.size());
+
+        for (Map.Entry<String, ? extends Collection<?>> entry : affectedKeys.entrySet()) {
+            if (!affectedTables.contains(entry.getKey())) {
+                throw new IllegalArgumentException("Keys of table which is not affected: "
+                        + "table = " + entry.getKey() + ", affectedTables = " + affectedTables);
+            }
+
+            keys.put(entry.getKey(), keysToStrings(entry.getValue()));
+        }
+
+        return new Changes(affectedTables, keys);
+    }
+
+    /**
+     * Creates new instance of {@link Changes} with keys of affected rows of one table.
+     *
+     * @param affectedTable table that was affected.
+     * @param affectedKeys  non-empty collection of keys of affected rows.
+     * @return new immutable instance of {@link Changes}.
+     */
+    @NonNull
+    public static Changes newInstance(@NonNull String affectedTable, @NonNull Collection<?> affectedKeys) {
+        checkNotNull(affectedTable, "Please specify affected table");
+        return new Changes(
+                Collections.singleton(affectedTable),
+                Collections.singletonMap(affectedTable, keysToStrings(affectedKeys))
+        );
+    }
+
+    /**
+     * Converts keys to strings, same as SQLite compares them with arguments of the query.
+     */
+    @NonNull
+    private static Set<String> keysToStrings(@NonNull Collection<?> keys) {
+        checkNotNull(keys, "Please specify affected keys");
+
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Affected keys must contain at least one element");
+        }
+
+        final Set<String> result = new HashSet<String>(keys.size());
+
+        for (Object key : keys) {
+            checkNotNull(key, "Affected key can not be null");
+            result.add(String.valueOf(key));
+        }
+
+        return Collections.unmodifiableSet(result);
     }
 
     /**
@@ -48,7 +130,7 @@ public final class Changes {
     @NonNull
     public static Changes newInstance(@NonNull String affectedTable) {
         checkNotNull(affectedTable, "Please specify affected table");
-        return new Changes(Collections.singleton(affectedTable));
+        return new Changes(Collections.singleton(affectedTable), Collections.<String, Set<String>>emptyMap());
     }
 
     /**
@@ -61,6 +143,30 @@ public final class Changes {
         return affectedTables;
     }
 
+    /**
+     * Gets immutable map of affected table to keys of affected rows.
+     * <p>
+     * Affected table which is not present in the map was changed entirely.
+     *
+     * @return immutable map of table to immutable set of keys converted to strings.
+     */
+    @NonNull
+    public Map<String, Set<String>> affectedKeys() {
+        return affectedKeys;
+    }
+
+    /**
+     * Gets keys of affected rows of the table.
+     *
+     * @param table table.
+     * @return immutable set of keys converted to strings
+     * or {@code null} if any row of the table could be changed or table was not affected.
+     */
+    @Nullable
+    public Set<String> affectedKeys(@NonNull String table) {
+        return affectedKeys.get(table);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -68,18 +174,22 @@ public final class Changes {
 
         Changes changes = (Changes) o;
 
-        return affectedTables.equals(changes.affectedTables);
+        if (!affectedTables.equals(changes.affectedTables)) return false;
+        return affectedKeys.equals(changes.affectedKeys);
     }
 
     @Override
     public int hashCode() {
-        return affectedTables.hashCode();
+        int result = affectedTables.hashCode();
+        result = 31 * result + affectedKeys.hashCode();
+        return result;
     }
 
     @Override
     public String toString() {
         return "Changes{" +
                 "affectedTables=" + affectedTables +
+                ", affectedKeys=" + affectedKeys +
                 '}';
     }
 }
@@ -0,0 +1,292 @@
+package com.pushtorefresh.storio.sqlite;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
+
+/**
+ * Size-bounded LRU map from primary key of the row to the object mapped from it,
+ * allows Get Resolver to return same instance for the row each time it's read
+ * instead of allocating new object.
+ * <p>
+ * Map is invalidated by {@link #invalidate(Changes)} after changes of its table are committed:
+ * {@link com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite} does it for maps returned by
+ * {@link SQLiteTypeMapping#identityMap()} of registered mappings.
+ * Get Resolver compares the row with the existing object before returning it,
+ * so object changed by uncommitted or not yet reported changes is mapped again.
+ * Changes that were not reported via {@link StorIOSQLite.Internal#notifyAboutChanges(Changes)}
+ * are not tracked, please call {@link #clear()} after them.
+ * Objects are shared between all readers, so please enable identity map only for immutable objects.
+ * <p>
+ * Object read before concurrent invalidation is not stored: Get Resolver tracks cursor via {@link #track(Cursor)}
+ * before reading rows and passes {@link #versionOf(Cursor)} to {@link #put(Object, Object, long)}.
+ * <p>
+ * Key is the value of the key column or {@link java.util.List} of values of key columns.
+ * <p>
+ * Thread-safe.
+ *
+ * @param <T> type of objects.
+ */
+public final class IdentityMap<T> {
+
+    @NonNull
+    private final String table;
+
+    private final int maxSize;
+
+    /**
+     * Guarded by {@code this}.
+     * Access-ordered: iteration starts from the least recently used object.
+     */
+    @NonNull
+    private final LinkedHashMap<Object, T> objects;
+
+    /**
+     * Incremented by each removal and invalidation, guarded by {@code this}.
+     */
+    private long version;
+
+    private long hitCount; // guarded by this
+
+    private long missCount; // guarded by this
+
+    private IdentityMap(@NonNull String table, int maxSize) {
+        this.table = table;
+        this.maxSize = maxSize;
+        objects = new LinkedHashMap<Object, T>(maxSize, 0.75f, true);
+    }
+
+    /**
+     * Creates new instance of {@link IdentityMap}.
+     *
+     * @param table   table of the rows, its changes invalidate the map.
+     * @param maxSize max number of objects in the map, must be positive.
+     * @param <T>     type of objects.
+     * @return new instance of {@link IdentityMap}.
+     */
+    @NonNull
+    public static <T> IdentityMap<T> newInstance(@NonNull String table, int maxSize) {
+        checkNotEmpty(table, "Please specify table");
+
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be positive, but was = " + maxSize);
+        }
+
+        return new IdentityMap<T>(table, maxSize);
+    }
+
+    /**
+     * Gets object previously mapped from the row with passed key and counts hit or miss.
+     *
+     * @param key key of the row.
+     * @return object or {@code null} if there is no object for the key.
+     */
+    @Nullable
+    public synchronized T get(@NonNull Object key) {
+        final T object = objects.get(key);
+
+        if (object != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+
+        return object;
+    }
+
+    /**
+     * Stores object mapped from the row with passed key.
+     *
+     * @param key    key of the row.
+     * @param object object mapped from the row.
+     */
+    public synchronized void put(@NonNull Object key, @NonNull T object) {
+        objects.put(key, object);
+
+        if (objects.size() > maxSize) {
+            final Iterator<Map.Entry<Object, T>> eldest = objects.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Stores object mapped from the row with passed key.
+     * Object is ignored if some objects were removed after {@code version} was taken,
+     * because its row can be read before the change.
+     *
+     * @param key     key of the row.
+     * @param object  object mapped from the row.
+     * @param version value of {@link #version()} taken before the row was read.
+     */
+    public synchronized void put(@NonNull Object key, @NonNull T object, long version) {
+        if (this.version == version) {
+            put(key, object);
+        }
+    }
+
+    /**
+     * Gets current version of the map, it should be taken before rows are read
+     * and passed to {@link #put(Object, Object, long)} after mapping.
+     *
+     * @return current version of the map.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Remembers current version of the map together with the cursor,
+     * should be called before the cursor reads any rows.
+     *
+     * @param cursor cursor of the query.
+     * @return cursor that gives its rows to {@link #versionOf(Cursor)}.
+     */
+    @NonNull
+    public Cursor track(@NonNull Cursor cursor) {
+        return new TrackedCursor(this, cursor, version());
+    }
+
+    /**
+     * Gets version of the map that was taken by {@link #track(Cursor)}.
+     *
+     * @param cursor cursor that is being mapped.
+     * @return version taken before the query or current version if cursor was not tracked by this map.
+     */
+    public long versionOf(@NonNull Cursor cursor) {
+        if (cursor instanceof TrackedCursor && ((TrackedCursor) cursor).identityMap == this) {
+            return ((TrackedCursor) cursor).version;
+        } else {
+            return version();
+        }
+    }
+
+    /**
+     * Removes objects of rows affected by committed changes:
+     * objects of changed keys or all objects if the table was changed without keys.
+     * <p>
+     * Changes carry keys converted by {@link String#valueOf(Object)}, so each object of the map
+     * is checked, their number is bounded by {@link #maxSize()}.
+     *
+     * @param changes committed changes.
+     */
+    public synchronized void invalidate(@NonNull Changes changes) {
+        if (!changes.affectedTables().contains(table)) {
+            return;
+        }
+
+        version++;
+
+        final Set<String> keys = changes.affectedKeys(table);
+
+        if (keys == null) {
+            objects.clear();
+            return;
+        }
+
+        final Iterator<Object> iterator = objects.keySet().iterator();
+
+        while (iterator.hasNext()) {
+            if (keys.contains(String.valueOf(iterator.next()))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes object of the row with passed key.
+     *
+     * @param key key of the row, {@code null} key of object that was not inserted yet is ignored.
+     */
+    public synchronized void remove(@Nullable Object key) {
+        version++;
+        objects.remove(key);
+    }
+
+    /**
+     * Removes all objects.
+     */
+    public synchronized void clear() {
+        version++;
+        objects.clear();
+    }
+
+    /**
+     * Gets table of the rows.
+     *
+     * @return table of the rows.
+     */
+    @NonNull
+    public String table() {
+        return table;
+    }
+
+    /**
+     * Gets max number of objects in the map.
+     *
+     * @return max number of objects.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets number of objects in the map.
+     *
+     * @return number of objects.
+     */
+    public synchronized int size() {
+        return objects.size();
+    }
+
+    /**
+     * Gets number of lookups that found existing object for the key of the row.
+     *
+     * @return number of hits.
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets number of lookups that found no object for the key of the row.
+     *
+     * @return number of misses.
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "IdentityMap{" +
+                "table='" + table + '\'' +
+                ", maxSize=" + maxSize +
+                ", size=" + objects.size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                '}';
+    }
+
+    private static final class TrackedCursor extends CursorWrapper {
+
+        @NonNull
+        private final IdentityMap<?> identityMap;
+
+        private final long version;
+
+        TrackedCursor(@NonNull IdentityMap<?> identityMap, @NonNull Cursor cursor, long version) {
+            super(cursor);
+            this.identityMap = identityMap;
+            this.version = version;
+        }
+    }
+}
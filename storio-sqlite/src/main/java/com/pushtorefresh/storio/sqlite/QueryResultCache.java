@@ -0,0 +1,238 @@
+package com.pushtorefresh.storio.sqlite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size-bounded LRU cache of mapped results of Get Operations.
+ * <p>
+ * Results are stored together with tables they were read from and are evicted
+ * when {@link StorIOSQLite.Internal#notifyAboutChanges(Changes)} reports changes in any of these tables.
+ * Results are not stored while transactions are running, because they can contain uncommitted changes.
+ * Cached objects are shared between all callers, so please enable cache only for immutable objects.
+ * <p>
+ * Thread-safe.
+ */
+public final class QueryResultCache {
+
+    private final int maxSize;
+
+    /**
+     * Guarded by {@code this}.
+     * Access-ordered: iteration starts from the least recently used result.
+     */
+    @NonNull
+    private final LinkedHashMap<Object, Entry> entries;
+
+    /**
+     * Incremented by each invalidation, guarded by {@code this}.
+     */
+    private long version;
+
+    /**
+     * Number of running transactions, guarded by {@code this}.
+     */
+    private int runningTransactions;
+
+    private long hitCount; // guarded by this
+
+    private long missCount; // guarded by this
+
+    private QueryResultCache(int maxSize) {
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<Object, Entry>(maxSize, 0.75f, true);
+    }
+
+    /**
+     * Creates new instance of {@link QueryResultCache}.
+     *
+     * @param maxSize max number of cached results, must be positive.
+     * @return new instance of {@link QueryResultCache}.
+     */
+    @NonNull
+    public static QueryResultCache newInstance(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be positive, but was = " + maxSize);
+        }
+
+        return new QueryResultCache(maxSize);
+    }
+
+    /**
+     * Gets cached result and counts hit or miss.
+     * <p>
+     * For internal usage only!
+     *
+     * @param key key of the result.
+     * @return cached result or {@code null} if there is no result for the key.
+     */
+    @Nullable
+    public synchronized Object get(@NonNull Object key) {
+        final Entry entry = entries.get(key);
+
+        if (entry != null) {
+            hitCount++;
+            return entry.result;
+        } else {
+            missCount++;
+            return null;
+        }
+    }
+
+    /**
+     * Gets current version of the cache, it should be taken before the query
+     * and passed to {@link #put(Object, Set, Object, long)} after it.
+     * <p>
+     * For internal usage only!
+     *
+     * @return current version of the cache.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Stores result of the query.
+     * Result is ignored if some tables were changed after {@code version} was taken,
+     * because it can be read before the change, or if some transaction is running,
+     * because it can be read from uncommitted changes.
+     * <p>
+     * For internal usage only!
+     *
+     * @param key     key of the result.
+     * @param tables  tables that were read by the query, change in any of them evicts the result.
+     * @param result  result of the query.
+     * @param version value of {@link #version()} taken before the query.
+     */
+    public synchronized void put(@NonNull Object key, @NonNull Set<String> tables, @NonNull Object result, long version) {
+        if (this.version != version || runningTransactions > 0) {
+            return;
+        }
+
+        entries.put(key, new Entry(tables, result));
+
+        if (entries.size() > maxSize) {
+            final Iterator<Map.Entry<Object, Entry>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Notifies cache that transaction was begun, results will not be stored until it ends.
+     * <p>
+     * For internal usage only!
+     */
+    public synchronized void onTransactionBegun() {
+        runningTransactions++;
+    }
+
+    /**
+     * Notifies cache that transaction was ended either by commit or by rollback.
+     * <p>
+     * For internal usage only!
+     */
+    public synchronized void onTransactionEnded() {
+        runningTransactions--;
+    }
+
+    /**
+     * Evicts results that were read from any of passed tables.
+     *
+     * @param tables changed tables.
+     */
+    public synchronized void invalidate(@NonNull Set<String> tables) {
+        version++;
+
+        final Iterator<Entry> iterator = entries.values().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().readsAnyOf(tables)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Evicts all results.
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    /**
+     * Gets max number of cached results.
+     *
+     * @return max number of cached results.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets number of cached results.
+     *
+     * @return number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets number of Get Operations that were served from the cache.
+     *
+     * @return number of hits.
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets number of Get Operations that did not find their result in the cache and queried the database.
+     *
+     * @return number of misses.
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "QueryResultCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + entries.size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                '}';
+    }
+
+    private static final class Entry {
+
+        @NonNull
+        private final Set<String> tables;
+
+        @NonNull
+        private final Object result;
+
+        Entry(@NonNull Set<String> tables, @NonNull Object result) {
+            this.tables = tables;
+            this.result = result;
+        }
+
+        boolean readsAnyOf(@NonNull Set<String> changedTables) {
+            for (String table : changedTables) {
+                if (tables.contains(table)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
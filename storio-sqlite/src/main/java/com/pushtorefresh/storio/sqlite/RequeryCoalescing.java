@@ -0,0 +1,83 @@
+package com.pushtorefresh.storio.sqlite;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Policy of coalescing of queries which Observables of Get Operations re-execute
+ * after {@link Changes} of observed tables, so burst of Put or Delete Operations
+ * does not trigger re-query per each change.
+ * <p>
+ * See {@link StorIOSQLite#requeryCoalescing()}.
+ * <p>
+ * Instances of this class are Immutable.
+ */
+public final class RequeryCoalescing {
+
+    private final long windowMillis;
+
+    private RequeryCoalescing(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Skips re-queries while previous re-query is in flight or queued:
+     * all changes that arrive meanwhile trigger one re-query after it.
+     *
+     * @return policy which coalesces changes while query is busy.
+     */
+    @NonNull
+    public static RequeryCoalescing whileBusy() {
+        return new RequeryCoalescing(0);
+    }
+
+    /**
+     * Same as {@link #whileBusy()}, but also re-executes query at most once per time window:
+     * changes are collected until the end of the window, so first re-query is delayed up to {@code time}.
+     *
+     * @param time time window, must be positive.
+     * @param unit unit of time.
+     * @return policy which coalesces changes within time window.
+     */
+    @NonNull
+    public static RequeryCoalescing window(long time, @NonNull TimeUnit unit) {
+        if (time <= 0) {
+            throw new IllegalArgumentException("time should be positive, but was = " + time);
+        }
+
+        // Sub-millisecond windows are rounded up, otherwise they would silently become whileBusy()
+        return new RequeryCoalescing(Math.max(1, unit.toMillis(time)));
+    }
+
+    /**
+     * Gets time window of the policy.
+     *
+     * @return time window in milliseconds or {@code 0} if changes are coalesced only while query is busy.
+     */
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RequeryCoalescing that = (RequeryCoalescing) o;
+
+        return windowMillis == that.windowMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (windowMillis ^ (windowMillis >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "RequeryCoalescing{" +
+                "windowMillis=" + windowMillis +
+                '}';
+    }
+}
@@ -1,9 +1,11 @@
 package com.pushtorefresh.storio.sqlite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
 import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.ListDiff;
 import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
@@ -47,6 +49,28 @@ public class SQLiteTypeMapping<T> {
         return deleteResolver;
     }
 
+    /**
+     * Gets identity map shared by resolvers of this mapping,
+     * {@link com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite} invalidates it after committed changes.
+     *
+     * @return identity map or {@code null} if mapping does not use it.
+     */
+    @Nullable
+    public IdentityMap<T> identityMap() {
+        return null;
+    }
+
+    /**
+     * Gets function which gets key of the object, used by
+     * {@link com.pushtorefresh.storio.sqlite.operations.get.PreparedGetListOfObjects#createDiffObservable()}.
+     *
+     * @return key function or {@code null} if mapping does not know keys of objects.
+     */
+    @Nullable
+    public ListDiff.KeyFunction<T> keyFunction() {
+        return null;
+    }
+
     /**
      * Creates new builder for {@link SQLiteTypeMapping}.
      *
@@ -2,14 +2,17 @@ package com.pushtorefresh.storio.sqlite;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
+import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.operations.delete.PreparedDelete;
 import com.pushtorefresh.storio.sqlite.operations.execute.PreparedExecuteSQL;
 import com.pushtorefresh.storio.sqlite.operations.get.PreparedGet;
 import com.pushtorefresh.storio.sqlite.operations.put.PreparedPut;
+import com.pushtorefresh.storio.sqlite.operations.writebehind.WriteBehindExecutor;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
@@ -18,11 +21,15 @@ import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import java.io.Closeable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import rx.Observable;
+import rx.Scheduler;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 
 /**
  * Powerful but simple abstraction for {@link android.database.sqlite.SQLiteDatabase}.
@@ -76,6 +83,17 @@ public abstract class StorIOSQLite implements Closeable {
         return new PreparedDelete.Builder(this);
     }
 
+    /**
+     * Prepares opt-in {@link WriteBehindExecutor} for {@link StorIOSQLite}.
+     * Allows to execute Put and Delete Operations from many threads in group-committed transactions.
+     *
+     * @return builder for {@link WriteBehindExecutor}.
+     */
+    @NonNull
+    public WriteBehindExecutor.Builder writeBehindExecutor() {
+        return new WriteBehindExecutor.Builder(this);
+    }
+
     /**
      * Allows observe changes in all tables of the db.
      * <p/>
@@ -141,6 +159,77 @@ public abstract class StorIOSQLite implements Closeable {
         return observeChangesInTables(Collections.singleton(table));
     }
 
+    /**
+     * Gets {@link Scheduler} on which Observables of Get Operations re-execute their queries
+     * after changes of observed tables, so thread which performed Put or Delete Operation
+     * is not blocked by queries of subscribers.
+     * <p>
+     * Default implementation returns {@code null}.
+     *
+     * @return scheduler for re-queries or {@code null} if queries should be re-executed
+     * on the thread which notified about changes.
+     */
+    @Nullable
+    public Scheduler requeryScheduler() {
+        return null;
+    }
+
+    /**
+     * Gets default policy of coalescing of re-queries which Observables of Get Operations
+     * execute after changes of observed tables, it can be overridden per operation via
+     * {@link PreparedGet#createObservable(RequeryCoalescing)}.
+     * <p>
+     * Default implementation returns {@code null}.
+     *
+     * @return policy or {@code null} if each change should trigger re-query.
+     */
+    @Nullable
+    public RequeryCoalescing requeryCoalescing() {
+        return null;
+    }
+
+    /**
+     * Executes {@code callable} in transaction, so all operations performed by it
+     * will be committed or rolled back together.
+     * <p>
+     * Transaction is committed if {@code callable} returns normally and rolled back
+     * if it throws an exception, which is rethrown as {@link StorIOException}.
+     * Subscribers are notified about all changes made in transaction
+     * once, after the outermost transaction ends.
+     * <p>
+     * Default implementation uses {@link Internal#beginTransaction()}, so nested
+     * calls are merged into the outer transaction: if nested {@code callable} fails,
+     * whole outer transaction will be rolled back.
+     * Implementations can use savepoints to roll back only the nested part.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread.
+     *
+     * @param callable work that should be done in transaction.
+     * @param <Result> type of result.
+     * @return result of {@code callable}.
+     */
+    @WorkerThread
+    @Nullable
+    public <Result> Result runInTransaction(@NonNull Callable<Result> callable) {
+        checkNotNull(callable, "Please specify callable");
+
+        final Internal internal = internal();
+
+        internal.beginTransaction();
+
+        try {
+            final Result result = callable.call();
+            internal.setTransactionSuccessful();
+            return result;
+        } catch (StorIOException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        } finally {
+            internal.endTransaction();
+        }
+    }
+
     /**
      * Hides some internal operations of {@link StorIOSQLite}
      * to make API of {@link StorIOSQLite} clean and easy to understand.
@@ -201,6 +290,53 @@ public abstract class StorIOSQLite implements Closeable {
         @NonNull
         public abstract Cursor query(@NonNull Query query);
 
+        /**
+         * Executes raw query which returns single numeric value,
+         * for example {@code SELECT COUNT(*)} or {@code SELECT MAX(...)}.
+         * <p>
+         * Implementation can execute it via compiled statement without allocation of {@link Cursor}.
+         * <p>
+         * Default implementation reads value from {@link #rawQuery(RawQuery)}.
+         *
+         * @param rawQuery sql query.
+         * @return value of the first column of the first row, {@code NULL} value is returned as {@code 0}.
+         * {@code null} if query returned no rows.
+         */
+        @WorkerThread
+        @Nullable
+        public Long simpleQueryForLong(@NonNull RawQuery rawQuery) {
+            final Cursor cursor = rawQuery(rawQuery);
+
+            try {
+                return cursor.moveToFirst() ? cursor.getLong(0) : null;
+            } finally {
+                cursor.close();
+            }
+        }
+
+        /**
+         * Executes raw query which returns single text value.
+         * <p>
+         * Implementation can execute it via compiled statement without allocation of {@link Cursor}.
+         * <p>
+         * Default implementation reads value from {@link #rawQuery(RawQuery)}.
+         *
+         * @param rawQuery sql query.
+         * @return value of the first column of the first row as text,
+         * {@code null} if value is {@code NULL} or query returned no rows.
+         */
+        @WorkerThread
+        @Nullable
+        public String simpleQueryForString(@NonNull RawQuery rawQuery) {
+            final Cursor cursor = rawQuery(rawQuery);
+
+            try {
+                return cursor.moveToFirst() ? cursor.getString(0) : null;
+            } finally {
+                cursor.close();
+            }
+        }
+
         /**
          * Inserts a row into the database.
          *
@@ -252,6 +388,90 @@ public abstract class StorIOSQLite implements Closeable {
         @WorkerThread
         public abstract int delete(@NonNull DeleteQuery deleteQuery);
 
+        /**
+         * Inserts a row into the database via compiled statement.
+         * <p>
+         * Implementation can cache compiled statement and reuse it for next inserts
+         * into the same table with the same set of columns and conflict algorithm,
+         * so they will skip building of SQL and its compilation.
+         * <p>
+         * Default implementation delegates to {@link #insert(InsertQuery, ContentValues)}
+         * or {@link #insertWithOnConflict(InsertQuery, ContentValues, int)}.
+         *
+         * @param insertQuery       query.
+         * @param contentValues     map that contains the initial column values for the row.
+         *                          The keys should be the column names and the values the column values.
+         * @param conflictAlgorithm for insert conflict resolver,
+         *                          {@link android.database.sqlite.SQLiteDatabase#CONFLICT_NONE} to throw exception on conflict.
+         * @return id of inserted row.
+         */
+        @WorkerThread
+        public long insertWithCompiledStatement(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues, int conflictAlgorithm) {
+            return conflictAlgorithm == SQLiteDatabase.CONFLICT_NONE
+                    ? insert(insertQuery, contentValues)
+                    : insertWithOnConflict(insertQuery, contentValues, conflictAlgorithm);
+        }
+
+        /**
+         * Updates one or multiple rows in the database via compiled statement.
+         * <p>
+         * Implementation can cache compiled statement and reuse it for next updates
+         * of the same table with the same set of columns and where clause.
+         * <p>
+         * Default implementation delegates to {@link #update(UpdateQuery, ContentValues)}.
+         *
+         * @param updateQuery   query.
+         * @param contentValues a map from column names to new column values.
+         *                      {@code null} is a valid value that will be translated to {@code NULL}.
+         * @return the number of rows affected.
+         */
+        @WorkerThread
+        public int updateWithCompiledStatement(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues) {
+            return update(updateQuery, contentValues);
+        }
+
+        /**
+         * Deletes one or multiple rows in the database via compiled statement.
+         * <p>
+         * Implementation can cache compiled statement and reuse it for next deletes
+         * from the same table with the same where clause.
+         * <p>
+         * Default implementation delegates to {@link #delete(DeleteQuery)}.
+         *
+         * @param deleteQuery query.
+         * @return the number of rows deleted.
+         */
+        @WorkerThread
+        public int deleteWithCompiledStatement(@NonNull DeleteQuery deleteQuery) {
+            return delete(deleteQuery);
+        }
+
+        /**
+         * Inserts multiple rows into the database.
+         * <p>
+         * Implementation can group rows with the same set of columns into multi-row
+         * {@code INSERT ... VALUES (...), (...)} statements, so it will execute
+         * much less statements than separate insert of each row.
+         * <p>
+         * Default implementation inserts rows one by one via
+         * {@link #insertWithCompiledStatement(InsertQuery, ContentValues, int)}.
+         *
+         * @param insertQuery   query.
+         * @param contentValues list of initial column values for each row.
+         * @return ids of inserted rows in the same order as {@code contentValues}.
+         */
+        @WorkerThread
+        @NonNull
+        public long[] bulkInsert(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> contentValues) {
+            final long[] insertedIds = new long[contentValues.size()];
+
+            for (int i = 0; i < insertedIds.length; i++) {
+                insertedIds[i] = insertWithCompiledStatement(insertQuery, contentValues.get(i), SQLiteDatabase.CONFLICT_NONE);
+            }
+
+            return insertedIds;
+        }
+
         /**
          * Notifies subscribers about changes happened in {@link StorIOSQLite}.
          * Operations can be executed in transaction or one operation can affect multiple tables,
@@ -303,5 +523,37 @@ public abstract class StorIOSQLite implements Closeable {
          * how to use this and when transactions are committed and rolled back.
          */
         public abstract void endTransaction();
+
+        /**
+         * Temporarily commits current transaction to let other threads use the database
+         * if they are waiting for it, then begins new transaction.
+         * Allows long running transaction to not block readers for too long.
+         * <p>
+         * Changes made before the yield are committed and can not be rolled back by this transaction.
+         * Transaction can be yielded only if it is not nested and not marked as successful.
+         * <p>
+         * Default implementation never yields.
+         *
+         * @return {@code true} if transaction was yielded, {@code false} otherwise.
+         */
+        @WorkerThread
+        public boolean yieldIfContendedSafely() {
+            return false;
+        }
+
+        /**
+         * Gets cache of mapped results of Get Operations.
+         * <p>
+         * Implementation is responsible for invalidation of the cache
+         * on {@link #notifyAboutChanges(Changes)}.
+         * <p>
+         * Default implementation has no cache.
+         *
+         * @return cache or {@code null} if results should not be cached.
+         */
+        @Nullable
+        public QueryResultCache queryResultCache() {
+            return null;
+        }
     }
 }
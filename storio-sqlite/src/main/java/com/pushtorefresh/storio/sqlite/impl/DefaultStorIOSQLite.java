@@ -2,13 +2,22 @@ package com.pushtorefresh.storio.sqlite.impl;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
+import com.pushtorefresh.storio.Queries;
+import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.internal.ChangesBus;
 import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.IdentityMap;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
@@ -18,14 +27,20 @@ import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 import static com.pushtorefresh.storio.internal.Environment.RX_JAVA_IS_IN_THE_CLASS_PATH;
@@ -40,12 +55,82 @@ import static java.util.Collections.unmodifiableMap;
  */
 public class DefaultStorIOSQLite extends StorIOSQLite {
 
+    /**
+     * Max number of compiled statements that will be kept for reuse.
+     */
+    static final int STATEMENT_CACHE_SIZE = 25;
+
+    /**
+     * Default value of SQLITE_MAX_VARIABLE_NUMBER — max number of bind args in one statement.
+     */
+    static final int MAX_BIND_ARGS = 999;
+
+    /**
+     * SQLite before 3.8.8 limits multi-row VALUES by SQLITE_MAX_COMPOUND_SELECT.
+     */
+    static final int MAX_ROWS_IN_MULTI_ROW_INSERT = 500;
+
+    static final String SAVEPOINT_NAME = "storio_savepoint";
+
+    /**
+     * Android treats statements starting with "ROL" as transaction abort and ends
+     * the whole transaction instead of executing them, leading comment prevents that.
+     * {@link #runInTransaction(Callable)} checks that outer transaction is still active after it,
+     * so change of that behavior won't go unnoticed.
+     */
+    static final String ROLLBACK_TO_SAVEPOINT = "/* savepoint */ ROLLBACK TO " + SAVEPOINT_NAME;
+
+    @NonNull
+    private static final String[] CONFLICT_VALUES
+            = new String[]{"", " OR ROLLBACK ", " OR ABORT ", " OR FAIL ", " OR IGNORE ", " OR REPLACE "};
+
     @NonNull
     private final SQLiteOpenHelper sqLiteOpenHelper;
 
+    /**
+     * Multi-row VALUES is supported since SQLite 3.7.11 (Android 4.1).
+     */
+    private final boolean multiRowInsertSupported;
+
+    @NonNull
+    private final StatementCache statementCache = new StatementCache(STATEMENT_CACHE_SIZE);
+
+    @NonNull
+    private final Object performanceProfileLock = new Object();
+
+    /**
+     * Profile that should be applied on first access to the database, {@code null} if already applied.
+     */
+    @Nullable
+    private volatile PerformanceProfile pendingPerformanceProfile;
+
+    @Nullable
+    private volatile PerformanceProfile performanceProfile;
+
+    @Nullable
+    private final QueryResultCache queryResultCache;
+
+    @Nullable
+    private final Scheduler requeryScheduler;
+
+    @Nullable
+    private final RequeryCoalescing requeryCoalescing;
+
+    @NonNull
+    private final AtomicLong numberOfYields = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong totalYieldTimeNanos = new AtomicLong();
+
     @NonNull
     private final ChangesBus<Changes> changesBus = new ChangesBus<Changes>(RX_JAVA_IS_IN_THE_CLASS_PATH);
 
+    /**
+     * Savepoint of {@link #runInTransaction(Callable)} that current thread runs, if any.
+     */
+    @NonNull
+    private final ThreadLocal<Savepoint> currentSavepoint = new ThreadLocal<Savepoint>();
+
     /**
      * Implementation of {@link StorIOSQLite.Internal}.
      */
@@ -53,7 +138,47 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
     private final Internal internal;
 
     protected DefaultStorIOSQLite(@NonNull SQLiteOpenHelper sqLiteOpenHelper, @Nullable Map<Class<?>, SQLiteTypeMapping<?>> typesMapping) {
+        // Same default re-query scheduler as CompleteBuilder has
+        this(
+                sqLiteOpenHelper,
+                typesMapping,
+                Build.VERSION.SDK_INT,
+                null,
+                null,
+                RX_JAVA_IS_IN_THE_CLASS_PATH ? Schedulers.io() : null,
+                null
+        );
+    }
+
+    DefaultStorIOSQLite(@NonNull SQLiteOpenHelper sqLiteOpenHelper,
+                        @Nullable Map<Class<?>, SQLiteTypeMapping<?>> typesMapping,
+                        int sdkVersion,
+                        @Nullable PerformanceProfile performanceProfile) {
+        this(sqLiteOpenHelper, typesMapping, sdkVersion, performanceProfile, null);
+    }
+
+    DefaultStorIOSQLite(@NonNull SQLiteOpenHelper sqLiteOpenHelper,
+                        @Nullable Map<Class<?>, SQLiteTypeMapping<?>> typesMapping,
+                        int sdkVersion,
+                        @Nullable PerformanceProfile performanceProfile,
+                        @Nullable QueryResultCache queryResultCache) {
+        this(sqLiteOpenHelper, typesMapping, sdkVersion, performanceProfile, queryResultCache, null, null);
+    }
+
+    DefaultStorIOSQLite(@NonNull SQLiteOpenHelper sqLiteOpenHelper,
+                        @Nullable Map<Class<?>, SQLiteTypeMapping<?>> typesMapping,
+                        int sdkVersion,
+                        @Nullable PerformanceProfile performanceProfile,
+                        @Nullable QueryResultCache queryResultCache,
+                        @Nullable Scheduler requeryScheduler,
+                        @Nullable RequeryCoalescing requeryCoalescing) {
         this.sqLiteOpenHelper = sqLiteOpenHelper;
+        multiRowInsertSupported = sdkVersion >= Build.VERSION_CODES.JELLY_BEAN;
+        this.performanceProfile = performanceProfile;
+        pendingPerformanceProfile = performanceProfile;
+        this.queryResultCache = queryResultCache;
+        this.requeryScheduler = requeryScheduler;
+        this.requeryCoalescing = requeryCoalescing;
         internal = new InternalImpl(typesMapping);
     }
 
@@ -91,6 +216,203 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         return internal;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If current thread is already in transaction, {@code callable} is executed
+     * inside of a savepoint: if it fails, only its changes are rolled back
+     * and outer transaction can continue.
+     * <p>
+     * Savepoint owns transactions that {@code callable} begins via {@link Internal}
+     * (Operations do so), they don't touch the outer transaction. If one of them ends
+     * without {@link Internal#setTransactionSuccessful()}, savepoint is rolled back too.
+     * Subscribers are notified about changes made inside of the savepoint only if it was released.
+     */
+    @WorkerThread
+    @Nullable
+    @Override
+    public <Result> Result runInTransaction(@NonNull Callable<Result> callable) {
+        checkNotNull(callable, "Please specify callable");
+
+        final SQLiteDatabase db = writableDatabase();
+
+        if (!db.inTransaction()) {
+            return super.runInTransaction(callable);
+        }
+
+        final Savepoint parent = currentSavepoint.get();
+        final Savepoint savepoint = new Savepoint();
+
+        db.execSQL("SAVEPOINT " + SAVEPOINT_NAME);
+        currentSavepoint.set(savepoint);
+
+        boolean successful = false;
+
+        try {
+            final Result result = callable.call();
+
+            if (savepoint.failed || !savepoint.transactions.isEmpty()) {
+                throw new IllegalStateException("Transaction inside of runInTransaction() was not marked "
+                        + "as successful or was not ended, changes of the callable were rolled back");
+            }
+
+            successful = true;
+            return result;
+        } catch (Exception exception) {
+            throw exception instanceof StorIOException
+                    ? (StorIOException) exception
+                    : new StorIOException(exception);
+        } finally {
+            currentSavepoint.set(parent);
+
+            if (successful) {
+                db.execSQL("RELEASE " + SAVEPOINT_NAME);
+
+                // Goes to the parent savepoint or to pending changes of the outer transaction
+                for (Changes changes : savepoint.changes) {
+                    internal.notifyAboutChanges(changes);
+                }
+            } else {
+                db.execSQL(ROLLBACK_TO_SAVEPOINT);
+                db.execSQL("RELEASE " + SAVEPOINT_NAME);
+
+                if (!db.inTransaction()) {
+                    throw new IllegalStateException("Outer transaction was ended by rollback to savepoint");
+                }
+            }
+        }
+    }
+
+    /**
+     * State of savepoint of {@link #runInTransaction(Callable)} for the thread that runs it.
+     */
+    private static final class Savepoint {
+
+        /**
+         * Whether each transaction that was begun inside of the savepoint and not ended yet
+         * was marked as successful, innermost is last.
+         */
+        @NonNull
+        final List<Boolean> transactions = new ArrayList<Boolean>(2);
+
+        /**
+         * Changes that will be sent only if savepoint is released.
+         */
+        @NonNull
+        final List<Changes> changes = new ArrayList<Changes>(2);
+
+        boolean failed;
+    }
+
+    /**
+     * Applies {@link PerformanceProfile} to the database immediately,
+     * allows to switch between profiles at runtime, for example
+     * to {@link PerformanceProfile#bulkImport()} during initial sync and back.
+     * <p>
+     * Write-ahead logging can not be switched while there are transactions in progress.
+     *
+     * @param performanceProfile profile to apply.
+     */
+    @WorkerThread
+    public void applyPerformanceProfile(@NonNull PerformanceProfile performanceProfile) {
+        checkNotNull(performanceProfile, "Please specify performance profile");
+
+        synchronized (performanceProfileLock) {
+            performanceProfile.applyTo(sqLiteOpenHelper.getWritableDatabase());
+            this.performanceProfile = performanceProfile;
+            pendingPerformanceProfile = null;
+        }
+    }
+
+    /**
+     * Gets {@link PerformanceProfile} that was applied last or will be applied on first access to the database.
+     *
+     * @return profile or {@code null} if it was not specified.
+     */
+    @Nullable
+    public PerformanceProfile performanceProfile() {
+        return performanceProfile;
+    }
+
+    /**
+     * Gets statistics of transaction yields made via {@link Internal#yieldIfContendedSafely()},
+     * for example by {@link com.pushtorefresh.storio.sqlite.operations.put.PreparedPutCollectionOfObjects.Builder#yieldEvery(int)}.
+     *
+     * @return snapshot of statistics since creation of this instance.
+     */
+    @NonNull
+    public YieldStatistics yieldStatistics() {
+        return YieldStatistics.newInstance(numberOfYields.get(), totalYieldTimeNanos.get());
+    }
+
+    /**
+     * Gets cache of mapped results of Get Operations, allows to check its hit and miss counters.
+     *
+     * @return cache or {@code null} if it was not enabled via {@link CompleteBuilder#queryResultCache(int)}.
+     */
+    @Nullable
+    public QueryResultCache queryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return scheduler set via {@link CompleteBuilder#requeryScheduler(Scheduler)},
+     * {@link Schedulers#io()} by default if RxJava is in the ClassPath.
+     */
+    @Nullable
+    @Override
+    public Scheduler requeryScheduler() {
+        return requeryScheduler;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return policy set via {@link CompleteBuilder#requeryCoalescing(RequeryCoalescing)},
+     * {@code null} by default.
+     */
+    @Nullable
+    @Override
+    public RequeryCoalescing requeryCoalescing() {
+        return requeryCoalescing;
+    }
+
+    /**
+     * Gets writable database and applies pending {@link PerformanceProfile} on first access.
+     */
+    @NonNull
+    private SQLiteDatabase writableDatabase() {
+        final SQLiteDatabase db = sqLiteOpenHelper.getWritableDatabase();
+
+        // Fast path, no synchronization required
+        if (pendingPerformanceProfile != null) {
+            synchronized (performanceProfileLock) {
+                final PerformanceProfile profile = pendingPerformanceProfile;
+
+                if (profile != null) {
+                    profile.applyTo(db);
+                    pendingPerformanceProfile = null;
+                }
+            }
+        }
+
+        return db;
+    }
+
+    /**
+     * Gets readable database, pending {@link PerformanceProfile} is applied before first read.
+     */
+    @NonNull
+    private SQLiteDatabase readableDatabase() {
+        if (pendingPerformanceProfile != null) {
+            writableDatabase();
+        }
+
+        return sqLiteOpenHelper.getReadableDatabase();
+    }
+
     /**
      * Closes underlying {@link SQLiteOpenHelper}.
      * <p>
@@ -100,6 +422,12 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
      */
     @Override
     public void close() throws IOException {
+        statementCache.close();
+
+        if (queryResultCache != null) {
+            queryResultCache.clear();
+        }
+
         sqLiteOpenHelper.close();
     }
 
@@ -148,6 +476,14 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
 
         private Map<Class<?>, SQLiteTypeMapping<?>> typesMapping;
 
+        private PerformanceProfile performanceProfile;
+
+        private QueryResultCache queryResultCache;
+
+        private Scheduler requeryScheduler = RX_JAVA_IS_IN_THE_CLASS_PATH ? Schedulers.io() : null;
+
+        private RequeryCoalescing requeryCoalescing;
+
         CompleteBuilder(@NonNull SQLiteOpenHelper sqLiteOpenHelper) {
             this.sqLiteOpenHelper = sqLiteOpenHelper;
         }
@@ -174,6 +510,79 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
             return this;
         }
 
+        /**
+         * Optional: Specifies {@link PerformanceProfile} — write-ahead logging and pragmas
+         * that will be applied on first access to the database.
+         * <p>
+         * Profile can be switched later via {@link DefaultStorIOSQLite#applyPerformanceProfile(PerformanceProfile)}.
+         *
+         * @param performanceProfile profile, for example {@link PerformanceProfile#readHeavy()}.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder performanceProfile(@NonNull PerformanceProfile performanceProfile) {
+            checkNotNull(performanceProfile, "Please specify performance profile");
+            this.performanceProfile = performanceProfile;
+            return this;
+        }
+
+        /**
+         * Optional: Enables LRU cache of mapped results of
+         * {@link com.pushtorefresh.storio.sqlite.operations.get.PreparedGetListOfObjects}
+         * and {@link com.pushtorefresh.storio.sqlite.operations.get.PreparedGetObject}.
+         * <p>
+         * Repeated Get Operations with equal queries are served from memory until
+         * {@link Changes} of their tables are reported.
+         * {@link RawQuery} is cached only if it declares {@link RawQuery#observesTables()}.
+         * Cached objects are shared between all callers, so please enable cache only for immutable objects.
+         * <p>
+         * By default, results are not cached.
+         *
+         * @param maxSize max number of cached results.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder queryResultCache(int maxSize) {
+            queryResultCache = QueryResultCache.newInstance(maxSize);
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link Scheduler} on which Observables of Get Operations
+         * re-execute their queries after changes of observed tables, so Put and Delete Operations
+         * return right after notification instead of waiting for queries of all subscribers.
+         * <p>
+         * By default, queries are re-executed on {@link Schedulers#io()}.
+         *
+         * @param requeryScheduler scheduler for re-queries or {@code null} to re-execute queries
+         *                         on the thread which notified about changes.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder requeryScheduler(@Nullable Scheduler requeryScheduler) {
+            this.requeryScheduler = requeryScheduler;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies default policy of coalescing of re-queries which Observables
+         * of Get Operations execute after changes of observed tables, so burst of changes
+         * costs one or two re-queries instead of re-query per change.
+         * <p>
+         * Policy can be overridden per operation via
+         * {@link com.pushtorefresh.storio.sqlite.operations.get.PreparedGet#createObservable(RequeryCoalescing)}.
+         * <p>
+         * By default, each change triggers re-query.
+         *
+         * @param requeryCoalescing policy or {@code null} to re-query on each change.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder requeryCoalescing(@Nullable RequeryCoalescing requeryCoalescing) {
+            this.requeryCoalescing = requeryCoalescing;
+            return this;
+        }
+
         /**
          * Builds {@link DefaultStorIOSQLite} instance with required params.
          *
@@ -181,7 +590,15 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @NonNull
         public DefaultStorIOSQLite build() {
-            return new DefaultStorIOSQLite(sqLiteOpenHelper, typesMapping);
+            return new DefaultStorIOSQLite(
+                    sqLiteOpenHelper,
+                    typesMapping,
+                    Build.VERSION.SDK_INT,
+                    performanceProfile,
+                    queryResultCache,
+                    requeryScheduler,
+                    requeryCoalescing
+            );
         }
     }
 
@@ -205,15 +622,46 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         private AtomicInteger numberOfRunningTransactions = new AtomicInteger(0);
 
         /**
+         * Tables affected while transactions were running.
+         * Guarded by {@link #lock}.
+         */
+        @NonNull
+        private Set<String> pendingAffectedTables = new HashSet<String>(5);
+
+        /**
+         * Keys of rows affected while transactions were running,
+         * only for pending tables which were not changed entirely.
          * Guarded by {@link #lock}.
          */
         @NonNull
-        private Set<Changes> pendingChanges = new HashSet<Changes>(5);
+        private Map<String, Set<String>> pendingAffectedKeys = new HashMap<String, Set<String>>(5);
+
+        /**
+         * Identity maps of registered type mappings, invalidated by committed changes.
+         */
+        @NonNull
+        private final List<IdentityMap<?>> identityMaps = new ArrayList<IdentityMap<?>>();
+
+        /**
+         * Table to name of its {@code INTEGER PRIMARY KEY} column or empty string if there is no such column.
+         */
+        @NonNull
+        private final Map<String, String> rowIdAliases = new ConcurrentHashMap<String, String>();
 
         protected InternalImpl(@Nullable Map<Class<?>, SQLiteTypeMapping<?>> typesMapping) {
             this.directTypesMapping = typesMapping != null
                     ? unmodifiableMap(typesMapping)
                     : null;
+
+            if (typesMapping != null) {
+                for (SQLiteTypeMapping<?> typeMapping : typesMapping.values()) {
+                    final IdentityMap<?> identityMap = typeMapping.identityMap();
+
+                    if (identityMap != null && !identityMaps.contains(identityMap)) {
+                        identityMaps.add(identityMap);
+                    }
+                }
+            }
         }
 
         /**
@@ -291,12 +739,10 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @Override
         public void executeSQL(@NonNull RawQuery rawQuery) {
             if (rawQuery.args().isEmpty()) {
-                sqLiteOpenHelper
-                        .getWritableDatabase()
+                writableDatabase()
                         .execSQL(rawQuery.query());
             } else {
-                sqLiteOpenHelper
-                        .getWritableDatabase()
+                writableDatabase()
                         .execSQL(
                                 rawQuery.query(),
                                 rawQuery.args().toArray(new String[rawQuery.args().size()])
@@ -311,8 +757,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @NonNull
         @Override
         public Cursor rawQuery(@NonNull RawQuery rawQuery) {
-            return sqLiteOpenHelper
-                    .getReadableDatabase()
+            return readableDatabase()
                     .rawQuery(
                             rawQuery.query(),
                             nullableArrayOfStrings(rawQuery.args())
@@ -326,8 +771,8 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @NonNull
         @Override
         public Cursor query(@NonNull Query query) {
-            return sqLiteOpenHelper
-                    .getReadableDatabase().query(
+            return readableDatabase()
+                    .query(
                             query.distinct(),
                             query.table(),
                             nullableArrayOfStrings(query.columns()),
@@ -340,14 +785,57 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
                     );
         }
 
+        /**
+         * {@inheritDoc}
+         * <p>
+         * This implementation executes query via cached compiled statement.
+         */
+        @WorkerThread
+        @Nullable
+        @Override
+        public Long simpleQueryForLong(@NonNull RawQuery rawQuery) {
+            final String sql = rawQuery.query();
+            final SQLiteStatement statement = acquireStatement(sql);
+
+            try {
+                bindAllArgs(statement, null, rawQuery.args());
+                return statement.simpleQueryForLong();
+            } catch (SQLiteDoneException noRows) {
+                return null;
+            } finally {
+                statementCache.release(sql, statement);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * This implementation executes query via cached compiled statement.
+         */
+        @WorkerThread
+        @Nullable
+        @Override
+        public String simpleQueryForString(@NonNull RawQuery rawQuery) {
+            final String sql = rawQuery.query();
+            final SQLiteStatement statement = acquireStatement(sql);
+
+            try {
+                bindAllArgs(statement, null, rawQuery.args());
+                return statement.simpleQueryForString();
+            } catch (SQLiteDoneException noRows) {
+                return null;
+            } finally {
+                statementCache.release(sql, statement);
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
         @WorkerThread
         @Override
         public long insert(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            return writableDatabase()
                     .insertOrThrow(
                             insertQuery.table(),
                             insertQuery.nullColumnHack(),
@@ -361,8 +849,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @WorkerThread
         @Override
         public long insertWithOnConflict(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues, int conflictAlgorithm) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            return writableDatabase()
                     .insertWithOnConflict(
                             insertQuery.table(),
                             insertQuery.nullColumnHack(),
@@ -377,8 +864,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @WorkerThread
         @Override
         public int update(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            return writableDatabase()
                     .update(
                             updateQuery.table(),
                             contentValues,
@@ -393,8 +879,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @WorkerThread
         @Override
         public int delete(@NonNull DeleteQuery deleteQuery) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            return writableDatabase()
                     .delete(
                             deleteQuery.table(),
                             nullableString(deleteQuery.where()),
@@ -402,6 +887,403 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
                     );
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public long insertWithCompiledStatement(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues, int conflictAlgorithm) {
+            final int size = contentValues.size();
+            final String[] columns = new String[size];
+            final Object[] bindArgs = new Object[size];
+
+            int i = 0;
+
+            for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+                columns[i] = entry.getKey();
+                bindArgs[i++] = entry.getValue();
+            }
+
+            final StatementKey key = new StatementKey(
+                    StatementKey.INSERT,
+                    insertQuery.table(),
+                    size == 0 ? insertQuery.nullColumnHack() : null,
+                    conflictAlgorithm,
+                    columns
+            );
+
+            SQLiteStatement statement = statementCache.acquire(key);
+
+            if (statement == null) {
+                statement = writableDatabase().compileStatement(insertSql(insertQuery, columns, conflictAlgorithm));
+            }
+
+            try {
+                bindAllArgs(statement, bindArgs, null);
+                return statement.executeInsert();
+            } finally {
+                statementCache.release(key, statement);
+            }
+        }
+
+        @NonNull
+        private String insertSql(@NonNull InsertQuery insertQuery, @NonNull String[] columns, int conflictAlgorithm) {
+            final StringBuilder sqlBuilder = new StringBuilder(64)
+                    .append("INSERT")
+                    .append(CONFLICT_VALUES[conflictAlgorithm])
+                    .append(" INTO ")
+                    .append(insertQuery.table())
+                    .append(" (");
+
+            if (columns.length > 0) {
+                for (int i = 0; i < columns.length; i++) {
+                    sqlBuilder.append(i > 0 ? "," : "").append(columns[i]);
+                }
+
+                sqlBuilder.append(") VALUES (").append(Queries.placeholders(columns.length)).append(')');
+            } else {
+                sqlBuilder.append(insertQuery.nullColumnHack()).append(") VALUES (NULL)");
+            }
+
+            return sqlBuilder.toString();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public int updateWithCompiledStatement(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues) {
+            final int size = contentValues.size();
+
+            if (size == 0) {
+                throw new IllegalArgumentException("Empty values");
+            }
+
+            final String[] columns = new String[size];
+            final Object[] bindArgs = new Object[size];
+
+            int i = 0;
+
+            for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+                columns[i] = entry.getKey();
+                bindArgs[i++] = entry.getValue();
+            }
+
+            final StatementKey key = new StatementKey(StatementKey.UPDATE, updateQuery.table(), updateQuery.where(), 0, columns);
+
+            SQLiteStatement statement = statementCache.acquire(key);
+
+            if (statement == null) {
+                statement = writableDatabase().compileStatement(updateSql(updateQuery, columns));
+            }
+
+            try {
+                bindAllArgs(statement, bindArgs, updateQuery.whereArgs());
+                return statement.executeUpdateDelete();
+            } finally {
+                statementCache.release(key, statement);
+            }
+        }
+
+        @NonNull
+        private String updateSql(@NonNull UpdateQuery updateQuery, @NonNull String[] columns) {
+            final StringBuilder sqlBuilder = new StringBuilder(64)
+                    .append("UPDATE ")
+                    .append(updateQuery.table())
+                    .append(" SET ");
+
+            for (int i = 0; i < columns.length; i++) {
+                sqlBuilder.append(i > 0 ? "," : "").append(columns[i]).append("=?");
+            }
+
+            if (!updateQuery.where().isEmpty()) {
+                sqlBuilder.append(" WHERE ").append(updateQuery.where());
+            }
+
+            return sqlBuilder.toString();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public int deleteWithCompiledStatement(@NonNull DeleteQuery deleteQuery) {
+            final StatementKey key = new StatementKey(StatementKey.DELETE, deleteQuery.table(), deleteQuery.where(), 0, null);
+
+            SQLiteStatement statement = statementCache.acquire(key);
+
+            if (statement == null) {
+                final String sql = deleteQuery.where().isEmpty()
+                        ? "DELETE FROM " + deleteQuery.table()
+                        : "DELETE FROM " + deleteQuery.table() + " WHERE " + deleteQuery.where();
+
+                statement = writableDatabase().compileStatement(sql);
+            }
+
+            try {
+                bindAllArgs(statement, null, deleteQuery.whereArgs());
+                return statement.executeUpdateDelete();
+            } finally {
+                statementCache.release(key, statement);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * This implementation groups consecutive rows with the same set of columns
+         * into multi-row inserts limited by {@link #MAX_BIND_ARGS} and {@link #MAX_ROWS_IN_MULTI_ROW_INSERT}.
+         * <p>
+         * Ids of rows inserted by one statement are calculated from the id of the last inserted row,
+         * which is correct only if database assigns them. So rows which specify value of the
+         * {@code INTEGER PRIMARY KEY} column (alias of the row id, detected once per table
+         * via {@code PRAGMA table_info}) are grouped separately and that value is returned as their id.
+         */
+        @WorkerThread
+        @NonNull
+        @Override
+        public long[] bulkInsert(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> contentValues) {
+            if (!multiRowInsertSupported) {
+                return super.bulkInsert(insertQuery, contentValues);
+            }
+
+            final String rowIdAlias = rowIdAlias(insertQuery.table());
+            final int numberOfRows = contentValues.size();
+            final long[] insertedIds = new long[numberOfRows];
+
+            int chunkStart = 0;
+
+            while (chunkStart < numberOfRows) {
+                final ContentValues firstRow = contentValues.get(chunkStart);
+                final int numberOfColumns = firstRow.size();
+
+                if (numberOfColumns == 0) {
+                    // Requires nullColumnHack, can not be grouped
+                    insertedIds[chunkStart] = insertWithCompiledStatement(insertQuery, firstRow, SQLiteDatabase.CONFLICT_NONE);
+                    chunkStart++;
+                    continue;
+                }
+
+                final String[] columns = firstRow.keySet().toArray(new String[numberOfColumns]);
+                final String rowIdColumn = rowIdColumn(columns, rowIdAlias);
+                final boolean explicitRowIds = rowIdColumn != null && firstRow.get(rowIdColumn) != null;
+                final int maxRowsInChunk = Math.max(1, Math.min(MAX_ROWS_IN_MULTI_ROW_INSERT, MAX_BIND_ARGS / numberOfColumns));
+
+                int chunkEnd = chunkStart + 1;
+
+                while (chunkEnd < numberOfRows
+                        && chunkEnd - chunkStart < maxRowsInChunk
+                        && hasSameColumns(contentValues.get(chunkEnd), columns)
+                        && (rowIdColumn == null || (contentValues.get(chunkEnd).get(rowIdColumn) != null) == explicitRowIds)) {
+                    chunkEnd++;
+                }
+
+                insertChunk(insertQuery, columns, contentValues, chunkStart, chunkEnd, explicitRowIds ? rowIdColumn : null, insertedIds);
+                chunkStart = chunkEnd;
+            }
+
+            return insertedIds;
+        }
+
+        /**
+         * Gets name of the {@code INTEGER PRIMARY KEY} column of the table, which is alias of the row id.
+         *
+         * @return name of the column or {@code null} if table has no such column.
+         */
+        @Nullable
+        private String rowIdAlias(@NonNull String table) {
+            final String cachedRowIdAlias = rowIdAliases.get(table);
+
+            if (cachedRowIdAlias != null) {
+                return cachedRowIdAlias.isEmpty() ? null : cachedRowIdAlias;
+            }
+
+            String rowIdAlias = null;
+            int numberOfPrimaryKeyColumns = 0;
+
+            final Cursor cursor = writableDatabase().rawQuery("PRAGMA table_info(" + table + ")", null);
+
+            try {
+                final int nameColumnIndex = cursor.getColumnIndexOrThrow("name");
+                final int typeColumnIndex = cursor.getColumnIndexOrThrow("type");
+                final int pkColumnIndex = cursor.getColumnIndexOrThrow("pk");
+
+                while (cursor.moveToNext()) {
+                    if (cursor.getInt(pkColumnIndex) > 0) {
+                        numberOfPrimaryKeyColumns++;
+
+                        if ("INTEGER".equalsIgnoreCase(cursor.getString(typeColumnIndex))) {
+                            rowIdAlias = cursor.getString(nameColumnIndex);
+                        }
+                    }
+                }
+            } finally {
+                cursor.close();
+            }
+
+            // Composite primary key is not an alias of the row id
+            if (numberOfPrimaryKeyColumns != 1) {
+                rowIdAlias = null;
+            }
+
+            rowIdAliases.put(table, rowIdAlias != null ? rowIdAlias : "");
+            return rowIdAlias;
+        }
+
+        /**
+         * Finds column which sets row id explicitly.
+         *
+         * @return name of the column as it's specified in the row or {@code null} if row id is assigned by database.
+         */
+        @Nullable
+        private String rowIdColumn(@NonNull String[] columns, @Nullable String rowIdAlias) {
+            for (String column : columns) {
+                if ("rowid".equalsIgnoreCase(column)
+                        || "oid".equalsIgnoreCase(column)
+                        || "_rowid_".equalsIgnoreCase(column)
+                        || column.equalsIgnoreCase(rowIdAlias)) {
+                    return column;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean hasSameColumns(@NonNull ContentValues row, @NonNull String[] columns) {
+            if (row.size() != columns.length) {
+                return false;
+            }
+
+            for (String column : columns) {
+                if (!row.containsKey(column)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void insertChunk(
+                @NonNull InsertQuery insertQuery,
+                @NonNull String[] columns,
+                @NonNull List<ContentValues> contentValues,
+                int chunkStart,
+                int chunkEnd,
+                @Nullable String explicitRowIdColumn,
+                @NonNull long[] insertedIds) {
+
+            final int numberOfRows = chunkEnd - chunkStart;
+            final StatementKey key = new StatementKey(StatementKey.MULTI_ROW_INSERT, insertQuery.table(), null, numberOfRows, columns);
+
+            SQLiteStatement statement = statementCache.acquire(key);
+
+            if (statement == null) {
+                statement = writableDatabase().compileStatement(multiRowInsertSql(insertQuery, columns, numberOfRows));
+            }
+
+            try {
+                int index = 1; // bind indexes start from 1
+
+                for (int row = chunkStart; row < chunkEnd; row++) {
+                    final ContentValues rowValues = contentValues.get(row);
+
+                    for (String column : columns) {
+                        bindValue(statement, index++, rowValues.get(column));
+                    }
+                }
+
+                final long lastInsertedId = statement.executeInsert();
+
+                for (int row = chunkStart; row < chunkEnd; row++) {
+                    if (explicitRowIdColumn != null) {
+                        final Object rowId = contentValues.get(row).get(explicitRowIdColumn);
+
+                        insertedIds[row] = rowId instanceof Number
+                                ? ((Number) rowId).longValue()
+                                : Long.parseLong(rowId.toString());
+                    } else {
+                        // Database assigns consecutive ids to rows of one statement
+                        insertedIds[row] = lastInsertedId - (chunkEnd - 1 - row);
+                    }
+                }
+            } finally {
+                statementCache.release(key, statement);
+            }
+        }
+
+        @NonNull
+        private String multiRowInsertSql(@NonNull InsertQuery insertQuery, @NonNull String[] columns, int numberOfRows) {
+            final String rowPlaceholders = "(" + Queries.placeholders(columns.length) + ")";
+
+            final StringBuilder sqlBuilder = new StringBuilder(64 + numberOfRows * (rowPlaceholders.length() + 1))
+                    .append("INSERT INTO ")
+                    .append(insertQuery.table())
+                    .append(" (");
+
+            for (int i = 0; i < columns.length; i++) {
+                sqlBuilder.append(i > 0 ? "," : "").append(columns[i]);
+            }
+
+            sqlBuilder.append(") VALUES ");
+
+            for (int i = 0; i < numberOfRows; i++) {
+                sqlBuilder.append(i > 0 ? "," : "").append(rowPlaceholders);
+            }
+
+            return sqlBuilder.toString();
+        }
+
+        /**
+         * Takes compiled statement from the cache or compiles new one.
+         * Statement should be returned back via {@link StatementCache#release(String, SQLiteStatement)}.
+         */
+        @NonNull
+        private SQLiteStatement acquireStatement(@NonNull String sql) {
+            final SQLiteStatement cachedStatement = statementCache.acquire(sql);
+
+            return cachedStatement != null
+                    ? cachedStatement // fffast! no SQL compilation
+                    : writableDatabase().compileStatement(sql);
+        }
+
+        private void bindAllArgs(@NonNull SQLiteStatement statement, @Nullable Object[] values, @Nullable List<String> whereArgs) {
+            int index = 1; // bind indexes start from 1
+
+            if (values != null) {
+                //noinspection ForLoopReplaceableByForEach -> on Android it's faster
+                for (int i = 0; i < values.length; i++) {
+                    bindValue(statement, index++, values[i]);
+                }
+            }
+
+            if (whereArgs != null) {
+                for (String whereArg : whereArgs) {
+                    statement.bindString(index++, whereArg);
+                }
+            }
+        }
+
+        /**
+         * Same type mapping as {@link ContentValues} uses for {@link SQLiteDatabase#insert}.
+         */
+        private void bindValue(@NonNull SQLiteStatement statement, int index, @Nullable Object value) {
+            if (value == null) {
+                statement.bindNull(index);
+            } else if (value instanceof Double || value instanceof Float) {
+                statement.bindDouble(index, ((Number) value).doubleValue());
+            } else if (value instanceof Number) {
+                statement.bindLong(index, ((Number) value).longValue());
+            } else if (value instanceof Boolean) {
+                statement.bindLong(index, (Boolean) value ? 1 : 0);
+            } else if (value instanceof byte[]) {
+                statement.bindBlob(index, (byte[]) value);
+            } else {
+                statement.bindString(index, value.toString());
+            }
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -409,47 +1291,129 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         public void notifyAboutChanges(@NonNull Changes changes) {
             checkNotNull(changes, "Changes can not be null");
 
+            // Even inside of transaction, so current thread does not read its own stale results
+            invalidateQueryResultCache(changes.affectedTables());
+
+            final Savepoint savepoint = currentSavepoint.get();
+
+            if (savepoint != null) {
+                savepoint.changes.add(changes);
+                return;
+            }
+
             // Fast path, no synchronization required
             if (numberOfRunningTransactions.get() == 0) {
+                invalidateIdentityMaps(changes);
                 changesBus.onNext(changes);
             } else {
                 synchronized (lock) {
-                    pendingChanges.add(changes);
+                    addPendingChanges(changes);
                 }
 
                 notifyAboutPendingChangesIfNotInTransaction();
             }
         }
 
+        /**
+         * Merges changes into pending ones, table changed entirely at least once
+         * stays changed entirely, keys of other tables are united.
+         * Must be called under {@link #lock}.
+         */
+        private void addPendingChanges(@NonNull Changes changes) {
+            for (String table : changes.affectedTables()) {
+                final Set<String> keys = changes.affectedKeys(table);
+                final Set<String> pendingKeys = pendingAffectedKeys.get(table);
+                final boolean tableIsPending = pendingAffectedTables.contains(table);
+
+                if (keys == null) {
+                    pendingAffectedKeys.remove(table);
+                } else if (pendingKeys != null) {
+                    pendingKeys.addAll(keys);
+                } else if (!tableIsPending) {
+                    pendingAffectedKeys.put(table, new HashSet<String>(keys));
+                }
+
+                pendingAffectedTables.add(table);
+            }
+        }
+
+        /**
+         * Sends all changes made in transactions as one {@link Changes} with union of affected tables,
+         * so each subscriber re-queries once per transaction instead of once per operation.
+         */
         private void notifyAboutPendingChangesIfNotInTransaction() {
-            final Set<Changes> changesToSend;
+            final Set<String> affectedTables;
+            final Map<String, Set<String>> affectedKeys;
 
             if (numberOfRunningTransactions.get() == 0) {
                 synchronized (lock) {
-                    changesToSend = pendingChanges;
-                    pendingChanges = new HashSet<Changes>(5);
+                    affectedTables = pendingAffectedTables;
+                    affectedKeys = pendingAffectedKeys;
+                    pendingAffectedTables = new HashSet<String>(5);
+                    pendingAffectedKeys = new HashMap<String, Set<String>>(5);
                 }
             } else {
-                changesToSend = null;
+                affectedTables = null;
+                affectedKeys = null;
             }
 
-            if (changesToSend != null) {
-                for (Changes changes : changesToSend) {
-                    changesBus.onNext(changes);
-                }
+            if (affectedTables != null && !affectedTables.isEmpty()) {
+                // Results read by other threads during transaction are stale after commit or rollback
+                invalidateQueryResultCache(affectedTables);
+
+                final Changes changes = Changes.newInstance(affectedTables, affectedKeys);
+                invalidateIdentityMaps(changes);
+                changesBus.onNext(changes);
+            }
+        }
+
+        /**
+         * Removes objects of changed rows from identity maps, must be called only after commit,
+         * otherwise objects of rows read by other threads before commit could be stored after invalidation.
+         */
+        private void invalidateIdentityMaps(@NonNull Changes changes) {
+            for (int i = 0; i < identityMaps.size(); i++) {
+                identityMaps.get(i).invalidate(changes);
+            }
+        }
+
+        private void invalidateQueryResultCache(@NonNull Set<String> affectedTables) {
+            if (queryResultCache != null) {
+                queryResultCache.invalidate(affectedTables);
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public QueryResultCache queryResultCache() {
+            return queryResultCache;
+        }
+
         /**
          * {@inheritDoc}
          */
         @Override
         public void beginTransaction() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            final Savepoint savepoint = currentSavepoint.get();
+
+            if (savepoint != null) {
+                // Nested transaction of SQLiteDatabase would fail the outer one on rollback
+                savepoint.transactions.add(false);
+                return;
+            }
+
+            writableDatabase()
                     .beginTransaction();
 
             numberOfRunningTransactions.incrementAndGet();
+
+            if (queryResultCache != null) {
+                // Results read from uncommitted changes must not be seen by other threads
+                queryResultCache.onTransactionBegun();
+            }
         }
 
         /**
@@ -457,8 +1421,14 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @Override
         public void setTransactionSuccessful() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            final Savepoint savepoint = currentSavepoint.get();
+
+            if (savepoint != null && !savepoint.transactions.isEmpty()) {
+                savepoint.transactions.set(savepoint.transactions.size() - 1, true);
+                return;
+            }
+
+            writableDatabase()
                     .setTransactionSuccessful();
         }
 
@@ -467,12 +1437,56 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @Override
         public void endTransaction() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            final Savepoint savepoint = currentSavepoint.get();
+
+            if (savepoint != null && !savepoint.transactions.isEmpty()) {
+                if (!savepoint.transactions.remove(savepoint.transactions.size() - 1)) {
+                    savepoint.failed = true;
+                }
+
+                return;
+            }
+
+            writableDatabase()
                     .endTransaction();
 
             numberOfRunningTransactions.decrementAndGet();
+
+            if (queryResultCache != null) {
+                queryResultCache.onTransactionEnded();
+            }
+
             notifyAboutPendingChangesIfNotInTransaction();
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public boolean yieldIfContendedSafely() {
+            // SQLiteDatabase throws if transaction is nested. Transactions run only on the primary connection,
+            // so the counter is nesting level of the current thread (it can only be overestimated).
+            // Yield would commit the outer transaction and release savepoint of runInTransaction()
+            if (numberOfRunningTransactions.get() != 1 || currentSavepoint.get() != null) {
+                return false;
+            }
+
+            final SQLiteDatabase db = writableDatabase();
+
+            if (!db.inTransaction()) {
+                return false;
+            }
+
+            final long startNanos = System.nanoTime();
+
+            if (db.yieldIfContendedSafely()) {
+                numberOfYields.incrementAndGet();
+                totalYieldTimeNanos.addAndGet(System.nanoTime() - startNanos);
+                return true;
+            } else {
+                return false;
+            }
+        }
     }
 }
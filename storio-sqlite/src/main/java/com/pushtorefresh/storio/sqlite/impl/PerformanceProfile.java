@@ -0,0 +1,434 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Set of connection settings (write-ahead logging and pragmas) for {@link DefaultStorIOSQLite}.
+ * <p>
+ * Settings that were not specified are not touched, so SQLite and Android defaults are used for them.
+ * <p>
+ * Notice: all pragmas except write-ahead logging are per-connection,
+ * they are applied only to the primary connection which is used for writes and transactions.
+ * With write-ahead logging Android runs reads outside of transactions on a pool of secondary connections
+ * and does not allow to configure them, so {@code cache_size} and {@code mmap_size} don't affect such reads,
+ * SQLite defaults are used for them.
+ * <p>
+ * Instances of this class are Immutable.
+ */
+public final class PerformanceProfile {
+
+    /**
+     * Values of {@code PRAGMA synchronous}.
+     */
+    public enum Synchronous {
+        /**
+         * No fsync at all, fastest, but database can be corrupted on power loss.
+         */
+        OFF,
+        /**
+         * With write-ahead logging: fsync only on checkpoint, last transactions can be lost
+         * on power loss, but database stays consistent.
+         */
+        NORMAL,
+        /**
+         * Fsync on every commit, default SQLite value.
+         */
+        FULL
+    }
+
+    /**
+     * Values of {@code PRAGMA temp_store}.
+     */
+    public enum TempStore {
+        DEFAULT,
+        FILE,
+        MEMORY
+    }
+
+    private static final long ONE_MEGABYTE = 1024 * 1024;
+
+    @Nullable
+    private final Boolean writeAheadLoggingEnabled;
+
+    @Nullable
+    private final Synchronous synchronous;
+
+    @Nullable
+    private final Integer cacheSizeInKilobytes;
+
+    @Nullable
+    private final Long mmapSizeInBytes;
+
+    @Nullable
+    private final TempStore tempStore;
+
+    @Nullable
+    private final Long journalSizeLimitInBytes;
+
+    private PerformanceProfile(
+            @Nullable Boolean writeAheadLoggingEnabled,
+            @Nullable Synchronous synchronous,
+            @Nullable Integer cacheSizeInKilobytes,
+            @Nullable Long mmapSizeInBytes,
+            @Nullable TempStore tempStore,
+            @Nullable Long journalSizeLimitInBytes) {
+        this.writeAheadLoggingEnabled = writeAheadLoggingEnabled;
+        this.synchronous = synchronous;
+        this.cacheSizeInKilobytes = cacheSizeInKilobytes;
+        this.mmapSizeInBytes = mmapSizeInBytes;
+        this.tempStore = tempStore;
+        this.journalSizeLimitInBytes = journalSizeLimitInBytes;
+    }
+
+    /**
+     * Profile for apps that mostly read: readers do not wait for the writer,
+     * the writer's connection caches pages in memory and reads them via memory mapping
+     * (see notice about per-connection pragmas in {@link PerformanceProfile}).
+     *
+     * @return profile for read-heavy workload.
+     */
+    @NonNull
+    public static PerformanceProfile readHeavy() {
+        return builder()
+                .writeAheadLogging(true)
+                .synchronous(Synchronous.NORMAL)
+                .cacheSizeInKilobytes(8 * 1024)
+                .mmapSizeInBytes(64 * ONE_MEGABYTE)
+                .tempStore(TempStore.MEMORY)
+                .journalSizeLimitInBytes(4 * ONE_MEGABYTE)
+                .build();
+    }
+
+    /**
+     * Profile for importing big amounts of data: bigger page cache,
+     * temporary data in memory and write-ahead log is not truncated after each checkpoint.
+     * <p>
+     * {@link Synchronous#OFF} is not used here because it can corrupt database on power loss,
+     * specify it via {@link #builder()} if imported data can be easily restored.
+     *
+     * @return profile for bulk import.
+     */
+    @NonNull
+    public static PerformanceProfile bulkImport() {
+        return builder()
+                .writeAheadLogging(true)
+                .synchronous(Synchronous.NORMAL)
+                .cacheSizeInKilobytes(32 * 1024)
+                .tempStore(TempStore.MEMORY)
+                .journalSizeLimitInBytes(64 * ONE_MEGABYTE)
+                .build();
+    }
+
+    /**
+     * Creates new builder for {@link PerformanceProfile}.
+     *
+     * @return non-null instance of {@link PerformanceProfile.Builder}.
+     */
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets write-ahead logging mode.
+     *
+     * @return {@code true} if write-ahead logging should be enabled,
+     * {@code false} if it should be disabled, {@code null} if it should not be changed.
+     */
+    @Nullable
+    public Boolean writeAheadLoggingEnabled() {
+        return writeAheadLoggingEnabled;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA synchronous}.
+     *
+     * @return value or {@code null} if it should not be changed.
+     */
+    @Nullable
+    public Synchronous synchronous() {
+        return synchronous;
+    }
+
+    /**
+     * Gets size of page cache.
+     *
+     * @return size in kilobytes or {@code null} if it should not be changed.
+     */
+    @Nullable
+    public Integer cacheSizeInKilobytes() {
+        return cacheSizeInKilobytes;
+    }
+
+    /**
+     * Gets max size of memory mapped part of database file.
+     *
+     * @return size in bytes or {@code null} if it should not be changed.
+     */
+    @Nullable
+    public Long mmapSizeInBytes() {
+        return mmapSizeInBytes;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA temp_store}.
+     *
+     * @return value or {@code null} if it should not be changed.
+     */
+    @Nullable
+    public TempStore tempStore() {
+        return tempStore;
+    }
+
+    /**
+     * Gets size to which journal file is truncated after transaction or checkpoint.
+     *
+     * @return size in bytes or {@code null} if it should not be changed.
+     */
+    @Nullable
+    public Long journalSizeLimitInBytes() {
+        return journalSizeLimitInBytes;
+    }
+
+    /**
+     * Applies profile to the database.
+     * <p>
+     * Write-ahead logging can not be switched while there are transactions in progress.
+     *
+     * @param db database.
+     */
+    @WorkerThread
+    void applyTo(@NonNull SQLiteDatabase db) {
+        if (writeAheadLoggingEnabled != null) {
+            if (writeAheadLoggingEnabled) {
+                // Also allows Android to open read connections that work in parallel with the writer
+                db.enableWriteAheadLogging();
+            } else {
+                db.disableWriteAheadLogging();
+            }
+        }
+
+        for (String pragma : pragmas()) {
+            // Some pragmas return a row, SQLiteDatabase.execSQL() does not allow that
+            final Cursor cursor = db.rawQuery(pragma, null);
+
+            try {
+                cursor.moveToFirst();
+            } finally {
+                cursor.close();
+            }
+        }
+    }
+
+    @NonNull
+    List<String> pragmas() {
+        final List<String> pragmas = new ArrayList<String>(5);
+
+        if (synchronous != null) {
+            pragmas.add("PRAGMA synchronous = " + synchronous.name());
+        }
+
+        if (cacheSizeInKilobytes != null) {
+            // Negative value means size in kilobytes instead of number of pages
+            pragmas.add("PRAGMA cache_size = -" + cacheSizeInKilobytes);
+        }
+
+        if (mmapSizeInBytes != null) {
+            pragmas.add("PRAGMA mmap_size = " + mmapSizeInBytes);
+        }
+
+        if (tempStore != null) {
+            pragmas.add("PRAGMA temp_store = " + tempStore.name());
+        }
+
+        if (journalSizeLimitInBytes != null) {
+            pragmas.add("PRAGMA journal_size_limit = " + journalSizeLimitInBytes);
+        }
+
+        return pragmas;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PerformanceProfile that = (PerformanceProfile) o;
+
+        if (writeAheadLoggingEnabled != null ? !writeAheadLoggingEnabled.equals(that.writeAheadLoggingEnabled) : that.writeAheadLoggingEnabled != null)
+            return false;
+        if (synchronous != that.synchronous) return false;
+        if (cacheSizeInKilobytes != null ? !cacheSizeInKilobytes.equals(that.cacheSizeInKilobytes) : that.cacheSizeInKilobytes != null)
+            return false;
+        if (mmapSizeInBytes != null ? !mmapSizeInBytes.equals(that.mmapSizeInBytes) : that.mmapSizeInBytes != null)
+            return false;
+        if (tempStore != that.tempStore) return false;
+        return journalSizeLimitInBytes != null ? journalSizeLimitInBytes.equals(that.journalSizeLimitInBytes) : that.journalSizeLimitInBytes == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = writeAheadLoggingEnabled != null ? writeAheadLoggingEnabled.hashCode() : 0;
+        result = 31 * result + (synchronous != null ? synchronous.hashCode() : 0);
+        result = 31 * result + (cacheSizeInKilobytes != null ? cacheSizeInKilobytes.hashCode() : 0);
+        result = 31 * result + (mmapSizeInBytes != null ? mmapSizeInBytes.hashCode() : 0);
+        result = 31 * result + (tempStore != null ? tempStore.hashCode() : 0);
+        result = 31 * result + (journalSizeLimitInBytes != null ? journalSizeLimitInBytes.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PerformanceProfile{" +
+                "writeAheadLoggingEnabled=" + writeAheadLoggingEnabled +
+                ", synchronous=" + synchronous +
+                ", cacheSizeInKilobytes=" + cacheSizeInKilobytes +
+                ", mmapSizeInBytes=" + mmapSizeInBytes +
+                ", tempStore=" + tempStore +
+                ", journalSizeLimitInBytes=" + journalSizeLimitInBytes +
+                '}';
+    }
+
+    /**
+     * Builder for {@link PerformanceProfile}.
+     */
+    public static final class Builder {
+
+        private Boolean writeAheadLoggingEnabled;
+
+        private Synchronous synchronous;
+
+        private Integer cacheSizeInKilobytes;
+
+        private Long mmapSizeInBytes;
+
+        private TempStore tempStore;
+
+        private Long journalSizeLimitInBytes;
+
+        /**
+         * Please use {@link PerformanceProfile#builder()} instead of this.
+         */
+        Builder() {
+        }
+
+        /**
+         * Optional: Enables or disables write-ahead logging.
+         * <p>
+         * With write-ahead logging readers do not block the writer and the writer does not block readers,
+         * Android opens several connections to read in parallel.
+         *
+         * @param enabled {@code true} to enable write-ahead logging, {@code false} to disable it.
+         * @return builder.
+         */
+        @NonNull
+        public Builder writeAheadLogging(boolean enabled) {
+            writeAheadLoggingEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@code PRAGMA synchronous}.
+         *
+         * @param synchronous value.
+         * @return builder.
+         */
+        @NonNull
+        public Builder synchronous(@NonNull Synchronous synchronous) {
+            checkNotNull(synchronous, "Please specify synchronous");
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies size of page cache ({@code PRAGMA cache_size}).
+         * Applied only to the primary connection, see {@link PerformanceProfile}.
+         *
+         * @param kilobytes size in kilobytes, must be positive.
+         * @return builder.
+         */
+        @NonNull
+        public Builder cacheSizeInKilobytes(int kilobytes) {
+            if (kilobytes <= 0) {
+                throw new IllegalArgumentException("kilobytes should be positive, but was = " + kilobytes);
+            }
+
+            cacheSizeInKilobytes = kilobytes;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies max size of memory mapped part of database file ({@code PRAGMA mmap_size}).
+         * {@code 0} disables memory mapping.
+         * Applied only to the primary connection, see {@link PerformanceProfile}.
+         *
+         * @param bytes size in bytes, must not be negative.
+         * @return builder.
+         */
+        @NonNull
+        public Builder mmapSizeInBytes(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("bytes should not be negative, but was = " + bytes);
+            }
+
+            mmapSizeInBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies where temporary tables and indices are stored ({@code PRAGMA temp_store}).
+         *
+         * @param tempStore value.
+         * @return builder.
+         */
+        @NonNull
+        public Builder tempStore(@NonNull TempStore tempStore) {
+            checkNotNull(tempStore, "Please specify temp store");
+            this.tempStore = tempStore;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies size to which journal file is truncated
+         * after transaction or checkpoint ({@code PRAGMA journal_size_limit}).
+         *
+         * @param bytes size in bytes, must not be negative.
+         * @return builder.
+         */
+        @NonNull
+        public Builder journalSizeLimitInBytes(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("bytes should not be negative, but was = " + bytes);
+            }
+
+            journalSizeLimitInBytes = bytes;
+            return this;
+        }
+
+        /**
+         * Builds {@link PerformanceProfile} instance.
+         *
+         * @return new {@link PerformanceProfile} instance.
+         */
+        @NonNull
+        public PerformanceProfile build() {
+            return new PerformanceProfile(
+                    writeAheadLoggingEnabled,
+                    synchronous,
+                    cacheSizeInKilobytes,
+                    mmapSizeInBytes,
+                    tempStore,
+                    journalSizeLimitInBytes
+            );
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FOR INTERNAL USAGE ONLY.
+ * <p>
+ * LRU cache of compiled {@link SQLiteStatement}s.
+ * <p>
+ * {@link SQLiteStatement} keeps bind arguments in its state, so statement is removed from
+ * the cache while it's in use by some thread and returned back after execution.
+ * This way no lock is held while statement waits for the database.
+ * <p>
+ * Thread-safe.
+ */
+final class StatementCache {
+
+    private final int maxSize;
+
+    /**
+     * Guarded by {@code this}.
+     * Access-ordered: iteration starts from the least recently used statement.
+     */
+    @NonNull
+    private final LinkedHashMap<Object, SQLiteStatement> statements;
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private boolean closed;
+
+    StatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0, but was = " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        statements = new LinkedHashMap<Object, SQLiteStatement>(maxSize, 0.75f, true);
+    }
+
+    /**
+     * Takes statement out of the cache, so current thread can use it exclusively.
+     *
+     * @param key key of the statement: SQL or {@link StatementKey}.
+     * @return compiled statement or {@code null} if there is no free statement for the key.
+     */
+    @Nullable
+    synchronized SQLiteStatement acquire(@NonNull Object key) {
+        return statements.remove(key);
+    }
+
+    /**
+     * Returns statement back to the cache after usage.
+     * Statement will be closed if cache already has statement for the key or cache was closed.
+     *
+     * @param key       key of the statement.
+     * @param statement statement to return.
+     */
+    void release(@NonNull Object key, @NonNull SQLiteStatement statement) {
+        statement.clearBindings();
+
+        SQLiteStatement statementToClose = null;
+        SQLiteStatement evictedStatement = null;
+
+        synchronized (this) {
+            if (closed || statements.containsKey(key)) {
+                statementToClose = statement;
+            } else {
+                statements.put(key, statement);
+
+                if (statements.size() > maxSize) {
+                    final Iterator<Map.Entry<Object, SQLiteStatement>> eldest = statements.entrySet().iterator();
+                    evictedStatement = eldest.next().getValue();
+                    eldest.remove();
+                }
+            }
+        }
+
+        if (statementToClose != null) {
+            statementToClose.close();
+        }
+
+        if (evictedStatement != null) {
+            evictedStatement.close();
+        }
+    }
+
+    /**
+     * Closes all cached statements, statements that will be released after this call
+     * will be closed too.
+     */
+    void close() {
+        final SQLiteStatement[] statementsToClose;
+
+        synchronized (this) {
+            closed = true;
+            statementsToClose = statements.values().toArray(new SQLiteStatement[statements.size()]);
+            statements.clear();
+        }
+
+        for (SQLiteStatement statement : statementsToClose) {
+            statement.close();
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+}
@@ -0,0 +1,95 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * FOR INTERNAL USAGE ONLY.
+ * <p>
+ * Key of compiled statement in {@link StatementCache} built from parts of the query
+ * instead of SQL, so SQL is built and compiled only on cache miss.
+ * <p>
+ * Immutable, {@link #hashCode()} is calculated once.
+ */
+final class StatementKey {
+
+    static final int INSERT = 1;
+    static final int UPDATE = 2;
+    static final int DELETE = 3;
+    static final int MULTI_ROW_INSERT = 4;
+
+    private final int type;
+
+    @NonNull
+    private final String table;
+
+    @Nullable
+    private final String clause;
+
+    /**
+     * Conflict algorithm for inserts, number of rows for multi-row inserts.
+     */
+    private final int extra;
+
+    @Nullable
+    private final String[] columns;
+
+    private final int hashCode;
+
+    /**
+     * Creates key.
+     *
+     * @param type    type of the statement, one of constants of this class.
+     * @param table   table.
+     * @param clause  where clause or null column hack.
+     * @param extra   conflict algorithm for inserts, number of rows for multi-row inserts.
+     * @param columns columns in order of bind args, array must not be modified after call.
+     */
+    StatementKey(int type, @NonNull String table, @Nullable String clause, int extra, @Nullable String[] columns) {
+        this.type = type;
+        this.table = table;
+        this.clause = clause;
+        this.extra = extra;
+        this.columns = columns;
+
+        int result = type;
+        result = 31 * result + table.hashCode();
+        result = 31 * result + (clause != null ? clause.hashCode() : 0);
+        result = 31 * result + extra;
+        result = 31 * result + Arrays.hashCode(columns);
+        hashCode = result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StatementKey that = (StatementKey) o;
+
+        if (hashCode != that.hashCode) return false;
+        if (type != that.type) return false;
+        if (extra != that.extra) return false;
+        if (!table.equals(that.table)) return false;
+        if (clause != null ? !clause.equals(that.clause) : that.clause != null) return false;
+        return Arrays.equals(columns, that.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementKey{" +
+                "type=" + type +
+                ", table='" + table + '\'' +
+                ", clause='" + clause + '\'' +
+                ", extra=" + extra +
+                ", columns=" + Arrays.toString(columns) +
+                '}';
+    }
+}
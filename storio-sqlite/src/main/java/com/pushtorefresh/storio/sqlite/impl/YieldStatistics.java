@@ -0,0 +1,78 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Snapshot of statistics of transaction yields made via
+ * {@link com.pushtorefresh.storio.sqlite.StorIOSQLite.Internal#yieldIfContendedSafely()}.
+ * <p>
+ * Instances of this class are Immutable.
+ */
+public final class YieldStatistics {
+
+    private final long numberOfYields;
+
+    private final long totalYieldTimeNanos;
+
+    private YieldStatistics(long numberOfYields, long totalYieldTimeNanos) {
+        this.numberOfYields = numberOfYields;
+        this.totalYieldTimeNanos = totalYieldTimeNanos;
+    }
+
+    /**
+     * Creates new instance of {@link YieldStatistics}.
+     *
+     * @param numberOfYields      number of times writers yielded their transactions.
+     * @param totalYieldTimeNanos total time writers waited for the database after yield, in nanoseconds.
+     * @return new instance of {@link YieldStatistics}.
+     */
+    @NonNull
+    public static YieldStatistics newInstance(long numberOfYields, long totalYieldTimeNanos) {
+        return new YieldStatistics(numberOfYields, totalYieldTimeNanos);
+    }
+
+    /**
+     * Gets number of times writers yielded their transactions to other threads.
+     *
+     * @return number of yields.
+     */
+    public long numberOfYields() {
+        return numberOfYields;
+    }
+
+    /**
+     * Gets total time writers waited for the database after yield,
+     * roughly the time other threads used the database instead of waiting for the writer.
+     *
+     * @return total time in nanoseconds.
+     */
+    public long totalYieldTimeNanos() {
+        return totalYieldTimeNanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        YieldStatistics that = (YieldStatistics) o;
+
+        if (numberOfYields != that.numberOfYields) return false;
+        return totalYieldTimeNanos == that.totalYieldTimeNanos;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (numberOfYields ^ (numberOfYields >>> 32));
+        result = 31 * result + (int) (totalYieldTimeNanos ^ (totalYieldTimeNanos >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "YieldStatistics{" +
+                "numberOfYields=" + numberOfYields +
+                ", totalYieldTimeNanos=" + totalYieldTimeNanos +
+                '}';
+    }
+}
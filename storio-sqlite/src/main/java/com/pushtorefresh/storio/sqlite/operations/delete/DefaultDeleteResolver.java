@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
@@ -20,6 +21,21 @@ public abstract class DefaultDeleteResolver<T> extends DeleteResolver<T> {
     @NonNull
     protected abstract DeleteQuery mapToDeleteQuery(@NonNull T object);
 
+    /**
+     * Gets value of the primary key of the row that represents the object,
+     * so Delete Operation notifies about change of that row instead of the whole table
+     * and Get Operations which observe other keys do not re-query.
+     * <p>
+     * By default, key is unknown and any row of the table is treated as changed.
+     *
+     * @param object non-null object.
+     * @return value of the primary key or {@code null} if it's unknown.
+     */
+    @Nullable
+    protected Object mapToKey(@NonNull T object) {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -27,7 +43,11 @@ public abstract class DefaultDeleteResolver<T> extends DeleteResolver<T> {
     @Override
     public DeleteResult performDelete(@NonNull StorIOSQLite storIOSQLite, @NonNull T object) {
         final DeleteQuery deleteQuery = mapToDeleteQuery(object);
-        final int numberOfRowsDeleted = storIOSQLite.internal().delete(deleteQuery);
-        return DeleteResult.newInstance(numberOfRowsDeleted, deleteQuery.table());
+        final int numberOfRowsDeleted = storIOSQLite.internal().deleteWithCompiledStatement(deleteQuery);
+        final Object key = mapToKey(object);
+
+        return key != null
+                ? DeleteResult.newInstance(numberOfRowsDeleted, deleteQuery.table(), key)
+                : DeleteResult.newInstance(numberOfRowsDeleted, deleteQuery.table());
     }
 }
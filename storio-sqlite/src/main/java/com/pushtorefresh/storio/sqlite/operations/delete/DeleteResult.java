@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.Collections;
 import java.util.Set;
@@ -19,10 +20,14 @@ public final class DeleteResult {
     @NonNull
     private final Set<String> affectedTables;
 
-    private DeleteResult(int numberOfRowsDeleted, @NonNull Set<String> affectedTables) {
+    @Nullable
+    private final String affectedKey;
+
+    private DeleteResult(int numberOfRowsDeleted, @NonNull Set<String> affectedTables, @Nullable String affectedKey) {
         checkNotNull(affectedTables, "Please specify affected tables");
         this.numberOfRowsDeleted = numberOfRowsDeleted;
         this.affectedTables = Collections.unmodifiableSet(affectedTables);
+        this.affectedKey = affectedKey;
     }
 
     /**
@@ -35,7 +40,7 @@ public final class DeleteResult {
     @NonNull
     public static DeleteResult newInstance(int numberOfRowsDeleted, @NonNull Set<String> affectedTables) {
         checkNotNull(affectedTables, "Please specify affected tables");
-        return new DeleteResult(numberOfRowsDeleted, affectedTables);
+        return new DeleteResult(numberOfRowsDeleted, affectedTables, null);
     }
 
     /**
@@ -48,7 +53,23 @@ public final class DeleteResult {
     @NonNull
     public static DeleteResult newInstance(int numberOfRowsDeleted, @NonNull String affectedTable) {
         checkNotNull(affectedTable, "Please specify affected table");
-        return new DeleteResult(numberOfRowsDeleted, Collections.singleton(affectedTable));
+        return new DeleteResult(numberOfRowsDeleted, Collections.singleton(affectedTable), null);
+    }
+
+    /**
+     * Creates new instance of immutable container for results of Delete Operation
+     * of the row with known key, so only observers of that row are notified about change.
+     *
+     * @param numberOfRowsDeleted number of rows that were deleted.
+     * @param affectedTable       table that was affected.
+     * @param affectedKey         value of the primary key of deleted row.
+     * @return new instance of immutable container for results of Delete Operation.
+     */
+    @NonNull
+    public static DeleteResult newInstance(int numberOfRowsDeleted, @NonNull String affectedTable, @NonNull Object affectedKey) {
+        checkNotNull(affectedTable, "Please specify affected table");
+        checkNotNull(affectedKey, "Please specify affected key");
+        return new DeleteResult(numberOfRowsDeleted, Collections.singleton(affectedTable), String.valueOf(affectedKey));
     }
 
     /**
@@ -70,6 +91,16 @@ public final class DeleteResult {
         return affectedTables;
     }
 
+    /**
+     * Gets value of the primary key of deleted row.
+     *
+     * @return value of the key converted to string or {@code null} if it's unknown.
+     */
+    @Nullable
+    public String affectedKey() {
+        return affectedKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -78,13 +109,15 @@ public final class DeleteResult {
         DeleteResult that = (DeleteResult) o;
 
         if (numberOfRowsDeleted != that.numberOfRowsDeleted) return false;
-        return affectedTables.equals(that.affectedTables);
+        if (!affectedTables.equals(that.affectedTables)) return false;
+        return affectedKey != null ? affectedKey.equals(that.affectedKey) : that.affectedKey == null;
     }
 
     @Override
     public int hashCode() {
         int result = numberOfRowsDeleted;
         result = 31 * result + affectedTables.hashCode();
+        result = 31 * result + (affectedKey != null ? affectedKey.hashCode() : 0);
         return result;
     }
 
@@ -93,6 +126,7 @@ public final class DeleteResult {
         return "DeleteResult{" +
                 "numberOfRowsDeleted=" + numberOfRowsDeleted +
                 ", affectedTables=" + affectedTables +
+                ", affectedKey='" + affectedKey + '\'' +
                 '}';
     }
 }
@@ -1,15 +1,21 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 
 /**
  * Immutable container for results of Delete Operation
  * <p>
+ * Summary-only instance keeps only aggregated counters without result for each object,
+ * see {@link #newSummaryInstance(int, Set)}
+ * <p>
  * Instances of this class are Immutable
  *
  * @param <T> type of objects
@@ -19,9 +25,27 @@ public final class DeleteResults<T> {
     @NonNull
     private final Map<T, DeleteResult> results;
 
-    private DeleteResults(@NonNull Map<T, DeleteResult> results) {
+    private final int summaryNumberOfRowsDeleted;
+
+    /**
+     * Non-null only for summary-only instance.
+     */
+    @Nullable
+    private final Set<String> summaryAffectedTables;
+
+    @Nullable
+    private transient volatile Integer numberOfRowsDeletedCache;
+
+    @Nullable
+    private transient volatile Set<String> affectedTablesCache;
+
+    private DeleteResults(@NonNull Map<T, DeleteResult> results, int summaryNumberOfRowsDeleted, @Nullable Set<String> summaryAffectedTables) {
         checkNotNull(results, "Please specify Delete Operation results");
         this.results = Collections.unmodifiableMap(results);
+        this.summaryNumberOfRowsDeleted = summaryNumberOfRowsDeleted;
+        this.summaryAffectedTables = summaryAffectedTables != null
+                ? Collections.unmodifiableSet(summaryAffectedTables)
+                : null;
     }
 
     /**
@@ -33,11 +57,37 @@ public final class DeleteResults<T> {
      */
     @NonNull
     public static <T> DeleteResults<T> newInstance(@NonNull Map<T, DeleteResult> results) {
-        return new DeleteResults<T>(results);
+        return new DeleteResults<T>(results, 0, null);
+    }
+
+    /**
+     * Creates new summary-only instance of immutable container for results of Delete Operation
+     * which keeps only aggregated counters, {@link #results()} of such instance is empty
+     *
+     * @param numberOfRowsDeleted number of deleted rows
+     * @param affectedTables      tables that were changed by Delete Operation
+     * @param <T>                 type of objects
+     * @return new summary-only instance of {@link DeleteResults}
+     */
+    @NonNull
+    public static <T> DeleteResults<T> newSummaryInstance(int numberOfRowsDeleted, @NonNull Set<String> affectedTables) {
+        checkNotNull(affectedTables, "Please specify affected tables");
+        return new DeleteResults<T>(Collections.<T, DeleteResult>emptyMap(), numberOfRowsDeleted, affectedTables);
+    }
+
+    /**
+     * Checks whether this instance keeps only aggregated counters
+     *
+     * @return true if {@link #results()} is empty because only summary was requested
+     */
+    public boolean isSummaryOnly() {
+        return summaryAffectedTables != null;
     }
 
     /**
      * Returns immutable Map of pairs (object, deleteResult)
+     * <p>
+     * Empty for summary-only instance, see {@link #isSummaryOnly()}
      *
      * @return immutable Map of pairs (object, deleteResult)
      */
@@ -53,6 +103,10 @@ public final class DeleteResults<T> {
      * @return true if object was deleted, false otherwise
      */
     public boolean wasDeleted(@NonNull T object) {
+        if (summaryAffectedTables != null) {
+            throw new IllegalStateException("Results of each object are not available, only summary was requested");
+        }
+
         final DeleteResult result = results.get(object);
         return result != null && result.numberOfRowsDeleted() > 0;
     }
@@ -67,6 +121,64 @@ public final class DeleteResults<T> {
         return !wasDeleted(object);
     }
 
+    /**
+     * Returns number of deleted rows from all {@link #results()}
+     *
+     * @return number of deleted rows
+     */
+    public int numberOfRowsDeleted() {
+        if (summaryAffectedTables != null) {
+            return summaryNumberOfRowsDeleted;
+        }
+
+        final Integer cachedValue = numberOfRowsDeletedCache;
+
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        int numberOfRowsDeleted = 0;
+
+        for (DeleteResult deleteResult : results.values()) {
+            numberOfRowsDeleted += deleteResult.numberOfRowsDeleted();
+        }
+
+        numberOfRowsDeletedCache = numberOfRowsDeleted;
+
+        return numberOfRowsDeleted;
+    }
+
+    /**
+     * Returns tables where rows were deleted from all {@link #results()}
+     *
+     * @return unmodifiable set of changed tables
+     */
+    @NonNull
+    public Set<String> affectedTables() {
+        if (summaryAffectedTables != null) {
+            return summaryAffectedTables;
+        }
+
+        final Set<String> cachedValue = affectedTablesCache;
+
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be one table
+
+        for (DeleteResult deleteResult : results.values()) {
+            if (deleteResult.numberOfRowsDeleted() > 0) {
+                affectedTables.addAll(deleteResult.affectedTables());
+            }
+        }
+
+        final Set<String> unmodifiableAffectedTables = Collections.unmodifiableSet(affectedTables);
+        affectedTablesCache = unmodifiableAffectedTables;
+
+        return unmodifiableAffectedTables;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -74,18 +186,25 @@ public final class DeleteResults<T> {
 
         DeleteResults<?> that = (DeleteResults<?>) o;
 
-        return results.equals(that.results);
+        if (summaryNumberOfRowsDeleted != that.summaryNumberOfRowsDeleted) return false;
+        if (!results.equals(that.results)) return false;
+        return summaryAffectedTables != null ? summaryAffectedTables.equals(that.summaryAffectedTables) : that.summaryAffectedTables == null;
     }
 
     @Override
     public int hashCode() {
-        return results.hashCode();
+        int result = results.hashCode();
+        result = 31 * result + summaryNumberOfRowsDeleted;
+        result = 31 * result + (summaryAffectedTables != null ? summaryAffectedTables.hashCode() : 0);
+        return result;
     }
 
     @Override
     public String toString() {
         return "DeleteResults{" +
                 "results=" + results +
+                ", summaryNumberOfRowsDeleted=" + summaryNumberOfRowsDeleted +
+                ", summaryAffectedTables=" + summaryAffectedTables +
                 '}';
     }
 }
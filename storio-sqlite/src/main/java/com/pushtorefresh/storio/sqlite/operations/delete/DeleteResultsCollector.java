@@ -0,0 +1,87 @@
+package com.pushtorefresh.storio.sqlite.operations.delete;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects results of Delete Operations for {@link DeleteResults}.
+ * <p>
+ * In summary-only mode it keeps only counters, so no per-object entries
+ * are allocated and {@link Object#hashCode()} of objects is not called.
+ * Keys of affected rows are collected for {@link com.pushtorefresh.storio.sqlite.Changes}
+ * only together with per-object results, in summary-only mode changes are table-level.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <T> type of objects.
+ */
+final class DeleteResultsCollector<T> {
+
+    /**
+     * {@code null} in summary-only mode.
+     */
+    @Nullable
+    private final Map<T, DeleteResult> results;
+
+    @NonNull
+    private final ChangesCollector changes = ChangesCollector.newInstance();
+
+    private int numberOfRowsDeleted;
+
+    DeleteResultsCollector(boolean summaryOnly, int expectedNumberOfResults) {
+        results = summaryOnly
+                ? null
+                : new HashMap<T, DeleteResult>(expectedNumberOfResults);
+    }
+
+    void add(@NonNull T object, @NonNull DeleteResult deleteResult) {
+        if (results != null) {
+            results.put(object, deleteResult);
+        } else {
+            numberOfRowsDeleted += deleteResult.numberOfRowsDeleted();
+        }
+
+        if (deleteResult.numberOfRowsDeleted() > 0) {
+            if (results != null) {
+                changes.add(deleteResult.affectedTables(), deleteResult.affectedKey());
+            } else {
+                changes.addTables(deleteResult.affectedTables());
+            }
+        }
+    }
+
+    /**
+     * Adds number of rows deleted for several objects at once, allowed only in summary-only mode.
+     */
+    void addSummary(int numberOfRowsDeleted, @NonNull String table) {
+        if (results != null) {
+            throw new IllegalStateException("Per-object results are required, please add result of each object");
+        }
+
+        this.numberOfRowsDeleted += numberOfRowsDeleted;
+
+        if (numberOfRowsDeleted > 0) {
+            changes.addTable(table);
+        }
+    }
+
+    /**
+     * @return changes made by deletes collected so far.
+     */
+    @NonNull
+    ChangesCollector changes() {
+        return changes;
+    }
+
+    @NonNull
+    DeleteResults<T> build() {
+        return results != null
+                ? DeleteResults.newInstance(results)
+                : DeleteResults.<T>newSummaryInstance(numberOfRowsDeleted, changes.affectedTables());
+    }
+}
@@ -3,10 +3,12 @@ package com.pushtorefresh.storio.sqlite.operations.delete;
 import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Prepared Delete Operation for {@link StorIOSQLite}.
@@ -22,6 +24,21 @@ public abstract class PreparedDelete<T> implements PreparedOperation<T> {
         this.storIOSQLite = storIOSQLite;
     }
 
+    /**
+     * Creates {@link Changes} of Delete Operation, with key of deleted row if it's known.
+     *
+     * @param deleteResult result of Delete Operation.
+     * @return non-null changes.
+     */
+    @NonNull
+    static Changes changesOf(@NonNull DeleteResult deleteResult) {
+        final String affectedKey = deleteResult.affectedKey();
+
+        return affectedKey != null
+                ? Changes.newInstance(deleteResult.affectedTables().iterator().next(), Collections.singleton(affectedKey))
+                : Changes.newInstance(deleteResult.affectedTables());
+    }
+
     /**
      * Builder for {@link PreparedDelete}.
      */
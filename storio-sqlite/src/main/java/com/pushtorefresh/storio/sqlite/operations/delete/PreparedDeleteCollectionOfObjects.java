@@ -1,24 +1,32 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
+import android.database.Cursor;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
+import com.pushtorefresh.storio.Queries;
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
+import com.pushtorefresh.storio.sqlite.operations.internal.OverrideCheck;
+import com.pushtorefresh.storio.sqlite.operations.internal.TransactionYielder;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import rx.Observable;
 import rx.schedulers.Schedulers;
@@ -32,6 +40,28 @@ import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJa
  */
 public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteResults<T>> {
 
+    /**
+     * Default value of SQLITE_MAX_VARIABLE_NUMBER — max number of keys in one {@code IN (...)}.
+     */
+    static final int MAX_KEYS_IN_BATCH = 999;
+
+    /**
+     * Default value of SQLITE_MAX_COMPOUND_SELECT — max number of keys in query of existing keys.
+     */
+    static final int MAX_KEYS_IN_DETAILED_BATCH = 500;
+
+    /**
+     * Matches where clause with single key column, like generated {@link DefaultDeleteResolver}s produce:
+     * {@code "key_column = ?"}, column name can be quoted. Other where clauses are passed to the resolver.
+     */
+    @NonNull
+    private static final Pattern SINGLE_KEY_WHERE
+            = Pattern.compile("^\\s*(\\w+|\"\\w+\"|`\\w+`|\\[\\w+\\])\\s*=\\s*\\?\\s*$");
+
+    @NonNull
+    private static final OverrideCheck PERFORM_DELETE
+            = OverrideCheck.of(DefaultDeleteResolver.class, DeleteResult.class, StorIOSQLite.class, Object.class);
+
     @NonNull
     private final Collection<T> objects;
 
@@ -40,14 +70,26 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
 
     private final boolean useTransaction;
 
+    private final boolean useBatchedDelete;
+
+    private final boolean summaryOnly;
+
+    private final int yieldEveryNumberOfObjects;
+
     PreparedDeleteCollectionOfObjects(@NonNull StorIOSQLite storIOSQLite,
                                       @NonNull Collection<T> objects,
                                       @Nullable DeleteResolver<T> explicitDeleteResolver,
-                                      boolean useTransaction) {
+                                      boolean useTransaction,
+                                      boolean useBatchedDelete,
+                                      boolean summaryOnly,
+                                      int yieldEveryNumberOfObjects) {
         super(storIOSQLite);
         this.objects = objects;
         this.explicitDeleteResolver = explicitDeleteResolver;
         this.useTransaction = useTransaction;
+        this.useBatchedDelete = useBatchedDelete;
+        this.summaryOnly = summaryOnly;
+        this.yieldEveryNumberOfObjects = yieldEveryNumberOfObjects;
     }
 
     /**
@@ -71,7 +113,16 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
             final List<SimpleImmutableEntry<T, DeleteResolver<T>>> objectsAndDeleteResolvers;
 
             if (explicitDeleteResolver != null) {
-                objectsAndDeleteResolvers = null;
+                if (useBatchedDelete) {
+                    objectsAndDeleteResolvers
+                            = new ArrayList<SimpleImmutableEntry<T, DeleteResolver<T>>>(objects.size());
+
+                    for (final T object : objects) {
+                        objectsAndDeleteResolvers.add(new SimpleImmutableEntry<T, DeleteResolver<T>>(object, explicitDeleteResolver));
+                    }
+                } else {
+                    objectsAndDeleteResolvers = null;
+                }
             } else {
                 objectsAndDeleteResolvers
                         = new ArrayList<SimpleImmutableEntry<T, DeleteResolver<T>>>(objects.size());
@@ -97,19 +148,29 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
                 internal.beginTransaction();
             }
 
-            final Map<T, DeleteResult> results = new HashMap<T, DeleteResult>(objects.size());
+            final DeleteResultsCollector<T> results = new DeleteResultsCollector<T>(summaryOnly, objects.size());
+            final TransactionYielder yielder
+                    = TransactionYielder.newInstance(internal, useTransaction ? yieldEveryNumberOfObjects : 0, results.changes());
             boolean transactionSuccessful = false;
 
             try {
-                if (explicitDeleteResolver != null) {
+                if (useBatchedDelete) {
+                    performBatchedDelete(objectsAndDeleteResolvers, results, yielder);
+
+                    if (!useTransaction) {
+                        notifyAboutChanges(internal, results);
+                    }
+                } else if (explicitDeleteResolver != null) {
                     for (final T object : objects) {
                         final DeleteResult deleteResult = explicitDeleteResolver.performDelete(storIOSQLite, object);
 
-                        results.put(object, deleteResult);
+                        results.add(object, deleteResult);
 
                         if (!useTransaction && deleteResult.numberOfRowsDeleted() > 0) {
-                            internal.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
+                            internal.notifyAboutChanges(changesOf(deleteResult));
                         }
+
+                        yielder.onOperationsPerformed(1);
                     }
                 } else {
                     for (final SimpleImmutableEntry<T, DeleteResolver<T>> objectAndDeleteResolver : objectsAndDeleteResolvers) {
@@ -118,11 +179,13 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
 
                         final DeleteResult deleteResult = deleteResolver.performDelete(storIOSQLite, object);
 
-                        results.put(object, deleteResult);
+                        results.add(object, deleteResult);
 
                         if (!useTransaction && deleteResult.numberOfRowsDeleted() > 0) {
-                            internal.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
+                            internal.notifyAboutChanges(changesOf(deleteResult));
                         }
+
+                        yielder.onOperationsPerformed(1);
                     }
                 }
 
@@ -136,31 +199,214 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
 
                     // if delete was in transaction and it was successful -> notify about changes
                     if (transactionSuccessful) {
-                        final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be one table
-
-                        for (final T object : results.keySet()) {
-                            final DeleteResult deleteResult = results.get(object);
-                            if (deleteResult.numberOfRowsDeleted() > 0) {
-                                affectedTables.addAll(results.get(object).affectedTables());
-                            }
-                        }
-
                         // IMPORTANT: Notifying about change should be done after end of transaction
                         // It'll reduce number of possible deadlock situations
-                        if (!affectedTables.isEmpty()) {
-                            internal.notifyAboutChanges(Changes.newInstance(affectedTables));
-                        }
+                        notifyAboutChanges(internal, results);
                     }
                 }
             }
 
-            return DeleteResults.newInstance(results);
+            return results.build();
 
         } catch (Exception exception) {
             throw new StorIOException(exception);
         }
     }
 
+    /**
+     * Deletes objects handled by {@link DefaultDeleteResolver} with single key where clause
+     * via {@code DELETE FROM table WHERE key IN (...)} grouped by table and key column,
+     * other objects are passed to their {@link DeleteResolver}.
+     * <p>
+     * Resolvers which override {@link DefaultDeleteResolver#performDelete(StorIOSQLite, Object)}
+     * have custom delete logic, so their objects are passed to them too.
+     */
+    private void performBatchedDelete(
+            @NonNull List<SimpleImmutableEntry<T, DeleteResolver<T>>> objectsAndDeleteResolvers,
+            @NonNull DeleteResultsCollector<T> results,
+            @NonNull TransactionYielder yielder) {
+
+        // Key is table + key column, in most cases it will be one table
+        final Map<SimpleImmutableEntry<String, String>, List<BatchEntry<T>>> batches
+                = new LinkedHashMap<SimpleImmutableEntry<String, String>, List<BatchEntry<T>>>(1);
+
+        for (final SimpleImmutableEntry<T, DeleteResolver<T>> objectAndDeleteResolver : objectsAndDeleteResolvers) {
+            final T object = objectAndDeleteResolver.getKey();
+            final DeleteResolver<T> deleteResolver = objectAndDeleteResolver.getValue();
+
+            if (canBeBatched(deleteResolver)) {
+                final DefaultDeleteResolver<T> defaultDeleteResolver = (DefaultDeleteResolver<T>) deleteResolver;
+                final DeleteQuery deleteQuery = defaultDeleteResolver.mapToDeleteQuery(object);
+                final Matcher matcher = SINGLE_KEY_WHERE.matcher(deleteQuery.where());
+
+                if (deleteQuery.whereArgs().size() == 1 && matcher.matches()) {
+                    final SimpleImmutableEntry<String, String> tableAndKeyColumn
+                            = new SimpleImmutableEntry<String, String>(deleteQuery.table(), matcher.group(1));
+
+                    List<BatchEntry<T>> batch = batches.get(tableAndKeyColumn);
+
+                    if (batch == null) {
+                        batch = new ArrayList<BatchEntry<T>>();
+                        batches.put(tableAndKeyColumn, batch);
+                    }
+
+                    batch.add(new BatchEntry<T>(
+                            object,
+                            deleteQuery.whereArgs().get(0),
+                            summaryOnly ? null : defaultDeleteResolver.mapToKey(object)
+                    ));
+                    continue;
+                }
+            }
+
+            results.add(object, deleteResolver.performDelete(storIOSQLite, object));
+            yielder.onOperationsPerformed(1);
+        }
+
+        // Detailed results require query of existing keys which is limited by number of compound selects
+        // Transaction can be yielded only between chunks
+        final int maxKeysInChunk = Math.min(
+                summaryOnly ? MAX_KEYS_IN_BATCH : MAX_KEYS_IN_DETAILED_BATCH,
+                yielder.maxOperationsBetweenYields()
+        );
+
+        for (final Map.Entry<SimpleImmutableEntry<String, String>, List<BatchEntry<T>>> entry : batches.entrySet()) {
+            final String table = entry.getKey().getKey();
+            final String keyColumn = entry.getKey().getValue();
+            final List<BatchEntry<T>> batch = entry.getValue();
+
+            for (int chunkStart = 0; chunkStart < batch.size(); chunkStart += maxKeysInChunk) {
+                final int chunkEnd = Math.min(chunkStart + maxKeysInChunk, batch.size());
+                deleteChunk(table, keyColumn, batch.subList(chunkStart, chunkEnd), results);
+                yielder.onOperationsPerformed(chunkEnd - chunkStart);
+            }
+        }
+    }
+
+    private static boolean canBeBatched(@NonNull DeleteResolver<?> deleteResolver) {
+        return deleteResolver instanceof DefaultDeleteResolver
+                && !PERFORM_DELETE.isOverriddenBy(deleteResolver.getClass());
+    }
+
+    /**
+     * Deletes rows with keys of the chunk.
+     * <p>
+     * In summary-only mode only number of deleted rows is needed, otherwise keys that exist
+     * in the table are queried before delete, so each object gets exact {@link DeleteResult}.
+     * Keys are matched by SQLite with the same affinity and collation as in the delete statement.
+     */
+    private void deleteChunk(
+            @NonNull String table,
+            @NonNull String keyColumn,
+            @NonNull List<BatchEntry<T>> chunk,
+            @NonNull DeleteResultsCollector<T> results) {
+
+        final StorIOSQLite.Internal internal = storIOSQLite.internal();
+
+        final Object[] keys = new Object[chunk.size()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = chunk.get(i).whereArg;
+        }
+
+        final DeleteQuery deleteQuery = DeleteQuery.builder()
+                .table(table)
+                .where(keyColumn + " IN (" + Queries.placeholders(keys.length) + ")")
+                .whereArgs(keys)
+                .build();
+
+        if (summaryOnly) {
+            results.addSummary(internal.deleteWithCompiledStatement(deleteQuery), table);
+            return;
+        }
+
+        final boolean[] deleted = new boolean[keys.length];
+        boolean anyExists = false;
+
+        final Cursor cursor = internal.rawQuery(RawQuery.builder()
+                .query(existingKeysSql(table, keyColumn, keys.length))
+                .args(keys)
+                .build());
+
+        try {
+            // Row can be deleted only once, even if multiple objects have same key
+            final Set<String> matchedRows = new HashSet<String>(keys.length);
+
+            while (cursor.moveToNext()) {
+                final int index = cursor.getInt(0);
+
+                if (matchedRows.add(cursor.getType(1) + ":" + cursor.getString(1))) {
+                    deleted[index] = true;
+                    anyExists = true;
+                }
+            }
+        } finally {
+            cursor.close();
+        }
+
+        if (anyExists) {
+            internal.deleteWithCompiledStatement(deleteQuery);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            final BatchEntry<T> batchEntry = chunk.get(i);
+            final int numberOfRowsDeleted = deleted[i] ? 1 : 0;
+
+            results.add(batchEntry.object, batchEntry.key != null
+                    ? DeleteResult.newInstance(numberOfRowsDeleted, table, batchEntry.key)
+                    : DeleteResult.newInstance(numberOfRowsDeleted, table));
+        }
+    }
+
+    /**
+     * Builds query which returns index of each passed key that matches row of the table
+     * and value of the key column of that row, ordered by index.
+     */
+    @NonNull
+    static String existingKeysSql(@NonNull String table, @NonNull String keyColumn, int numberOfKeys) {
+        final StringBuilder sql = new StringBuilder(64 + numberOfKeys * 24);
+
+        sql.append("SELECT k.i, t.").append(keyColumn).append(" FROM (");
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            if (i == 0) {
+                sql.append("SELECT 0 AS i, ? AS v");
+            } else {
+                sql.append(" UNION ALL SELECT ").append(i).append(", ?");
+            }
+        }
+
+        sql.append(") AS k JOIN ").append(table).append(" AS t ON t.").append(keyColumn).append(" = k.v ORDER BY k.i");
+
+        return sql.toString();
+    }
+
+    private static <T> void notifyAboutChanges(@NonNull StorIOSQLite.Internal internal, @NonNull DeleteResultsCollector<T> results) {
+        final ChangesCollector changes = results.changes();
+
+        if (!changes.isEmpty()) {
+            internal.notifyAboutChanges(changes.toChanges());
+        }
+    }
+
+    private static final class BatchEntry<T> {
+
+        @NonNull
+        final T object;
+
+        @NonNull
+        final String whereArg;
+
+        @Nullable
+        final Object key;
+
+        BatchEntry(@NonNull T object, @NonNull String whereArg, @Nullable Object key) {
+            this.object = object;
+            this.whereArg = whereArg;
+            this.key = key;
+        }
+    }
+
     /**
      * Creates {@link Observable} which will perform Delete Operation and send result to observer.
      * <p>
@@ -203,6 +449,12 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
 
         private boolean useTransaction = true;
 
+        private boolean useBatchedDelete;
+
+        private boolean summaryOnly;
+
+        private int yieldEveryNumberOfObjects;
+
         Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Collection<T> objects) {
             this.storIOSQLite = storIOSQLite;
             this.objects = objects;
@@ -239,6 +491,78 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
             return this;
         }
 
+        /**
+         * Optional: Defines that objects should be deleted via batched
+         * {@code DELETE FROM table WHERE key IN (...)} statements
+         * instead of separate delete of each object.
+         * <p>
+         * Works for objects handled by {@link DefaultDeleteResolver} which does not override
+         * {@link DefaultDeleteResolver#performDelete(StorIOSQLite, Object)} and maps them to
+         * {@link DeleteQuery} with single key where clause like {@code "key_column = ?"}
+         * (generated delete resolvers do so for types with one key column),
+         * other objects are passed to their {@link DeleteResolver}.
+         * Subscribers will be notified about changes once, after all objects are deleted.
+         * <p>
+         * Per-object results need one extra query of existing keys per chunk,
+         * with {@link #summaryOnly(boolean)} only delete statements are executed.
+         * <p>
+         * By default, batched delete is not used.
+         *
+         * @param useBatchedDelete {@code true} to use batched delete, {@code false} to not.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> useBatchedDelete(boolean useBatchedDelete) {
+            this.useBatchedDelete = useBatchedDelete;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that {@link DeleteResults} should keep only aggregated counters
+         * (number of deleted rows and affected tables) without result for each object,
+         * see {@link DeleteResults#isSummaryOnly()}.
+         * <p>
+         * Saves allocation of result entry and {@link Object#hashCode()} call per object
+         * which can be noticeable for big collections.
+         * <p>
+         * By default, result for each object is kept.
+         *
+         * @param summaryOnly {@code true} to keep only aggregated counters, {@code false} to keep result for each object.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> summaryOnly(boolean summaryOnly) {
+            this.summaryOnly = summaryOnly;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that transaction should be yielded via {@link StorIOSQLite.Internal#yieldIfContendedSafely()}
+         * every {@code numberOfObjects} objects, so other threads waiting for the database
+         * (for example, UI queries) are not blocked until the end of the whole Delete Operation.
+         * <p>
+         * Objects deleted before the yield are committed, so Delete Operation is not atomic anymore
+         * if it fails after the yield. Subscribers are notified after the end of the operation,
+         * about changes committed by yields even if the operation fails.
+         * With batched delete, keys are deleted in chunks of at most {@code numberOfObjects},
+         * so transaction can be yielded between them.
+         * Works only if transaction is used, see {@link #useTransaction(boolean)}.
+         * <p>
+         * By default, transaction is not yielded.
+         *
+         * @param numberOfObjects number of objects between yields, must be positive.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> yieldEvery(int numberOfObjects) {
+            if (numberOfObjects <= 0) {
+                throw new IllegalArgumentException("numberOfObjects should be positive, but was = " + numberOfObjects);
+            }
+
+            this.yieldEveryNumberOfObjects = numberOfObjects;
+            return this;
+        }
+
         /**
          * Prepares Delete Operation.
          *
@@ -250,7 +574,10 @@ public final class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<D
                     storIOSQLite,
                     objects,
                     deleteResolver,
-                    useTransaction
+                    useTransaction,
+                    useBatchedDelete,
+                    summaryOnly,
+                    yieldEveryNumberOfObjects
             );
         }
     }
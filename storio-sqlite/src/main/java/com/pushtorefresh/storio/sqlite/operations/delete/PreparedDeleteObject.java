@@ -7,7 +7,6 @@ import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 
@@ -73,7 +72,7 @@ public final class PreparedDeleteObject<T> extends PreparedDelete<DeleteResult>
 
             final DeleteResult deleteResult = deleteResolver.performDelete(storIOSQLite, object);
             if (deleteResult.numberOfRowsDeleted() > 0) {
-                internal.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
+                internal.notifyAboutChanges(changesOf(deleteResult));
             }
             return deleteResult;
 
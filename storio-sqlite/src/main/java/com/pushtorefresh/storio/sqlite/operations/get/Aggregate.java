@@ -0,0 +1,42 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Aggregate functions supported by {@link PreparedGetAggregate}.
+ *
+ * @see <a href="https://www.sqlite.org/lang_aggfunc.html">Aggregate functions documentation</a>
+ */
+public enum Aggregate {
+
+    /**
+     * Sum of non-NULL values, {@code NULL} if there are no such values.
+     */
+    SUM,
+
+    /**
+     * Minimum non-NULL value, {@code NULL} if there are no such values.
+     */
+    MIN,
+
+    /**
+     * Maximum non-NULL value, {@code NULL} if there are no such values.
+     */
+    MAX,
+
+    /**
+     * Average of non-NULL values, {@code NULL} if there are no such values.
+     */
+    AVG;
+
+    /**
+     * Creates SQL expression which applies this function to the column.
+     *
+     * @param column column or expression.
+     * @return non-null SQL expression, for example {@code "MAX(updated_at)"}.
+     */
+    @NonNull
+    String of(@NonNull String column) {
+        return name() + "(" + column + ")";
+    }
+}
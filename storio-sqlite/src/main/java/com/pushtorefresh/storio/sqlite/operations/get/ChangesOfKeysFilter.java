@@ -0,0 +1,67 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import java.util.Set;
+
+import rx.functions.Func1;
+
+/**
+ * Passes only {@link Changes} which could affect rows with observed keys:
+ * changes of other observed tables, changes of the whole table and changes of observed keys.
+ * <p>
+ * For internal usage only!
+ */
+final class ChangesOfKeysFilter implements Func1<Changes, Boolean> {
+
+    @NonNull
+    private final Set<String> observedTables;
+
+    @NonNull
+    private final String keysTable;
+
+    @NonNull
+    private final Set<String> observedKeys;
+
+    ChangesOfKeysFilter(@NonNull Set<String> observedTables, @NonNull String keysTable, @NonNull Set<String> observedKeys) {
+        this.observedTables = observedTables;
+        this.keysTable = keysTable;
+        this.observedKeys = observedKeys;
+    }
+
+    @Override
+    public Boolean call(Changes changes) {
+        for (String table : changes.affectedTables()) {
+            if (!observedTables.contains(table)) {
+                continue;
+            }
+
+            if (!keysTable.equals(table)) {
+                return true;
+            }
+
+            final Set<String> affectedKeys = changes.affectedKeys(table);
+
+            if (affectedKeys == null || intersects(affectedKeys, observedKeys)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean intersects(@NonNull Set<String> a, @NonNull Set<String> b) {
+        final Set<String> smaller = a.size() <= b.size() ? a : b;
+        final Set<String> bigger = smaller == a ? b : a;
+
+        for (String key : smaller) {
+            if (bigger.contains(key)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.StorIOException;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy {@link Iterable} over rows of the {@link Cursor}, each row is mapped to object
+ * via {@link GetResolver#mapFromCursor(Cursor)} only when it's requested by {@link Iterator#next()},
+ * so memory usage does not depend on number of rows.
+ * Time of the first {@link Iterator#next()} does depend on it: first move of {@code SQLiteCursor}
+ * counts all rows of the query as {@link Cursor#getCount()} does.
+ * <p>
+ * Like {@link java.nio.file.DirectoryStream}, it can be iterated only once.
+ * Underlying {@link Cursor} is closed when iteration reaches the end,
+ * please call {@link #close()} if you stop iteration earlier:
+ * <pre>
+ * {@code
+ * final CursorIterable<Tweet> tweets = ...executeAsBlocking();
+ *
+ * try {
+ *     for (Tweet tweet : tweets) {
+ *         export(tweet);
+ *     }
+ * } finally {
+ *     tweets.close();
+ * }
+ * }
+ * </pre>
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <T> type of objects.
+ */
+public final class CursorIterable<T> implements Iterable<T>, Closeable {
+
+    @NonNull
+    private final Cursor cursor;
+
+    @NonNull
+    private final GetResolver<T> getResolver;
+
+    private boolean iteratorReturned;
+
+    private boolean closed;
+
+    CursorIterable(@NonNull Cursor cursor, @NonNull GetResolver<T> getResolver) {
+        this.cursor = cursor;
+        this.getResolver = getResolver;
+    }
+
+    /**
+     * Returns iterator over mapped rows, can be called only once.
+     *
+     * @return iterator over mapped rows.
+     * @throws IllegalStateException if iterator was already returned.
+     */
+    @NonNull
+    @Override
+    public Iterator<T> iterator() {
+        if (iteratorReturned) {
+            throw new IllegalStateException("CursorIterable can be iterated only once");
+        }
+
+        iteratorReturned = true;
+        return new CursorIterator();
+    }
+
+    /**
+     * Closes underlying {@link Cursor}, iteration stops after that.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            cursor.close();
+        }
+    }
+
+    private final class CursorIterator implements Iterator<T> {
+
+        private boolean nextRowChecked;
+
+        private boolean hasNextRow;
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+
+            if (!nextRowChecked) {
+                try {
+                    hasNextRow = cursor.moveToNext();
+                } catch (Exception exception) {
+                    close();
+                    throw new StorIOException(exception);
+                }
+
+                nextRowChecked = true;
+
+                if (!hasNextRow) {
+                    close();
+                }
+            }
+
+            return hasNextRow;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            nextRowChecked = false;
+
+            try {
+                return getResolver.mapFromCursor(cursor);
+            } catch (Exception exception) {
+                close();
+                throw new StorIOException(exception);
+            }
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Can not remove rows from the Cursor");
+        }
+    }
+}
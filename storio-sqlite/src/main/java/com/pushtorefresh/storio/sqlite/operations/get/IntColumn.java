@@ -0,0 +1,138 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Values of one column loaded by {@link PreparedGetIntColumn} without boxing.
+ * <p>
+ * Columns returned by Get Operation are not modified after that, so they can be kept and shared between threads.
+ */
+public final class IntColumn {
+
+    @NonNull
+    private int[] values;
+
+    private int size;
+
+    IntColumn(int capacity) {
+        values = new int[capacity];
+    }
+
+    /**
+     * Gets number of values.
+     *
+     * @return number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if there are no values.
+     *
+     * @return {@code true} if column is empty, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets value at passed index.
+     *
+     * @param index index of value, from {@code 0} to {@link #size()} exclusive.
+     * @return value.
+     * @throws IndexOutOfBoundsException if index is out of range.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return values[index];
+    }
+
+    /**
+     * Copies values to new array.
+     *
+     * @return non-null new array with values, can be empty.
+     */
+    @NonNull
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Copies values to new column with exact capacity, so buffer of this column can be reused.
+     *
+     * @return non-null new column.
+     */
+    @NonNull
+    IntColumn copy() {
+        final IntColumn copy = new IntColumn(size);
+        System.arraycopy(values, 0, copy.values, 0, size);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Removes all values and ensures that column can hold passed number of values without growth.
+     *
+     * @param capacity expected number of values.
+     */
+    void clear(int capacity) {
+        size = 0;
+
+        if (values.length < capacity) {
+            values = new int[capacity];
+        }
+    }
+
+    /**
+     * Appends value, grows buffer if needed.
+     *
+     * @param value value.
+     */
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, size + (size >> 1)));
+        }
+
+        values[size++] = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IntColumn that = (IntColumn) o;
+
+        if (size != that.size) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (values[i] != that.values[i]) return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + values[i];
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "IntColumn{" +
+                "values=" + Arrays.toString(toArray()) +
+                '}';
+    }
+}
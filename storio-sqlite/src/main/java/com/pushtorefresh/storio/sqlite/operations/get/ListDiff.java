@@ -0,0 +1,388 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of comparison of two consecutive results of list of objects Get Operation:
+ * new list with compact set of changes between previous and new lists,
+ * see {@link PreparedGetListOfObjects#createDiffObservable()}.
+ * <p>
+ * Items are matched by keys, item with same key but not equal to previous one is "changed".
+ * Positions of removed items and sources of moves are positions in the previous list,
+ * positions of inserted and changed items and targets of moves are positions in the new list.
+ * <p>
+ * Instances of this class are Immutable.
+ *
+ * @param <T> type of items.
+ */
+public final class ListDiff<T> {
+
+    /**
+     * Default ratio of number of changes to size of the list above which
+     * full reload is emitted instead of changes.
+     */
+    public static final float DEFAULT_FULL_RELOAD_RATIO = 0.5f;
+
+    @NonNull
+    private static final int[] NO_POSITIONS = new int[0];
+
+    @NonNull
+    private final List<T> list;
+
+    private final boolean fullReload;
+
+    @NonNull
+    private final int[] removed;
+
+    @NonNull
+    private final int[] inserted;
+
+    @NonNull
+    private final int[] movedFrom;
+
+    @NonNull
+    private final int[] movedTo;
+
+    @NonNull
+    private final int[] changed;
+
+    private ListDiff(@NonNull List<T> list,
+                     boolean fullReload,
+                     @NonNull int[] removed,
+                     @NonNull int[] inserted,
+                     @NonNull int[] movedFrom,
+                     @NonNull int[] movedTo,
+                     @NonNull int[] changed) {
+        this.list = list;
+        this.fullReload = fullReload;
+        this.removed = removed;
+        this.inserted = inserted;
+        this.movedFrom = movedFrom;
+        this.movedTo = movedTo;
+        this.changed = changed;
+    }
+
+    /**
+     * Creates diff which says that whole list should be reloaded.
+     *
+     * @param list new list.
+     * @param <T>  type of items.
+     * @return diff without changes and with {@link #isFullReload()} {@code true}.
+     */
+    @NonNull
+    static <T> ListDiff<T> fullReload(@NonNull List<T> list) {
+        return new ListDiff<T>(list, true, NO_POSITIONS, NO_POSITIONS, NO_POSITIONS, NO_POSITIONS, NO_POSITIONS);
+    }
+
+    /**
+     * Calculates changes between two lists in {@code O(n log n)}.
+     *
+     * @param previous        previous list.
+     * @param current         new list.
+     * @param keyFunction     function which gets key of the item.
+     * @param fullReloadRatio ratio of number of changes to size of the bigger list
+     *                        above which full reload is returned.
+     * @param <T>             type of items.
+     * @return non-null diff, it is full reload if keys are not unique.
+     */
+    @NonNull
+    static <T> ListDiff<T> calculate(@NonNull List<T> previous,
+                                     @NonNull List<T> current,
+                                     @NonNull KeyFunction<T> keyFunction,
+                                     float fullReloadRatio) {
+        final Map<Object, Integer> previousPositions = positionsOfKeys(previous, keyFunction);
+        final Map<Object, Integer> currentPositions = positionsOfKeys(current, keyFunction);
+
+        if (previousPositions == null || currentPositions == null) {
+            return fullReload(current);
+        }
+
+        final int maxNumberOfChanges = (int) (fullReloadRatio * Math.max(previous.size(), current.size()));
+
+        final IntList removed = new IntList();
+        final IntList inserted = new IntList();
+        final IntList changed = new IntList();
+
+        // Previous positions of items which are present in both lists, in order of the new list
+        final IntList commonPreviousPositions = new IntList();
+        final IntList commonCurrentPositions = new IntList();
+
+        for (int i = 0; i < previous.size(); i++) {
+            if (!currentPositions.containsKey(keyFunction.keyOf(previous.get(i)))) {
+                removed.add(i);
+            }
+        }
+
+        for (int i = 0; i < current.size(); i++) {
+            final T item = current.get(i);
+            final Integer previousPosition = previousPositions.get(keyFunction.keyOf(item));
+
+            if (previousPosition == null) {
+                inserted.add(i);
+            } else {
+                if (!item.equals(previous.get(previousPosition))) {
+                    changed.add(i);
+                }
+
+                commonPreviousPositions.add(previousPosition);
+                commonCurrentPositions.add(i);
+            }
+        }
+
+        if (removed.size + inserted.size + changed.size > maxNumberOfChanges) {
+            return fullReload(current);
+        }
+
+        // Items of the longest increasing subsequence of previous positions keep their relative order,
+        // others are moved
+        final boolean[] notMoved = longestIncreasingSubsequence(commonPreviousPositions);
+        final IntList movedFrom = new IntList();
+        final IntList movedTo = new IntList();
+
+        for (int i = 0; i < commonPreviousPositions.size; i++) {
+            if (!notMoved[i]) {
+                movedFrom.add(commonPreviousPositions.values[i]);
+                movedTo.add(commonCurrentPositions.values[i]);
+            }
+        }
+
+        if (removed.size + inserted.size + changed.size + movedFrom.size > maxNumberOfChanges) {
+            return fullReload(current);
+        }
+
+        return new ListDiff<T>(
+                current,
+                false,
+                removed.toArray(),
+                inserted.toArray(),
+                movedFrom.toArray(),
+                movedTo.toArray(),
+                changed.toArray()
+        );
+    }
+
+    /**
+     * Maps keys of items to their positions.
+     *
+     * @return map of key to position or {@code null} if some key is {@code null} or is not unique.
+     */
+    @Nullable
+    private static <T> Map<Object, Integer> positionsOfKeys(@NonNull List<T> list, @NonNull KeyFunction<T> keyFunction) {
+        final Map<Object, Integer> positions = new HashMap<Object, Integer>(list.size());
+
+        for (int i = 0; i < list.size(); i++) {
+            final Object key = keyFunction.keyOf(list.get(i));
+
+            if (key == null || positions.put(key, i) != null) {
+                return null;
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Finds longest increasing subsequence via patience sorting in {@code O(n log n)}.
+     *
+     * @return flags of elements which belong to the subsequence.
+     */
+    @NonNull
+    private static boolean[] longestIncreasingSubsequence(@NonNull IntList sequence) {
+        final int n = sequence.size;
+        final int[] values = sequence.values;
+
+        // tails[k] is index of the smallest tail of increasing subsequence of length k + 1
+        final int[] tails = new int[n];
+        final int[] predecessors = new int[n];
+        int length = 0;
+
+        for (int i = 0; i < n; i++) {
+            int low = 0;
+            int high = length;
+
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+
+                if (values[tails[middle]] < values[i]) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+
+            if (low == length) {
+                length++;
+            }
+        }
+
+        final boolean[] result = new boolean[n];
+
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = predecessors[i]) {
+            result[i] = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets new list.
+     *
+     * @return non-null, immutable new list.
+     */
+    @NonNull
+    public List<T> list() {
+        return list;
+    }
+
+    /**
+     * Checks whether whole list should be reloaded instead of applying changes:
+     * it's the first result, there are too many changes or keys of items are not unique.
+     *
+     * @return {@code true} if whole list should be reloaded, {@code false} otherwise.
+     */
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * Gets positions of removed items in the previous list.
+     *
+     * @return new array of positions in ascending order.
+     */
+    @NonNull
+    public int[] removed() {
+        return removed.clone();
+    }
+
+    /**
+     * Gets positions of inserted items in the new list.
+     *
+     * @return new array of positions in ascending order.
+     */
+    @NonNull
+    public int[] inserted() {
+        return inserted.clone();
+    }
+
+    /**
+     * Gets positions of moved items in the previous list, parallel to {@link #movedTo()}.
+     *
+     * @return new array of positions.
+     */
+    @NonNull
+    public int[] movedFrom() {
+        return movedFrom.clone();
+    }
+
+    /**
+     * Gets positions of moved items in the new list, parallel to {@link #movedFrom()}.
+     *
+     * @return new array of positions in ascending order.
+     */
+    @NonNull
+    public int[] movedTo() {
+        return movedTo.clone();
+    }
+
+    /**
+     * Gets positions of changed items in the new list:
+     * items with same key which are not equal to previous ones.
+     *
+     * @return new array of positions in ascending order.
+     */
+    @NonNull
+    public int[] changed() {
+        return changed.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ListDiff<?> listDiff = (ListDiff<?>) o;
+
+        if (fullReload != listDiff.fullReload) return false;
+        if (!list.equals(listDiff.list)) return false;
+        if (!Arrays.equals(removed, listDiff.removed)) return false;
+        if (!Arrays.equals(inserted, listDiff.inserted)) return false;
+        if (!Arrays.equals(movedFrom, listDiff.movedFrom)) return false;
+        if (!Arrays.equals(movedTo, listDiff.movedTo)) return false;
+        return Arrays.equals(changed, listDiff.changed);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = list.hashCode();
+        result = 31 * result + (fullReload ? 1 : 0);
+        result = 31 * result + Arrays.hashCode(removed);
+        result = 31 * result + Arrays.hashCode(inserted);
+        result = 31 * result + Arrays.hashCode(movedFrom);
+        result = 31 * result + Arrays.hashCode(movedTo);
+        result = 31 * result + Arrays.hashCode(changed);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ListDiff{" +
+                "list=" + list +
+                ", fullReload=" + fullReload +
+                ", removed=" + Arrays.toString(removed) +
+                ", inserted=" + Arrays.toString(inserted) +
+                ", movedFrom=" + Arrays.toString(movedFrom) +
+                ", movedTo=" + Arrays.toString(movedTo) +
+                ", changed=" + Arrays.toString(changed) +
+                '}';
+    }
+
+    /**
+     * Function which gets key of the item, usually value of the primary key column.
+     *
+     * @param <T> type of items.
+     */
+    public interface KeyFunction<T> {
+
+        /**
+         * Gets key of the item, keys of items of one list must be unique.
+         *
+         * @param item non-null item.
+         * @return key of the item, {@code null} forces full reload.
+         */
+        @Nullable
+        Object keyOf(@NonNull T item);
+    }
+
+    /**
+     * Growable array of primitive {@code int} values.
+     */
+    private static final class IntList {
+
+        @NonNull
+        int[] values = new int[8];
+
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        @NonNull
+        int[] toArray() {
+            return size == 0 ? NO_POSITIONS : Arrays.copyOf(values, size);
+        }
+    }
+}
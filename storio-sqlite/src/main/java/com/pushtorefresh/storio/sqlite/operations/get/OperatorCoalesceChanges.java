@@ -0,0 +1,140 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+
+/**
+ * Coalesces {@link Changes} which arrive while downstream is busy with previous one:
+ * they are passed to downstream as one (the latest) change after it.
+ * <p>
+ * Downstream is called on passed {@link Scheduler} or on the thread which emitted change
+ * if scheduler is {@code null}.
+ * <p>
+ * For internal usage only!
+ */
+final class OperatorCoalesceChanges implements Observable.Operator<Changes, Changes> {
+
+    @Nullable
+    private final Scheduler scheduler;
+
+    OperatorCoalesceChanges(@Nullable Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Subscriber<? super Changes> call(Subscriber<? super Changes> child) {
+        final Scheduler.Worker worker = scheduler != null ? scheduler.createWorker() : null;
+        final CoalescingSubscriber parent = new CoalescingSubscriber(child, worker);
+
+        if (worker != null) {
+            child.add(worker);
+        }
+
+        child.add(parent);
+        return parent;
+    }
+
+    static final class CoalescingSubscriber extends Subscriber<Changes> implements Action0 {
+
+        @NonNull
+        private final Subscriber<? super Changes> child;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        /**
+         * Number of signals which were not handled by drain loop yet.
+         */
+        @NonNull
+        private final AtomicInteger pending = new AtomicInteger();
+
+        @NonNull
+        private final AtomicReference<Changes> latest = new AtomicReference<Changes>();
+
+        @Nullable
+        private Throwable error;
+
+        private volatile boolean done;
+
+        CoalescingSubscriber(@NonNull Subscriber<? super Changes> child, @Nullable Scheduler.Worker worker) {
+            this.child = child;
+            this.worker = worker;
+        }
+
+        @Override
+        public void onNext(Changes changes) {
+            latest.set(changes);
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            error = e;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onCompleted() {
+            done = true;
+            schedule();
+        }
+
+        private void schedule() {
+            // Only first signal starts drain loop, others are coalesced by it
+            if (pending.getAndIncrement() == 0) {
+                if (worker != null) {
+                    worker.schedule(this);
+                } else {
+                    call();
+                }
+            }
+        }
+
+        /**
+         * Drain loop: passes the latest change to downstream until there are no pending signals.
+         */
+        @Override
+        public void call() {
+            int missed = 1;
+
+            for (; ; ) {
+                if (child.isUnsubscribed()) {
+                    return;
+                }
+
+                final boolean terminated = done;
+                final Changes changes = latest.getAndSet(null);
+
+                if (changes != null) {
+                    child.onNext(changes);
+                }
+
+                if (terminated && latest.get() == null) {
+                    if (error != null) {
+                        child.onError(error);
+                    } else {
+                        child.onCompleted();
+                    }
+                    return;
+                }
+
+                missed = pending.addAndGet(-missed);
+
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
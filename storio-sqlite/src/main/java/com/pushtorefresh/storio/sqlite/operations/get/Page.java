@@ -0,0 +1,104 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Page of objects loaded by {@link PreparedGetPageOfObjects}.
+ * <p>
+ * Instances of this class are Immutable.
+ *
+ * @param <T> type of objects.
+ */
+public final class Page<T> {
+
+    @NonNull
+    private final List<T> items;
+
+    @Nullable
+    private final String nextPageToken;
+
+    @Nullable
+    private final Page<T> prefetchedNextPage;
+
+    Page(@NonNull List<T> items, @Nullable String nextPageToken, @Nullable Page<T> prefetchedNextPage) {
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+        this.prefetchedNextPage = prefetchedNextPage;
+    }
+
+    /**
+     * Gets objects of the page.
+     *
+     * @return non-null, immutable list of objects, can be empty.
+     */
+    @NonNull
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * Gets token of the next page: value of the key column of the last object of this page.
+     * <p>
+     * Token can be stored and passed to
+     * {@link PreparedGetPageOfObjects.CompleteBuilder#afterPageToken(String)} later.
+     *
+     * @return token of the next page or {@code null} if this page is the last one.
+     */
+    @Nullable
+    public String nextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Checks if there are more objects after this page.
+     *
+     * @return {@code true} if there is next page, {@code false} otherwise.
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Gets next page if it was loaded together with this page,
+     * see {@link PreparedGetPageOfObjects.CompleteBuilder#prefetchNextPage(boolean)}.
+     *
+     * @return prefetched next page or {@code null} if it was not prefetched or this page is the last one.
+     */
+    @Nullable
+    public Page<T> prefetchedNextPage() {
+        return prefetchedNextPage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Page<?> page = (Page<?>) o;
+
+        if (!items.equals(page.items)) return false;
+        if (nextPageToken != null ? !nextPageToken.equals(page.nextPageToken) : page.nextPageToken != null)
+            return false;
+        return prefetchedNextPage != null ? prefetchedNextPage.equals(page.prefetchedNextPage) : page.prefetchedNextPage == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = items.hashCode();
+        result = 31 * result + (nextPageToken != null ? nextPageToken.hashCode() : 0);
+        result = 31 * result + (prefetchedNextPage != null ? prefetchedNextPage.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items +
+                ", nextPageToken='" + nextPageToken + '\'' +
+                ", prefetchedNextPage=" + prefetchedNextPage +
+                '}';
+    }
+}
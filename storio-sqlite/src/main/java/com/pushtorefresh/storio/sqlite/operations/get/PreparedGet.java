@@ -1,13 +1,29 @@
 package com.pushtorefresh.storio.sqlite.operations.get;
 
+import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Prepared Get Operation for {@link StorIOSQLite}.
  *
@@ -36,6 +52,213 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
         query = null;
     }
 
+    /**
+     * Gets tables which are read by the query of this operation.
+     *
+     * @return non-null set of tables, can be empty for {@link RawQuery} without observed tables.
+     */
+    @NonNull
+    Set<String> readTables() {
+        if (query != null) {
+            return Collections.singleton(query.table());
+        } else if (rawQuery != null) {
+            return rawQuery.observesTables();
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+    }
+
+    /**
+     * Gets keys of rows of the table of {@link Query} which are read by this operation,
+     * changes of other rows of that table do not trigger re-query.
+     *
+     * @return keys converted to strings or {@code null} if query can read any row.
+     */
+    @Nullable
+    Set<String> observedKeys() {
+        return null;
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of tables from query
+     * and will emit result each time change occurs, same as {@link #createObservable()},
+     * but re-queries are coalesced with passed policy instead of {@link StorIOSQLite#requeryCoalescing()}.
+     *
+     * @param coalescing policy of coalescing of re-queries or {@code null} to re-query on each change.
+     * @return non-null {@link Observable} which will emit result of the query
+     * and will be subscribed to changes of tables from query.
+     */
+    @NonNull
+    @CheckResult
+    public abstract Observable<Result> createObservable(@Nullable RequeryCoalescing coalescing);
+
+    /**
+     * Observes changes of tables for re-execution of the query.
+     * <p>
+     * Changes are passed to {@link StorIOSQLite#requeryScheduler()} if it's set,
+     * so thread which notified about changes is not blocked by the query.
+     *
+     * @param tables     tables to observe.
+     * @param coalescing policy of coalescing of changes or {@code null} to pass each change.
+     * @return non-null {@link Observable} of changes.
+     */
+    @NonNull
+    Observable<Changes> observeChangesToRequery(@NonNull Set<String> tables, @Nullable RequeryCoalescing coalescing) {
+        Observable<Changes> changes = storIOSQLite.observeChangesInTables(tables);
+        final Set<String> observedKeys = observedKeys();
+
+        if (observedKeys != null && query != null) {
+            changes = changes.filter(new ChangesOfKeysFilter(tables, query.table(), observedKeys));
+        }
+
+        final Scheduler requeryScheduler = storIOSQLite.requeryScheduler();
+
+        if (coalescing == null) {
+            if (requeryScheduler == null) {
+                return changes;
+            }
+
+            // Only the latest change matters: query reads current state of tables anyway
+            return changes
+                    .onBackpressureLatest()
+                    .observeOn(requeryScheduler);
+        }
+
+        if (coalescing.windowMillis() > 0) {
+            changes = changes.throttleLast(
+                    coalescing.windowMillis(),
+                    MILLISECONDS,
+                    requeryScheduler != null ? requeryScheduler : Schedulers.io()
+            );
+        }
+
+        return changes.lift(new OperatorCoalesceChanges(requeryScheduler));
+    }
+
+    /**
+     * Converts keys to strings, same as {@link Changes} does.
+     *
+     * @param keys non-empty array of keys.
+     * @return non-null set of keys converted to strings.
+     */
+    @NonNull
+    static Set<String> keysToStrings(@NonNull Object[] keys) {
+        checkNotNull(keys, "Please specify keys");
+
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("Please specify at least one key");
+        }
+
+        final Set<String> result = new HashSet<String>(keys.length);
+
+        for (Object key : keys) {
+            checkNotNull(key, "Key can not be null");
+            result.add(String.valueOf(key));
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes trailing semicolons from SQL statement, so it can be used as subquery.
+     *
+     * @param sql SQL statement.
+     * @return non-null SQL statement without trailing semicolons and whitespaces.
+     */
+    @NonNull
+    static String withoutTrailingSemicolons(@NonNull String sql) {
+        String result = sql.trim();
+
+        while (result.endsWith(";")) {
+            result = result.substring(0, result.length() - 1).trim();
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether SQL statement starts with {@code SELECT} or {@code VALUES}, so it can be used as subquery.
+     * Other statements, for example {@code PRAGMA} or ones with leading comments or {@code WITH} clause
+     * that can precede {@code DELETE}, are treated as not {@code SELECT}.
+     *
+     * @param sql SQL statement.
+     * @return {@code true} if statement is {@code SELECT}, {@code false} otherwise.
+     */
+    static boolean isSelect(@NonNull String sql) {
+        final String trimmed = sql.trim();
+        return trimmed.regionMatches(true, 0, "SELECT", 0, 6) || trimmed.regionMatches(true, 0, "VALUES", 0, 6);
+    }
+
+    /**
+     * Builds {@code SELECT} statement from the query.
+     *
+     * @param query query.
+     * @return non-null SQL statement.
+     */
+    @NonNull
+    static String selectSql(@NonNull Query query) {
+        final StringBuilder sql = new StringBuilder("SELECT ");
+
+        if (query.distinct()) {
+            sql.append("DISTINCT ");
+        }
+
+        if (query.columns().isEmpty()) {
+            sql.append('*');
+        } else {
+            final List<String> columns = query.columns();
+
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+
+                sql.append(columns.get(i));
+            }
+        }
+
+        sql.append(" FROM ").append(query.table());
+
+        if (!query.where().isEmpty()) {
+            sql.append(" WHERE ").append(query.where());
+        }
+
+        if (!query.groupBy().isEmpty()) {
+            sql.append(" GROUP BY ").append(query.groupBy());
+        }
+
+        if (!query.having().isEmpty()) {
+            sql.append(" HAVING ").append(query.having());
+        }
+
+        if (!query.orderBy().isEmpty()) {
+            sql.append(" ORDER BY ").append(query.orderBy());
+        }
+
+        if (!query.limit().isEmpty()) {
+            sql.append(" LIMIT ").append(query.limit());
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * Creates raw query with passed SQL built from the query,
+     * it has same arguments and observes table of the query.
+     *
+     * @param query query.
+     * @param sql   SQL statement built from the query.
+     * @return non-null raw query.
+     */
+    @NonNull
+    static RawQuery asRawQuery(@NonNull Query query, @NonNull String sql) {
+        return RawQuery.builder()
+                .query(sql)
+                .args(query.whereArgs().toArray())
+                .observesTables(query.table())
+                .build();
+    }
+
     /**
      * Builder for {@link PreparedGet}.
      */
@@ -70,6 +293,32 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
             return new PreparedGetListOfObjects.Builder<T>(storIOSQLite, type);
         }
 
+        /**
+         * Returns builder for Get Operation that streams items one by one
+         * instead of loading all of them to {@link java.util.List}.
+         *
+         * @param type type of items.
+         * @param <T>  type of items.
+         * @return builder for Get Operation that returns result as lazy {@link CursorIterable} of items.
+         */
+        @NonNull
+        public <T> PreparedGetIterableOfObjects.Builder<T> iterableOfObjects(@NonNull Class<T> type) {
+            return new PreparedGetIterableOfObjects.Builder<T>(storIOSQLite, type);
+        }
+
+        /**
+         * Returns builder for Get Operation that returns one page of items
+         * via keyset pagination.
+         *
+         * @param type type of items.
+         * @param <T>  type of items.
+         * @return builder for Get Operation that returns result as {@link Page} of items.
+         */
+        @NonNull
+        public <T> PreparedGetPageOfObjects.Builder<T> pageOfObjects(@NonNull Class<T> type) {
+            return new PreparedGetPageOfObjects.Builder<T>(storIOSQLite, type);
+        }
+
         /**
          * Returns builder for Get Operation that returns result as item instance.
          *
@@ -91,5 +340,82 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
         public PreparedGetNumberOfResults.Builder numberOfResults() {
             return new PreparedGetNumberOfResults.Builder(storIOSQLite);
         }
+
+        /**
+         * Returns builder for Get Operation that checks if query has at least one result.
+         *
+         * @return builder for Get Operation that returns result as {@link Boolean}.
+         */
+        @NonNull
+        public PreparedGetExists.Builder exists() {
+            return new PreparedGetExists.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that applies aggregate function to the column.
+         *
+         * @param function aggregate function.
+         * @param column   column or expression.
+         * @return builder for Get Operation that returns result as {@link Double}, {@link Long} or {@link String}.
+         */
+        @NonNull
+        public PreparedGetAggregate.Builder aggregate(@NonNull Aggregate function, @NonNull String column) {
+            checkNotNull(function, "Please specify aggregate function");
+            checkNotEmpty(column, "Please specify column");
+            return new PreparedGetAggregate.Builder(storIOSQLite, function, column);
+        }
+
+        /**
+         * Returns builder for Get Operation that reads numeric value of the first column of the first row.
+         *
+         * @return builder for Get Operation that returns result as {@link Long}.
+         */
+        @NonNull
+        public PreparedGetSingleLong.Builder singleLong() {
+            return new PreparedGetSingleLong.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that reads text value of the first column of the first row.
+         *
+         * @return builder for Get Operation that returns result as {@link String}.
+         */
+        @NonNull
+        public PreparedGetSingleString.Builder singleString() {
+            return new PreparedGetSingleString.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that reads first column of the query results
+         * as primitive {@code long} values without boxing.
+         *
+         * @return builder for Get Operation that returns result as {@link LongColumn}.
+         */
+        @NonNull
+        public PreparedGetLongColumn.Builder longColumn() {
+            return new PreparedGetLongColumn.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that reads first column of the query results
+         * as primitive {@code int} values without boxing.
+         *
+         * @return builder for Get Operation that returns result as {@link IntColumn}.
+         */
+        @NonNull
+        public PreparedGetIntColumn.Builder intColumn() {
+            return new PreparedGetIntColumn.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that reads first column of the query results
+         * as primitive {@code double} values without boxing.
+         *
+         * @return builder for Get Operation that returns result as {@link DoubleColumn}.
+         */
+        @NonNull
+        public PreparedGetDoubleColumn.Builder doubleColumn() {
+            return new PreparedGetDoubleColumn.Builder(storIOSQLite);
+        }
     }
 }
@@ -0,0 +1,166 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Prepared Get Operation that applies {@link Aggregate} function to the column of rows
+ * matched by the query without allocation of {@link android.database.Cursor}.
+ * <p>
+ * Result of {@link CompleteBuilder#prepare()} is {@link Double}, so integer values are exact up to 2^53,
+ * please use {@link CompleteBuilder#prepareAsLong()} for aggregates of {@code INTEGER} columns if you need more.
+ * Result is read as text and SQLite converts {@code REAL} values to text with 15 significant digits,
+ * so aggregates of {@code REAL} columns are rounded, while exact {@code double} needs 17 of them.
+ * {@link Aggregate#MIN} and {@link Aggregate#MAX} of {@code TEXT} values can be read
+ * via {@link CompleteBuilder#prepareAsString()}.
+ */
+public final class PreparedGetAggregate extends PreparedGetScalar<Double> {
+
+    PreparedGetAggregate(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return result of aggregate function, can be {@code null} if there are no non-NULL values.
+     * @throws StorIOException if result is not a number, for example {@link Aggregate#MAX} of {@code TEXT} column.
+     */
+    @WorkerThread
+    @Nullable
+    @Override
+    public Double executeAsBlocking() {
+        try {
+            final String value = storIOSQLite.internal().simpleQueryForString(simpleQuery());
+            return value != null ? Double.valueOf(value) : null;
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Replaces columns of the query with aggregate function.
+     * Query must not have {@code GROUP BY} and {@code LIMIT}, because they change
+     * rows that are aggregated and number of results.
+     *
+     * @param query    query.
+     * @param function aggregate function.
+     * @param column   column or expression.
+     * @return non-null raw query which returns result of aggregate function.
+     */
+    @NonNull
+    static RawQuery aggregateQuery(@NonNull Query query, @NonNull Aggregate function, @NonNull String column) {
+        if (!query.groupBy().isEmpty() || !query.having().isEmpty()) {
+            throw new IllegalArgumentException("Query of aggregate function must not have GROUP BY or HAVING, but was = " + query);
+        }
+
+        if (!query.limit().isEmpty()) {
+            throw new IllegalArgumentException("Query of aggregate function must not have LIMIT, but was = " + query);
+        }
+
+        final Query aggregateQuery = query
+                .toBuilder()
+                .columns(function.of(column))
+                .build();
+
+        return asRawQuery(aggregateQuery, selectSql(aggregateQuery));
+    }
+
+    /**
+     * Builder for {@link PreparedGetAggregate}.
+     */
+    public static final class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Aggregate function;
+
+        @NonNull
+        private final String column;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Aggregate function, @NonNull String column) {
+            this.storIOSQLite = storIOSQLite;
+            this.function = function;
+            this.column = column;
+        }
+
+        /**
+         * Required: Specifies table and rows to aggregate,
+         * columns of the query are replaced with aggregate function.
+         * Query must not have {@code GROUP BY} and {@code LIMIT}.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, aggregateQuery(query, function, column));
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetAggregate}.
+     */
+    public static final class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final RawQuery rawQuery;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.rawQuery = rawQuery;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetAggregate}.
+         *
+         * @return new instance of {@link PreparedGetAggregate}.
+         */
+        @NonNull
+        public PreparedGetAggregate prepare() {
+            return new PreparedGetAggregate(storIOSQLite, rawQuery);
+        }
+
+        /**
+         * Builds Get Operation that returns result of aggregate function as text without conversion,
+         * for example {@link Aggregate#MIN} or {@link Aggregate#MAX} of {@code TEXT} column.
+         *
+         * @return new instance of {@link PreparedGetSingleString}.
+         */
+        @NonNull
+        public PreparedGetSingleString prepareAsString() {
+            return new PreparedGetSingleString(storIOSQLite, rawQuery);
+        }
+
+        /**
+         * Builds Get Operation that returns result of aggregate function as {@code long} without conversion to text,
+         * so aggregates of {@code INTEGER} columns are exact in the whole range of {@code long}.
+         * Notice: {@code NULL} result, for example {@link Aggregate#MAX} of no rows, is returned as {@code 0}.
+         *
+         * @return new instance of {@link PreparedGetSingleLong}.
+         */
+        @NonNull
+        public PreparedGetSingleLong prepareAsLong() {
+            return new PreparedGetSingleLong(storIOSQLite, rawQuery);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import java.util.Set;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Base class for Get Operations that read first column of the query results
+ * into primitive array without boxing of values.
+ *
+ * @param <Column> type of column.
+ */
+abstract class PreparedGetColumn<Column> extends PreparedGet<Column> {
+
+    PreparedGetColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
+        super(storIOSQLite, query);
+    }
+
+    PreparedGetColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    /**
+     * Creates empty column.
+     *
+     * @param capacity expected number of values.
+     * @return non-null empty column.
+     */
+    @NonNull
+    abstract Column newColumn(int capacity);
+
+    /**
+     * Copies values of the column to new column.
+     *
+     * @param column column to copy.
+     * @return non-null new column with same values.
+     */
+    @NonNull
+    abstract Column copyColumn(@NonNull Column column);
+
+    /**
+     * Replaces values of the column with values of the first column of all rows of the cursor.
+     *
+     * @param cursor cursor positioned before the first row.
+     * @param column column to fill.
+     */
+    abstract void readColumn(@NonNull Cursor cursor, @NonNull Column column);
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null column with values of the first column of the query results,
+     * {@code NULL} values are returned as {@code 0}. Can be empty.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public Column executeAsBlocking() {
+        return executeAsBlocking(null);
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     *
+     * @param reusedColumn column from previous execution which buffer can be reused,
+     *                     or {@code null} to create new column.
+     * @return non-null column, passed one if it was not {@code null}.
+     */
+    @WorkerThread
+    @NonNull
+    Column executeAsBlocking(@Nullable Column reusedColumn) {
+        try {
+            final Cursor cursor;
+
+            if (query != null) {
+                cursor = storIOSQLite.internal().query(query);
+            } else if (rawQuery != null) {
+                cursor = storIOSQLite.internal().rawQuery(rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            try {
+                final Column column = reusedColumn != null
+                        ? reusedColumn
+                        : newColumn(cursor.getCount());
+
+                readColumn(cursor, column);
+                return column;
+            } finally {
+                cursor.close();
+            }
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of tables from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of tables from query will occur during lifetime of
+     * the {@link Observable}.
+     * <p>
+     * Each subscription reads values into one reused buffer and emits its copy with exact size,
+     * so emitted columns are never modified and can be kept or passed to another thread.
+     * Same column instance is emitted again if values were not changed.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit non-null column
+     * and will be subscribed to changes of tables from query.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Column> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Column> createObservable(@Nullable RequeryCoalescing coalescing) {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return Observable
+                .defer(new ObserveColumn<Column>(this, readTables(), coalescing))
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Creates stream of one subscription, so the column is not shared between subscriptions.
+     */
+    private static final class ObserveColumn<Column> implements Func0<Observable<Column>> {
+
+        @NonNull
+        private final PreparedGetColumn<Column> preparedGet;
+
+        @NonNull
+        private final Set<String> tables;
+
+        @Nullable
+        private final RequeryCoalescing coalescing;
+
+        ObserveColumn(@NonNull PreparedGetColumn<Column> preparedGet,
+                      @NonNull Set<String> tables,
+                      @Nullable RequeryCoalescing coalescing) {
+            this.preparedGet = preparedGet;
+            this.tables = tables;
+            this.coalescing = coalescing;
+        }
+
+        @Override
+        public Observable<Column> call() {
+            final ReadColumn<Column> readColumn = new ReadColumn<Column>(preparedGet);
+
+            final OnSubscribeReadColumn<Column> firstResult = new OnSubscribeReadColumn<Column>(readColumn);
+
+            if (tables.isEmpty()) {
+                return Observable.create(firstResult);
+            }
+
+            return preparedGet.observeChangesToRequery(tables, coalescing) // each change triggers reading of the column
+                    .map(readColumn)
+                    .startWith(Observable.create(firstResult)) // start stream with first query result
+                    .onBackpressureLatest();
+        }
+    }
+
+    /**
+     * Reads column into the reused buffer on each change, emits copy of the buffer
+     * only if values differ from the previous emission.
+     */
+    private static final class ReadColumn<Column> implements Func1<Changes, Column> {
+
+        @NonNull
+        private final PreparedGetColumn<Column> preparedGet;
+
+        /**
+         * Guarded by {@code this}, never emitted.
+         */
+        @Nullable
+        private Column buffer;
+
+        /**
+         * Guarded by {@code this}.
+         */
+        @Nullable
+        private Column lastResult;
+
+        ReadColumn(@NonNull PreparedGetColumn<Column> preparedGet) {
+            this.preparedGet = preparedGet;
+        }
+
+        @Override
+        public Column call(Changes changes) {
+            return read();
+        }
+
+        @NonNull
+        synchronized Column read() {
+            buffer = preparedGet.executeAsBlocking(buffer);
+
+            if (lastResult == null || !lastResult.equals(buffer)) {
+                lastResult = preparedGet.copyColumn(buffer);
+            }
+
+            return lastResult;
+        }
+    }
+
+    /**
+     * Emits first result of {@link ReadColumn}.
+     */
+    private static final class OnSubscribeReadColumn<Column> implements Observable.OnSubscribe<Column> {
+
+        @NonNull
+        private final ReadColumn<Column> readColumn;
+
+        OnSubscribeReadColumn(@NonNull ReadColumn<Column> readColumn) {
+            this.readColumn = readColumn;
+        }
+
+        @Override
+        public void call(Subscriber<? super Column> subscriber) {
+            final Column result = readColumn.read();
+
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onNext(result);
+                subscriber.onCompleted();
+            }
+        }
+    }
+}
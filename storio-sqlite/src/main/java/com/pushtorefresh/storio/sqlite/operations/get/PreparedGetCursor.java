@@ -9,6 +9,7 @@ import android.support.annotation.WorkerThread;
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
@@ -91,6 +92,16 @@ public final class PreparedGetCursor extends PreparedGet<Cursor> {
     @CheckResult
     @Override
     public Observable<Cursor> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Cursor> createObservable(@Nullable RequeryCoalescing coalescing) {
         throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
         final Set<String> tables;
@@ -105,8 +116,7 @@ public final class PreparedGetCursor extends PreparedGet<Cursor> {
         }
 
         if (!tables.isEmpty()) {
-            return storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
+            return observeChangesToRequery(tables, coalescing) // each change triggers executeAsBlocking
                     .map(MapSomethingToExecuteAsBlocking.newInstance(this))
                     .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
                     .onBackpressureLatest()
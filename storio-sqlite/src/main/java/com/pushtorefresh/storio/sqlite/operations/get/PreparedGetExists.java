@@ -0,0 +1,135 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Prepared Get Operation that checks if query has at least one result
+ * via {@code SELECT EXISTS(...)} without allocation of {@link android.database.Cursor}.
+ */
+public final class PreparedGetExists extends PreparedGetScalar<Boolean> {
+
+    PreparedGetExists(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return {@code true} if query has at least one result, {@code false} otherwise.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public Boolean executeAsBlocking() {
+        try {
+            final Long exists = storIOSQLite.internal().simpleQueryForLong(simpleQuery());
+            return exists != null && exists != 0;
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Wraps query into {@code SELECT EXISTS(...)}.
+     *
+     * @param query query.
+     * @return non-null raw query which returns {@code 1} if passed query has results, {@code 0} otherwise.
+     */
+    @NonNull
+    static RawQuery existsQuery(@NonNull Query query) {
+        return asRawQuery(query, "SELECT EXISTS(" + selectSql(query) + ")");
+    }
+
+    /**
+     * Wraps raw query into {@code SELECT EXISTS(...)}.
+     *
+     * @param rawQuery query, must be {@code SELECT} statement.
+     * @return non-null raw query which returns {@code 1} if passed query has results, {@code 0} otherwise.
+     */
+    @NonNull
+    static RawQuery existsQuery(@NonNull RawQuery rawQuery) {
+        return rawQuery
+                .toBuilder()
+                .query("SELECT EXISTS(" + withoutTrailingSemicolons(rawQuery.query()) + ")")
+                .build();
+    }
+
+    /**
+     * Builder for {@link PreparedGetExists}.
+     */
+    public static final class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Required: Specifies query which results should be checked.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, existsQuery(query));
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} which results should be checked,
+         * you can use it for "joins" and same constructions which are not allowed for {@link Query}.
+         *
+         * @param rawQuery query, must be {@code SELECT} statement.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder(storIOSQLite, existsQuery(rawQuery));
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetExists}.
+     */
+    public static final class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final RawQuery rawQuery;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.rawQuery = rawQuery;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetExists}.
+         *
+         * @return new instance of {@link PreparedGetExists}.
+         */
+        @NonNull
+        public PreparedGetExists prepare() {
+            return new PreparedGetExists(storIOSQLite, rawQuery);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Prepared Get Operation that reads first column of the query results as {@link IntColumn}
+ * without boxing of values, for example counters or enum ordinals.
+ */
+public final class PreparedGetIntColumn extends PreparedGetColumn<IntColumn> {
+
+    PreparedGetIntColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
+        super(storIOSQLite, query);
+    }
+
+    PreparedGetIntColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    @NonNull
+    @Override
+    IntColumn newColumn(int capacity) {
+        return new IntColumn(capacity);
+    }
+
+    @NonNull
+    @Override
+    IntColumn copyColumn(@NonNull IntColumn column) {
+        return column.copy();
+    }
+
+    @Override
+    void readColumn(@NonNull Cursor cursor, @NonNull IntColumn column) {
+        column.clear(cursor.getCount());
+
+        while (cursor.moveToNext()) {
+            column.add(cursor.getInt(0));
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetIntColumn}.
+     */
+    public static final class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Required: Specifies query which first column should be read,
+         * please specify the column via {@link Query.CompleteBuilder#columns(String...)}.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, query, null);
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} which first column should be read,
+         * you can use it for "joins" and same constructions which are not allowed for {@link Query}.
+         *
+         * @param rawQuery query.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder(storIOSQLite, null, rawQuery);
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetIntColumn}.
+     */
+    public static final class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @Nullable
+        private final Query query;
+
+        @Nullable
+        private final RawQuery rawQuery;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @Nullable Query query, @Nullable RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.query = query;
+            this.rawQuery = rawQuery;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetIntColumn}.
+         *
+         * @return new instance of {@link PreparedGetIntColumn}.
+         */
+        @NonNull
+        public PreparedGetIntColumn prepare() {
+            if (query != null) {
+                return new PreparedGetIntColumn(storIOSQLite, query);
+            } else if (rawQuery != null) {
+                return new PreparedGetIntColumn(storIOSQLite, rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import rx.Observable;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that streams results row by row
+ * instead of materializing them into {@link java.util.List}.
+ * <p>
+ * Each row is mapped only when it's requested, so it's suitable for exports, syncs
+ * and other consumers of big results that process objects one by one:
+ * only current window of the {@link Cursor} and current object are held in memory.
+ * <p>
+ * Only memory is bounded, not the time to the first object: first move of {@code SQLiteCursor}
+ * counts all rows of the query as {@link Cursor#getCount()} does, so SQLite scans the whole result
+ * before the first object is emitted. Please use {@link PreparedGetPageOfObjects} or LIMIT to avoid that.
+ *
+ * @param <T> type of results.
+ */
+public final class PreparedGetIterableOfObjects<T> {
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private final Class<T> type;
+
+    @Nullable
+    private final Query query;
+
+    @Nullable
+    private final RawQuery rawQuery;
+
+    @Nullable
+    private final GetResolver<T> explicitGetResolver;
+
+    PreparedGetIterableOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                                 @NonNull Class<T> type,
+                                 @NonNull Query query,
+                                 @Nullable GetResolver<T> explicitGetResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.type = type;
+        this.query = query;
+        this.rawQuery = null;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    PreparedGetIterableOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                                 @NonNull Class<T> type,
+                                 @NonNull RawQuery rawQuery,
+                                 @Nullable GetResolver<T> explicitGetResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.type = type;
+        this.query = null;
+        this.rawQuery = rawQuery;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    /**
+     * Executes query immediately in current thread and returns lazy {@link CursorIterable}
+     * which maps rows to objects during iteration.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     * Iteration over the result performs I/O too.
+     * <p>
+     * Please close returned {@link CursorIterable} if you stop iteration before its end.
+     *
+     * @return non-null {@link CursorIterable} over mapped results, can be iterated only once.
+     */
+    @WorkerThread
+    @NonNull
+    public CursorIterable<T> executeAsBlocking() {
+        try {
+            final GetResolver<T> getResolver;
+
+            if (explicitGetResolver != null) {
+                getResolver = explicitGetResolver;
+            } else {
+                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.internal().typeMapping(type);
+
+                if (typeMapping == null) {
+                    throw new IllegalStateException("This type does not have type mapping: " +
+                            "type = " + type + "," +
+                            "db was not touched by this operation, please add type mapping for this type");
+                }
+
+                getResolver = typeMapping.getResolver();
+            }
+
+            final Cursor cursor;
+
+            if (query != null) {
+                cursor = getResolver.performGet(storIOSQLite, query);
+            } else if (rawQuery != null) {
+                cursor = getResolver.performGet(storIOSQLite, rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            // First move of SQLiteCursor counts all rows of the query as getCount() does,
+            // so only memory is bounded here, not the initial scan of the whole result
+            return new CursorIterable<T>(cursor, getResolver);
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Creates "Cold" {@link Observable} which will execute query on subscription
+     * and emit mapped results one by one, respecting backpressure of the subscriber:
+     * rows are read and mapped only when they're requested.
+     * <p>
+     * Unlike {@link PreparedGetListOfObjects#createObservable()}, it's not subscribed to changes of tables,
+     * it completes after the last row. {@link Cursor} is closed on completion, error or unsubscription.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Observable} which will emit mapped results one by one.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<T> createObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return Observable
+                .using(
+                        new ExecuteAsBlocking<T>(this),
+                        new FromIterable<T>(),
+                        new CloseIterable<T>()
+                )
+                .subscribeOn(Schedulers.io());
+    }
+
+    private static final class ExecuteAsBlocking<T> implements Func0<CursorIterable<T>> {
+
+        @NonNull
+        private final PreparedGetIterableOfObjects<T> preparedGet;
+
+        ExecuteAsBlocking(@NonNull PreparedGetIterableOfObjects<T> preparedGet) {
+            this.preparedGet = preparedGet;
+        }
+
+        @Override
+        public CursorIterable<T> call() {
+            return preparedGet.executeAsBlocking();
+        }
+    }
+
+    private static final class FromIterable<T> implements Func1<CursorIterable<T>, Observable<? extends T>> {
+
+        @Override
+        public Observable<? extends T> call(CursorIterable<T> cursorIterable) {
+            // Observable.from(Iterable) pulls next row only when subscriber requests it
+            return Observable.from(cursorIterable);
+        }
+    }
+
+    private static final class CloseIterable<T> implements Action1<CursorIterable<T>> {
+
+        @Override
+        public void call(CursorIterable<T> cursorIterable) {
+            cursorIterable.close();
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetIterableOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static final class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+        }
+
+        /**
+         * Required: Specifies query which will be passed to {@link StorIOSQLite}
+         * to get objects.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder<T> withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder<T>(storIOSQLite, type, query);
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} for Get Operation,
+         * you can use it for "joins" and same constructions which are not allowed for {@link Query}.
+         *
+         * @param rawQuery query.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder<T> withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder<T>(storIOSQLite, type, rawQuery);
+        }
+    }
+
+    /**
+     * Compile-safe part of {@link Builder}.
+     *
+     * @param <T> type of objects.
+     */
+    public static final class CompleteBuilder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @Nullable
+        Query query;
+
+        @Nullable
+        RawQuery rawQuery;
+
+        @Nullable
+        private GetResolver<T> getResolver;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+            rawQuery = null;
+        }
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.rawQuery = rawQuery;
+            query = null;
+        }
+
+        /**
+         * Optional: Specifies resolver for Get Operation which can be used
+         * to provide custom behavior of Get Operation.
+         * <p>
+         * {@link SQLiteTypeMapping} can be used to set default GetResolver.
+         * If GetResolver is not set via {@link SQLiteTypeMapping}
+         * or explicitly — exception will be thrown.
+         *
+         * @param getResolver nullable resolver for Get Operation.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> withGetResolver(@Nullable GetResolver<T> getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetIterableOfObjects}.
+         *
+         * @return new instance of {@link PreparedGetIterableOfObjects}.
+         */
+        @NonNull
+        public PreparedGetIterableOfObjects<T> prepare() {
+            if (query != null) {
+                return new PreparedGetIterableOfObjects<T>(
+                        storIOSQLite,
+                        type,
+                        query,
+                        getResolver
+                );
+            } else if (rawQuery != null) {
+                return new PreparedGetIterableOfObjects<T>(
+                        storIOSQLite,
+                        type,
+                        rawQuery,
+                        getResolver
+                );
+            } else {
+                throw new IllegalStateException("Please specify Query or RawQuery");
+            }
+        }
+    }
+}
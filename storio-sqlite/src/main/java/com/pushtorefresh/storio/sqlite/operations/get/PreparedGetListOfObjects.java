@@ -9,17 +9,23 @@ import android.support.annotation.WorkerThread;
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
 import rx.schedulers.Schedulers;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
@@ -40,22 +46,112 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     @Nullable
     private final GetResolver<T> explicitGetResolver;
 
+    @NonNull
+    private final List<Relation<T, ?>> relations;
+
+    @Nullable
+    private final Set<String> observedKeys;
+
+    private final boolean distinctResults;
+
     PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull Query query,
                              @Nullable GetResolver<T> explicitGetResolver) {
+        this(storIOSQLite, type, query, explicitGetResolver, Collections.<Relation<T, ?>>emptyList());
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull Query query,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @NonNull List<Relation<T, ?>> relations) {
+        this(storIOSQLite, type, query, explicitGetResolver, relations, null);
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull Query query,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @NonNull List<Relation<T, ?>> relations,
+                             @Nullable Set<String> observedKeys) {
+        this(storIOSQLite, type, query, explicitGetResolver, relations, observedKeys, false);
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull Query query,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @NonNull List<Relation<T, ?>> relations,
+                             @Nullable Set<String> observedKeys,
+                             boolean distinctResults) {
         super(storIOSQLite, query);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.relations = relations;
+        this.observedKeys = observedKeys;
+        this.distinctResults = distinctResults;
     }
 
     PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull RawQuery rawQuery,
                              @Nullable GetResolver<T> explicitGetResolver) {
+        this(storIOSQLite, type, rawQuery, explicitGetResolver, Collections.<Relation<T, ?>>emptyList());
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull RawQuery rawQuery,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @NonNull List<Relation<T, ?>> relations) {
+        this(storIOSQLite, type, rawQuery, explicitGetResolver, relations, false);
+    }
+
+    PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull RawQuery rawQuery,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @NonNull List<Relation<T, ?>> relations,
+                             boolean distinctResults) {
         super(storIOSQLite, rawQuery);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.relations = relations;
+        this.observedKeys = null;
+        this.distinctResults = distinctResults;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    Set<String> observedKeys() {
+        return observedKeys;
+    }
+
+    /**
+     * Gets tables which are read by the query of this operation and by queries of its relations.
+     *
+     * @return non-null set of tables, can be empty for {@link RawQuery} without observed tables.
+     */
+    @NonNull
+    @Override
+    Set<String> readTables() {
+        final Set<String> tables = super.readTables();
+
+        if (relations.isEmpty()) {
+            return tables;
+        }
+
+        final Set<String> tablesWithRelations = new HashSet<String>(tables);
+
+        for (Relation<T, ?> relation : relations) {
+            tablesWithRelations.add(relation.childTable());
+        }
+
+        return tablesWithRelations;
     }
 
     /**
@@ -68,18 +164,33 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
      * @return non-null, immutable {@link List} with mapped results, list can be empty.
      */
     @WorkerThread
-    @SuppressWarnings({"TryFinallyCanBeTryWithResources", "unchecked"})
-    // Min SDK :( unchecked for empty list
     @NonNull
     @Override
     public List<T> executeAsBlocking() {
+        //noinspection ConstantConditions result can be null only if previous result is passed
+        return execute(null);
+    }
+
+    /**
+     * Executes Get Operation, but returns {@code null} instead of result if it is same as previous one.
+     *
+     * @param previous state of previously emitted result or {@code null} to always return result.
+     * @return non-null, immutable {@link List} with mapped results
+     * or {@code null} if result is same as previous one.
+     */
+    @WorkerThread
+    @SuppressWarnings("unchecked")
+    @Nullable
+    List<T> execute(@Nullable DistinctResults<T> previous) {
         try {
+            final Set<String> readTables = readTables();
+            final StorIOSQLite.Internal internal = storIOSQLite.internal();
             final GetResolver<T> getResolver;
 
             if (explicitGetResolver != null) {
                 getResolver = explicitGetResolver;
             } else {
-                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.internal().typeMapping(type);
+                final SQLiteTypeMapping<T> typeMapping = internal.typeMapping(type);
 
                 if (typeMapping == null) {
                     throw new IllegalStateException("This type does not have type mapping: " +
@@ -90,36 +201,93 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                 getResolver = typeMapping.getResolver();
             }
 
-            final Cursor cursor;
+            final QueryResultCache resultCache = internal.queryResultCache();
+            final ResultCacheKey cacheKey;
+            final long cacheVersion;
 
-            if (query != null) {
-                cursor = getResolver.performGet(storIOSQLite, query);
-            } else if (rawQuery != null) {
-                cursor = getResolver.performGet(storIOSQLite, rawQuery);
+            // Results of queries without tables can not be invalidated,
+            // results with relations are not cached, because relations are not part of the key
+            if (resultCache != null && !readTables.isEmpty() && relations.isEmpty()) {
+                cacheKey = new ResultCacheKey(PreparedGetListOfObjects.class, query != null ? query : rawQuery, getResolver);
+
+                final Object cachedResult = resultCache.get(cacheKey);
+
+                if (cachedResult != null) {
+                    final List<T> result = (List<T>) cachedResult;
+                    return previous == null || previous.isNewResult(result) ? result : null;
+                }
+
+                cacheVersion = resultCache.version();
             } else {
-                throw new IllegalStateException("Please specify query");
+                cacheKey = null;
+                cacheVersion = 0;
             }
 
-            try {
-                final int count = cursor.getCount();
+            // Parents and children are read without transaction, which would block writers:
+            // if children are changed between queries, tables of relations are observed too,
+            // so Observable re-queries and emits consistent result
+            final List<T> result = readWithRelations(getResolver);
 
-                if (count == 0) {
-                    return EMPTY_LIST; // it's immutable
-                }
+            if (cacheKey != null) {
+                resultCache.put(cacheKey, readTables, result, cacheVersion);
+            }
+
+            return previous == null || previous.isNewResult(result) ? result : null;
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Reads and maps rows of the query and loads children of relations.
+     *
+     * @param getResolver resolver of the query.
+     * @return non-null, immutable {@link List} with mapped results.
+     */
+    @WorkerThread
+    @SuppressWarnings({"TryFinallyCanBeTryWithResources", "unchecked"})
+    // Min SDK :( unchecked for empty list
+    @NonNull
+    private List<T> readWithRelations(@NonNull GetResolver<T> getResolver) {
+        final Cursor cursor;
 
+        if (query != null) {
+            cursor = getResolver.performGet(storIOSQLite, query);
+        } else if (rawQuery != null) {
+            cursor = getResolver.performGet(storIOSQLite, rawQuery);
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+
+        List<T> result;
+
+        try {
+            final int count = cursor.getCount();
+
+            if (count == 0) {
+                result = EMPTY_LIST; // it's immutable
+            } else {
                 final List<T> list = new ArrayList<T>(count);
 
                 while (cursor.moveToNext()) {
                     list.add(getResolver.mapFromCursor(cursor));
                 }
 
-                return unmodifiableList(list);
-            } finally {
-                cursor.close();
+                result = unmodifiableList(list);
             }
-        } catch (Exception exception) {
-            throw new StorIOException(exception);
+        } finally {
+            cursor.close();
+        }
+
+        if (!result.isEmpty() && !relations.isEmpty()) {
+            for (Relation<T, ?> relation : relations) {
+                result = relation.load(storIOSQLite, result);
+            }
+
+            result = unmodifiableList(result);
         }
+
+        return result;
     }
 
     /**
@@ -145,21 +313,27 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     @CheckResult
     @Override
     public Observable<List<T>> createObservable() {
-        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
 
-        final Set<String> tables;
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<List<T>> createObservable(@Nullable RequeryCoalescing coalescing) {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
-        if (query != null) {
-            tables = Collections.singleton(query.table());
-        } else if (rawQuery != null) {
-            tables = rawQuery.observesTables();
-        } else {
-            throw new IllegalStateException("Please specify query");
-        }
+        final Set<String> tables = readTables();
 
-        if (!tables.isEmpty()) {
-            return storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
+        if (!tables.isEmpty() && distinctResults) {
+            return Observable
+                    .defer(new ObserveDistinctResults<T>(this, tables, coalescing))
+                    .onBackpressureLatest()
+                    .subscribeOn(Schedulers.io());
+        } else if (!tables.isEmpty()) {
+            return observeChangesToRequery(tables, coalescing) // each change triggers executeAsBlocking
                     .map(MapSomethingToExecuteAsBlocking.newInstance(this))
                     .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
                     .onBackpressureLatest()
@@ -171,6 +345,228 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         }
     }
 
+    /**
+     * Creates new state of distinct results for each subscriber.
+     */
+    private static final class ObserveDistinctResults<T> implements Func0<Observable<List<T>>> {
+
+        @NonNull
+        private final PreparedGetListOfObjects<T> preparedGet;
+
+        @NonNull
+        private final Set<String> tables;
+
+        @Nullable
+        private final RequeryCoalescing coalescing;
+
+        ObserveDistinctResults(@NonNull PreparedGetListOfObjects<T> preparedGet,
+                               @NonNull Set<String> tables,
+                               @Nullable RequeryCoalescing coalescing) {
+            this.preparedGet = preparedGet;
+            this.tables = tables;
+            this.coalescing = coalescing;
+        }
+
+        @Override
+        public Observable<List<T>> call() {
+            return preparedGet
+                    .observeChangesToRequery(tables, coalescing)
+                    .startWith(Changes.newInstance(tables)) // start stream with first query result
+                    .map(new DistinctResults<T>(preparedGet))
+                    .filter(new IsNewResult<T>());
+        }
+    }
+
+    /**
+     * Re-executes the query on each change and returns {@code null} if result is same as previous one.
+     * <p>
+     * Results are compared via {@link List#equals(Object)}.
+     */
+    static final class DistinctResults<T> implements Func1<Changes, List<T>> {
+
+        @NonNull
+        private final PreparedGetListOfObjects<T> preparedGet;
+
+        // Results are calculated sequentially, so no synchronization is required
+        @Nullable
+        private List<T> result;
+
+        DistinctResults(@NonNull PreparedGetListOfObjects<T> preparedGet) {
+            this.preparedGet = preparedGet;
+        }
+
+        @Override
+        public List<T> call(Changes changes) {
+            return preparedGet.execute(this);
+        }
+
+        /**
+         * Checks whether result is different from previous one and remembers it.
+         *
+         * @param result new result.
+         * @return {@code true} if result was changed, {@code false} otherwise.
+         */
+        boolean isNewResult(@NonNull List<T> result) {
+            if (result.equals(this.result)) {
+                return false;
+            }
+
+            this.result = result;
+            return true;
+        }
+    }
+
+    /**
+     * Skips {@code null} which means that result is same as previous one.
+     */
+    private static final class IsNewResult<T> implements Func1<List<T>, Boolean> {
+
+        @Override
+        public Boolean call(List<T> result) {
+            return result != null;
+        }
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which emits new results of the query same as
+     * {@link #createObservable()}, but together with changes relative to previous result,
+     * so UI can apply them instead of comparing lists on the Main Thread.
+     * <p>
+     * Objects are matched by {@link SQLiteTypeMapping#keyFunction()} of the type,
+     * generated mappings get keys from key columns.
+     * Uses {@link ListDiff#DEFAULT_FULL_RELOAD_RATIO}.
+     *
+     * @return non-null {@link Observable} which emits {@link ListDiff} for each result,
+     * first one is full reload.
+     * @see #createDiffObservable(ListDiff.KeyFunction, float)
+     */
+    @NonNull
+    @CheckResult
+    public Observable<ListDiff<T>> createDiffObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("createDiffObservable()");
+
+        final SQLiteTypeMapping<T> typeMapping = storIOSQLite.internal().typeMapping(type);
+        final ListDiff.KeyFunction<T> keyFunction = typeMapping != null ? typeMapping.keyFunction() : null;
+
+        if (keyFunction == null) {
+            throw new IllegalStateException("Type mapping of this type does not have key function: " +
+                    "type = " + type + ", please pass key function explicitly");
+        }
+
+        return createDiffObservable(keyFunction, ListDiff.DEFAULT_FULL_RELOAD_RATIO);
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which emits new results of the query same as
+     * {@link #createObservable()}, but together with changes relative to previous result,
+     * so UI can apply them instead of comparing lists on the Main Thread.
+     * <p>
+     * Uses {@link ListDiff#DEFAULT_FULL_RELOAD_RATIO}.
+     *
+     * @param keyFunction function which gets unique key of the object, for example value of the primary key.
+     * @return non-null {@link Observable} which emits {@link ListDiff} for each result,
+     * first one is full reload.
+     * @see #createDiffObservable(ListDiff.KeyFunction, float)
+     */
+    @NonNull
+    @CheckResult
+    public Observable<ListDiff<T>> createDiffObservable(@NonNull ListDiff.KeyFunction<T> keyFunction) {
+        return createDiffObservable(keyFunction, ListDiff.DEFAULT_FULL_RELOAD_RATIO);
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which emits new results of the query same as
+     * {@link #createObservable()}, but together with changes relative to previous result,
+     * so UI can apply them instead of comparing lists on the Main Thread.
+     * <p>
+     * Objects are matched by keys and compared by {@link Object#equals(Object)},
+     * changes are calculated in {@code O(n log n)} on the thread which executed the query.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @param keyFunction     function which gets unique key of the object, for example value of the primary key.
+     * @param fullReloadRatio ratio of number of changes to size of the list above which
+     *                        full reload is emitted instead of changes, must be {@code >= 0}.
+     * @return non-null {@link Observable} which emits {@link ListDiff} for each result,
+     * first one is full reload.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<ListDiff<T>> createDiffObservable(@NonNull ListDiff.KeyFunction<T> keyFunction, float fullReloadRatio) {
+        throwExceptionIfRxJavaIsNotAvailable("createDiffObservable()");
+        checkNotNull(keyFunction, "Please specify key function");
+
+        if (!(fullReloadRatio >= 0)) {
+            throw new IllegalArgumentException("fullReloadRatio should be >= 0, but was = " + fullReloadRatio);
+        }
+
+        return Observable.defer(new ObserveDiff<T>(this, keyFunction, fullReloadRatio));
+    }
+
+    /**
+     * Creates new state of diff calculation for each subscriber.
+     */
+    private static final class ObserveDiff<T> implements Func0<Observable<ListDiff<T>>> {
+
+        @NonNull
+        private final PreparedGetListOfObjects<T> preparedGet;
+
+        @NonNull
+        private final ListDiff.KeyFunction<T> keyFunction;
+
+        private final float fullReloadRatio;
+
+        ObserveDiff(@NonNull PreparedGetListOfObjects<T> preparedGet,
+                    @NonNull ListDiff.KeyFunction<T> keyFunction,
+                    float fullReloadRatio) {
+            this.preparedGet = preparedGet;
+            this.keyFunction = keyFunction;
+            this.fullReloadRatio = fullReloadRatio;
+        }
+
+        @Override
+        public Observable<ListDiff<T>> call() {
+            return preparedGet
+                    .createObservable()
+                    .map(new CalculateDiff<T>(keyFunction, fullReloadRatio));
+        }
+    }
+
+    /**
+     * Calculates diff between previous and new results.
+     */
+    private static final class CalculateDiff<T> implements Func1<List<T>, ListDiff<T>> {
+
+        @NonNull
+        private final ListDiff.KeyFunction<T> keyFunction;
+
+        private final float fullReloadRatio;
+
+        // Results are emitted sequentially, so no synchronization is required
+        @Nullable
+        private List<T> previous;
+
+        CalculateDiff(@NonNull ListDiff.KeyFunction<T> keyFunction, float fullReloadRatio) {
+            this.keyFunction = keyFunction;
+            this.fullReloadRatio = fullReloadRatio;
+        }
+
+        @Override
+        public ListDiff<T> call(List<T> current) {
+            final ListDiff<T> diff = previous == null
+                    ? ListDiff.fullReload(current)
+                    : ListDiff.calculate(previous, current, keyFunction, fullReloadRatio);
+
+            previous = current;
+            return diff;
+        }
+    }
+
     /**
      * Builder for {@link PreparedGetListOfObjects} Operation.
      *
@@ -240,6 +636,14 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         @Nullable
         private GetResolver<T> getResolver;
 
+        @NonNull
+        private final List<Relation<T, ?>> relations = new ArrayList<Relation<T, ?>>();
+
+        @Nullable
+        private Set<String> observedKeys;
+
+        private boolean distinctResults;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
             this.storIOSQLite = storIOSQLite;
             this.type = type;
@@ -271,6 +675,59 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             return this;
         }
 
+        /**
+         * Optional: Adds relation which children will be loaded for all objects of the list
+         * by constant number of queries and attached to them.
+         * <p>
+         * Tables of children are observed too by {@link PreparedGetListOfObjects#createObservable()}.
+         *
+         * @param relation non-null relation.
+         * @return builder.
+         * @see Relation
+         */
+        @NonNull
+        public CompleteBuilder<T> withRelation(@NonNull Relation<T, ?> relation) {
+            checkNotNull(relation, "Please specify relation");
+            relations.add(relation);
+            return this;
+        }
+
+        /**
+         * Optional: Specifies keys of rows of the table of {@link Query} which are read by the query,
+         * so {@link PreparedGetListOfObjects#createObservable()} does not re-query when only other rows
+         * of that table were changed, see {@link com.pushtorefresh.storio.sqlite.Changes#affectedKeys()}.
+         * <p>
+         * Changes without keys still trigger re-query. Keys are compared as strings.
+         * Can not be used with {@link RawQuery}.
+         *
+         * @param keys non-empty keys of observed rows.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> observesKeys(@NonNull Object... keys) {
+            observedKeys = keysToStrings(keys);
+            return this;
+        }
+
+        /**
+         * Optional: Makes {@link PreparedGetListOfObjects#createObservable()} skip results
+         * which are same as previously emitted one, for example when re-query was triggered
+         * by change of rows which are not matched by the query.
+         * <p>
+         * Results are mapped and compared with previous one via {@link List#equals(Object)}
+         * on the thread which executed the query, so same results are not emitted
+         * and subscribers do not process them again.
+         * Please implement {@link Object#equals(Object)} of the type, otherwise each result
+         * is compared by identity of objects and is emitted.
+         *
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> distinctResults() {
+            distinctResults = true;
+            return this;
+        }
+
         /**
          * Builds new instance of {@link PreparedGetListOfObjects}.
          *
@@ -283,14 +740,23 @@ public final class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                         storIOSQLite,
                         type,
                         query,
-                        getResolver
+                        getResolver,
+                        new ArrayList<Relation<T, ?>>(relations),
+                        observedKeys,
+                        distinctResults
                 );
             } else if (rawQuery != null) {
+                if (observedKeys != null) {
+                    throw new IllegalStateException("Observed keys can be specified only for Query");
+                }
+
                 return new PreparedGetListOfObjects<T>(
                         storIOSQLite,
                         type,
                         rawQuery,
-                        getResolver
+                        getResolver,
+                        new ArrayList<Relation<T, ?>>(relations),
+                        distinctResults
                 );
             } else {
                 throw new IllegalStateException("Please specify Query or RawQuery");
@@ -0,0 +1,125 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Prepared Get Operation that reads first column of the query results as {@link LongColumn}
+ * without boxing of values, for example ids or timestamps.
+ */
+public final class PreparedGetLongColumn extends PreparedGetColumn<LongColumn> {
+
+    PreparedGetLongColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
+        super(storIOSQLite, query);
+    }
+
+    PreparedGetLongColumn(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    @NonNull
+    @Override
+    LongColumn newColumn(int capacity) {
+        return new LongColumn(capacity);
+    }
+
+    @NonNull
+    @Override
+    LongColumn copyColumn(@NonNull LongColumn column) {
+        return column.copy();
+    }
+
+    @Override
+    void readColumn(@NonNull Cursor cursor, @NonNull LongColumn column) {
+        column.clear(cursor.getCount());
+
+        while (cursor.moveToNext()) {
+            column.add(cursor.getLong(0));
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetLongColumn}.
+     */
+    public static final class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Required: Specifies query which first column should be read,
+         * please specify the column via {@link Query.CompleteBuilder#columns(String...)}.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, query, null);
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} which first column should be read,
+         * you can use it for "joins" and same constructions which are not allowed for {@link Query}.
+         *
+         * @param rawQuery query.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder(storIOSQLite, null, rawQuery);
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetLongColumn}.
+     */
+    public static final class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @Nullable
+        private final Query query;
+
+        @Nullable
+        private final RawQuery rawQuery;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @Nullable Query query, @Nullable RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.query = query;
+            this.rawQuery = rawQuery;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetLongColumn}.
+         *
+         * @return new instance of {@link PreparedGetLongColumn}.
+         */
+        @NonNull
+        public PreparedGetLongColumn prepare() {
+            if (query != null) {
+                return new PreparedGetLongColumn(storIOSQLite, query);
+            } else if (rawQuery != null) {
+                return new PreparedGetLongColumn(storIOSQLite, rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+        }
+    }
+}
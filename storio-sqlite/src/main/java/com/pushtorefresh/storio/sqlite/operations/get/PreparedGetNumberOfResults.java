@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
+import android.database.MatrixCursor;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
@@ -8,6 +9,7 @@ import android.support.annotation.WorkerThread;
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
@@ -91,6 +93,15 @@ public final class PreparedGetNumberOfResults extends PreparedGet<Integer> {
     @NonNull
     @Override
     public Observable<Integer> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public Observable<Integer> createObservable(@Nullable RequeryCoalescing coalescing) {
         throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
         final Set<String> tables;
@@ -105,8 +116,7 @@ public final class PreparedGetNumberOfResults extends PreparedGet<Integer> {
         }
 
         if (!tables.isEmpty()) {
-            return storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
+            return observeChangesToRequery(tables, coalescing) // each change triggers executeAsBlocking
                     .map(MapSomethingToExecuteAsBlocking.newInstance(this))
                     .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
                     .onBackpressureLatest()
@@ -118,6 +128,53 @@ public final class PreparedGetNumberOfResults extends PreparedGet<Integer> {
         }
     }
 
+    /**
+     * Converts query to {@code SELECT COUNT(*)} query.
+     * Queries with {@code DISTINCT}, {@code GROUP BY}, {@code HAVING} or {@code LIMIT}
+     * are counted as subquery, because these clauses change number of results.
+     *
+     * @param query query which results should be counted.
+     * @return non-null query which returns one row with number of results of passed query.
+     */
+    @NonNull
+    static RawQuery countQuery(@NonNull Query query) {
+        final boolean needsSubquery = query.distinct()
+                || !query.groupBy().isEmpty()
+                || !query.having().isEmpty()
+                || !query.limit().isEmpty();
+
+        final String sql;
+
+        if (needsSubquery) {
+            // Order matters only for rows that get into the limit
+            final Query subquery = query.limit().isEmpty() && !query.orderBy().isEmpty()
+                    ? query.toBuilder().orderBy(null).build()
+                    : query;
+
+            sql = "SELECT COUNT(*) FROM (" + selectSql(subquery) + ")";
+        } else if (query.where().isEmpty()) {
+            sql = "SELECT COUNT(*) FROM " + query.table();
+        } else {
+            sql = "SELECT COUNT(*) FROM " + query.table() + " WHERE " + query.where();
+        }
+
+        return asRawQuery(query, sql);
+    }
+
+    /**
+     * Wraps raw query into {@code SELECT COUNT(*) FROM (...)}.
+     *
+     * @param rawQuery query which results should be counted, must be {@code SELECT} statement, see {@link #isSelect(String)}.
+     * @return non-null query which returns one row with number of results of passed query.
+     */
+    @NonNull
+    static RawQuery countQuery(@NonNull RawQuery rawQuery) {
+        return rawQuery
+                .toBuilder()
+                .query("SELECT COUNT(*) FROM (" + withoutTrailingSemicolons(rawQuery.query()) + ")")
+                .build();
+    }
+
     /**
      * Builder for {@link PreparedGetNumberOfResults}.
      */
@@ -165,11 +222,44 @@ public final class PreparedGetNumberOfResults extends PreparedGet<Integer> {
     public static final class CompleteBuilder {
 
         @NonNull
+        private static final String[] COUNT_COLUMNS = {"count"};
+
+        /**
+         * Counts results via {@code SELECT COUNT(*)} instead of copying all rows
+         * of the query to the {@link android.database.CursorWindow} just to get {@link Cursor#getCount()}.
+         * Raw queries that are not {@code SELECT}, for example {@code PRAGMA}, can not be used as subquery,
+         * they are counted via {@link Cursor#getCount()}.
+         */
+        @NonNull
         static final GetResolver<Integer> STANDARD_GET_RESOLVER = new DefaultGetResolver<Integer>() {
+            @NonNull
+            @Override
+            public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+                if (isSelect(rawQuery.query())) {
+                    return super.performGet(storIOSQLite, countQuery(rawQuery));
+                }
+
+                final Cursor cursor = super.performGet(storIOSQLite, rawQuery);
+
+                try {
+                    final MatrixCursor countCursor = new MatrixCursor(COUNT_COLUMNS, 1);
+                    countCursor.addRow(new Object[]{cursor.getCount()});
+                    return countCursor;
+                } finally {
+                    cursor.close();
+                }
+            }
+
+            @NonNull
+            @Override
+            public Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
+                return super.performGet(storIOSQLite, countQuery(query));
+            }
+
             @NonNull
             @Override
             public Integer mapFromCursor(@NonNull Cursor cursor) {
-                return cursor.getCount();
+                return cursor.moveToFirst() ? cursor.getInt(0) : 0;
             }
         };
 
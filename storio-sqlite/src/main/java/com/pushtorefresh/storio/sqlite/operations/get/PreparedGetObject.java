@@ -9,7 +9,9 @@ import android.support.annotation.WorkerThread;
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
@@ -31,13 +33,25 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
     @Nullable
     private final GetResolver<T> explicitGetResolver;
 
+    @Nullable
+    private final Set<String> observedKeys;
+
     PreparedGetObject(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull Query query,
                              @Nullable GetResolver<T> explicitGetResolver) {
+        this(storIOSQLite, type, query, explicitGetResolver, null);
+    }
+
+    PreparedGetObject(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull Query query,
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             @Nullable Set<String> observedKeys) {
         super(storIOSQLite, query);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.observedKeys = observedKeys;
     }
 
     PreparedGetObject(@NonNull StorIOSQLite storIOSQLite,
@@ -47,6 +61,16 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
         super(storIOSQLite, rawQuery);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.observedKeys = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    Set<String> observedKeys() {
+        return observedKeys;
     }
 
     /**
@@ -59,16 +83,18 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
      * @return single instance of mapped result. Can be {@code null}, if no items are found.
      */
     @Nullable
-    @SuppressWarnings({"ConstantConditions", "NullableProblems"})
+    @SuppressWarnings({"ConstantConditions", "NullableProblems", "unchecked"})
     @WorkerThread
     public T executeAsBlocking() {
         try {
+            final Set<String> readTables = readTables();
+            final StorIOSQLite.Internal internal = storIOSQLite.internal();
             final GetResolver<T> getResolver;
 
             if (explicitGetResolver != null) {
                 getResolver = explicitGetResolver;
             } else {
-                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.internal().typeMapping(type);
+                final SQLiteTypeMapping<T> typeMapping = internal.typeMapping(type);
 
                 if (typeMapping == null) {
                     throw new IllegalStateException("This type does not have type mapping: " +
@@ -79,6 +105,26 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
                 getResolver = typeMapping.getResolver();
             }
 
+            final QueryResultCache resultCache = internal.queryResultCache();
+            final ResultCacheKey cacheKey;
+            final long cacheVersion;
+
+            // Results of queries without tables can not be invalidated
+            if (resultCache != null && !readTables.isEmpty()) {
+                cacheKey = new ResultCacheKey(PreparedGetObject.class, query != null ? query : rawQuery, getResolver);
+
+                final Object cachedResult = resultCache.get(cacheKey);
+
+                if (cachedResult != null) {
+                    return (T) cachedResult;
+                }
+
+                cacheVersion = resultCache.version();
+            } else {
+                cacheKey = null;
+                cacheVersion = 0;
+            }
+
             final Cursor cursor;
 
             if (query != null) {
@@ -89,19 +135,27 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
                 throw new IllegalStateException("Please specify query");
             }
 
-            try {
-                final int count = cursor.getCount();
+            final T result;
 
-                if (count == 0) {
+            try {
+                // First move of SQLiteCursor fills CursorWindow and counts all rows of the query as getCount() does,
+                // only LIMIT 1 added by limitToOneRow() stops SQLite after the first row: to Query without own limit
+                // and to RawQuery only if limitRawQueryToOneRow() was enabled
+                if (!cursor.moveToNext()) {
                     return null;
                 }
 
-                cursor.moveToNext();
-
-                return getResolver.mapFromCursor(cursor);
+                result = getResolver.mapFromCursor(cursor);
             } finally {
                 cursor.close();
             }
+
+            // Absence of the object is not cached
+            if (cacheKey != null && result != null) {
+                resultCache.put(cacheKey, readTables, result, cacheVersion);
+            }
+
+            return result;
         } catch (Exception exception) {
             throw new StorIOException(exception);
         }
@@ -130,6 +184,16 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
     @CheckResult
     @Override
     public Observable<T> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<T> createObservable(@Nullable RequeryCoalescing coalescing) {
         throwExceptionIfRxJavaIsNotAvailable("createObservable()");
 
         final Set<String> tables;
@@ -143,8 +207,7 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
         }
 
         if (!tables.isEmpty()) {
-            return storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
+            return observeChangesToRequery(tables, coalescing) // each change triggers executeAsBlocking
                     .map(MapSomethingToExecuteAsBlocking.newInstance(this))
                     .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
                     .onBackpressureLatest()
@@ -156,6 +219,33 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
         }
     }
 
+    /**
+     * Adds {@code LIMIT 1} to the query without limit, only first row is mapped anyway.
+     *
+     * @param query query.
+     * @return non-null query limited to one row or passed query if it has own limit.
+     */
+    @NonNull
+    static Query limitToOneRow(@NonNull Query query) {
+        return query.limit().isEmpty()
+                ? query.toBuilder().limit(1).build()
+                : query;
+    }
+
+    /**
+     * Wraps raw query into {@code SELECT * FROM (...) LIMIT 1}.
+     *
+     * @param rawQuery query, must be {@code SELECT} statement.
+     * @return non-null query limited to one row.
+     */
+    @NonNull
+    static RawQuery limitToOneRow(@NonNull RawQuery rawQuery) {
+        return rawQuery
+                .toBuilder()
+                .query("SELECT * FROM (" + withoutTrailingSemicolons(rawQuery.query()) + ") LIMIT 1")
+                .build();
+    }
+
     /**
      * Builder for {@link PreparedGetObject} Operation.
      *
@@ -225,6 +315,11 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
         @Nullable
         private GetResolver<T> getResolver;
 
+        private boolean limitRawQueryToOneRow;
+
+        @Nullable
+        private Set<String> observedKeys;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
             this.storIOSQLite = storIOSQLite;
             this.type = type;
@@ -256,6 +351,42 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
             return this;
         }
 
+        /**
+         * Optional: Wraps {@link RawQuery} into {@code SELECT * FROM (...) LIMIT 1},
+         * so SQLite stops after the first row instead of reading all results of the query.
+         * <p>
+         * {@link Query} without {@code LIMIT} is always limited to one row,
+         * but {@link RawQuery} is executed as is by default, because it can be
+         * a statement that can not be used as subquery.
+         * <p>
+         * Default value is {@code false}.
+         *
+         * @param limitRawQueryToOneRow {@code true} to limit {@link RawQuery} to one row.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> limitRawQueryToOneRow(boolean limitRawQueryToOneRow) {
+            this.limitRawQueryToOneRow = limitRawQueryToOneRow;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies keys of rows of the table of {@link Query} which are read by the query,
+         * so {@link PreparedGetObject#createObservable()} does not re-query when only other rows
+         * of that table were changed, see {@link com.pushtorefresh.storio.sqlite.Changes#affectedKeys()}.
+         * <p>
+         * Changes without keys still trigger re-query. Keys are compared as strings.
+         * Can not be used with {@link RawQuery}.
+         *
+         * @param keys non-empty keys of observed rows.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> observesKeys(@NonNull Object... keys) {
+            observedKeys = keysToStrings(keys);
+            return this;
+        }
+
         /**
          * Builds new instance of {@link PreparedGetObject}.
          *
@@ -267,14 +398,19 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
                 return new PreparedGetObject<T>(
                         storIOSQLite,
                         type,
-                        query,
-                        getResolver
+                        limitToOneRow(query),
+                        getResolver,
+                        observedKeys
                 );
             } else if (rawQuery != null) {
+                if (observedKeys != null) {
+                    throw new IllegalStateException("Observed keys can be specified only for Query");
+                }
+
                 return new PreparedGetObject<T>(
                         storIOSQLite,
                         type,
-                        rawQuery,
+                        limitRawQueryToOneRow ? limitToOneRow(rawQuery) : rawQuery,
                         getResolver
                 );
             } else {
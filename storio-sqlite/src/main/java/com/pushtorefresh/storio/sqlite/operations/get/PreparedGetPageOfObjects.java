@@ -0,0 +1,490 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
+import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that loads one page of objects
+ * via keyset (seek) pagination.
+ * <p>
+ * Instead of {@code LIMIT offset, n}, which makes SQLite step over all skipped rows,
+ * page is loaded with {@code WHERE key > lastKeyOfPreviousPage ORDER BY key LIMIT n},
+ * so with index on the key column every page costs the same regardless of its depth.
+ * <p>
+ * Key column must be unique (primary key for example), otherwise rows with same key
+ * on the border of pages can be skipped.
+ *
+ * @param <T> type of results.
+ */
+public final class PreparedGetPageOfObjects<T> extends PreparedGet<Page<T>> {
+
+    @NonNull
+    private final Class<T> type;
+
+    @NonNull
+    private final Query baseQuery;
+
+    @NonNull
+    private final String keyColumn;
+
+    private final int pageSize;
+
+    private final boolean descending;
+
+    @Nullable
+    private final String pageToken;
+
+    private final boolean prefetchNextPage;
+
+    @Nullable
+    private final GetResolver<T> explicitGetResolver;
+
+    PreparedGetPageOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull Query baseQuery,
+                             @NonNull String keyColumn,
+                             int pageSize,
+                             boolean descending,
+                             @Nullable String pageToken,
+                             boolean prefetchNextPage,
+                             @Nullable GetResolver<T> explicitGetResolver) {
+        super(storIOSQLite, pageQuery(baseQuery, keyColumn, pageSize, descending, pageToken, prefetchNextPage));
+        this.type = type;
+        this.baseQuery = baseQuery;
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        this.descending = descending;
+        this.pageToken = pageToken;
+        this.prefetchNextPage = prefetchNextPage;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    @NonNull
+    static Query pageQuery(@NonNull Query baseQuery,
+                           @NonNull String keyColumn,
+                           int pageSize,
+                           boolean descending,
+                           @Nullable String pageToken,
+                           boolean prefetchNextPage) {
+        final Query.CompleteBuilder builder = baseQuery.toBuilder();
+
+        if (pageToken != null) {
+            final String seekCondition = keyColumn + (descending ? " < ?" : " > ?");
+
+            final List<String> whereArgs = new ArrayList<String>(baseQuery.whereArgs().size() + 1);
+            whereArgs.addAll(baseQuery.whereArgs());
+            whereArgs.add(pageToken);
+
+            builder
+                    .where(baseQuery.where().isEmpty()
+                            ? seekCondition
+                            : "(" + baseQuery.where() + ") AND " + seekCondition)
+                    .whereArgs(whereArgs);
+        }
+
+        final int numberOfPages = prefetchNextPage ? 2 : 1;
+
+        return builder
+                .orderBy(keyColumn + (descending ? " DESC" : " ASC"))
+                .limit(pageSize * numberOfPages + 1) // one more row tells if there is next page
+                .build();
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null, immutable {@link Page} with mapped results, page can be empty.
+     */
+    @WorkerThread
+    @SuppressWarnings("TryFinallyCanBeTryWithResources") // Min SDK :(
+    @NonNull
+    @Override
+    public Page<T> executeAsBlocking() {
+        try {
+            final GetResolver<T> getResolver;
+
+            if (explicitGetResolver != null) {
+                getResolver = explicitGetResolver;
+            } else {
+                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.internal().typeMapping(type);
+
+                if (typeMapping == null) {
+                    throw new IllegalStateException("This type does not have type mapping: " +
+                            "type = " + type + "," +
+                            "db was not touched by this operation, please add type mapping for this type");
+                }
+
+                getResolver = typeMapping.getResolver();
+            }
+
+            //noinspection ConstantConditions
+            final Cursor cursor = getResolver.performGet(storIOSQLite, query);
+
+            try {
+                // Cursor is bounded by LIMIT, so counting it is cheap
+                final int count = cursor.getCount();
+                final int keyColumnIndex = cursor.getColumnIndexOrThrow(keyColumn);
+
+                final Page<T> nextPage = prefetchNextPage && count > pageSize
+                        ? readPage(cursor, getResolver, keyColumnIndex, pageSize, count - pageSize, null)
+                        : null;
+
+                return readPage(cursor, getResolver, keyColumnIndex, 0, count, nextPage);
+            } finally {
+                cursor.close();
+            }
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Reads page from the rows of the {@link Cursor} starting at {@code position}.
+     */
+    @NonNull
+    private Page<T> readPage(@NonNull Cursor cursor,
+                             @NonNull GetResolver<T> getResolver,
+                             int keyColumnIndex,
+                             int position,
+                             int numberOfRemainingRows,
+                             @Nullable Page<T> prefetchedNextPage) {
+        final int numberOfItems = Math.min(pageSize, numberOfRemainingRows);
+
+        if (numberOfItems == 0) {
+            return new Page<T>(Collections.<T>emptyList(), null, null);
+        }
+
+        final List<T> items = new ArrayList<T>(numberOfItems);
+
+        for (int i = 0; i < numberOfItems; i++) {
+            cursor.moveToPosition(position + i);
+            items.add(getResolver.mapFromCursor(cursor));
+        }
+
+        final String nextPageToken = numberOfRemainingRows > pageSize
+                ? cursor.getString(keyColumnIndex) // cursor is on the last row of the page
+                : null;
+
+        return new Page<T>(unmodifiableList(items), nextPageToken, prefetchedNextPage);
+    }
+
+    /**
+     * Prepares Get Operation for the page that follows passed page,
+     * it has same query, key column and page size as this operation.
+     *
+     * @param page page loaded by this or another operation with same query.
+     * @return operation for the next page or {@code null} if passed page is the last one.
+     */
+    @Nullable
+    public PreparedGetPageOfObjects<T> nextPage(@NonNull Page<T> page) {
+        checkNotNull(page, "Please specify page");
+
+        final String nextPageToken = page.nextPageToken();
+
+        if (nextPageToken == null) {
+            return null;
+        }
+
+        return new PreparedGetPageOfObjects<T>(
+                storIOSQLite,
+                type,
+                baseQuery,
+                keyColumn,
+                pageSize,
+                descending,
+                nextPageToken,
+                prefetchNextPage,
+                explicitGetResolver
+        );
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of the table from query
+     * and will reload this page each time change occurs.
+     * <p>
+     * Only pages that have subscribers are reloaded,
+     * so list that observes visible pages does not re-query whole table on each change.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of the table from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit non-null, immutable
+     * {@link Page} with mapped results and will be subscribed to changes of the table from query.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Page<T>> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Page<T>> createObservable(@Nullable RequeryCoalescing coalescing) {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return observeChangesToRequery(readTables(), coalescing) // each change triggers executeAsBlocking
+                .map(MapSomethingToExecuteAsBlocking.newInstance(this))
+                .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
+                .onBackpressureLatest()
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Builder for {@link PreparedGetPageOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static final class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+        }
+
+        /**
+         * Required: Specifies query which will be passed to {@link StorIOSQLite}
+         * to get pages of objects.
+         * <p>
+         * {@code ORDER BY} and {@code LIMIT} are defined by pagination,
+         * so query should not have them.
+         *
+         * @param query non-null query without {@code ORDER BY} and {@code LIMIT}.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public KeyColumnBuilder<T> withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+
+            if (!query.orderBy().isEmpty() || !query.limit().isEmpty()) {
+                throw new IllegalArgumentException("Pagination defines ORDER BY and LIMIT itself, " +
+                        "please remove them from the query: " + query);
+            }
+
+            return new KeyColumnBuilder<T>(storIOSQLite, type, query);
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetPageOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static final class KeyColumnBuilder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @NonNull
+        private final Query query;
+
+        KeyColumnBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+        }
+
+        /**
+         * Required: Specifies unique column which defines order of objects and borders of pages,
+         * primary key for example. Column should be indexed and present in the result of the query.
+         *
+         * @param keyColumn name of the key column.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> keyColumn(@NonNull String keyColumn) {
+            checkNotNull(keyColumn, "Please specify key column");
+            return new CompleteBuilder<T>(storIOSQLite, type, query, keyColumn);
+        }
+    }
+
+    /**
+     * Compile-safe part of {@link Builder}.
+     *
+     * @param <T> type of objects.
+     */
+    public static final class CompleteBuilder<T> {
+
+        static final int DEFAULT_PAGE_SIZE = 20;
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @NonNull
+        private final Query query;
+
+        @NonNull
+        private final String keyColumn;
+
+        private int pageSize = DEFAULT_PAGE_SIZE;
+
+        private boolean descending;
+
+        @Nullable
+        private String pageToken;
+
+        private boolean prefetchNextPage;
+
+        @Nullable
+        private GetResolver<T> getResolver;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite,
+                        @NonNull Class<T> type,
+                        @NonNull Query query,
+                        @NonNull String keyColumn) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+            this.keyColumn = keyColumn;
+        }
+
+        /**
+         * Optional: Specifies max number of objects in the page.
+         * <p>
+         * Default value is {@code 20}.
+         *
+         * @param pageSize positive number of objects in the page.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> pageSize(int pageSize) {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("pageSize should be positive, but was = " + pageSize);
+            }
+
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies order of objects by the key column.
+         * <p>
+         * Default value is {@code false} — ascending order.
+         *
+         * @param descending {@code true} for descending order, {@code false} for ascending.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> descending(boolean descending) {
+            this.descending = descending;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies token of the page, see {@link Page#nextPageToken()}.
+         * <p>
+         * Default value is {@code null} — first page.
+         *
+         * @param pageToken token of the page or {@code null} for the first page.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> afterPageToken(@Nullable String pageToken) {
+            this.pageToken = pageToken;
+            return this;
+        }
+
+        /**
+         * Optional: Loads next page in the same query together with requested page,
+         * so it's available immediately via {@link Page#prefetchedNextPage()}.
+         * <p>
+         * Default value is {@code false}.
+         *
+         * @param prefetchNextPage {@code true} to load next page too, {@code false} otherwise.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> prefetchNextPage(boolean prefetchNextPage) {
+            this.prefetchNextPage = prefetchNextPage;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies resolver for Get Operation which can be used
+         * to provide custom behavior of Get Operation.
+         * <p>
+         * {@link SQLiteTypeMapping} can be used to set default GetResolver.
+         * If GetResolver is not set via {@link SQLiteTypeMapping}
+         * or explicitly — exception will be thrown.
+         *
+         * @param getResolver nullable resolver for Get Operation.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> withGetResolver(@Nullable GetResolver<T> getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetPageOfObjects}.
+         *
+         * @return new instance of {@link PreparedGetPageOfObjects}.
+         */
+        @NonNull
+        public PreparedGetPageOfObjects<T> prepare() {
+            return new PreparedGetPageOfObjects<T>(
+                    storIOSQLite,
+                    type,
+                    query,
+                    keyColumn,
+                    pageSize,
+                    descending,
+                    pageToken,
+                    prefetchNextPage,
+                    getResolver
+            );
+        }
+    }
+}
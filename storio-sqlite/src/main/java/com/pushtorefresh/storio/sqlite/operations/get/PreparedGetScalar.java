@@ -0,0 +1,93 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
+import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import java.util.Set;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Base class for Get Operations that read single value via
+ * {@link StorIOSQLite.Internal#simpleQueryForLong(RawQuery)}
+ * or {@link StorIOSQLite.Internal#simpleQueryForString(RawQuery)}
+ * without allocation of {@link android.database.Cursor}.
+ *
+ * @param <Result> type of result.
+ */
+abstract class PreparedGetScalar<Result> extends PreparedGet<Result> {
+
+    PreparedGetScalar(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+    }
+
+    /**
+     * Gets query of this operation.
+     *
+     * @return non-null raw query.
+     */
+    @NonNull
+    RawQuery simpleQuery() {
+        //noinspection ConstantConditions -> scalar operations are always created with RawQuery
+        return rawQuery;
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of tables from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of tables from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit result of the query
+     * and will be subscribed to changes of tables from query.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Result> createObservable() {
+        return createObservable(storIOSQLite.requeryCoalescing());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Result> createObservable(@Nullable RequeryCoalescing coalescing) {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        final Set<String> tables = readTables();
+
+        if (!tables.isEmpty()) {
+            return observeChangesToRequery(tables, coalescing) // each change triggers executeAsBlocking
+                    .map(MapSomethingToExecuteAsBlocking.newInstance(this))
+                    .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
+                    .onBackpressureLatest()
+                    .subscribeOn(Schedulers.io());
+        } else {
+            return Observable
+                    .create(OnSubscribeExecuteAsBlocking.newInstance(this))
+                    .subscribeOn(Schedulers.io());
+        }
+    }
+}
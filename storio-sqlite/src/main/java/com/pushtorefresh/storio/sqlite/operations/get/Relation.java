@@ -0,0 +1,201 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Defines "one to many" relation which children are loaded for the whole list of parents
+ * loaded by {@link PreparedGetListOfObjects}, see
+ * {@link PreparedGetListOfObjects.CompleteBuilder#withRelation(Relation)}.
+ * <p>
+ * Children of all parents are loaded by {@code child_key IN (...)} queries split into chunks of
+ * {@link #MAX_KEYS_PER_QUERY} keys, so number of queries does not depend on number of parents
+ * (unlike query per parent in {@link GetResolver#mapFromCursor(android.database.Cursor)}).
+ * Parents and children are read without transaction, so reads do not block writers: if children are changed
+ * between queries, {@link PreparedGetListOfObjects#createObservable()} re-queries, because it observes their table too.
+ * <p>
+ * Keys of parents and children are compared by {@link String#valueOf(Object)}, as keys of {@link com.pushtorefresh.storio.sqlite.Changes},
+ * so for example {@link Long} key of parent matches {@link Integer} key of child.
+ * <p>
+ * Implementation should be thread-safe!
+ *
+ * @param <T>     type of parents.
+ * @param <Child> type of children, it should have type mapping.
+ */
+public abstract class Relation<T, Child> {
+
+    /**
+     * Max number of keys in one query: default limit of SQLite for number of arguments is 999.
+     */
+    static final int MAX_KEYS_PER_QUERY = 999;
+
+    /**
+     * Gets type of children, it's used to get them via {@link PreparedGetListOfObjects}.
+     *
+     * @return non-null type of children.
+     */
+    @NonNull
+    public abstract Class<Child> childType();
+
+    /**
+     * Gets table of children.
+     *
+     * @return non-null table of children.
+     */
+    @NonNull
+    public abstract String childTable();
+
+    /**
+     * Gets column of children table which references parent.
+     *
+     * @return non-null column of children table.
+     */
+    @NonNull
+    public abstract String childKeyColumn();
+
+    /**
+     * Gets value of parent which is stored in {@link #childKeyColumn()} of its children.
+     *
+     * @param parent parent.
+     * @return key of parent or {@code null} if parent can not have children.
+     */
+    @Nullable
+    public abstract Object parentKey(@NonNull T parent);
+
+    /**
+     * Gets key of parent of the child, its {@link String#valueOf(Object)} should be equal
+     * to the one of {@link #parentKey(Object)} of parent.
+     *
+     * @param child child.
+     * @return non-null key of parent.
+     */
+    @NonNull
+    public abstract Object childKey(@NonNull Child child);
+
+    /**
+     * Attaches children to the parent.
+     *
+     * @param parent   parent.
+     * @param children non-null, immutable list of children of the parent, can be empty.
+     * @return non-null parent with children, can be new instance for immutable objects.
+     */
+    @NonNull
+    public abstract T attach(@NonNull T parent, @NonNull List<Child> children);
+
+    /**
+     * Gets order of children of each parent.
+     *
+     * @return {@code ORDER BY} clause for children or empty string.
+     */
+    @NonNull
+    public String childOrderBy() {
+        return "";
+    }
+
+    /**
+     * Loads children of all parents and attaches them to parents.
+     *
+     * @param storIOSQLite {@link StorIOSQLite} instance to get children from.
+     * @param parents      parents.
+     * @return non-null, mutable list of parents with attached children.
+     */
+    @WorkerThread
+    @NonNull
+    final List<T> load(@NonNull StorIOSQLite storIOSQLite, @NonNull List<T> parents) {
+        // Keys are normalized, so keys of different types that are stored as same value are matched
+        final Set<String> keys = new LinkedHashSet<String>(parents.size());
+
+        for (T parent : parents) {
+            final Object key = parentKey(parent);
+
+            if (key != null) {
+                keys.add(String.valueOf(key));
+            }
+        }
+
+        final Map<String, List<Child>> childrenByKey = new HashMap<String, List<Child>>(keys.size());
+        final Iterator<String> keysIterator = keys.iterator();
+
+        while (keysIterator.hasNext()) {
+            final List<String> chunk = new ArrayList<String>(Math.min(keys.size(), MAX_KEYS_PER_QUERY));
+
+            while (keysIterator.hasNext() && chunk.size() < MAX_KEYS_PER_QUERY) {
+                chunk.add(keysIterator.next());
+            }
+
+            final List<Child> children = storIOSQLite
+                    .get()
+                    .listOfObjects(childType())
+                    .withQuery(childrenQuery(chunk))
+                    .prepare()
+                    .executeAsBlocking();
+
+            for (Child child : children) {
+                final String key = String.valueOf(childKey(child));
+                List<Child> childrenOfParent = childrenByKey.get(key);
+
+                if (childrenOfParent == null) {
+                    childrenOfParent = new ArrayList<Child>();
+                    childrenByKey.put(key, childrenOfParent);
+                }
+
+                childrenOfParent.add(child);
+            }
+        }
+
+        final List<T> result = new ArrayList<T>(parents.size());
+
+        for (T parent : parents) {
+            final Object key = parentKey(parent);
+            final List<Child> children = key != null ? childrenByKey.get(String.valueOf(key)) : null;
+
+            result.add(attach(
+                    parent,
+                    children != null
+                            ? Collections.unmodifiableList(children)
+                            : Collections.<Child>emptyList()
+            ));
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates query of children of parents with passed keys.
+     *
+     * @param keys keys of parents.
+     * @return non-null query.
+     */
+    @NonNull
+    final Query childrenQuery(@NonNull List<?> keys) {
+        final StringBuilder where = new StringBuilder(childKeyColumn().length() + 6 + keys.size() * 2)
+                .append(childKeyColumn())
+                .append(" IN (");
+
+        for (int i = 0; i < keys.size(); i++) {
+            where.append(i == 0 ? "?" : ",?");
+        }
+
+        where.append(')');
+
+        return Query.builder()
+                .table(childTable())
+                .where(where.toString())
+                .whereArgs(keys)
+                .orderBy(childOrderBy())
+                .build();
+    }
+}
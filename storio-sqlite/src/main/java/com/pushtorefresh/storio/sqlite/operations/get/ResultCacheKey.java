@@ -0,0 +1,54 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Key of the result of Get Operation in {@link com.pushtorefresh.storio.sqlite.QueryResultCache}:
+ * same query mapped by different resolvers or to different kind of result should not share cached value.
+ */
+final class ResultCacheKey {
+
+    @NonNull
+    private final Class<?> operationClass;
+
+    @NonNull
+    private final Object query;
+
+    @NonNull
+    private final GetResolver<?> getResolver;
+
+    ResultCacheKey(@NonNull Class<?> operationClass, @NonNull Object query, @NonNull GetResolver<?> getResolver) {
+        this.operationClass = operationClass;
+        this.query = query;
+        this.getResolver = getResolver;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ResultCacheKey that = (ResultCacheKey) o;
+
+        if (!operationClass.equals(that.operationClass)) return false;
+        if (!query.equals(that.query)) return false;
+        return getResolver.equals(that.getResolver);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = operationClass.hashCode();
+        result = 31 * result + query.hashCode();
+        result = 31 * result + getResolver.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCacheKey{" +
+                "operationClass=" + operationClass +
+                ", query=" + query +
+                ", getResolver=" + getResolver +
+                '}';
+    }
+}
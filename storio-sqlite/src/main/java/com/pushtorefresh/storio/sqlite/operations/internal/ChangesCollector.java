@@ -0,0 +1,135 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects tables and keys of rows affected by several operations, so subscribers
+ * can be notified about all of them by one {@link Changes} with keys of affected rows.
+ * <p>
+ * Keys of the table are kept only while each change of it has key:
+ * change without key means that any row of the table could be changed.
+ * <p>
+ * For internal usage only!
+ * <p>
+ * Not thread-safe.
+ */
+public final class ChangesCollector {
+
+    @NonNull
+    private final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
+
+    /**
+     * Keys of affected rows of tables which were changed only by changes with keys.
+     */
+    @NonNull
+    private final Map<String, Set<String>> affectedKeys = new HashMap<String, Set<String>>(1);
+
+    private ChangesCollector() {
+    }
+
+    /**
+     * Creates new instance of {@link ChangesCollector}.
+     *
+     * @return new instance of {@link ChangesCollector}.
+     */
+    @NonNull
+    public static ChangesCollector newInstance() {
+        return new ChangesCollector();
+    }
+
+    /**
+     * Adds change of one row if key is known, otherwise change of tables entirely.
+     *
+     * @param tables affected tables.
+     * @param key    key of affected row, can be passed only together with one table,
+     *               {@code null} if it's unknown.
+     */
+    public void add(@NonNull Set<String> tables, @Nullable String key) {
+        if (key == null || tables.size() != 1) {
+            addTables(tables);
+            return;
+        }
+
+        final String table = tables.iterator().next();
+        Set<String> keys = affectedKeys.get(table);
+
+        if (keys == null) {
+            if (affectedTables.contains(table)) {
+                // Table was changed entirely, key does not add anything
+                return;
+            }
+
+            keys = new HashSet<String>();
+            affectedKeys.put(table, keys);
+            affectedTables.add(table);
+        }
+
+        keys.add(key);
+    }
+
+    /**
+     * Adds change of tables entirely.
+     *
+     * @param tables affected tables.
+     */
+    public void addTables(@NonNull Set<String> tables) {
+        for (String table : tables) {
+            addTable(table);
+        }
+    }
+
+    /**
+     * Adds change of the table entirely.
+     *
+     * @param table affected table.
+     */
+    public void addTable(@NonNull String table) {
+        affectedKeys.remove(table);
+        affectedTables.add(table);
+    }
+
+    /**
+     * Gets tables affected so far.
+     *
+     * @return live set of affected tables.
+     */
+    @NonNull
+    public Set<String> affectedTables() {
+        return affectedTables;
+    }
+
+    /**
+     * Checks whether nothing was changed so far.
+     *
+     * @return {@code true} if no changes were added, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return affectedTables.isEmpty();
+    }
+
+    /**
+     * Creates {@link Changes} from changes collected so far, collector can be filled further.
+     *
+     * @return non-null changes with keys of tables which were changed only by changes with keys.
+     */
+    @NonNull
+    public Changes toChanges() {
+        return Changes.newInstance(new HashSet<String>(affectedTables), affectedKeys);
+    }
+
+    /**
+     * Removes all collected changes.
+     */
+    public void clear() {
+        affectedTables.clear();
+        affectedKeys.clear();
+    }
+}
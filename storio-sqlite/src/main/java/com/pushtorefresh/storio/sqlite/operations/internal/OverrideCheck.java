@@ -0,0 +1,99 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks whether subclasses override some public method of the base class,
+ * so operations can use faster paths only for resolvers with default behavior.
+ * <p>
+ * Method is found by its signature instead of name, so check works after obfuscation.
+ * Results are cached per class.
+ * <p>
+ * For internal usage only!
+ * <p>
+ * Thread-safe.
+ */
+public final class OverrideCheck {
+
+    @NonNull
+    private final Class<?> baseType;
+
+    @NonNull
+    private final Method method;
+
+    @NonNull
+    private final Map<Class<?>, Boolean> cache = new ConcurrentHashMap<Class<?>, Boolean>();
+
+    private OverrideCheck(@NonNull Class<?> baseType, @NonNull Method method) {
+        this.baseType = baseType;
+        this.method = method;
+    }
+
+    /**
+     * Creates check of the only public method of the base class with passed signature.
+     *
+     * @param baseType       class which declares the method.
+     * @param returnType     return type of the method.
+     * @param parameterTypes erased types of parameters of the method.
+     * @return new instance of {@link OverrideCheck}.
+     */
+    @NonNull
+    public static OverrideCheck of(@NonNull Class<?> baseType, @NonNull Class<?> returnType, @NonNull Class<?>... parameterTypes) {
+        Method found = null;
+
+        for (Method method : baseType.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers())
+                    && !method.isBridge()
+                    && method.getReturnType() == returnType
+                    && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+
+                if (found != null) {
+                    throw new IllegalStateException("Several methods of " + baseType + " have same signature: "
+                            + found + ", " + method);
+                }
+
+                found = method;
+            }
+        }
+
+        if (found == null) {
+            throw new IllegalStateException("No public method of " + baseType + " with parameters "
+                    + Arrays.toString(parameterTypes) + " returns " + returnType);
+        }
+
+        return new OverrideCheck(baseType, found);
+    }
+
+    /**
+     * Checks whether passed class or one of its parents between it and the base class overrides the method.
+     *
+     * @param type subclass of the base class.
+     * @return {@code true} if method is overridden, {@code false} otherwise.
+     */
+    public boolean isOverriddenBy(@NonNull Class<?> type) {
+        final Boolean cached = cache.get(type);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean overridden;
+
+        try {
+            // Overrides with narrower parameter types declare bridge methods with erased signature
+            overridden = type.getMethod(method.getName(), method.getParameterTypes()).getDeclaringClass() != baseType;
+        } catch (NoSuchMethodException e) {
+            // Can not happen for subclasses, safer to treat as overridden
+            overridden = true;
+        }
+
+        cache.put(type, overridden);
+        return overridden;
+    }
+}
@@ -0,0 +1,89 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+
+/**
+ * Yields transaction via {@link StorIOSQLite.Internal#yieldIfContendedSafely()}
+ * every N performed operations.
+ * <p>
+ * Yield commits changes made so far, so if it happened, tables and keys affected so far are passed to
+ * {@link StorIOSQLite.Internal#notifyAboutChanges(Changes)}: subscribers are notified about them
+ * after the end of the transaction even if the rest of the operation fails and is rolled back.
+ * <p>
+ * For internal usage only!
+ * <p>
+ * Not thread-safe.
+ */
+public final class TransactionYielder {
+
+    @NonNull
+    private final StorIOSQLite.Internal internal;
+
+    private final int yieldEveryNumberOfOperations;
+
+    @NonNull
+    private final ChangesCollector changes;
+
+    private int numberOfOperationsSinceYield;
+
+    private TransactionYielder(
+            @NonNull StorIOSQLite.Internal internal,
+            int yieldEveryNumberOfOperations,
+            @NonNull ChangesCollector changes) {
+        this.internal = internal;
+        this.yieldEveryNumberOfOperations = yieldEveryNumberOfOperations;
+        this.changes = changes;
+    }
+
+    /**
+     * Creates new instance of {@link TransactionYielder}.
+     *
+     * @param internal                     internal of {@link StorIOSQLite} that holds transaction.
+     * @param yieldEveryNumberOfOperations number of operations between yields, {@code 0} to never yield.
+     * @param changes                      collector of changes made by the operation so far.
+     * @return new instance of {@link TransactionYielder}.
+     */
+    @NonNull
+    public static TransactionYielder newInstance(
+            @NonNull StorIOSQLite.Internal internal,
+            int yieldEveryNumberOfOperations,
+            @NonNull ChangesCollector changes) {
+        return new TransactionYielder(internal, yieldEveryNumberOfOperations, changes);
+    }
+
+    /**
+     * Gets max number of operations that should be performed at once,
+     * so transaction can be yielded between them.
+     *
+     * @return number of operations between yields or {@link Integer#MAX_VALUE} if transaction is never yielded.
+     */
+    public int maxOperationsBetweenYields() {
+        return yieldEveryNumberOfOperations == 0 ? Integer.MAX_VALUE : yieldEveryNumberOfOperations;
+    }
+
+    /**
+     * Counts performed operations and yields transaction if enough operations were performed since previous yield.
+     *
+     * @param numberOfOperations number of operations performed since previous call.
+     */
+    @WorkerThread
+    public void onOperationsPerformed(int numberOfOperations) {
+        if (yieldEveryNumberOfOperations == 0) {
+            return;
+        }
+
+        numberOfOperationsSinceYield += numberOfOperations;
+
+        if (numberOfOperationsSinceYield >= yieldEveryNumberOfOperations) {
+            numberOfOperationsSinceYield = 0;
+
+            if (internal.yieldIfContendedSafely() && !changes.isEmpty()) {
+                internal.notifyAboutChanges(changes.toChanges());
+            }
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.pushtorefresh.storio.sqlite.operations.put;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
 import static com.pushtorefresh.storio.internal.InternalQueries.nullableArrayOfStrings;
 import static com.pushtorefresh.storio.internal.InternalQueries.nullableString;
 
@@ -48,6 +50,38 @@ public abstract class DefaultPutResolver<T> extends PutResolver<T> {
     @NonNull
     protected abstract ContentValues mapToContentValues(@NonNull T object);
 
+    /**
+     * Defines whether Put Operation should be performed as "upsert":
+     * "update" first and "insert" only if no rows were updated,
+     * instead of querying for existing rows before write.
+     * <p>
+     * It saves one query and one {@link Cursor} per put, but requires
+     * {@link #mapToUpdateQuery(Object)} to match only rows that represent the object.
+     * <p>
+     * By default, existing rows are queried before write.
+     *
+     * @return {@code true} to perform "update" then "insert", {@code false} otherwise.
+     */
+    protected boolean useUpsert() {
+        return false;
+    }
+
+    /**
+     * Gets value of the primary key of the row that represents the object,
+     * so Put Operation notifies about change of that row instead of the whole table
+     * and Get Operations which observe other keys do not re-query.
+     * <p>
+     * By default, key is unknown and any row of the table is treated as changed.
+     *
+     * @param object non-null object.
+     * @return value of the primary key or {@code null} if it's unknown,
+     * for example if it will be assigned by database on insert.
+     */
+    @Nullable
+    protected Object mapToKey(@NonNull T object) {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -60,28 +94,9 @@ public abstract class DefaultPutResolver<T> extends PutResolver<T> {
         storIOSQLite.internal().beginTransaction();
 
         try {
-            final Cursor cursor = storIOSQLite.internal().query(Query.builder()
-                    .table(updateQuery.table())
-                    .where(nullableString(updateQuery.where()))
-                    .whereArgs((Object[]) nullableArrayOfStrings(updateQuery.whereArgs()))
-                    .build());
-
-            final PutResult putResult;
-
-            try {
-                final ContentValues contentValues = mapToContentValues(object);
-
-                if (cursor.getCount() == 0) {
-                    final InsertQuery insertQuery = mapToInsertQuery(object);
-                    final long insertedId = storIOSQLite.internal().insert(insertQuery, contentValues);
-                    putResult = PutResult.newInsertResult(insertedId, insertQuery.table());
-                } else {
-                    final int numberOfRowsUpdated = storIOSQLite.internal().update(updateQuery, contentValues);
-                    putResult = PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table());
-                }
-            } finally {
-                cursor.close();
-            }
+            final PutResult putResult = useUpsert()
+                    ? performUpsert(storIOSQLite, object, updateQuery)
+                    : performQueryThenPut(storIOSQLite, object, updateQuery);
 
             // everything okay
             storIOSQLite.internal().setTransactionSuccessful();
@@ -92,4 +107,61 @@ public abstract class DefaultPutResolver<T> extends PutResolver<T> {
             storIOSQLite.internal().endTransaction();
         }
     }
+
+    @NonNull
+    private PutResult performQueryThenPut(@NonNull StorIOSQLite storIOSQLite, @NonNull T object, @NonNull UpdateQuery updateQuery) {
+        final Cursor cursor = storIOSQLite.internal().query(Query.builder()
+                .table(updateQuery.table())
+                .where(nullableString(updateQuery.where()))
+                .whereArgs((Object[]) nullableArrayOfStrings(updateQuery.whereArgs()))
+                .build());
+
+        try {
+            final ContentValues contentValues = mapToContentValues(object);
+
+            if (cursor.getCount() == 0) {
+                final InsertQuery insertQuery = mapToInsertQuery(object);
+                final long insertedId = storIOSQLite.internal().insertWithCompiledStatement(insertQuery, contentValues, CONFLICT_NONE);
+                return newInsertResult(object, insertedId, insertQuery);
+            } else {
+                final int numberOfRowsUpdated = storIOSQLite.internal().updateWithCompiledStatement(updateQuery, contentValues);
+                return newUpdateResult(object, numberOfRowsUpdated, updateQuery);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @NonNull
+    private PutResult performUpsert(@NonNull StorIOSQLite storIOSQLite, @NonNull T object, @NonNull UpdateQuery updateQuery) {
+        final ContentValues contentValues = mapToContentValues(object);
+        final int numberOfRowsUpdated = storIOSQLite.internal().updateWithCompiledStatement(updateQuery, contentValues);
+
+        if (numberOfRowsUpdated > 0) {
+            return newUpdateResult(object, numberOfRowsUpdated, updateQuery);
+        }
+
+        // nothing was updated -> there is no such row yet
+        final InsertQuery insertQuery = mapToInsertQuery(object);
+        final long insertedId = storIOSQLite.internal().insertWithCompiledStatement(insertQuery, contentValues, CONFLICT_NONE);
+        return newInsertResult(object, insertedId, insertQuery);
+    }
+
+    @NonNull
+    private PutResult newInsertResult(@NonNull T object, long insertedId, @NonNull InsertQuery insertQuery) {
+        final Object key = mapToKey(object);
+
+        return key != null
+                ? PutResult.newInsertResult(insertedId, insertQuery.table(), key)
+                : PutResult.newInsertResult(insertedId, insertQuery.table());
+    }
+
+    @NonNull
+    private PutResult newUpdateResult(@NonNull T object, int numberOfRowsUpdated, @NonNull UpdateQuery updateQuery) {
+        final Object key = mapToKey(object);
+
+        return key != null
+                ? PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table(), key)
+                : PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table());
+    }
 }
@@ -4,10 +4,12 @@ import android.content.ContentValues;
 import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 /**
  * Prepared Put Operation for {@link StorIOSQLite} which performs insert or update data
@@ -22,6 +24,21 @@ public abstract class PreparedPut<Result> implements PreparedOperation<Result> {
         this.storIOSQLite = storIOSQLite;
     }
 
+    /**
+     * Creates {@link Changes} of Put Operation, with key of affected row if it's known.
+     *
+     * @param putResult result of Put Operation.
+     * @return non-null changes.
+     */
+    @NonNull
+    static Changes changesOf(@NonNull PutResult putResult) {
+        final String affectedKey = putResult.affectedKey();
+
+        return affectedKey != null
+                ? Changes.newInstance(putResult.affectedTables().iterator().next(), Collections.singleton(affectedKey))
+                : Changes.newInstance(putResult.affectedTables());
+    }
+
     /**
      * Builder for {@link PreparedPut}.
      */
@@ -90,5 +107,19 @@ public abstract class PreparedPut<Result> implements PreparedOperation<Result> {
         public <T> PreparedPutCollectionOfObjects.Builder<T> objects(@NonNull Collection<T> objects) {
             return new PreparedPutCollectionOfObjects.Builder<T>(storIOSQLite, objects);
         }
+
+        /**
+         * Prepares streaming Put Operation for huge or lazily produced {@link Iterable} of objects
+         * which will be put in a series of transactions with constant memory usage.
+         *
+         * @param objects objects to put, will be iterated once.
+         * @param <T>     type of objects.
+         * @return builder.
+         * @see PreparedPutStream
+         */
+        @NonNull
+        public <T> PreparedPutStream.Builder<T> stream(@NonNull Iterable<T> objects) {
+            return new PreparedPutStream.Builder<T>(storIOSQLite, objects);
+        }
     }
 }
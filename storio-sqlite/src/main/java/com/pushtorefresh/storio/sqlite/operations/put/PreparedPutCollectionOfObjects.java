@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.operations.put;
 
+import android.content.ContentValues;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -7,18 +8,19 @@ import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
+import com.pushtorefresh.storio.sqlite.operations.internal.OverrideCheck;
+import com.pushtorefresh.storio.sqlite.operations.internal.TransactionYielder;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import rx.Observable;
 import rx.schedulers.Schedulers;
@@ -27,21 +29,37 @@ import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJa
 
 public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>> {
 
+    @NonNull
+    private static final OverrideCheck PERFORM_PUT
+            = OverrideCheck.of(DefaultPutResolver.class, PutResult.class, StorIOSQLite.class, Object.class);
+
     @NonNull
     private final Collection<T> objects;
 
     private final boolean useTransaction;
 
+    private final boolean useBulkInsert;
+
+    private final boolean summaryOnly;
+
+    private final int yieldEveryNumberOfObjects;
+
     @Nullable
     private final PutResolver<T> explicitPutResolver;
 
     PreparedPutCollectionOfObjects(@NonNull StorIOSQLite storIOSQLite,
                                    @NonNull Collection<T> objects,
                                    @Nullable PutResolver<T> explicitPutResolver,
-                                   boolean useTransaction) {
+                                   boolean useTransaction,
+                                   boolean useBulkInsert,
+                                   boolean summaryOnly,
+                                   int yieldEveryNumberOfObjects) {
         super(storIOSQLite);
         this.objects = objects;
         this.useTransaction = useTransaction;
+        this.useBulkInsert = useBulkInsert;
+        this.summaryOnly = summaryOnly;
+        this.yieldEveryNumberOfObjects = yieldEveryNumberOfObjects;
         this.explicitPutResolver = explicitPutResolver;
     }
 
@@ -66,7 +84,15 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
             final List<SimpleImmutableEntry<T, PutResolver<T>>> objectsAndPutResolvers;
 
             if (explicitPutResolver != null) {
-                objectsAndPutResolvers = null;
+                if (useBulkInsert) {
+                    objectsAndPutResolvers = new ArrayList<SimpleImmutableEntry<T, PutResolver<T>>>(objects.size());
+
+                    for (final T object : objects) {
+                        objectsAndPutResolvers.add(new SimpleImmutableEntry<T, PutResolver<T>>(object, explicitPutResolver));
+                    }
+                } else {
+                    objectsAndPutResolvers = null;
+                }
             } else {
                 objectsAndPutResolvers = new ArrayList<SimpleImmutableEntry<T, PutResolver<T>>>(objects.size());
 
@@ -91,18 +117,28 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
                 internal.beginTransaction();
             }
 
-            final Map<T, PutResult> results = new HashMap<T, PutResult>(objects.size());
+            final PutResultsCollector<T> results = new PutResultsCollector<T>(summaryOnly, objects.size());
+            final TransactionYielder yielder
+                    = TransactionYielder.newInstance(internal, useTransaction ? yieldEveryNumberOfObjects : 0, results.changes());
             boolean transactionSuccessful = false;
 
             try {
-                if (explicitPutResolver != null) {
+                if (useBulkInsert) {
+                    performBulkInsert(objectsAndPutResolvers, results, yielder);
+
+                    if (!useTransaction) {
+                        notifyAboutChanges(internal, results);
+                    }
+                } else if (explicitPutResolver != null) {
                     for (final T object : objects) {
                         final PutResult putResult = explicitPutResolver.performPut(storIOSQLite, object);
-                        results.put(object, putResult);
+                        results.add(object, putResult);
 
                         if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                            internal.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                            internal.notifyAboutChanges(changesOf(putResult));
                         }
+
+                        yielder.onOperationsPerformed(1);
                     }
                 } else {
                     for (final SimpleImmutableEntry<T, PutResolver<T>> objectAndPutResolver : objectsAndPutResolvers) {
@@ -111,11 +147,13 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
 
                         final PutResult putResult = putResolver.performPut(storIOSQLite, object);
 
-                        results.put(object, putResult);
+                        results.add(object, putResult);
 
                         if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                            internal.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                            internal.notifyAboutChanges(changesOf(putResult));
                         }
+
+                        yielder.onOperationsPerformed(1);
                     }
                 }
 
@@ -129,31 +167,113 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
 
                     // if delete was in transaction and it was successful -> notify about changes
                     if (transactionSuccessful) {
-                        final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
-
-                        for (final T object : results.keySet()) {
-                            final PutResult putResult = results.get(object);
-                            if (putResult.wasInserted() || putResult.wasUpdated()) {
-                                affectedTables.addAll(putResult.affectedTables());
-                            }
-                        }
-
                         // IMPORTANT: Notifying about change should be done after end of transaction
                         // It'll reduce number of possible deadlock situations
-                        if (!affectedTables.isEmpty()) {
-                            internal.notifyAboutChanges(Changes.newInstance(affectedTables));
-                        }
+                        notifyAboutChanges(internal, results);
                     }
                 }
             }
 
-            return PutResults.newInstance(results);
+            return results.build();
 
         } catch (Exception exception) {
             throw new StorIOException(exception);
         }
     }
 
+    /**
+     * Inserts objects handled by {@link DefaultPutResolver} via {@link StorIOSQLite.Internal#bulkInsert(InsertQuery, List)}
+     * grouped by {@link InsertQuery}, other objects are passed to their {@link PutResolver}.
+     * <p>
+     * Resolvers which override {@link DefaultPutResolver#performPut(StorIOSQLite, Object)}
+     * or use upsert have custom put logic, so their objects are passed to them too.
+     */
+    private void performBulkInsert(
+            @NonNull List<SimpleImmutableEntry<T, PutResolver<T>>> objectsAndPutResolvers,
+            @NonNull PutResultsCollector<T> results,
+            @NonNull TransactionYielder yielder) {
+
+        final Map<InsertQuery, BulkInsertGroup<T>> groups = new LinkedHashMap<InsertQuery, BulkInsertGroup<T>>(1); // in most cases it will be 1 table
+
+        for (final SimpleImmutableEntry<T, PutResolver<T>> objectAndPutResolver : objectsAndPutResolvers) {
+            final T object = objectAndPutResolver.getKey();
+            final PutResolver<T> putResolver = objectAndPutResolver.getValue();
+
+            if (canBeBulkInserted(putResolver)) {
+                final DefaultPutResolver<T> defaultPutResolver = (DefaultPutResolver<T>) putResolver;
+                final InsertQuery insertQuery = defaultPutResolver.mapToInsertQuery(object);
+
+                BulkInsertGroup<T> group = groups.get(insertQuery);
+
+                if (group == null) {
+                    group = new BulkInsertGroup<T>();
+                    groups.put(insertQuery, group);
+                }
+
+                group.objects.add(object);
+                group.keys.add(defaultPutResolver.mapToKey(object));
+                group.contentValues.add(defaultPutResolver.mapToContentValues(object));
+            } else {
+                results.add(object, putResolver.performPut(storIOSQLite, object));
+                yielder.onOperationsPerformed(1);
+            }
+        }
+
+        final StorIOSQLite.Internal internal = storIOSQLite.internal();
+
+        for (final Map.Entry<InsertQuery, BulkInsertGroup<T>> entry : groups.entrySet()) {
+            final InsertQuery insertQuery = entry.getKey();
+            final BulkInsertGroup<T> group = entry.getValue();
+
+            final int numberOfObjects = group.objects.size();
+
+            // Transaction can be yielded only between calls of bulkInsert()
+            final int maxObjectsInChunk = yielder.maxOperationsBetweenYields();
+
+            for (int chunkStart = 0; chunkStart < numberOfObjects; chunkStart += maxObjectsInChunk) {
+                final int chunkEnd = (int) Math.min((long) chunkStart + maxObjectsInChunk, numberOfObjects);
+
+                final long[] insertedIds = internal.bulkInsert(insertQuery, group.contentValues.subList(chunkStart, chunkEnd));
+
+                for (int i = 0; i < insertedIds.length; i++) {
+                    final Object key = group.keys.get(chunkStart + i);
+
+                    results.add(group.objects.get(chunkStart + i), key != null
+                            ? PutResult.newInsertResult(insertedIds[i], insertQuery.table(), key)
+                            : PutResult.newInsertResult(insertedIds[i], insertQuery.table()));
+                }
+
+                yielder.onOperationsPerformed(insertedIds.length);
+            }
+        }
+    }
+
+    private static boolean canBeBulkInserted(@NonNull PutResolver<?> putResolver) {
+        return putResolver instanceof DefaultPutResolver
+                && !((DefaultPutResolver<?>) putResolver).useUpsert()
+                && !PERFORM_PUT.isOverriddenBy(putResolver.getClass());
+    }
+
+    private static <T> void notifyAboutChanges(@NonNull StorIOSQLite.Internal internal, @NonNull PutResultsCollector<T> results) {
+        final ChangesCollector changes = results.changes();
+
+        if (!changes.isEmpty()) {
+            internal.notifyAboutChanges(changes.toChanges());
+        }
+    }
+
+    private static final class BulkInsertGroup<T> {
+
+        @NonNull
+        final List<T> objects = new ArrayList<T>();
+
+        @NonNull
+        final List<Object> keys = new ArrayList<Object>();
+
+        @NonNull
+        final List<ContentValues> contentValues = new ArrayList<ContentValues>();
+    }
+
     /**
      * Creates {@link Observable} which will perform Put Operation and send result to observer.
      * <p>
@@ -196,6 +316,12 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
 
         private boolean useTransaction = true;
 
+        private boolean useBulkInsert;
+
+        private boolean summaryOnly;
+
+        private int yieldEveryNumberOfObjects;
+
         Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Collection<T> objects) {
             this.storIOSQLite = storIOSQLite;
             this.objects = objects;
@@ -231,6 +357,73 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
             return this;
         }
 
+        /**
+         * Optional: Defines that objects should be inserted via multi-row inserts
+         * instead of separate query-then-insert-or-update for each object.
+         * <p>
+         * Works for objects handled by {@link DefaultPutResolver} which neither overrides
+         * {@link DefaultPutResolver#performPut(StorIOSQLite, Object)} nor uses upsert: they are grouped by
+         * {@link DefaultPutResolver#mapToInsertQuery(Object)} and inserted via
+         * {@link StorIOSQLite.Internal#bulkInsert(InsertQuery, List)}, other objects are passed to their {@link PutResolver}.
+         * Use it only for objects that are not stored in the db yet, existing rows won't be updated
+         * and insert will fail on constraint conflict.
+         * Subscribers will be notified about changes once, after all objects are inserted.
+         * <p>
+         * By default, bulk insert is not used
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> useBulkInsert(boolean useBulkInsert) {
+            this.useBulkInsert = useBulkInsert;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that {@link PutResults} should keep only aggregated counters
+         * (number of inserts, updates and affected tables) without result for each object,
+         * see {@link PutResults#isSummaryOnly()}.
+         * <p>
+         * Saves allocation of result entry and {@link Object#hashCode()} call per object
+         * which can be noticeable for big collections.
+         * <p>
+         * By default, result for each object is kept
+         *
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> summaryOnly(boolean summaryOnly) {
+            this.summaryOnly = summaryOnly;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that transaction should be yielded via {@link StorIOSQLite.Internal#yieldIfContendedSafely()}
+         * every {@code numberOfObjects} objects, so other threads waiting for the database
+         * (for example, UI queries) are not blocked until the end of the whole Put Operation.
+         * <p>
+         * Objects put before the yield are committed, so Put Operation is not atomic anymore
+         * if it fails after the yield. Subscribers are notified after the end of the operation,
+         * about changes committed by yields even if the operation fails.
+         * With bulk insert, objects are inserted in chunks of {@code numberOfObjects},
+         * so transaction can be yielded between them.
+         * Works only if transaction is used, see {@link #useTransaction(boolean)}.
+         * <p>
+         * By default, transaction is not yielded
+         *
+         * @param numberOfObjects number of objects between yields, must be positive.
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> yieldEvery(int numberOfObjects) {
+            if (numberOfObjects <= 0) {
+                throw new IllegalArgumentException("numberOfObjects should be positive, but was = " + numberOfObjects);
+            }
+
+            this.yieldEveryNumberOfObjects = numberOfObjects;
+            return this;
+        }
+
         /**
          * Prepares Put Operation
          *
@@ -242,7 +435,10 @@ public final class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResu
                     storIOSQLite,
                     objects,
                     putResolver,
-                    useTransaction
+                    useTransaction,
+                    useBulkInsert,
+                    summaryOnly,
+                    yieldEveryNumberOfObjects
             );
         }
     }
@@ -7,7 +7,6 @@ import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 
 import rx.Observable;
@@ -49,7 +48,7 @@ public final class PreparedPutContentValues extends PreparedPut<PutResult> {
         try {
             final PutResult putResult = putResolver.performPut(storIOSQLite, contentValues);
             if (putResult.wasInserted() || putResult.wasUpdated()) {
-                storIOSQLite.internal().notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                storIOSQLite.internal().notifyAboutChanges(changesOf(putResult));
             }
             return putResult;
         } catch (Exception exception) {
@@ -7,13 +7,8 @@ import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
-
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
 
 import rx.Observable;
 import rx.schedulers.Schedulers;
@@ -31,16 +26,20 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
 
     private final boolean useTransaction;
 
+    private final boolean summaryOnly;
+
     PreparedPutContentValuesIterable(
             @NonNull StorIOSQLite storIOSQLite,
             @NonNull Iterable<ContentValues> contentValuesIterable,
             @NonNull PutResolver<ContentValues> putResolver,
-            boolean useTransaction) {
+            boolean useTransaction,
+            boolean summaryOnly) {
 
         super(storIOSQLite);
         this.contentValuesIterable = contentValuesIterable;
         this.putResolver = putResolver;
         this.useTransaction = useTransaction;
+        this.summaryOnly = summaryOnly;
     }
 
     /**
@@ -59,7 +58,7 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
         try {
             final StorIOSQLite.Internal internal = storIOSQLite.internal();
 
-            final Map<ContentValues, PutResult> putResults = new HashMap<ContentValues, PutResult>();
+            final PutResultsCollector<ContentValues> putResults = new PutResultsCollector<ContentValues>(summaryOnly, 16);
 
             if (useTransaction) {
                 internal.beginTransaction();
@@ -70,10 +69,10 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
             try {
                 for (ContentValues contentValues : contentValuesIterable) {
                     final PutResult putResult = putResolver.performPut(storIOSQLite, contentValues);
-                    putResults.put(contentValues, putResult);
+                    putResults.add(contentValues, putResult);
 
                     if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                        internal.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                        internal.notifyAboutChanges(changesOf(putResult));
                     }
                 }
 
@@ -86,25 +85,18 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
                     internal.endTransaction();
 
                     if (transactionSuccessful) {
-                        final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
-
-                        for (final ContentValues contentValues : putResults.keySet()) {
-                            final PutResult putResult = putResults.get(contentValues);
-                            if (putResult.wasInserted() || putResult.wasUpdated()) {
-                                affectedTables.addAll(putResult.affectedTables());
-                            }
-                        }
+                        final ChangesCollector changes = putResults.changes();
 
                         // IMPORTANT: Notifying about change should be done after end of transaction
                         // It'll reduce number of possible deadlock situations
-                        if (!affectedTables.isEmpty()) {
-                            internal.notifyAboutChanges(Changes.newInstance(affectedTables));
+                        if (!changes.isEmpty()) {
+                            internal.notifyAboutChanges(changes.toChanges());
                         }
                     }
                 }
             }
 
-            return PutResults.newInstance(putResults);
+            return putResults.build();
 
         } catch (Exception exception) {
             throw new StorIOException(exception);
@@ -188,6 +180,8 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
 
         private boolean useTransaction = true;
 
+        private boolean summaryOnly;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Iterable<ContentValues> contentValuesIterable, @NonNull PutResolver<ContentValues> putResolver) {
             this.storIOSQLite = storIOSQLite;
             this.contentValuesIterable = contentValuesIterable;
@@ -208,6 +202,21 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
             return this;
         }
 
+        /**
+         * Optional: Defines that {@link PutResults} should keep only aggregated counters
+         * (number of inserts, updates and affected tables) without result for each {@link ContentValues},
+         * see {@link PutResults#isSummaryOnly()}.
+         * <p>
+         * By default, result for each {@link ContentValues} is kept
+         *
+         * @return builder
+         */
+        @NonNull
+        public CompleteBuilder summaryOnly(boolean summaryOnly) {
+            this.summaryOnly = summaryOnly;
+            return this;
+        }
+
         /**
          * Prepares Put Operation
          *
@@ -219,7 +228,8 @@ public final class PreparedPutContentValuesIterable extends PreparedPut<PutResul
                     storIOSQLite,
                     contentValuesIterable,
                     putResolver,
-                    useTransaction
+                    useTransaction,
+                    summaryOnly
             );
         }
     }
@@ -0,0 +1,311 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Put Operation for huge or lazily produced {@link Iterable} of objects.
+ * <p>
+ * Objects are taken from the {@link Iterable} one by one and put in a series of transactions,
+ * each transaction is committed after configured number of objects or time (checked between objects).
+ * Subscribers are notified about changes once per commit, together with keys of affected rows if they are known.
+ * Only aggregated {@link PutStreamResult} is kept, so memory usage does not depend on number of objects.
+ * <p>
+ * If put of some object fails, only current transaction is rolled back,
+ * objects from previous transactions stay committed.
+ *
+ * @param <T> type of objects to put.
+ */
+public final class PreparedPutStream<T> extends PreparedPut<PutStreamResult> {
+
+    static final int DEFAULT_COMMIT_EVERY_NUMBER_OF_OBJECTS = 1000;
+
+    @NonNull
+    private final Iterable<T> objects;
+
+    @Nullable
+    private final PutResolver<T> explicitPutResolver;
+
+    private final int commitEveryNumberOfObjects;
+
+    private final long commitEveryNanos;
+
+    PreparedPutStream(@NonNull StorIOSQLite storIOSQLite,
+                      @NonNull Iterable<T> objects,
+                      @Nullable PutResolver<T> explicitPutResolver,
+                      int commitEveryNumberOfObjects,
+                      long commitEveryNanos) {
+        super(storIOSQLite);
+        this.objects = objects;
+        this.explicitPutResolver = explicitPutResolver;
+        this.commitEveryNumberOfObjects = commitEveryNumberOfObjects;
+        this.commitEveryNanos = commitEveryNanos;
+    }
+
+    /**
+     * Executes Put Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null aggregated result of Put Operation.
+     */
+    @SuppressWarnings("unchecked")
+    @WorkerThread
+    @NonNull
+    @Override
+    public PutStreamResult executeAsBlocking() {
+        try {
+            final StorIOSQLite.Internal internal = storIOSQLite.internal();
+
+            int numberOfInserts = 0;
+            int numberOfUpdates = 0;
+            int numberOfCommits = 0;
+
+            final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
+            final ChangesCollector changesInTransaction = ChangesCollector.newInstance();
+
+            boolean inTransaction = false;
+            int numberOfObjectsInTransaction = 0;
+            long transactionStartNanos = 0;
+
+            // Type mapping lookup is not free, objects in the stream usually have same type
+            Class<?> lastObjectClass = null;
+            PutResolver<T> lastPutResolver = explicitPutResolver;
+
+            try {
+                for (final T object : objects) {
+                    if (!inTransaction) {
+                        internal.beginTransaction();
+                        inTransaction = true;
+                        numberOfObjectsInTransaction = 0;
+                        transactionStartNanos = System.nanoTime();
+                    }
+
+                    if (explicitPutResolver == null && object.getClass() != lastObjectClass) {
+                        final SQLiteTypeMapping<T> typeMapping
+                                = (SQLiteTypeMapping<T>) internal.typeMapping(object.getClass());
+
+                        if (typeMapping == null) {
+                            throw new IllegalStateException("Object does not have type mapping: " +
+                                    "object = " + object + ", object.class = " + object.getClass() + ", " +
+                                    "objects from previous transactions were committed, " +
+                                    "please add type mapping for this type");
+                        }
+
+                        lastObjectClass = object.getClass();
+                        lastPutResolver = typeMapping.putResolver();
+                    }
+
+                    //noinspection ConstantConditions
+                    final PutResult putResult = lastPutResolver.performPut(storIOSQLite, object);
+
+                    if (putResult.wasInserted()) {
+                        numberOfInserts++;
+                        changesInTransaction.add(putResult.affectedTables(), putResult.affectedKey());
+                    } else if (putResult.wasUpdated()) {
+                        //noinspection ConstantConditions
+                        numberOfUpdates += putResult.numberOfRowsUpdated();
+                        changesInTransaction.add(putResult.affectedTables(), putResult.affectedKey());
+                    }
+
+                    numberOfObjectsInTransaction++;
+
+                    // Checked before taking next object, time spent waiting for it is not limited
+                    if (numberOfObjectsInTransaction >= commitEveryNumberOfObjects
+                            || (commitEveryNanos > 0 && System.nanoTime() - transactionStartNanos >= commitEveryNanos)) {
+                        internal.setTransactionSuccessful();
+                        inTransaction = false;
+                        internal.endTransaction();
+                        numberOfCommits++;
+
+                        notifyAboutChanges(internal, changesInTransaction, affectedTables);
+                    }
+                }
+
+                if (inTransaction) {
+                    internal.setTransactionSuccessful();
+                    inTransaction = false;
+                    internal.endTransaction();
+                    numberOfCommits++;
+
+                    notifyAboutChanges(internal, changesInTransaction, affectedTables);
+                }
+            } finally {
+                if (inTransaction) {
+                    // Rolls back current transaction
+                    internal.endTransaction();
+                }
+            }
+
+            return PutStreamResult.newInstance(numberOfInserts, numberOfUpdates, numberOfCommits, affectedTables);
+
+        } catch (Exception exception) {
+            throw new StorIOException(exception);
+        }
+    }
+
+    /**
+     * Notifies about changes of committed transaction and moves their tables to {@code allAffectedTables}.
+     */
+    private static void notifyAboutChanges(
+            @NonNull StorIOSQLite.Internal internal,
+            @NonNull ChangesCollector changesInTransaction,
+            @NonNull Set<String> allAffectedTables) {
+
+        if (!changesInTransaction.isEmpty()) {
+            // IMPORTANT: Notifying about change should be done after end of transaction
+            // It'll reduce number of possible deadlock situations
+            internal.notifyAboutChanges(changesInTransaction.toChanges());
+            allAffectedTables.addAll(changesInTransaction.affectedTables());
+            changesInTransaction.clear();
+        }
+    }
+
+    /**
+     * Creates {@link Observable} which will perform Put Operation and send result to observer.
+     * <p>
+     * Returned {@link Observable} will be "Cold Observable", which means that it performs
+     * put only after subscribing to it. Also, it emits the result once.
+     * <p>
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link Schedulers#io()}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Observable} which will perform Put Operation.
+     * and send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<PutStreamResult> createObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return Observable
+                .create(OnSubscribeExecuteAsBlocking.newInstance(this))
+                .subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Builder for {@link PreparedPutStream}.
+     *
+     * @param <T> type of objects to put.
+     */
+    public static final class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Iterable<T> objects;
+
+        private PutResolver<T> putResolver;
+
+        private int commitEveryNumberOfObjects = DEFAULT_COMMIT_EVERY_NUMBER_OF_OBJECTS;
+
+        private long commitEveryNanos;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Iterable<T> objects) {
+            this.storIOSQLite = storIOSQLite;
+            this.objects = objects;
+        }
+
+        /**
+         * Optional: Specifies {@link PutResolver} for Put Operation
+         * which allows you to customize behavior of Put Operation
+         * <p>
+         * Can be set via {@link SQLiteTypeMapping}
+         * If it's not set via {@link SQLiteTypeMapping} or explicitly — exception will be thrown
+         *
+         * @param putResolver put resolver
+         * @return builder
+         * @see DefaultPutResolver
+         */
+        @NonNull
+        public Builder<T> withPutResolver(@NonNull PutResolver<T> putResolver) {
+            this.putResolver = putResolver;
+            return this;
+        }
+
+        /**
+         * Optional: Defines max number of objects that will be put in one transaction.
+         * <p>
+         * By default, transaction is committed every 1000 objects.
+         *
+         * @param numberOfObjects max number of objects in one transaction, must be positive.
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> commitEvery(int numberOfObjects) {
+            if (numberOfObjects <= 0) {
+                throw new IllegalArgumentException("numberOfObjects should be positive, but was = " + numberOfObjects);
+            }
+
+            this.commitEveryNumberOfObjects = numberOfObjects;
+            return this;
+        }
+
+        /**
+         * Optional: Defines max duration of one transaction, so other connections
+         * won't wait for the write lock for too long.
+         * <p>
+         * Duration is checked only between objects: after put of each object and before
+         * taking the next one from the {@link Iterable}. Transaction can not be committed by a timer,
+         * because it belongs to the thread that executes Put Operation, so single long put or
+         * {@link Iterable} that blocks while producing next object can exceed this duration.
+         * <p>
+         * By default, transaction is committed only by number of objects, see {@link #commitEvery(int)}.
+         *
+         * @param time     max duration of one transaction, must be positive.
+         * @param timeUnit time unit of {@code time}.
+         * @return builder
+         */
+        @NonNull
+        public Builder<T> commitEvery(long time, @NonNull TimeUnit timeUnit) {
+            checkNotNull(timeUnit, "Please specify time unit");
+
+            if (time <= 0) {
+                throw new IllegalArgumentException("time should be positive, but was = " + time);
+            }
+
+            this.commitEveryNanos = timeUnit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * Prepares Put Operation
+         *
+         * @return {@link PreparedPutStream} instance
+         */
+        @NonNull
+        public PreparedPutStream<T> prepare() {
+            return new PreparedPutStream<T>(
+                    storIOSQLite,
+                    objects,
+                    putResolver,
+                    commitEveryNumberOfObjects,
+                    commitEveryNanos
+            );
+        }
+    }
+}
@@ -26,7 +26,13 @@ public final class PutResult {
     @NonNull
     private final Set<String> affectedTables;
 
-    private PutResult(@Nullable Long insertedId, @Nullable Integer numberOfRowsUpdated, @NonNull Set<String> affectedTables) {
+    @Nullable
+    private final String affectedKey;
+
+    private PutResult(@Nullable Long insertedId,
+                      @Nullable Integer numberOfRowsUpdated,
+                      @NonNull Set<String> affectedTables,
+                      @Nullable String affectedKey) {
         if (numberOfRowsUpdated != null && numberOfRowsUpdated < 0) {
             throw new IllegalArgumentException("Number of rows updated must be >= 0");
         }
@@ -44,6 +50,7 @@ public final class PutResult {
         this.insertedId = insertedId;
         this.numberOfRowsUpdated = numberOfRowsUpdated;
         this.affectedTables = unmodifiableSet(affectedTables);
+        this.affectedKey = affectedKey;
     }
 
     /**
@@ -55,7 +62,7 @@ public final class PutResult {
      */
     @NonNull
     public static PutResult newInsertResult(long insertedId, @NonNull Set<String> affectedTables) {
-        return new PutResult(insertedId, null, affectedTables);
+        return new PutResult(insertedId, null, affectedTables, null);
     }
 
     /**
@@ -67,7 +74,7 @@ public final class PutResult {
      */
     @NonNull
     public static PutResult newInsertResult(long insertedId, @NonNull String affectedTable) {
-        return new PutResult(insertedId, null, singleton(affectedTable));
+        return new PutResult(insertedId, null, singleton(affectedTable), null);
     }
 
     /**
@@ -79,7 +86,7 @@ public final class PutResult {
      */
     @NonNull
     public static PutResult newUpdateResult(int numberOfRowsUpdated, @NonNull Set<String> affectedTables) {
-        return new PutResult(null, numberOfRowsUpdated, affectedTables);
+        return new PutResult(null, numberOfRowsUpdated, affectedTables, null);
     }
 
     /**
@@ -91,7 +98,37 @@ public final class PutResult {
      */
     @NonNull
     public static PutResult newUpdateResult(int numberOfRowsUpdated, @NonNull String affectedTable) {
-        return new PutResult(null, numberOfRowsUpdated, singleton(affectedTable));
+        return new PutResult(null, numberOfRowsUpdated, singleton(affectedTable), null);
+    }
+
+    /**
+     * Creates {@link PutResult} of insert of the row with known key,
+     * so only observers of that row are notified about change.
+     *
+     * @param insertedId    id of new row.
+     * @param affectedTable table that was affected.
+     * @param affectedKey   value of the primary key of inserted row.
+     * @return new {@link PutResult} instance.
+     */
+    @NonNull
+    public static PutResult newInsertResult(long insertedId, @NonNull String affectedTable, @NonNull Object affectedKey) {
+        checkNotNull(affectedKey, "Please specify affected key");
+        return new PutResult(insertedId, null, singleton(affectedTable), String.valueOf(affectedKey));
+    }
+
+    /**
+     * Creates {@link PutResult} of update of the row with known key,
+     * so only observers of that row are notified about change.
+     *
+     * @param numberOfRowsUpdated number of rows that were updated, must be {@code >= 0}.
+     * @param affectedTable       table that was affected.
+     * @param affectedKey         value of the primary key of updated row.
+     * @return new {@link PutResult} instance.
+     */
+    @NonNull
+    public static PutResult newUpdateResult(int numberOfRowsUpdated, @NonNull String affectedTable, @NonNull Object affectedKey) {
+        checkNotNull(affectedKey, "Please specify affected key");
+        return new PutResult(null, numberOfRowsUpdated, singleton(affectedTable), String.valueOf(affectedKey));
     }
 
     /**
@@ -170,6 +207,16 @@ public final class PutResult {
         return affectedTables;
     }
 
+    /**
+     * Gets value of the primary key of affected row.
+     *
+     * @return value of the key converted to string or {@code null} if it's unknown.
+     */
+    @Nullable
+    public String affectedKey() {
+        return affectedKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -181,7 +228,8 @@ public final class PutResult {
             return false;
         if (numberOfRowsUpdated != null ? !numberOfRowsUpdated.equals(putResult.numberOfRowsUpdated) : putResult.numberOfRowsUpdated != null)
             return false;
-        return affectedTables.equals(putResult.affectedTables);
+        if (!affectedTables.equals(putResult.affectedTables)) return false;
+        return affectedKey != null ? affectedKey.equals(putResult.affectedKey) : putResult.affectedKey == null;
     }
 
     @Override
@@ -189,6 +237,7 @@ public final class PutResult {
         int result = insertedId != null ? insertedId.hashCode() : 0;
         result = 31 * result + (numberOfRowsUpdated != null ? numberOfRowsUpdated.hashCode() : 0);
         result = 31 * result + affectedTables.hashCode();
+        result = 31 * result + (affectedKey != null ? affectedKey.hashCode() : 0);
         return result;
     }
 
@@ -198,6 +247,7 @@ public final class PutResult {
                 "insertedId=" + insertedId +
                 ", numberOfRowsUpdated=" + numberOfRowsUpdated +
                 ", affectedTables=" + affectedTables +
+                ", affectedKey='" + affectedKey + '\'' +
                 '}';
     }
 }
@@ -4,11 +4,18 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 
 /**
  * Immutable container for results of Put Operation.
  * <p>
+ * Summary-only instance keeps only aggregated counters without result for each object,
+ * see {@link #newSummaryInstance(int, int, Set)}.
+ * <p>
  * Instances of this class are Immutable
  *
  * @param <T> type of objects that were put.
@@ -18,14 +25,35 @@ public final class PutResults<T> {
     @NonNull
     private final Map<T, PutResult> results;
 
+    private final int summaryNumberOfInserts;
+
+    private final int summaryNumberOfUpdates;
+
+    /**
+     * Non-null only for summary-only instance.
+     */
+    @Nullable
+    private final Set<String> summaryAffectedTables;
+
     @Nullable
     private transient volatile Integer numberOfInsertsCache;
 
     @Nullable
     private transient volatile Integer numberOfUpdatesCache;
 
-    private PutResults(@NonNull Map<T, PutResult> putResults) {
+    @Nullable
+    private transient volatile Set<String> affectedTablesCache;
+
+    private PutResults(@NonNull Map<T, PutResult> putResults,
+                       int summaryNumberOfInserts,
+                       int summaryNumberOfUpdates,
+                       @Nullable Set<String> summaryAffectedTables) {
         this.results = Collections.unmodifiableMap(putResults);
+        this.summaryNumberOfInserts = summaryNumberOfInserts;
+        this.summaryNumberOfUpdates = summaryNumberOfUpdates;
+        this.summaryAffectedTables = summaryAffectedTables != null
+                ? Collections.unmodifiableSet(summaryAffectedTables)
+                : null;
     }
 
     /**
@@ -37,11 +65,38 @@ public final class PutResults<T> {
      */
     @NonNull
     public static <T> PutResults<T> newInstance(@NonNull Map<T, PutResult> putResults) {
-        return new PutResults<T>(putResults);
+        return new PutResults<T>(putResults, 0, 0, null);
+    }
+
+    /**
+     * Creates new summary-only instance of {@link PutResults}
+     * which keeps only aggregated counters, {@link #results()} of such instance is empty.
+     *
+     * @param numberOfInserts number of inserted rows.
+     * @param numberOfUpdates number of updated rows.
+     * @param affectedTables  tables that were changed by Put Operation.
+     * @param <T>             type of objects.
+     * @return immutable summary-only instance of {@link PutResults}.
+     */
+    @NonNull
+    public static <T> PutResults<T> newSummaryInstance(int numberOfInserts, int numberOfUpdates, @NonNull Set<String> affectedTables) {
+        checkNotNull(affectedTables, "Please specify affected tables");
+        return new PutResults<T>(Collections.<T, PutResult>emptyMap(), numberOfInserts, numberOfUpdates, affectedTables);
+    }
+
+    /**
+     * Checks whether this instance keeps only aggregated counters.
+     *
+     * @return {@code true} if {@link #results()} is empty because only summary was requested.
+     */
+    public boolean isSummaryOnly() {
+        return summaryAffectedTables != null;
     }
 
     /**
      * Returns immutable Map of pairs {@code (object, PutResult)}.
+     * <p>
+     * Empty for summary-only instance, see {@link #isSummaryOnly()}.
      *
      * @return immutable Map of pairs {@code (object, PutResult)}.
      */
@@ -56,6 +111,10 @@ public final class PutResults<T> {
      * @return number of inserts from all {@link #results()}.
      */
     public int numberOfInserts() {
+        if (summaryAffectedTables != null) {
+            return summaryNumberOfInserts;
+        }
+
         final Integer cachedValue = numberOfInsertsCache;
 
         if (cachedValue != null) {
@@ -81,6 +140,10 @@ public final class PutResults<T> {
      * @return number of updates from all {@link #results()}.
      */
     public int numberOfUpdates() {
+        if (summaryAffectedTables != null) {
+            return summaryNumberOfUpdates;
+        }
+
         final Integer cachedValue = numberOfUpdatesCache;
 
         if (cachedValue != null) {
@@ -103,6 +166,37 @@ public final class PutResults<T> {
         return numberOfUpdates;
     }
 
+    /**
+     * Returns tables that were changed by inserts or updates from all {@link #results()}.
+     *
+     * @return unmodifiable set of changed tables.
+     */
+    @NonNull
+    public Set<String> affectedTables() {
+        if (summaryAffectedTables != null) {
+            return summaryAffectedTables;
+        }
+
+        final Set<String> cachedValue = affectedTablesCache;
+
+        if (cachedValue != null) {
+            return cachedValue;
+        }
+
+        final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
+
+        for (PutResult putResult : results.values()) {
+            if (putResult.wasInserted() || putResult.wasUpdated()) {
+                affectedTables.addAll(putResult.affectedTables());
+            }
+        }
+
+        final Set<String> unmodifiableAffectedTables = Collections.unmodifiableSet(affectedTables);
+        affectedTablesCache = unmodifiableAffectedTables;
+
+        return unmodifiableAffectedTables;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -110,18 +204,28 @@ public final class PutResults<T> {
 
         PutResults<?> that = (PutResults<?>) o;
 
-        return results.equals(that.results);
+        if (summaryNumberOfInserts != that.summaryNumberOfInserts) return false;
+        if (summaryNumberOfUpdates != that.summaryNumberOfUpdates) return false;
+        if (!results.equals(that.results)) return false;
+        return summaryAffectedTables != null ? summaryAffectedTables.equals(that.summaryAffectedTables) : that.summaryAffectedTables == null;
     }
 
     @Override
     public int hashCode() {
-        return results.hashCode();
+        int result = results.hashCode();
+        result = 31 * result + summaryNumberOfInserts;
+        result = 31 * result + summaryNumberOfUpdates;
+        result = 31 * result + (summaryAffectedTables != null ? summaryAffectedTables.hashCode() : 0);
+        return result;
     }
 
     @Override
     public String toString() {
         return "PutResults{" +
                 "results=" + results +
+                ", summaryNumberOfInserts=" + summaryNumberOfInserts +
+                ", summaryNumberOfUpdates=" + summaryNumberOfUpdates +
+                ", summaryAffectedTables=" + summaryAffectedTables +
                 '}';
     }
 }
@@ -0,0 +1,78 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.operations.internal.ChangesCollector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects results of Put Operations for {@link PutResults}.
+ * <p>
+ * In summary-only mode it keeps only counters, so no per-object entries
+ * are allocated and {@link Object#hashCode()} of objects is not called.
+ * Keys of affected rows are collected for {@link com.pushtorefresh.storio.sqlite.Changes}
+ * only together with per-object results, in summary-only mode changes are table-level.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <T> type of objects.
+ */
+final class PutResultsCollector<T> {
+
+    /**
+     * {@code null} in summary-only mode.
+     */
+    @Nullable
+    private final Map<T, PutResult> results;
+
+    @NonNull
+    private final ChangesCollector changes = ChangesCollector.newInstance();
+
+    private int numberOfInserts;
+
+    private int numberOfUpdates;
+
+    PutResultsCollector(boolean summaryOnly, int expectedNumberOfResults) {
+        results = summaryOnly
+                ? null
+                : new HashMap<T, PutResult>(expectedNumberOfResults);
+    }
+
+    void add(@NonNull T object, @NonNull PutResult putResult) {
+        if (results != null) {
+            results.put(object, putResult);
+        } else if (putResult.wasInserted()) {
+            numberOfInserts++;
+        } else if (putResult.wasUpdated()) {
+            //noinspection ConstantConditions
+            numberOfUpdates += putResult.numberOfRowsUpdated();
+        }
+
+        if (putResult.wasInserted() || putResult.wasUpdated()) {
+            if (results != null) {
+                changes.add(putResult.affectedTables(), putResult.affectedKey());
+            } else {
+                changes.addTables(putResult.affectedTables());
+            }
+        }
+    }
+
+    /**
+     * @return changes made by inserts or updates collected so far.
+     */
+    @NonNull
+    ChangesCollector changes() {
+        return changes;
+    }
+
+    @NonNull
+    PutResults<T> build() {
+        return results != null
+                ? PutResults.newInstance(results)
+                : PutResults.<T>newSummaryInstance(numberOfInserts, numberOfUpdates, changes.affectedTables());
+    }
+}
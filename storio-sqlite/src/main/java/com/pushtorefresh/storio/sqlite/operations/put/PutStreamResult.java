@@ -0,0 +1,119 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+import android.support.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Immutable container for aggregated result of {@link PreparedPutStream}.
+ * <p>
+ * Unlike {@link PutResults} it does not keep result for each object,
+ * so memory usage does not depend on number of objects.
+ * <p>
+ * Instances of this class are Immutable.
+ */
+public final class PutStreamResult {
+
+    private final int numberOfInserts;
+
+    private final int numberOfUpdates;
+
+    private final int numberOfCommits;
+
+    @NonNull
+    private final Set<String> affectedTables;
+
+    private PutStreamResult(int numberOfInserts, int numberOfUpdates, int numberOfCommits, @NonNull Set<String> affectedTables) {
+        this.numberOfInserts = numberOfInserts;
+        this.numberOfUpdates = numberOfUpdates;
+        this.numberOfCommits = numberOfCommits;
+        this.affectedTables = Collections.unmodifiableSet(affectedTables);
+    }
+
+    /**
+     * Creates new instance of immutable container for aggregated result of {@link PreparedPutStream}.
+     *
+     * @param numberOfInserts number of inserted rows.
+     * @param numberOfUpdates number of updated rows.
+     * @param numberOfCommits number of committed transactions.
+     * @param affectedTables  tables that were affected.
+     * @return new instance of {@link PutStreamResult}.
+     */
+    @NonNull
+    public static PutStreamResult newInstance(int numberOfInserts, int numberOfUpdates, int numberOfCommits, @NonNull Set<String> affectedTables) {
+        checkNotNull(affectedTables, "Please specify affected tables");
+        return new PutStreamResult(numberOfInserts, numberOfUpdates, numberOfCommits, affectedTables);
+    }
+
+    /**
+     * Gets number of inserted rows.
+     *
+     * @return number of inserted rows.
+     */
+    public int numberOfInserts() {
+        return numberOfInserts;
+    }
+
+    /**
+     * Gets number of updated rows.
+     *
+     * @return number of updated rows.
+     */
+    public int numberOfUpdates() {
+        return numberOfUpdates;
+    }
+
+    /**
+     * Gets number of committed transactions.
+     *
+     * @return number of committed transactions.
+     */
+    public int numberOfCommits() {
+        return numberOfCommits;
+    }
+
+    /**
+     * Gets names of the tables that were affected by Put Operation.
+     *
+     * @return unmodifiable set of tables that were affected.
+     */
+    @NonNull
+    public Set<String> affectedTables() {
+        return affectedTables;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PutStreamResult that = (PutStreamResult) o;
+
+        if (numberOfInserts != that.numberOfInserts) return false;
+        if (numberOfUpdates != that.numberOfUpdates) return false;
+        if (numberOfCommits != that.numberOfCommits) return false;
+        return affectedTables.equals(that.affectedTables);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = numberOfInserts;
+        result = 31 * result + numberOfUpdates;
+        result = 31 * result + numberOfCommits;
+        result = 31 * result + affectedTables.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PutStreamResult{" +
+                "numberOfInserts=" + numberOfInserts +
+                ", numberOfUpdates=" + numberOfUpdates +
+                ", numberOfCommits=" + numberOfCommits +
+                ", affectedTables=" + affectedTables +
+                '}';
+    }
+}
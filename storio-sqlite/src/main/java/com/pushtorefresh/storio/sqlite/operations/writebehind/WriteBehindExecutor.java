@@ -0,0 +1,461 @@
+package com.pushtorefresh.storio.sqlite.operations.writebehind;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.PreparedDelete;
+import com.pushtorefresh.storio.sqlite.operations.put.PreparedPut;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import rx.Observable;
+import rx.schedulers.Schedulers;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Executes Put and Delete Operations submitted from many threads on one writer thread
+ * and commits them in groups: all operations that were queued while previous group was committing
+ * are executed in one transaction, so they do not fight for the SQLite lock and share one commit.
+ * <p>
+ * If some operation fails, group transaction is rolled back, the operation completes with its exception
+ * and other operations of the group are executed again in a new transaction,
+ * so failed operation does not affect them.
+ * Result of the operation is delivered only after its group is committed.
+ * Subscribers of {@link StorIOSQLite#observeChanges()} are notified once per group
+ * (rolled back attempt can lead to extra notification).
+ * <p>
+ * If the writer thread dies because of an {@link Error}, all pending operations fail
+ * and new operations are not accepted.
+ * <p>
+ * Thread-safe.
+ */
+public final class WriteBehindExecutor implements Closeable {
+
+    static final int DEFAULT_MAX_OPERATIONS_IN_GROUP = 100;
+
+    /**
+     * Stops the writer thread, always the last task in the queue.
+     */
+    @NonNull
+    private static final Task<Object> CLOSE = new Task<Object>(null);
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    private final int maxOperationsInGroup;
+
+    @NonNull
+    private final BlockingQueue<Task<?>> queue = new LinkedBlockingQueue<Task<?>>();
+
+    @NonNull
+    private final Object lock = new Object();
+
+    private boolean closed; // guarded by lock
+
+    @Nullable
+    private StorIOException writerFailure; // guarded by lock
+
+    WriteBehindExecutor(@NonNull StorIOSQLite storIOSQLite, int maxOperationsInGroup) {
+        this.storIOSQLite = storIOSQLite;
+        this.maxOperationsInGroup = maxOperationsInGroup;
+
+        final Thread writerThread = new Thread(new Writer(), "StorIO-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queues Put Operation for execution on the writer thread.
+     *
+     * @param preparedPut operation to execute.
+     * @param <Result>    type of result.
+     * @return future that completes after group of the operation is committed,
+     * {@link Future#get()} throws {@link ExecutionException} with {@link StorIOException} as cause if operation failed.
+     */
+    @NonNull
+    public <Result> Future<Result> submit(@NonNull PreparedPut<Result> preparedPut) {
+        checkNotNull(preparedPut, "Please specify Put Operation");
+        return enqueue(preparedPut);
+    }
+
+    /**
+     * Queues Delete Operation for execution on the writer thread.
+     *
+     * @param preparedDelete operation to execute.
+     * @param <Result>       type of result.
+     * @return future that completes after group of the operation is committed,
+     * {@link Future#get()} throws {@link ExecutionException} with {@link StorIOException} as cause if operation failed.
+     */
+    @NonNull
+    public <Result> Future<Result> submit(@NonNull PreparedDelete<Result> preparedDelete) {
+        checkNotNull(preparedDelete, "Please specify Delete Operation");
+        return enqueue(preparedDelete);
+    }
+
+    /**
+     * Creates {@link Observable} which will queue Put Operation and send result to observer
+     * after group of the operation is committed.
+     * <p>
+     * Returned {@link Observable} will be "Cold Observable", which means that operation
+     * is queued only after subscribing to it. Also, it emits the result once.
+     * <p>
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Waits for the result on {@link Schedulers#io()}.</dd>
+     * </dl>
+     *
+     * @param preparedPut operation to execute.
+     * @param <Result>    type of result.
+     * @return non-null {@link Observable} which will queue operation and send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    public <Result> Observable<Result> createObservable(@NonNull PreparedPut<Result> preparedPut) {
+        checkNotNull(preparedPut, "Please specify Put Operation");
+        return createObservableOf(preparedPut);
+    }
+
+    /**
+     * Creates {@link Observable} which will queue Delete Operation and send result to observer
+     * after group of the operation is committed.
+     * <p>
+     * Returned {@link Observable} will be "Cold Observable", which means that operation
+     * is queued only after subscribing to it. Also, it emits the result once.
+     * <p>
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Waits for the result on {@link Schedulers#io()}.</dd>
+     * </dl>
+     *
+     * @param preparedDelete operation to execute.
+     * @param <Result>       type of result.
+     * @return non-null {@link Observable} which will queue operation and send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    public <Result> Observable<Result> createObservable(@NonNull PreparedDelete<Result> preparedDelete) {
+        checkNotNull(preparedDelete, "Please specify Delete Operation");
+        return createObservableOf(preparedDelete);
+    }
+
+    /**
+     * Stops accepting new operations, already queued operations will be executed.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (!closed) {
+                closed = true;
+                queue.add(CLOSE);
+            }
+        }
+    }
+
+    @NonNull
+    private <Result> Future<Result> enqueue(@NonNull PreparedOperation<Result> preparedOperation) {
+        final Task<Result> task = new Task<Result>(preparedOperation);
+
+        synchronized (lock) {
+            if (writerFailure != null) {
+                throw new IllegalStateException("Writer thread of WriteBehindExecutor failed", writerFailure);
+            }
+
+            if (closed) {
+                throw new IllegalStateException("WriteBehindExecutor is closed");
+            }
+
+            queue.add(task);
+        }
+
+        return task.future;
+    }
+
+    @NonNull
+    private <Result> Observable<Result> createObservableOf(@NonNull PreparedOperation<Result> preparedOperation) {
+        throwExceptionIfRxJavaIsNotAvailable("createObservable()");
+
+        return new AwaitResult<Result>(preparedOperation).createObservable();
+    }
+
+    /**
+     * Executes group of operations in one transaction and completes their futures after commit.
+     * <p>
+     * Failed operation aborts the transaction: it's removed from the group and
+     * remaining operations are executed again in a new transaction.
+     */
+    @WorkerThread
+    private void executeGroup(@NonNull List<Task<?>> group) {
+        final StorIOSQLite.Internal internal = storIOSQLite.internal();
+        final List<Task<?>> remainingTasks = new ArrayList<Task<?>>(group);
+
+        while (!remainingTasks.isEmpty()) {
+            Task<?> failedTask = null;
+            StorIOException groupException = null;
+
+            try {
+                internal.beginTransaction();
+
+                try {
+                    for (Task<?> task : remainingTasks) {
+                        if (!task.execute()) {
+                            failedTask = task;
+                            break;
+                        }
+                    }
+
+                    if (failedTask == null) {
+                        internal.setTransactionSuccessful();
+                    }
+                } finally {
+                    // Subscribers are notified about changes of the whole group here
+                    internal.endTransaction();
+                }
+            } catch (StorIOException exception) {
+                groupException = exception;
+            } catch (Exception exception) {
+                groupException = new StorIOException(exception);
+            }
+
+            if (failedTask == null || groupException != null) {
+                for (Task<?> task : remainingTasks) {
+                    task.complete(groupException);
+                }
+
+                return;
+            }
+
+            // Changes of other operations were rolled back together with the failed one
+            remainingTasks.remove(failedTask);
+            failedTask.complete(null);
+        }
+    }
+
+    /**
+     * Fails all pending operations and stops accepting new ones.
+     */
+    private void onWriterFailed(@NonNull Throwable throwable, @NonNull List<Task<?>> currentGroup) {
+        final StorIOException exception = new StorIOException(throwable);
+
+        synchronized (lock) {
+            writerFailure = exception;
+        }
+
+        // Completed futures ignore it
+        for (Task<?> task : currentGroup) {
+            task.fail(exception);
+        }
+
+        // Nothing can be queued after writerFailure was set
+        final List<Task<?>> queuedTasks = new ArrayList<Task<?>>(queue.size());
+        queue.drainTo(queuedTasks);
+
+        for (Task<?> task : queuedTasks) {
+            if (task != CLOSE) {
+                task.fail(exception);
+            }
+        }
+    }
+
+    private final class Writer implements Runnable {
+
+        @Override
+        public void run() {
+            final List<Task<?>> group = new ArrayList<Task<?>>(maxOperationsInGroup);
+
+            try {
+                boolean closeRequested = false;
+
+                while (!closeRequested) {
+                    // Blocks until at least one operation is queued
+                    group.add(queue.take());
+
+                    // Everything queued while previous group was committing goes to this group
+                    queue.drainTo(group, maxOperationsInGroup - 1);
+
+                    // CLOSE is always the last task in the queue
+                    if (group.get(group.size() - 1) == CLOSE) {
+                        group.remove(group.size() - 1);
+                        closeRequested = true;
+                    }
+
+                    if (!group.isEmpty()) {
+                        executeGroup(group);
+                        group.clear();
+                    }
+                }
+            } catch (Throwable throwable) {
+                // Interruption or Error, otherwise futures of pending operations would never complete
+                onWriterFailed(throwable, group);
+            }
+        }
+    }
+
+    static final class Task<Result> implements Callable<Result> {
+
+        @Nullable
+        private final PreparedOperation<Result> preparedOperation;
+
+        @NonNull
+        final FutureTask<Result> future;
+
+        @Nullable
+        private Result result;
+
+        @Nullable
+        private StorIOException exception;
+
+        Task(@Nullable PreparedOperation<Result> preparedOperation) {
+            this.preparedOperation = preparedOperation;
+
+            future = new FutureTask<Result>(new Callable<Result>() {
+                @Override
+                public Result call() throws Exception {
+                    if (exception != null) {
+                        throw exception;
+                    }
+
+                    return result;
+                }
+            });
+        }
+
+        @Override
+        public Result call() throws Exception {
+            //noinspection ConstantConditions
+            return preparedOperation.executeAsBlocking();
+        }
+
+        /**
+         * Executes operation, result or exception of the previous attempt is discarded.
+         *
+         * @return {@code true} if operation succeeded or was cancelled, {@code false} if it failed.
+         */
+        boolean execute() {
+            result = null;
+            exception = null;
+
+            if (future.isCancelled()) {
+                return true;
+            }
+
+            try {
+                result = call();
+                return true;
+            } catch (StorIOException e) {
+                exception = e;
+            } catch (Exception e) {
+                exception = new StorIOException(e);
+            }
+
+            return false;
+        }
+
+        void complete(@Nullable StorIOException groupException) {
+            if (groupException != null && exception == null) {
+                exception = groupException;
+            }
+
+            // Publishes result or exception to the threads that wait for the future
+            future.run();
+        }
+
+        void fail(@NonNull StorIOException exception) {
+            this.exception = exception;
+            future.run();
+        }
+    }
+
+    /**
+     * Queues operation and waits for its result, allows to reuse {@link OnSubscribeExecuteAsBlocking}.
+     */
+    private final class AwaitResult<Result> implements PreparedOperation<Result> {
+
+        @NonNull
+        private final PreparedOperation<Result> preparedOperation;
+
+        AwaitResult(@NonNull PreparedOperation<Result> preparedOperation) {
+            this.preparedOperation = preparedOperation;
+        }
+
+        @NonNull
+        @Override
+        public Result executeAsBlocking() {
+            try {
+                return enqueue(preparedOperation).get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof StorIOException
+                        ? (StorIOException) e.getCause()
+                        : new StorIOException(e.getCause());
+            } catch (InterruptedException e) {
+                throw new StorIOException(e);
+            }
+        }
+
+        @NonNull
+        @Override
+        public Observable<Result> createObservable() {
+            return Observable
+                    .create(OnSubscribeExecuteAsBlocking.newInstance(this))
+                    .subscribeOn(Schedulers.io());
+        }
+    }
+
+    /**
+     * Builder for {@link WriteBehindExecutor}.
+     */
+    public static final class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        private int maxOperationsInGroup = DEFAULT_MAX_OPERATIONS_IN_GROUP;
+
+        public Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Optional: Defines max number of operations that will be committed in one transaction.
+         * <p>
+         * By default, up to 100 operations are committed together.
+         *
+         * @param maxOperationsInGroup max number of operations in one transaction, must be positive.
+         * @return builder.
+         */
+        @NonNull
+        public Builder maxOperationsInGroup(int maxOperationsInGroup) {
+            if (maxOperationsInGroup <= 0) {
+                throw new IllegalArgumentException("maxOperationsInGroup should be positive, but was = " + maxOperationsInGroup);
+            }
+
+            this.maxOperationsInGroup = maxOperationsInGroup;
+            return this;
+        }
+
+        /**
+         * Builds {@link WriteBehindExecutor} and starts its writer thread.
+         *
+         * @return new {@link WriteBehindExecutor} instance.
+         */
+        @NonNull
+        public WriteBehindExecutor build() {
+            return new WriteBehindExecutor(storIOSQLite, maxOperationsInGroup);
+        }
+    }
+}
@@ -4,11 +4,14 @@ import com.pushtorefresh.storio.test.ToStringChecker;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ChangesTest {
@@ -62,4 +65,56 @@ public class ChangesTest {
                 .forClass(Changes.class)
                 .check();
     }
+
+    @Test
+    public void newInstanceWithoutKeysShouldNotHaveAffectedKeys() {
+        final Changes changes = Changes.newInstance("test_table");
+        assertThat(changes.affectedKeys()).isEmpty();
+        assertThat(changes.affectedKeys("test_table")).isNull();
+    }
+
+    @Test
+    public void newInstanceWithKeysOfOneTable() {
+        final Changes changes = Changes.newInstance("test_table", asList(1L, "2"));
+        assertThat(changes.affectedTables()).containsOnly("test_table");
+        assertThat(changes.affectedKeys("test_table")).containsOnly("1", "2");
+    }
+
+    @Test
+    public void newInstanceWithKeysOfSomeTables() {
+        final Set<String> affectedTables = new HashSet<String>(asList("test_table_1", "test_table_2"));
+
+        final Changes changes = Changes.newInstance(
+                affectedTables,
+                Collections.singletonMap("test_table_1", singletonList(42))
+        );
+
+        assertThat(changes.affectedTables()).isEqualTo(affectedTables);
+        assertThat(changes.affectedKeys("test_table_1")).containsOnly("42");
+        assertThat(changes.affectedKeys("test_table_2")).isNull();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyAffectedKeysAreNotAllowed() {
+        Changes.newInstance("test_table", Collections.emptyList());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullAffectedKeyIsNotAllowed() {
+        Changes.newInstance("test_table", singletonList(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keysOfNotAffectedTableAreNotAllowed() {
+        Changes.newInstance(
+                Collections.singleton("test_table_1"),
+                Collections.singletonMap("test_table_2", singletonList(1))
+        );
+    }
+
+    @Test
+    public void changesWithAndWithoutKeysShouldNotBeEqual() {
+        assertThat(Changes.newInstance("test_table", singletonList(1)))
+                .isNotEqualTo(Changes.newInstance("test_table"));
+    }
 }
@@ -0,0 +1,156 @@
+package com.pushtorefresh.storio.sqlite;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdentityMapTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxSize() {
+        IdentityMap.newInstance("users", 0);
+    }
+
+    @Test
+    public void shouldReturnSameInstanceAndCountHitsAndMisses() {
+        final IdentityMap<Object> identityMap = IdentityMap.newInstance("users", 10);
+        final Object object = new Object();
+
+        assertThat(identityMap.get(1L)).isNull();
+
+        identityMap.put(1L, object);
+
+        assertThat(identityMap.get(1L)).isSameAs(object);
+        assertThat(identityMap.get(1L)).isSameAs(object);
+
+        assertThat(identityMap.hitCount()).isEqualTo(2);
+        assertThat(identityMap.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedObject() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 2);
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        // 1L becomes most recently used
+        identityMap.get(1L);
+
+        identityMap.put(3L, "object3");
+
+        assertThat(identityMap.size()).isEqualTo(2);
+        assertThat(identityMap.get(1L)).isEqualTo("object1");
+        assertThat(identityMap.get(2L)).isNull();
+        assertThat(identityMap.get(3L)).isEqualTo("object3");
+    }
+
+    @Test
+    public void shouldUseListOfValuesAsCompositeKey() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(asList((Object) 1L, "email"), "object");
+
+        assertThat(identityMap.get(asList((Object) 1L, "email"))).isEqualTo("object");
+        assertThat(identityMap.get(asList((Object) 2L, "email"))).isNull();
+    }
+
+    @Test
+    public void shouldRemoveObject() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        identityMap.remove(1L);
+        identityMap.remove(null); // key of not inserted object
+
+        assertThat(identityMap.get(1L)).isNull();
+        assertThat(identityMap.get(2L)).isEqualTo("object2");
+    }
+
+    @Test
+    public void clearShouldRemoveAllObjects() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        identityMap.clear();
+
+        assertThat(identityMap.size()).isEqualTo(0);
+        assertThat(identityMap.maxSize()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldIgnoreObjectReadBeforeRemoval() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        final long version = identityMap.version();
+
+        // Row is changed while the object is being read
+        identityMap.remove(1L);
+
+        identityMap.put(1L, "stale object", version);
+
+        assertThat(identityMap.get(1L)).isNull();
+
+        identityMap.put(1L, "object", identityMap.version());
+
+        assertThat(identityMap.get(1L)).isEqualTo("object");
+    }
+
+    @Test
+    public void invalidateShouldRemoveObjectsOfChangedKeys() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        identityMap.invalidate(Changes.newInstance("users", singleton("1")));
+
+        assertThat(identityMap.get(1L)).isNull();
+        assertThat(identityMap.get(2L)).isEqualTo("object2");
+    }
+
+    @Test
+    public void invalidateShouldRemoveAllObjectsIfTableChangedWithoutKeys() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        identityMap.invalidate(Changes.newInstance("users"));
+
+        assertThat(identityMap.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalidateShouldIgnoreChangesOfOtherTables() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        identityMap.put(1L, "object1");
+        final long version = identityMap.version();
+
+        identityMap.invalidate(Changes.newInstance("tweets"));
+
+        assertThat(identityMap.get(1L)).isEqualTo("object1");
+        assertThat(identityMap.version()).isEqualTo(version);
+    }
+
+    @Test
+    public void shouldIgnoreObjectReadBeforeInvalidation() {
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("users", 10);
+
+        final long version = identityMap.version();
+
+        // Change of the row is committed while the object is being read
+        identityMap.invalidate(Changes.newInstance("users", singleton("1")));
+
+        identityMap.put(1L, "stale object", version);
+
+        assertThat(identityMap.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,105 @@
+package com.pushtorefresh.storio.sqlite;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryResultCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxSize() {
+        QueryResultCache.newInstance(0);
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        final QueryResultCache cache = QueryResultCache.newInstance(10);
+
+        assertThat(cache.get("key")).isNull();
+
+        cache.put("key", singleton("table"), "result", cache.version());
+
+        assertThat(cache.get("key")).isEqualTo("result");
+        assertThat(cache.get("key")).isEqualTo("result");
+
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() {
+        final QueryResultCache cache = QueryResultCache.newInstance(2);
+
+        cache.put("key1", singleton("table"), "result1", cache.version());
+        cache.put("key2", singleton("table"), "result2", cache.version());
+
+        // key1 becomes most recently used
+        cache.get("key1");
+
+        cache.put("key3", singleton("table"), "result3", cache.version());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("key1")).isEqualTo("result1");
+        assertThat(cache.get("key2")).isNull();
+        assertThat(cache.get("key3")).isEqualTo("result3");
+    }
+
+    @Test
+    public void shouldInvalidateResultsOfChangedTables() {
+        final QueryResultCache cache = QueryResultCache.newInstance(10);
+
+        cache.put("key1", singleton("table1"), "result1", cache.version());
+        cache.put("key2", new HashSet<String>(asList("table1", "table2")), "result2", cache.version());
+        cache.put("key3", singleton("table3"), "result3", cache.version());
+
+        cache.invalidate(singleton("table1"));
+
+        assertThat(cache.get("key1")).isNull();
+        assertThat(cache.get("key2")).isNull();
+        assertThat(cache.get("key3")).isEqualTo("result3");
+    }
+
+    @Test
+    public void shouldIgnoreResultReadBeforeInvalidation() {
+        final QueryResultCache cache = QueryResultCache.newInstance(10);
+
+        final long version = cache.version();
+
+        // Change happens while the query is running
+        cache.invalidate(singleton("table"));
+
+        cache.put("key", singleton("table"), "stale result", version);
+
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotStoreResultsWhileTransactionIsRunning() {
+        final QueryResultCache cache = QueryResultCache.newInstance(10);
+
+        cache.onTransactionBegun();
+        cache.put("uncommitted", singleton("table"), "result", cache.version());
+
+        assertThat(cache.size()).isEqualTo(0);
+
+        cache.onTransactionEnded();
+        cache.put("committed", singleton("table"), "result", cache.version());
+
+        assertThat(cache.get("committed")).isEqualTo("result");
+    }
+
+    @Test
+    public void clearShouldEvictAllResults() {
+        final QueryResultCache cache = QueryResultCache.newInstance(10);
+
+        cache.put("key", singleton("table"), "result", cache.version());
+        cache.clear();
+
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get("key")).isNull();
+    }
+}
@@ -0,0 +1,54 @@
+package com.pushtorefresh.storio.sqlite;
+
+import com.pushtorefresh.storio.test.ToStringChecker;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequeryCoalescingTest {
+
+    @Test
+    public void whileBusyShouldNotHaveWindow() {
+        assertThat(RequeryCoalescing.whileBusy().windowMillis()).isEqualTo(0);
+    }
+
+    @Test
+    public void windowShouldBeConvertedToMillis() {
+        assertThat(RequeryCoalescing.window(2, SECONDS).windowMillis()).isEqualTo(2000);
+    }
+
+    @Test
+    public void subMillisecondWindowShouldBeRoundedUp() {
+        assertThat(RequeryCoalescing.window(10, MICROSECONDS).windowMillis()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroWindowIsNotAllowed() {
+        RequeryCoalescing.window(0, SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeWindowIsNotAllowed() {
+        RequeryCoalescing.window(-1, SECONDS);
+    }
+
+    @Test
+    public void verifyEqualsAndHashCodeImplementation() {
+        EqualsVerifier
+                .forClass(RequeryCoalescing.class)
+                .allFieldsShouldBeUsed()
+                .verify();
+    }
+
+    @Test
+    public void checkToStringImplementation() {
+        ToStringChecker
+                .forClass(RequeryCoalescing.class)
+                .check();
+    }
+}
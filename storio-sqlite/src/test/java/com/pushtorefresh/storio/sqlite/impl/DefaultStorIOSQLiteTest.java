@@ -1,31 +1,59 @@
 package com.pushtorefresh.storio.sqlite.impl;
 
 import android.content.ContentValues;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.IdentityMap;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
 import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
 import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
+import rx.Scheduler;
 import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -350,6 +378,232 @@ public class DefaultStorIOSQLiteTest {
         }
     }
 
+    @Test
+    public void shouldSendOneChangesWithAllAffectedTablesAfterTransaction() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChanges()
+                .subscribe(testSubscriber);
+
+        storIOSQLite.internal().beginTransaction();
+
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table2"));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+
+        testSubscriber.assertNoValues();
+
+        storIOSQLite.internal().setTransactionSuccessful();
+        storIOSQLite.internal().endTransaction();
+
+        testSubscriber.assertValue(Changes.newInstance(new HashSet<String>(asList("table1", "table2"))));
+        testSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void runInTransactionShouldCommitTransactionAndReturnResult() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(false);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChanges()
+                .subscribe(testSubscriber);
+
+        final String result = storIOSQLite.runInTransaction(new Callable<String>() {
+            @Override
+            public String call() {
+                storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+                storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table2"));
+                return "result";
+            }
+        });
+
+        assertThat(result).isEqualTo("result");
+
+        InOrder inOrder = inOrder(sqLiteDatabase);
+        inOrder.verify(sqLiteDatabase).beginTransaction();
+        inOrder.verify(sqLiteDatabase).setTransactionSuccessful();
+        inOrder.verify(sqLiteDatabase).endTransaction();
+
+        testSubscriber.assertValue(Changes.newInstance(new HashSet<String>(asList("table1", "table2"))));
+        testSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void runInTransactionShouldRollbackTransactionIfCallableThrowsException() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(false);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        try {
+            storIOSQLite.runInTransaction(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    throw new IOException("test exception");
+                }
+            });
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause())
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("test exception");
+        }
+
+        verify(sqLiteDatabase).beginTransaction();
+        verify(sqLiteDatabase, never()).setTransactionSuccessful();
+        verify(sqLiteDatabase).endTransaction();
+    }
+
+    @Test
+    public void nestedRunInTransactionShouldUseSavepoint() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        final Integer result = storIOSQLite.runInTransaction(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return 42;
+            }
+        });
+
+        assertThat(result).isEqualTo(42);
+
+        InOrder inOrder = inOrder(sqLiteDatabase);
+        inOrder.verify(sqLiteDatabase).execSQL("SAVEPOINT " + DefaultStorIOSQLite.SAVEPOINT_NAME);
+        inOrder.verify(sqLiteDatabase).execSQL("RELEASE " + DefaultStorIOSQLite.SAVEPOINT_NAME);
+
+        verify(sqLiteDatabase, never()).beginTransaction();
+        verify(sqLiteDatabase, never()).endTransaction();
+    }
+
+    @Test
+    public void nestedRunInTransactionShouldRollbackToSavepointIfCallableThrowsException() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        final StorIOException exception = new StorIOException("test exception");
+
+        try {
+            storIOSQLite.runInTransaction(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    throw exception;
+                }
+            });
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            // StorIOException should not be wrapped again
+            assertThat(expected).isSameAs(exception);
+        }
+
+        InOrder inOrder = inOrder(sqLiteDatabase);
+        inOrder.verify(sqLiteDatabase).execSQL("SAVEPOINT " + DefaultStorIOSQLite.SAVEPOINT_NAME);
+        inOrder.verify(sqLiteDatabase).execSQL(DefaultStorIOSQLite.ROLLBACK_TO_SAVEPOINT);
+        inOrder.verify(sqLiteDatabase).execSQL("RELEASE " + DefaultStorIOSQLite.SAVEPOINT_NAME);
+
+        verify(sqLiteDatabase, never()).endTransaction();
+    }
+
+    @Test
+    public void nestedRunInTransactionShouldOwnTransactionsOfCallable() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChanges()
+                .subscribe(testSubscriber);
+
+        try {
+            storIOSQLite.runInTransaction(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    storIOSQLite.internal().beginTransaction();
+                    storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("test_table"));
+                    // not successful
+                    storIOSQLite.internal().endTransaction();
+                    return null;
+                }
+            });
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        verify(sqLiteDatabase, never()).beginTransaction();
+        verify(sqLiteDatabase, never()).setTransactionSuccessful();
+        verify(sqLiteDatabase, never()).endTransaction();
+        verify(sqLiteDatabase).execSQL(DefaultStorIOSQLite.ROLLBACK_TO_SAVEPOINT);
+
+        // Changes of rolled back savepoint are dropped
+        testSubscriber.assertNoValues();
+
+        storIOSQLite.runInTransaction(new Callable<Object>() {
+            @Override
+            public Object call() {
+                storIOSQLite.internal().beginTransaction();
+                storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("test_table"));
+                storIOSQLite.internal().setTransactionSuccessful();
+                storIOSQLite.internal().endTransaction();
+                return null;
+            }
+        });
+
+        // Released savepoint passes its changes to the outer transaction
+        testSubscriber.assertValue(Changes.newInstance("test_table"));
+        testSubscriber.unsubscribe();
+    }
+
     @Test
     public void shouldPassArgsToInsertWithOnConflict() {
         SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
@@ -380,6 +634,397 @@ public class DefaultStorIOSQLiteTest {
         );
     }
 
+    @Test
+    public void insertWithCompiledStatementShouldReuseCompiledStatement() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (column1) VALUES (?)")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeInsert()).thenReturn(1L, 2L);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        ContentValues contentValues = mock(ContentValues.class);
+        when(contentValues.size()).thenReturn(1);
+        when(contentValues.valueSet()).thenReturn(Collections.<Map.Entry<String, Object>>singleton(
+                new AbstractMap.SimpleImmutableEntry<String, Object>("column1", "value1")
+        ));
+
+        assertThat(storIOSQLite.internal().insertWithCompiledStatement(insertQuery, contentValues, SQLiteDatabase.CONFLICT_NONE))
+                .isEqualTo(1L);
+
+        assertThat(storIOSQLite.internal().insertWithCompiledStatement(insertQuery, contentValues, SQLiteDatabase.CONFLICT_NONE))
+                .isEqualTo(2L);
+
+        // Statement should be compiled only once
+        verify(sqLiteDatabase).compileStatement("INSERT INTO test_table (column1) VALUES (?)");
+        verify(sqLiteStatement, times(2)).bindString(1, "value1");
+        verify(sqLiteStatement, times(2)).executeInsert();
+        verify(sqLiteDatabase, times(0)).insertOrThrow(any(String.class), any(String.class), any(ContentValues.class));
+    }
+
+    @Test
+    public void updateWithCompiledStatementShouldBindValuesAndWhereArgs() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("UPDATE test_table SET column1=? WHERE column2 = ?")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeUpdateDelete()).thenReturn(1);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        UpdateQuery updateQuery = UpdateQuery.builder()
+                .table("test_table")
+                .where("column2 = ?")
+                .whereArgs("arg")
+                .build();
+
+        ContentValues contentValues = mock(ContentValues.class);
+        when(contentValues.size()).thenReturn(1);
+        when(contentValues.valueSet()).thenReturn(Collections.<Map.Entry<String, Object>>singleton(
+                new AbstractMap.SimpleImmutableEntry<String, Object>("column1", 42L)
+        ));
+
+        assertThat(storIOSQLite.internal().updateWithCompiledStatement(updateQuery, contentValues))
+                .isEqualTo(1);
+
+        verify(sqLiteStatement).bindLong(1, 42L);
+        verify(sqLiteStatement).bindString(2, "arg");
+        verify(sqLiteStatement).executeUpdateDelete();
+    }
+
+    @Test
+    public void updateWithCompiledStatementShouldReuseCompiledStatementForOtherValuesAndWhereArgs() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("UPDATE test_table SET column1=? WHERE column2 = ?")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeUpdateDelete()).thenReturn(1);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            UpdateQuery updateQuery = UpdateQuery.builder()
+                    .table("test_table")
+                    .where("column2 = ?")
+                    .whereArgs("arg" + i)
+                    .build();
+
+            ContentValues contentValues = mock(ContentValues.class);
+            when(contentValues.size()).thenReturn(1);
+            when(contentValues.valueSet()).thenReturn(Collections.<Map.Entry<String, Object>>singleton(
+                    new AbstractMap.SimpleImmutableEntry<String, Object>("column1", (long) i)
+            ));
+
+            assertThat(storIOSQLite.internal().updateWithCompiledStatement(updateQuery, contentValues))
+                    .isEqualTo(1);
+        }
+
+        // Statement should be compiled only once
+        verify(sqLiteDatabase).compileStatement("UPDATE test_table SET column1=? WHERE column2 = ?");
+        verify(sqLiteStatement).bindString(2, "arg0");
+        verify(sqLiteStatement).bindString(2, "arg1");
+        verify(sqLiteStatement, times(2)).executeUpdateDelete();
+    }
+
+    @Test
+    public void deleteWithCompiledStatementShouldReuseCompiledStatement() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("DELETE FROM test_table WHERE column1 = ?")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeUpdateDelete()).thenReturn(1);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        DeleteQuery deleteQuery1 = DeleteQuery.builder()
+                .table("test_table")
+                .where("column1 = ?")
+                .whereArgs("arg1")
+                .build();
+
+        DeleteQuery deleteQuery2 = DeleteQuery.builder()
+                .table("test_table")
+                .where("column1 = ?")
+                .whereArgs("arg2")
+                .build();
+
+        assertThat(storIOSQLite.internal().deleteWithCompiledStatement(deleteQuery1)).isEqualTo(1);
+        assertThat(storIOSQLite.internal().deleteWithCompiledStatement(deleteQuery2)).isEqualTo(1);
+
+        // Statement should be compiled only once
+        verify(sqLiteDatabase).compileStatement("DELETE FROM test_table WHERE column1 = ?");
+        verify(sqLiteStatement).bindString(1, "arg1");
+        verify(sqLiteStatement).bindString(1, "arg2");
+        verify(sqLiteStatement, times(2)).executeUpdateDelete();
+    }
+
+    @Test
+    public void simpleQueryForLongShouldUseCompiledStatement() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("SELECT COUNT(*) FROM test_table WHERE column1 = ?"))
+                .thenReturn(sqLiteStatement);
+        when(sqLiteStatement.simpleQueryForLong()).thenReturn(42L);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        RawQuery rawQuery = RawQuery.builder()
+                .query("SELECT COUNT(*) FROM test_table WHERE column1 = ?")
+                .args("arg1")
+                .build();
+
+        assertThat(storIOSQLite.internal().simpleQueryForLong(rawQuery)).isEqualTo(42L);
+        assertThat(storIOSQLite.internal().simpleQueryForLong(rawQuery)).isEqualTo(42L);
+
+        // Statement should be compiled only once
+        verify(sqLiteDatabase).compileStatement("SELECT COUNT(*) FROM test_table WHERE column1 = ?");
+        verify(sqLiteStatement, times(2)).bindString(1, "arg1");
+        verify(sqLiteStatement, times(2)).simpleQueryForLong();
+        verify(sqLiteDatabase, never()).rawQuery(any(String.class), any(String[].class));
+    }
+
+    @Test
+    public void simpleQueryForStringShouldReturnNullIfQueryHasNoResults() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("SELECT title FROM test_table")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.simpleQueryForString()).thenThrow(mock(SQLiteDoneException.class));
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        RawQuery rawQuery = RawQuery.builder()
+                .query("SELECT title FROM test_table")
+                .build();
+
+        assertThat(storIOSQLite.internal().simpleQueryForString(rawQuery)).isNull();
+        verify(sqLiteStatement).simpleQueryForString();
+    }
+
+    @NonNull
+    private static ContentValues mockContentValues(@NonNull String column, @Nullable Object value) {
+        final ContentValues contentValues = mock(ContentValues.class);
+        when(contentValues.size()).thenReturn(1);
+        when(contentValues.keySet()).thenReturn(Collections.singleton(column));
+        when(contentValues.containsKey(column)).thenReturn(true);
+        when(contentValues.get(column)).thenReturn(value);
+        return contentValues;
+    }
+
+    /**
+     * Stubs result of {@code PRAGMA table_info} for table with one column.
+     */
+    private static void mockTableInfo(
+            @NonNull SQLiteDatabase sqLiteDatabase,
+            @NonNull String table,
+            @NonNull String column,
+            @NonNull String type,
+            boolean primaryKey) {
+        final Cursor cursor = mock(Cursor.class);
+
+        when(cursor.getColumnIndexOrThrow("name")).thenReturn(1);
+        when(cursor.getColumnIndexOrThrow("type")).thenReturn(2);
+        when(cursor.getColumnIndexOrThrow("pk")).thenReturn(5);
+        when(cursor.moveToNext()).thenReturn(true, false);
+        when(cursor.getString(1)).thenReturn(column);
+        when(cursor.getString(2)).thenReturn(type);
+        when(cursor.getInt(5)).thenReturn(primaryKey ? 1 : 0);
+
+        when(sqLiteDatabase.rawQuery("PRAGMA table_info(" + table + ")", null)).thenReturn(cursor);
+    }
+
+    @Test
+    public void bulkInsertShouldUseMultiRowInsert() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        mockTableInfo(sqLiteDatabase, "test_table", "_id", "INTEGER", true);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (column1) VALUES (?),(?),(?)")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeInsert()).thenReturn(12L);
+
+        StorIOSQLite storIOSQLite = new DefaultStorIOSQLite(sqLiteOpenHelper, null, Build.VERSION_CODES.JELLY_BEAN, null);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        long[] insertedIds = storIOSQLite.internal().bulkInsert(insertQuery, asList(
+                mockContentValues("column1", "value1"),
+                mockContentValues("column1", 2L),
+                mockContentValues("column1", null)
+        ));
+
+        assertThat(insertedIds).containsExactly(10L, 11L, 12L);
+
+        verify(sqLiteStatement).bindString(1, "value1");
+        verify(sqLiteStatement).bindLong(2, 2L);
+        verify(sqLiteStatement).bindNull(3);
+        verify(sqLiteStatement).executeInsert();
+    }
+
+    @Test
+    public void bulkInsertShouldSplitRowsWithDifferentColumns() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement1 = mock(SQLiteStatement.class);
+        SQLiteStatement sqLiteStatement2 = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        mockTableInfo(sqLiteDatabase, "test_table", "_id", "INTEGER", true);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (column1) VALUES (?),(?)")).thenReturn(sqLiteStatement1);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (column2) VALUES (?)")).thenReturn(sqLiteStatement2);
+        when(sqLiteStatement1.executeInsert()).thenReturn(2L);
+        when(sqLiteStatement2.executeInsert()).thenReturn(3L);
+
+        StorIOSQLite storIOSQLite = new DefaultStorIOSQLite(sqLiteOpenHelper, null, Build.VERSION_CODES.JELLY_BEAN, null);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        long[] insertedIds = storIOSQLite.internal().bulkInsert(insertQuery, asList(
+                mockContentValues("column1", "value1"),
+                mockContentValues("column1", "value2"),
+                mockContentValues("column2", "value3")
+        ));
+
+        assertThat(insertedIds).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void bulkInsertShouldRespectBindArgsLimit() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        mockTableInfo(sqLiteDatabase, "test_table", "column0", "TEXT", false);
+        when(sqLiteDatabase.compileStatement(any(String.class))).thenReturn(sqLiteStatement);
+
+        StorIOSQLite storIOSQLite = new DefaultStorIOSQLite(sqLiteOpenHelper, null, Build.VERSION_CODES.JELLY_BEAN, null);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        final int numberOfColumns = 10;
+        final ContentValues contentValues = mock(ContentValues.class);
+        final Set<String> columns = new LinkedHashSet<String>();
+
+        for (int i = 0; i < numberOfColumns; i++) {
+            columns.add("column" + i);
+            when(contentValues.containsKey("column" + i)).thenReturn(true);
+        }
+
+        when(contentValues.size()).thenReturn(numberOfColumns);
+        when(contentValues.keySet()).thenReturn(columns);
+
+        final int maxRowsInChunk = DefaultStorIOSQLite.MAX_BIND_ARGS / numberOfColumns;
+        final List<ContentValues> rows = Collections.nCopies(maxRowsInChunk + 1, contentValues);
+
+        long[] insertedIds = storIOSQLite.internal().bulkInsert(insertQuery, rows);
+
+        assertThat(insertedIds).hasSize(maxRowsInChunk + 1);
+
+        // One full chunk and one chunk with single row
+        verify(sqLiteStatement, times(2)).executeInsert();
+        verify(sqLiteStatement, times(maxRowsInChunk * numberOfColumns + numberOfColumns)).bindNull(anyInt());
+    }
+
+    @Test
+    public void bulkInsertShouldReturnExplicitRowIds() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement explicitIdsStatement = mock(SQLiteStatement.class);
+        SQLiteStatement autoIdsStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        mockTableInfo(sqLiteDatabase, "test_table", "_id", "integer", true);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (_id) VALUES (?),(?)")).thenReturn(explicitIdsStatement);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (_id) VALUES (?)")).thenReturn(autoIdsStatement);
+        when(explicitIdsStatement.executeInsert()).thenReturn(5L);
+        when(autoIdsStatement.executeInsert()).thenReturn(101L);
+
+        StorIOSQLite storIOSQLite = new DefaultStorIOSQLite(sqLiteOpenHelper, null, Build.VERSION_CODES.JELLY_BEAN, null);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        long[] insertedIds = storIOSQLite.internal().bulkInsert(insertQuery, asList(
+                mockContentValues("_id", 100L),
+                mockContentValues("_id", 5L),
+                mockContentValues("_id", null)
+        ));
+
+        // Explicit ids are not contiguous, so they can not be calculated from the last inserted id
+        assertThat(insertedIds).containsExactly(100L, 5L, 101L);
+
+        // Table info is requested once
+        storIOSQLite.internal().bulkInsert(insertQuery, asList(mockContentValues("_id", 7L), mockContentValues("_id", 8L)));
+        verify(sqLiteDatabase).rawQuery("PRAGMA table_info(test_table)", null);
+    }
+
+    @Test
+    public void bulkInsertShouldInsertRowsOneByOneIfMultiRowInsertIsNotSupported() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement sqLiteStatement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement("INSERT INTO test_table (column1) VALUES (?)")).thenReturn(sqLiteStatement);
+        when(sqLiteStatement.executeInsert()).thenReturn(1L, 2L);
+
+        StorIOSQLite storIOSQLite = new DefaultStorIOSQLite(sqLiteOpenHelper, null, Build.VERSION_CODES.ICE_CREAM_SANDWICH_MR1, null);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        ContentValues contentValues = mock(ContentValues.class);
+        when(contentValues.size()).thenReturn(1);
+        when(contentValues.valueSet()).thenReturn(Collections.<Map.Entry<String, Object>>singleton(
+                new AbstractMap.SimpleImmutableEntry<String, Object>("column1", "value1")
+        ));
+
+        long[] insertedIds = storIOSQLite.internal().bulkInsert(insertQuery, asList(contentValues, contentValues));
+
+        assertThat(insertedIds).containsExactly(1L, 2L);
+        verify(sqLiteStatement, times(2)).executeInsert();
+    }
+
     @Test
     public void notifyAboutChangesShouldNotAcceptNullAsChanges() {
         SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
@@ -542,4 +1187,346 @@ public class DefaultStorIOSQLiteTest {
         testSubscriber.assertNoErrors();
         testSubscriber.unsubscribe();
     }
+
+    @Test
+    public void shouldApplyPerformanceProfileOnceOnFirstAccess() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        Cursor cursor = mock(Cursor.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.rawQuery(any(String.class), any(String[].class))).thenReturn(cursor);
+
+        PerformanceProfile performanceProfile = PerformanceProfile.builder()
+                .writeAheadLogging(true)
+                .synchronous(PerformanceProfile.Synchronous.NORMAL)
+                .build();
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .performanceProfile(performanceProfile)
+                .build();
+
+        assertThat(storIOSQLite.performanceProfile()).isEqualTo(performanceProfile);
+
+        // Database should not be opened until first access
+        verify(sqLiteOpenHelper, never()).getWritableDatabase();
+
+        storIOSQLite.internal().beginTransaction();
+        storIOSQLite.internal().endTransaction();
+
+        InOrder inOrder = inOrder(sqLiteDatabase, cursor);
+        inOrder.verify(sqLiteDatabase).enableWriteAheadLogging();
+        inOrder.verify(sqLiteDatabase).rawQuery("PRAGMA synchronous = NORMAL", null);
+        inOrder.verify(cursor).close();
+        inOrder.verify(sqLiteDatabase).beginTransaction();
+        inOrder.verify(sqLiteDatabase).endTransaction();
+
+        verify(sqLiteDatabase, times(1)).enableWriteAheadLogging();
+        verify(sqLiteDatabase, times(1)).rawQuery(any(String.class), any(String[].class));
+    }
+
+    @Test
+    public void shouldApplyPerformanceProfileBeforeFirstRead() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteOpenHelper.getReadableDatabase()).thenReturn(sqLiteDatabase);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .performanceProfile(PerformanceProfile.builder().writeAheadLogging(false).build())
+                .build();
+
+        storIOSQLite.internal().rawQuery(RawQuery.builder().query("SELECT 1").build());
+
+        InOrder inOrder = inOrder(sqLiteDatabase);
+        inOrder.verify(sqLiteDatabase).disableWriteAheadLogging();
+        inOrder.verify(sqLiteDatabase).rawQuery("SELECT 1", null);
+    }
+
+    @Test
+    public void shouldNotTouchDatabaseSettingsWithoutPerformanceProfile() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        storIOSQLite.internal().beginTransaction();
+
+        assertThat(storIOSQLite.performanceProfile()).isNull();
+        verify(sqLiteDatabase).beginTransaction();
+        verifyNoMoreInteractions(sqLiteDatabase);
+    }
+
+    @Test
+    public void shouldSwitchPerformanceProfileAtRuntime() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        Cursor cursor = mock(Cursor.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.rawQuery(any(String.class), any(String[].class))).thenReturn(cursor);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .performanceProfile(PerformanceProfile.readHeavy())
+                .build();
+
+        storIOSQLite.applyPerformanceProfile(PerformanceProfile.bulkImport());
+
+        assertThat(storIOSQLite.performanceProfile()).isEqualTo(PerformanceProfile.bulkImport());
+        verify(sqLiteDatabase).rawQuery("PRAGMA cache_size = -32768", null);
+
+        // Pending read-heavy profile should not be applied after explicit switch
+        storIOSQLite.internal().beginTransaction();
+        verify(sqLiteDatabase, never()).rawQuery("PRAGMA cache_size = -8192", null);
+    }
+
+    @Test
+    public void shouldYieldTransactionAndRecordStatistics() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+        when(sqLiteDatabase.yieldIfContendedSafely()).thenReturn(true, false);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        assertThat(storIOSQLite.yieldStatistics().numberOfYields()).isZero();
+
+        storIOSQLite.internal().beginTransaction();
+
+        assertThat(storIOSQLite.internal().yieldIfContendedSafely()).isTrue();
+        assertThat(storIOSQLite.internal().yieldIfContendedSafely()).isFalse();
+
+        storIOSQLite.internal().endTransaction();
+
+        assertThat(storIOSQLite.yieldStatistics().numberOfYields()).isEqualTo(1);
+        assertThat(storIOSQLite.yieldStatistics().totalYieldTimeNanos()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotYieldNestedTransaction() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        storIOSQLite.internal().beginTransaction();
+        storIOSQLite.internal().beginTransaction();
+
+        // SQLiteDatabase throws if nested transaction is yielded
+        assertThat(storIOSQLite.internal().yieldIfContendedSafely()).isFalse();
+        verify(sqLiteDatabase, never()).yieldIfContendedSafely();
+        assertThat(storIOSQLite.yieldStatistics()).isEqualTo(YieldStatistics.newInstance(0, 0));
+    }
+
+    @Test
+    public void shouldNotYieldWithoutTransaction() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        assertThat(storIOSQLite.internal().yieldIfContendedSafely()).isFalse();
+        verify(sqLiteOpenHelper, never()).getWritableDatabase();
+    }
+
+    @Test
+    public void shouldRequeryOnIoSchedulerByDefault() {
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        assertThat(storIOSQLite.requeryScheduler()).isSameAs(Schedulers.io());
+    }
+
+    @Test
+    public void shouldUseRequerySchedulerFromBuilder() {
+        Scheduler scheduler = Schedulers.immediate();
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .requeryScheduler(scheduler)
+                .build();
+
+        assertThat(storIOSQLite.requeryScheduler()).isSameAs(scheduler);
+
+        DefaultStorIOSQLite storIOSQLiteWithoutScheduler = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .requeryScheduler(null)
+                .build();
+
+        assertThat(storIOSQLiteWithoutScheduler.requeryScheduler()).isNull();
+    }
+
+    @Test
+    public void shouldNotCoalesceRequeriesByDefault() {
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        assertThat(storIOSQLite.requeryCoalescing()).isNull();
+    }
+
+    @Test
+    public void shouldUseRequeryCoalescingFromBuilder() {
+        RequeryCoalescing coalescing = RequeryCoalescing.window(100, MILLISECONDS);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .requeryCoalescing(coalescing)
+                .build();
+
+        assertThat(storIOSQLite.requeryCoalescing()).isSameAs(coalescing);
+    }
+
+    @Test
+    public void shouldNotHaveQueryResultCacheByDefault() {
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        assertThat(storIOSQLite.queryResultCache()).isNull();
+        assertThat(storIOSQLite.internal().queryResultCache()).isNull();
+    }
+
+    @Test
+    public void notifyAboutChangesShouldInvalidateQueryResultCache() {
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .queryResultCache(10)
+                .build();
+
+        QueryResultCache queryResultCache = storIOSQLite.internal().queryResultCache();
+        assertThat(queryResultCache).isSameAs(storIOSQLite.queryResultCache());
+
+        //noinspection ConstantConditions
+        queryResultCache.put("key1", singleton("table1"), "result1", queryResultCache.version());
+        queryResultCache.put("key2", singleton("table2"), "result2", queryResultCache.version());
+
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+
+        assertThat(queryResultCache.get("key1")).isNull();
+        assertThat(queryResultCache.get("key2")).isEqualTo("result2");
+    }
+
+    @Test
+    public void shouldNotCacheResultsWhileTransactionIsRunning() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .queryResultCache(10)
+                .build();
+
+        QueryResultCache queryResultCache = storIOSQLite.queryResultCache();
+
+        storIOSQLite.internal().beginTransaction();
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+
+        // For example, result read from uncommitted changes by the thread of transaction
+        //noinspection ConstantConditions
+        queryResultCache.put("key", singleton("table1"), "uncommitted result", queryResultCache.version());
+        assertThat(queryResultCache.get("key")).isNull();
+
+        storIOSQLite.internal().endTransaction();
+
+        queryResultCache.put("key", singleton("table1"), "committed result", queryResultCache.version());
+        assertThat(queryResultCache.get("key")).isEqualTo("committed result");
+    }
+
+    @Test
+    public void shouldMergeAffectedKeysOfChangesInTransaction() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChanges()
+                .subscribe(testSubscriber);
+
+        storIOSQLite.internal().beginTransaction();
+
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1", singleton(1)));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1", singleton(2)));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table2", singleton(3)));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table2"));
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table2", singleton(4)));
+
+        storIOSQLite.internal().setTransactionSuccessful();
+        storIOSQLite.internal().endTransaction();
+
+        // table2 was changed entirely once, so its keys are not known anymore
+        testSubscriber.assertValue(Changes.newInstance(
+                new HashSet<String>(asList("table1", "table2")),
+                Collections.singletonMap("table1", asList(1, 2))
+        ));
+        testSubscriber.unsubscribe();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldInvalidateIdentityMapOfTypeMappingAfterCommit() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        final IdentityMap<String> identityMap = IdentityMap.newInstance("table1", 10);
+
+        SQLiteTypeMapping<String> typeMapping = new SQLiteTypeMapping<String>(
+                mock(PutResolver.class), mock(GetResolver.class), mock(DeleteResolver.class)) {
+            @NonNull
+            @Override
+            public IdentityMap<String> identityMap() {
+                return identityMap;
+            }
+        };
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .addTypeMapping(String.class, typeMapping)
+                .build();
+
+        identityMap.put(1L, "object1");
+        identityMap.put(2L, "object2");
+
+        storIOSQLite.internal().beginTransaction();
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1", singleton(1L)));
+
+        // Other threads still read committed rows
+        assertThat(identityMap.get(1L)).isEqualTo("object1");
+
+        storIOSQLite.internal().setTransactionSuccessful();
+        storIOSQLite.internal().endTransaction();
+
+        assertThat(identityMap.get(1L)).isNull();
+        assertThat(identityMap.get(2L)).isEqualTo("object2");
+
+        storIOSQLite.internal().notifyAboutChanges(Changes.newInstance("table1"));
+
+        assertThat(identityMap.size()).isEqualTo(0);
+    }
 }
@@ -0,0 +1,125 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class PerformanceProfileTest {
+
+    @Test(expected = NullPointerException.class)
+    public void nullSynchronous() {
+        //noinspection ConstantConditions
+        PerformanceProfile.builder().synchronous(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullTempStore() {
+        //noinspection ConstantConditions
+        PerformanceProfile.builder().tempStore(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveCacheSize() {
+        PerformanceProfile.builder().cacheSizeInKilobytes(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeMmapSize() {
+        PerformanceProfile.builder().mmapSizeInBytes(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeJournalSizeLimit() {
+        PerformanceProfile.builder().journalSizeLimitInBytes(-1);
+    }
+
+    @Test
+    public void emptyProfileShouldNotTouchDatabase() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+
+        PerformanceProfile.builder().build().applyTo(db);
+
+        verifyZeroInteractions(db);
+    }
+
+    @Test
+    public void shouldBuildPragmas() {
+        PerformanceProfile performanceProfile = PerformanceProfile.builder()
+                .synchronous(PerformanceProfile.Synchronous.OFF)
+                .cacheSizeInKilobytes(2048)
+                .mmapSizeInBytes(0)
+                .tempStore(PerformanceProfile.TempStore.FILE)
+                .journalSizeLimitInBytes(1024)
+                .build();
+
+        assertThat(performanceProfile.writeAheadLoggingEnabled()).isNull();
+        assertThat(performanceProfile.pragmas()).containsExactly(
+                "PRAGMA synchronous = OFF",
+                "PRAGMA cache_size = -2048",
+                "PRAGMA mmap_size = 0",
+                "PRAGMA temp_store = FILE",
+                "PRAGMA journal_size_limit = 1024"
+        );
+    }
+
+    @Test
+    public void readHeavyShouldEnableWriteAheadLogging() {
+        PerformanceProfile performanceProfile = PerformanceProfile.readHeavy();
+
+        assertThat(performanceProfile.writeAheadLoggingEnabled()).isTrue();
+        assertThat(performanceProfile.synchronous()).isEqualTo(PerformanceProfile.Synchronous.NORMAL);
+        assertThat(performanceProfile.mmapSizeInBytes()).isPositive();
+    }
+
+    @Test
+    public void bulkImportShouldEnableWriteAheadLogging() {
+        PerformanceProfile performanceProfile = PerformanceProfile.bulkImport();
+
+        assertThat(performanceProfile.writeAheadLoggingEnabled()).isTrue();
+        assertThat(performanceProfile.cacheSizeInKilobytes()).isGreaterThan(PerformanceProfile.readHeavy().cacheSizeInKilobytes());
+        assertThat(performanceProfile.journalSizeLimitInBytes()).isGreaterThan(PerformanceProfile.readHeavy().journalSizeLimitInBytes());
+    }
+
+    @Test
+    public void shouldEnableWriteAheadLoggingBeforePragmas() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+        Cursor cursor = mock(Cursor.class);
+
+        when(db.rawQuery(any(String.class), any(String[].class))).thenReturn(cursor);
+
+        PerformanceProfile performanceProfile = PerformanceProfile.readHeavy();
+        performanceProfile.applyTo(db);
+
+        InOrder inOrder = inOrder(db);
+        inOrder.verify(db).enableWriteAheadLogging();
+
+        for (String pragma : performanceProfile.pragmas()) {
+            inOrder.verify(db).rawQuery(pragma, null);
+        }
+
+        // Each pragma should be executed and its cursor closed
+        verify(cursor, times(performanceProfile.pragmas().size())).moveToFirst();
+        verify(cursor, times(performanceProfile.pragmas().size())).close();
+    }
+
+    @Test
+    public void verifyEqualsAndHashCodeImplementation() {
+        EqualsVerifier
+                .forClass(PerformanceProfile.class)
+                .allFieldsShouldBeUsed()
+                .verify();
+    }
+}
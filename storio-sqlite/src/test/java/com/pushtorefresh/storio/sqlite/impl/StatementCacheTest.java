@@ -0,0 +1,93 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.sqlite.SQLiteStatement;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class StatementCacheTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowZeroMaxSize() {
+        new StatementCache(0);
+    }
+
+    @Test
+    public void acquireShouldReturnNullIfNoStatementWasReleased() {
+        final StatementCache statementCache = new StatementCache(2);
+        assertThat(statementCache.acquire("key")).isNull();
+    }
+
+    @Test
+    public void acquireShouldTakeStatementOutOfTheCache() {
+        final StatementCache statementCache = new StatementCache(2);
+        final SQLiteStatement statement = mock(SQLiteStatement.class);
+
+        statementCache.release("key", statement);
+        verify(statement).clearBindings();
+
+        assertThat(statementCache.acquire("key")).isSameAs(statement);
+
+        // Statement is in use, so nobody else should get it
+        assertThat(statementCache.acquire("key")).isNull();
+        assertThat(statementCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void releaseShouldCloseStatementIfCacheAlreadyHasStatementForTheKey() {
+        final StatementCache statementCache = new StatementCache(2);
+        final SQLiteStatement statement1 = mock(SQLiteStatement.class);
+        final SQLiteStatement statement2 = mock(SQLiteStatement.class);
+
+        statementCache.release("key", statement1);
+        statementCache.release("key", statement2);
+
+        verify(statement1, never()).close();
+        verify(statement2).close();
+        assertThat(statementCache.acquire("key")).isSameAs(statement1);
+    }
+
+    @Test
+    public void shouldEvictAndCloseLeastRecentlyUsedStatement() {
+        final StatementCache statementCache = new StatementCache(2);
+        final SQLiteStatement statement1 = mock(SQLiteStatement.class);
+        final SQLiteStatement statement2 = mock(SQLiteStatement.class);
+        final SQLiteStatement statement3 = mock(SQLiteStatement.class);
+
+        statementCache.release("key1", statement1);
+        statementCache.release("key2", statement2);
+
+        // Makes key1 most recently used
+        statementCache.release("key1", statementCache.acquire("key1"));
+
+        statementCache.release("key3", statement3);
+
+        assertThat(statementCache.size()).isEqualTo(2);
+        verify(statement2).close();
+        verify(statement1, never()).close();
+        verify(statement3, never()).close();
+        assertThat(statementCache.acquire("key2")).isNull();
+    }
+
+    @Test
+    public void closeShouldCloseAllStatements() {
+        final StatementCache statementCache = new StatementCache(2);
+        final SQLiteStatement statement1 = mock(SQLiteStatement.class);
+        final SQLiteStatement statement2 = mock(SQLiteStatement.class);
+
+        statementCache.release("key1", statement1);
+        statementCache.close();
+
+        verify(statement1).close();
+        assertThat(statementCache.size()).isEqualTo(0);
+
+        // Statements released after close should be closed too
+        statementCache.release("key2", statement2);
+        verify(statement2).close();
+        assertThat(statementCache.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementKeyTest {
+
+    @Test
+    public void keysWithSamePartsShouldBeEqual() {
+        final StatementKey key1 = new StatementKey(StatementKey.INSERT, "table", null, 0, new String[]{"a", "b"});
+        final StatementKey key2 = new StatementKey(StatementKey.INSERT, "table", null, 0, new String[]{"a", "b"});
+
+        assertThat(key1).isEqualTo(key2);
+        assertThat(key1.hashCode()).isEqualTo(key2.hashCode());
+    }
+
+    @Test
+    public void keysWithDifferentPartsShouldNotBeEqual() {
+        final StatementKey key = new StatementKey(StatementKey.UPDATE, "table", "a = ?", 0, new String[]{"b"});
+
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.INSERT, "table", "a = ?", 0, new String[]{"b"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "other_table", "a = ?", 0, new String[]{"b"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "table", "b = ?", 0, new String[]{"b"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "table", "a = ?", 1, new String[]{"b"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "table", "a = ?", 0, new String[]{"c"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "table", null, 0, new String[]{"b"}));
+        assertThat(key).isNotEqualTo(new StatementKey(StatementKey.UPDATE, "table", "a = ?", 0, null));
+    }
+
+    @Test
+    public void orderOfColumnsShouldMatter() {
+        assertThat(new StatementKey(StatementKey.INSERT, "table", null, 0, new String[]{"a", "b"}))
+                .isNotEqualTo(new StatementKey(StatementKey.INSERT, "table", null, 0, new String[]{"b", "a"}));
+    }
+}
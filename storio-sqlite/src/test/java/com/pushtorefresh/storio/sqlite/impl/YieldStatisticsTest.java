@@ -0,0 +1,35 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import com.pushtorefresh.storio.test.ToStringChecker;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class YieldStatisticsTest {
+
+    @Test
+    public void shouldKeepCounters() {
+        final YieldStatistics yieldStatistics = YieldStatistics.newInstance(3, 42);
+
+        assertThat(yieldStatistics.numberOfYields()).isEqualTo(3);
+        assertThat(yieldStatistics.totalYieldTimeNanos()).isEqualTo(42);
+    }
+
+    @Test
+    public void verifyEqualsAndHashCodeImplementation() {
+        EqualsVerifier
+                .forClass(YieldStatistics.class)
+                .allFieldsShouldBeUsed()
+                .verify();
+    }
+
+    @Test
+    public void checkToStringImplementation() {
+        ToStringChecker
+                .forClass(YieldStatistics.class)
+                .check();
+    }
+}
@@ -0,0 +1,94 @@
+package com.pushtorefresh.storio.sqlite.integration;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.BuildConfig;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResults;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class BulkInsertTest extends BaseTest {
+
+    // Does not override performPut(), so objects are inserted via multi-row inserts
+    @NonNull
+    private final PutResolver<User> putResolver = new DefaultPutResolver<User>() {
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull User user) {
+            return InsertQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull User user) {
+            return UpdateQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .where(UserTableMeta.COLUMN_ID + " = ?")
+                    .whereArgs(user.id())
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull User user) {
+            final ContentValues contentValues = new ContentValues(2);
+
+            contentValues.put(UserTableMeta.COLUMN_ID, user.id());
+            contentValues.put(UserTableMeta.COLUMN_EMAIL, user.email());
+
+            return contentValues;
+        }
+    };
+
+    @Test
+    public void shouldReturnExplicitAndAssignedIds() {
+        final List<User> users = asList(
+                User.newInstance(100L, "first@example.com"),
+                User.newInstance(5L, "second@example.com"),
+                User.newInstance(null, "third@example.com"),
+                User.newInstance(null, "fourth@example.com")
+        );
+
+        final PutResults<User> putResults = storIOSQLite
+                .put()
+                .objects(users)
+                .withPutResolver(putResolver)
+                .useBulkInsert(true)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putResults.numberOfInserts()).isEqualTo(4);
+        assertThat(putResults.results().get(users.get(0)).insertedId()).isEqualTo(100L);
+        assertThat(putResults.results().get(users.get(1)).insertedId()).isEqualTo(5L);
+
+        // Database continues from the max row id
+        assertThat(putResults.results().get(users.get(2)).insertedId()).isEqualTo(101L);
+        assertThat(putResults.results().get(users.get(3)).insertedId()).isEqualTo(102L);
+
+        final List<User> storedUsers = getAllUsersBlocking();
+
+        assertThat(storedUsers).containsOnly(
+                User.newInstance(100L, "first@example.com"),
+                User.newInstance(5L, "second@example.com"),
+                User.newInstance(101L, "third@example.com"),
+                User.newInstance(102L, "fourth@example.com")
+        );
+    }
+}
@@ -444,6 +444,37 @@ public class QueryTest extends BaseTest {
         assertThat(numberOfResults).isEqualTo(8);
     }
 
+    @Test
+    public void getNumberOfResultsWithLimit() {
+        putUsersBlocking(8);
+
+        Integer numberOfResults = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(UserTableMeta.QUERY_ALL.toBuilder()
+                        .limit(2, 5)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(numberOfResults).isEqualTo(5);
+    }
+
+    @Test
+    public void getNumberOfResultsOfNonSelectRawQuery() {
+        final Integer numberOfResults = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(RawQuery.builder()
+                        .query("PRAGMA table_info(" + UserTableMeta.TABLE + ")")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        // _id and email
+        assertThat(numberOfResults).isEqualTo(2);
+    }
+
     @Test
     public void queryOneExistedObject() {
         final List<User> users = putUsersBlocking(3);
@@ -0,0 +1,102 @@
+package com.pushtorefresh.storio.sqlite.integration;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.BuildConfig;
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import rx.observers.TestSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class RunInTransactionTest extends BaseTest {
+
+    @Test
+    public void shouldCommitOuterWorkAndRollbackFailedInnerWork() {
+        final User outerUser = TestFactory.newUser();
+        final User innerUser = TestFactory.newUser();
+
+        final TestSubscriber<Changes> tweetsChanges = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChangesInTable(TweetTableMeta.TABLE)
+                .subscribe(tweetsChanges);
+
+        storIOSQLite.runInTransaction(new Callable<Object>() {
+            @Override
+            public Object call() {
+                putUserBlocking(outerUser);
+
+                try {
+                    storIOSQLite.runInTransaction(new Callable<Object>() {
+                        @Override
+                        public Object call() {
+                            putUserBlocking(innerUser);
+
+                            storIOSQLite
+                                    .put()
+                                    .object(TestFactory.newTweet(1L))
+                                    .prepare()
+                                    .executeAsBlocking();
+
+                            throw new IllegalStateException("inner work failed");
+                        }
+                    });
+
+                    failBecauseExceptionWasNotThrown(StorIOException.class);
+                } catch (StorIOException expected) {
+                    // outer transaction continues
+                }
+
+                return null;
+            }
+        });
+
+        final List<User> users = getAllUsersBlocking();
+
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).equalsExceptId(outerUser)).isTrue();
+
+        final Cursor tweets = db.query(TweetTableMeta.TABLE, null, null, null, null, null, null);
+        assertThat(tweets.getCount()).isEqualTo(0);
+        tweets.close();
+
+        // Changes of rolled back work are not sent
+        tweetsChanges.assertNoValues();
+        tweetsChanges.unsubscribe();
+    }
+
+    @Test
+    public void shouldCommitSuccessfulInnerWork() {
+        final User innerUser = TestFactory.newUser();
+
+        storIOSQLite.runInTransaction(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return storIOSQLite.runInTransaction(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return putUserBlocking(innerUser);
+                    }
+                });
+            }
+        });
+
+        final List<User> users = getAllUsersBlocking();
+
+        assertThat(users).hasSize(1);
+        assertThat(users.get(0).equalsExceptId(innerUser)).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+package com.pushtorefresh.storio.sqlite.integration;
+
+import android.content.ContentValues;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.BuildConfig;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResult;
+import com.pushtorefresh.storio.sqlite.operations.writebehind.WriteBehindExecutor;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class WriteBehindTest extends BaseTest {
+
+    @NonNull
+    private final PutResolver<ContentValues> insertUserResolver = new DefaultPutResolver<ContentValues>() {
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull ContentValues object) {
+            return InsertQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull ContentValues object) {
+            return UpdateQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .where(UserTableMeta.COLUMN_ID + " = ?")
+                    .whereArgs(object.getAsLong(UserTableMeta.COLUMN_ID))
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull ContentValues object) {
+            return object;
+        }
+    };
+
+    @Test
+    public void failedOperationShouldNotRollbackOtherOperationsOfGroup() throws Exception {
+        final CountDownLatch firstOperationStarted = new CountDownLatch(1);
+        final CountDownLatch otherOperationsQueued = new CountDownLatch(1);
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        // Keeps the writer busy, so next operations are executed in one group
+        writeBehindExecutor.submit(storIOSQLite
+                .put()
+                .contentValues(new ContentValues())
+                .withPutResolver(new PutResolver<ContentValues>() {
+                    @NonNull
+                    @Override
+                    public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull ContentValues object) {
+                        firstOperationStarted.countDown();
+
+                        try {
+                            otherOperationsQueued.await(5, SECONDS);
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+
+                        return PutResult.newUpdateResult(0, UserTableMeta.TABLE);
+                    }
+                })
+                .prepare());
+
+        assertThat(firstOperationStarted.await(5, SECONDS)).isTrue();
+
+        final User user1 = TestFactory.newUser();
+        final User user2 = TestFactory.newUser();
+
+        // Violates NOT NULL constraint of the email column
+        final ContentValues userWithoutEmail = new ContentValues();
+        userWithoutEmail.put(UserTableMeta.COLUMN_ID, 100L);
+
+        final Future<PutResult> future1 = writeBehindExecutor.submit(storIOSQLite.put().object(user1).prepare());
+
+        final Future<PutResult> failedFuture = writeBehindExecutor.submit(storIOSQLite
+                .put()
+                .contentValues(userWithoutEmail)
+                .withPutResolver(insertUserResolver)
+                .prepare());
+
+        final Future<PutResult> future2 = writeBehindExecutor.submit(storIOSQLite.put().object(user2).prepare());
+
+        otherOperationsQueued.countDown();
+
+        assertThat(future1.get(5, SECONDS).wasInserted()).isTrue();
+        assertThat(future2.get(5, SECONDS).wasInserted()).isTrue();
+
+        try {
+            failedFuture.get(5, SECONDS);
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException expected) {
+            assertThat(expected.getCause()).isInstanceOf(StorIOException.class);
+        }
+
+        writeBehindExecutor.close();
+
+        final List<User> users = getAllUsersBlocking();
+
+        assertThat(users).hasSize(2);
+        assertThat(users.get(0).equalsExceptId(user1)).isTrue();
+        assertThat(users.get(1).equalsExceptId(user2)).isTrue();
+    }
+}
@@ -1,7 +1,9 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 
@@ -9,6 +11,7 @@ import org.junit.Test;
 
 import java.util.Collections;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -31,7 +34,7 @@ public class DefaultDeleteResolverTest {
         when(storIOSQLite.internal())
                 .thenReturn(internal);
 
-        when(internal.delete(deleteQuery))
+        when(internal.deleteWithCompiledStatement(deleteQuery))
                 .thenReturn(1);
 
         final TestItem testItem = new TestItem();
@@ -46,13 +49,59 @@ public class DefaultDeleteResolverTest {
 
         final DeleteResult deleteResult = defaultDeleteResolver.performDelete(storIOSQLite, testItem);
 
-        verify(internal, times(1)).delete(any(DeleteQuery.class));
-        verify(internal, times(1)).delete(deleteQuery);
+        verify(internal, times(1)).deleteWithCompiledStatement(any(DeleteQuery.class));
+        verify(internal, times(1)).deleteWithCompiledStatement(deleteQuery);
 
         assertThat(deleteResult.numberOfRowsDeleted()).isEqualTo(1);
         assertThat(deleteResult.affectedTables()).isEqualTo(Collections.singleton(testTable));
     }
 
+    @Test
+    public void performDeleteShouldReturnKeyOfObject() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        final DeleteQuery deleteQuery = DeleteQuery.builder()
+                .table("test_table")
+                .where("id = ?")
+                .whereArgs(42)
+                .build();
+
+        when(storIOSQLite.internal())
+                .thenReturn(internal);
+
+        when(internal.deleteWithCompiledStatement(deleteQuery))
+                .thenReturn(1);
+
+        final DefaultDeleteResolver<TestItem> defaultDeleteResolver = new DefaultDeleteResolver<TestItem>() {
+            @NonNull
+            @Override
+            public DeleteQuery mapToDeleteQuery(@NonNull TestItem testItem) {
+                return deleteQuery;
+            }
+
+            @Nullable
+            @Override
+            protected Object mapToKey(@NonNull TestItem object) {
+                return 42L;
+            }
+        };
+
+        final DeleteResult deleteResult = defaultDeleteResolver.performDelete(storIOSQLite, new TestItem());
+
+        assertThat(deleteResult).isEqualTo(DeleteResult.newInstance(1, "test_table", 42L));
+        assertThat(deleteResult.affectedKey()).isEqualTo("42");
+        assertThat(PreparedDelete.changesOf(deleteResult)).isEqualTo(Changes.newInstance("test_table", singletonList("42")));
+    }
+
+    @Test
+    public void performDeleteWithoutKeyShouldNotifyAboutWholeTable() {
+        final DeleteResult deleteResult = DeleteResult.newInstance(1, "test_table");
+
+        assertThat(deleteResult.affectedKey()).isNull();
+        assertThat(PreparedDelete.changesOf(deleteResult)).isEqualTo(Changes.newInstance("test_table"));
+    }
+
     private static class TestItem {
 
     }
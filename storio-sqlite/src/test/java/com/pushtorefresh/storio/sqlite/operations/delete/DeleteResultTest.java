@@ -63,4 +63,11 @@ public class DeleteResultTest {
                 .forClass(DeleteResult.class)
                 .check();
     }
+
+    @Test
+    public void createResultWithAffectedKey() {
+        final DeleteResult deleteResult = DeleteResult.newInstance(1, "test_table", 42L);
+        assertThat(deleteResult.affectedTables()).containsOnly("test_table");
+        assertThat(deleteResult.affectedKey()).isEqualTo("42");
+    }
 }
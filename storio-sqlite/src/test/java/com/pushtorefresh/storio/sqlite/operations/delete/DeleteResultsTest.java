@@ -4,12 +4,14 @@ import com.pushtorefresh.storio.test.ToStringChecker;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 
 public class DeleteResultsTest {
 
@@ -40,6 +42,52 @@ public class DeleteResultsTest {
         assertThat(deleteResults.wasNotDeleted("should not be deleted")).isTrue();
     }
 
+    @Test
+    public void numberOfRowsDeletedAndAffectedTables() {
+        final Map<String, DeleteResult> results = new HashMap<String, DeleteResult>();
+        results.put("first", DeleteResult.newInstance(2, "table1"));
+        results.put("second", DeleteResult.newInstance(1, "table2"));
+        results.put("third", DeleteResult.newInstance(0, "table3"));
+
+        final DeleteResults<String> deleteResults = DeleteResults.newInstance(results);
+
+        assertThat(deleteResults.isSummaryOnly()).isFalse();
+        assertThat(deleteResults.numberOfRowsDeleted()).isEqualTo(3);
+        assertThat(deleteResults.affectedTables()).containsOnly("table1", "table2");
+
+        // Cached values
+        assertThat(deleteResults.numberOfRowsDeleted()).isEqualTo(3);
+        assertThat(deleteResults.affectedTables()).containsOnly("table1", "table2");
+    }
+
+    @SuppressWarnings("ConstantConditions")
+    @Test(expected = NullPointerException.class)
+    public void summaryShouldNotAllowNullAffectedTables() {
+        DeleteResults.newSummaryInstance(1, null);
+    }
+
+    @Test
+    public void summaryShouldKeepOnlyCounters() {
+        final DeleteResults<String> deleteResults = DeleteResults.newSummaryInstance(5, Collections.singleton("test_table"));
+
+        assertThat(deleteResults.isSummaryOnly()).isTrue();
+        assertThat(deleteResults.results()).isEmpty();
+        assertThat(deleteResults.numberOfRowsDeleted()).isEqualTo(5);
+        assertThat(deleteResults.affectedTables()).containsOnly("test_table");
+    }
+
+    @Test
+    public void wasDeletedShouldThrowForSummary() {
+        final DeleteResults<String> deleteResults = DeleteResults.newSummaryInstance(5, Collections.singleton("test_table"));
+
+        try {
+            deleteResults.wasDeleted("testString");
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("Results of each object are not available, only summary was requested");
+        }
+    }
+
     @Test
     public void verifyEqualsAndHashCodeImplementation() {
         EqualsVerifier
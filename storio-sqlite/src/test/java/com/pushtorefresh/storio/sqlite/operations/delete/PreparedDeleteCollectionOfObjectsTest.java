@@ -1,19 +1,26 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
 import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import rx.Observable;
 import rx.observers.TestSubscriber;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
@@ -22,6 +29,7 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -434,4 +442,349 @@ public class PreparedDeleteCollectionOfObjectsTest {
             verifyNoMoreInteractions(storIOSQLite, internal, deleteResolver);
         }
     }
+
+    public static class BatchedDelete {
+
+        @NonNull
+        private final List<TestItem> items = asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance());
+
+        @NonNull
+        private DefaultDeleteResolver<TestItem> newDeleteResolver(@NonNull final String where) {
+            return new DefaultDeleteResolver<TestItem>() {
+                @NonNull
+                @Override
+                protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                    return DeleteQuery.builder()
+                            .table(TestItem.TABLE)
+                            .where(where)
+                            .whereArgs(items.indexOf(object) + 1)
+                            .build();
+                }
+            };
+        }
+
+        @Test
+        public void shouldDeleteObjectsWithSingleKeyViaOneStatement() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+            when(cursor.moveToNext()).thenReturn(true, true, false);
+            when(cursor.getInt(0)).thenReturn(0, 2); // item with key 2 is not in the db
+            when(cursor.getString(1)).thenReturn("1", "3");
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withDeleteResolver(newDeleteResolver("_id = ?"))
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(3);
+            assertThat(deleteResults.results().get(items.get(0))).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE));
+            assertThat(deleteResults.results().get(items.get(1))).isEqualTo(DeleteResult.newInstance(0, TestItem.TABLE));
+            assertThat(deleteResults.results().get(items.get(2))).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE));
+
+            verify(internal).rawQuery(RawQuery.builder()
+                    .query(PreparedDeleteCollectionOfObjects.existingKeysSql(TestItem.TABLE, "_id", 3))
+                    .args("1", "2", "3")
+                    .build());
+
+            verify(internal).deleteWithCompiledStatement(DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("_id IN (?,?,?)")
+                    .whereArgs("1", "2", "3")
+                    .build());
+
+            verify(cursor).close();
+            verify(internal).beginTransaction();
+            verify(internal).setTransactionSuccessful();
+            verify(internal).endTransaction();
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldNotDeleteIfNoneOfKeysExist() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+            when(cursor.moveToNext()).thenReturn(false);
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withDeleteResolver(newDeleteResolver("_id = ?"))
+                    .useTransaction(false)
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(3);
+
+            for (DeleteResult deleteResult : deleteResults.results().values()) {
+                assertThat(deleteResult.numberOfRowsDeleted()).isEqualTo(0);
+            }
+
+            verify(cursor).close();
+            verify(internal, never()).deleteWithCompiledStatement(any(DeleteQuery.class));
+            verify(internal, never()).notifyAboutChanges(any(Changes.class));
+        }
+
+        @Test
+        public void shouldSplitKeysIntoChunks() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+            when(cursor.moveToNext()).thenReturn(true, false, true, false); // one existing key per chunk
+            when(cursor.getInt(0)).thenReturn(0);
+            when(cursor.getString(1)).thenReturn("1", String.valueOf(PreparedDeleteCollectionOfObjects.MAX_KEYS_IN_DETAILED_BATCH + 1));
+
+            final List<TestItem> manyItems = new ArrayList<TestItem>();
+
+            for (int i = 0; i < PreparedDeleteCollectionOfObjects.MAX_KEYS_IN_DETAILED_BATCH + 1; i++) {
+                manyItems.add(TestItem.newInstance());
+            }
+
+            new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, manyItems)
+                    .withDeleteResolver(new DefaultDeleteResolver<TestItem>() {
+                        @NonNull
+                        @Override
+                        protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                            return DeleteQuery.builder()
+                                    .table(TestItem.TABLE)
+                                    .where("_id = ?")
+                                    .whereArgs(manyItems.indexOf(object) + 1)
+                                    .build();
+                        }
+                    })
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal, times(2)).rawQuery(any(RawQuery.class));
+            verify(internal, times(2)).deleteWithCompiledStatement(any(DeleteQuery.class));
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldDeleteObjectsWithComplexWhereOneByOne() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.deleteWithCompiledStatement(any(DeleteQuery.class))).thenReturn(1);
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withDeleteResolver(newDeleteResolver("_id = ? OR 1 = 1"))
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(3);
+
+            verify(internal, never()).rawQuery(any(RawQuery.class));
+            verify(internal, times(3)).deleteWithCompiledStatement(any(DeleteQuery.class));
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldCountSameRowOnceForObjectsWithSameKey() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+            when(cursor.moveToNext()).thenReturn(true, true, false);
+            when(cursor.getInt(0)).thenReturn(0, 1);
+            when(cursor.getType(1)).thenReturn(Cursor.FIELD_TYPE_INTEGER);
+            when(cursor.getString(1)).thenReturn("1", "1"); // "1" and "01" match same row
+
+            final List<TestItem> twoItems = asList(TestItem.newInstance(), TestItem.newInstance());
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, twoItems)
+                    .withDeleteResolver(new DefaultDeleteResolver<TestItem>() {
+                        @NonNull
+                        @Override
+                        protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                            return DeleteQuery.builder()
+                                    .table(TestItem.TABLE)
+                                    .where("_id = ?")
+                                    .whereArgs(twoItems.indexOf(object) == 0 ? "1" : "01")
+                                    .build();
+                        }
+                    })
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results().get(twoItems.get(0)).numberOfRowsDeleted()).isEqualTo(1);
+            assertThat(deleteResults.results().get(twoItems.get(1)).numberOfRowsDeleted()).isEqualTo(0);
+        }
+
+        @Test
+        public void shouldNotQueryExistingKeysInSummaryOnlyMode() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.deleteWithCompiledStatement(any(DeleteQuery.class))).thenReturn(2);
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withDeleteResolver(newDeleteResolver("_id = ?"))
+                    .useBatchedDelete(true)
+                    .summaryOnly(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults).isEqualTo(DeleteResults.<TestItem>newSummaryInstance(2, singleton(TestItem.TABLE)));
+
+            verify(internal, never()).rawQuery(any(RawQuery.class));
+            verify(internal).deleteWithCompiledStatement(DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("_id IN (?,?,?)")
+                    .whereArgs("1", "2", "3")
+                    .build());
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldPassObjectsToDeleteResolverWhichOverridesPerformDelete() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withDeleteResolver(new DefaultDeleteResolver<TestItem>() {
+                        @NonNull
+                        @Override
+                        protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                            return DeleteQuery.builder()
+                                    .table(TestItem.TABLE)
+                                    .where("_id = ?")
+                                    .whereArgs(items.indexOf(object) + 1)
+                                    .build();
+                        }
+
+                        @NonNull
+                        @Override
+                        public DeleteResult performDelete(@NonNull StorIOSQLite storIOSQLite, @NonNull TestItem object) {
+                            return DeleteResult.newInstance(1, TestItem.TABLE);
+                        }
+                    })
+                    .useBatchedDelete(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(3);
+
+            verify(internal, never()).rawQuery(any(RawQuery.class));
+            verify(internal, never()).deleteWithCompiledStatement(any(DeleteQuery.class));
+        }
+
+        @Test
+        public void shouldBuildQueryOfExistingKeys() {
+            assertThat(PreparedDeleteCollectionOfObjects.existingKeysSql("t1", "_id", 3)).isEqualTo(
+                    "SELECT k.i, t._id FROM (SELECT 0 AS i, ? AS v UNION ALL SELECT 1, ? UNION ALL SELECT 2, ?)"
+                            + " AS k JOIN t1 AS t ON t._id = k.v ORDER BY k.i");
+        }
+    }
+
+    public static class SummaryOnly {
+
+        @Test
+        public void shouldReturnOnlySummary() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final DeleteResolver<TestItem> deleteResolver = mock(DeleteResolver.class);
+
+            when(deleteResolver.performDelete(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(
+                            DeleteResult.newInstance(1, TestItem.TABLE),
+                            DeleteResult.newInstance(0, "other_table")
+                    );
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance()))
+                    .withDeleteResolver(deleteResolver)
+                    .summaryOnly(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults).isEqualTo(DeleteResults.<TestItem>newSummaryInstance(1, singleton(TestItem.TABLE)));
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+    }
+
+    public static class YieldEvery {
+
+        @Test
+        public void shouldYieldTransactionEveryNumberOfObjects() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final DeleteResolver<TestItem> deleteResolver = mock(DeleteResolver.class);
+
+            when(deleteResolver.performDelete(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(DeleteResult.newInstance(1, TestItem.TABLE));
+
+            new PreparedDeleteCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance()))
+                    .withDeleteResolver(deleteResolver)
+                    .yieldEvery(1)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal).beginTransaction();
+            verify(internal, times(3)).yieldIfContendedSafely();
+            verify(internal).setTransactionSuccessful();
+            verify(internal).endTransaction();
+        }
+
+        @Test
+        public void shouldNotYieldWithoutTransaction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final DeleteResolver<TestItem> deleteResolver = mock(DeleteResolver.class);
+
+            when(deleteResolver.performDelete(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(DeleteResult.newInstance(1, TestItem.TABLE));
+
+            new PreparedDeleteCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance()))
+                    .withDeleteResolver(deleteResolver)
+                    .useTransaction(false)
+                    .yieldEvery(1)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal, never()).yieldIfContendedSafely();
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void nonPositiveYieldEvery() {
+            new PreparedDeleteCollectionOfObjects.Builder<TestItem>(mock(StorIOSQLite.class), singletonList(TestItem.newInstance()))
+                    .yieldEvery(-1);
+        }
+    }
 }
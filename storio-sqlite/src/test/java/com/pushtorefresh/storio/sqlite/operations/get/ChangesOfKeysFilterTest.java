@@ -0,0 +1,49 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangesOfKeysFilterTest {
+
+    private final ChangesOfKeysFilter filter = new ChangesOfKeysFilter(
+            new HashSet<String>(asList("users", "tweets")),
+            "users",
+            new HashSet<String>(asList("1", "2"))
+    );
+
+    @Test
+    public void shouldPassChangesOfWholeTable() {
+        assertThat(filter.call(Changes.newInstance("users"))).isTrue();
+    }
+
+    @Test
+    public void shouldPassChangesOfObservedKey() {
+        assertThat(filter.call(Changes.newInstance("users", asList(2L, 3L)))).isTrue();
+    }
+
+    @Test
+    public void shouldNotPassChangesOfOtherKeys() {
+        assertThat(filter.call(Changes.newInstance("users", asList(3L, 4L)))).isFalse();
+    }
+
+    @Test
+    public void shouldPassChangesOfOtherObservedTable() {
+        assertThat(filter.call(Changes.newInstance("tweets", singleton(3L)))).isTrue();
+    }
+
+    @Test
+    public void shouldNotPassChangesOfOtherKeysWithChangesOfNotObservedTable() {
+        final Set<String> affectedTables = new HashSet<String>(asList("users", "comments"));
+
+        assertThat(filter.call(Changes.newInstance(affectedTables, singletonMap("users", singleton(3L))))).isFalse();
+    }
+}
@@ -103,6 +103,8 @@ class GetCursorStub {
                     public void call(Cursor cursor) {
                         // Get Operation should be subscribed to changes of tables from Query
                         verify(storIOSQLite).observeChangesInTables(eq(singleton(query.table())));
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
                         verifyQueryBehaviorForCursor(cursor);
                     }
                 })
@@ -126,6 +128,8 @@ class GetCursorStub {
                     public void call(Cursor cursor) {
                         // Get Operation should be subscribed to changes of tables from Query
                         verify(storIOSQLite).observeChangesInTables(rawQuery.observesTables());
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
                         verifyRawQueryBehaviorForCursor(cursor);
                     }
                 })
@@ -111,6 +111,8 @@ class GetNumberOfResultsStub {
                     public void call(Integer numberOfResults) {
                         // Get Operation should be subscribed to changes of tables from Query
                         verify(storIOSQLite).observeChangesInTables(eq(singleton(query.table())));
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
                         verifyQueryBehaviorForInteger(numberOfResults);
                     }
                 })
@@ -135,6 +137,8 @@ class GetNumberOfResultsStub {
                     public void call(Integer numberOfResults) {
                         // Get Operation should be subscribed to changes of tables from Query
                         verify(storIOSQLite).observeChangesInTables(rawQuery.observesTables());
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
                         verifyRawQueryBehaviorForInteger(numberOfResults);
                     }
                 })
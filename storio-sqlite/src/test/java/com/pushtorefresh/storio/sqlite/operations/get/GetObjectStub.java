@@ -36,6 +36,12 @@ class GetObjectStub {
     @NonNull
     final Query query;
 
+    /**
+     * Query which is actually executed, Get Operation limits it to one row.
+     */
+    @NonNull
+    private final Query queryWithLimit;
+
     @NonNull
     final RawQuery rawQuery;
 
@@ -67,6 +73,11 @@ class GetObjectStub {
                 .table("test_table")
                 .build();
 
+        queryWithLimit = query
+                .toBuilder()
+                .limit(1)
+                .build();
+
         rawQuery = RawQuery
                 .builder()
                 .query("select * from who_cares")
@@ -79,9 +90,6 @@ class GetObjectStub {
 
         item = new TestItem();
 
-        when(cursor.getCount())
-                .thenReturn(1);
-
         when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
             int invocationsCount = 0;
 
@@ -102,7 +110,7 @@ class GetObjectStub {
         when(storIOSQLite.observeChangesInTables(rawQuery.observesTables()))
                 .thenReturn(Observable.<Changes>empty());
 
-        when(getResolver.performGet(storIOSQLite, query))
+        when(getResolver.performGet(storIOSQLite, queryWithLimit))
                 .thenReturn(cursor);
 
         when(getResolver.performGet(storIOSQLite, rawQuery))
@@ -135,14 +143,11 @@ class GetObjectStub {
         verify(storIOSQLite).get();
 
         // should be called only once
-        verify(getResolver).performGet(storIOSQLite, query);
+        verify(getResolver).performGet(storIOSQLite, queryWithLimit);
 
         // should be called only once
         verify(getResolver).mapFromCursor(cursor);
 
-        // should be called only once because of Performance!
-        verify(cursor).getCount();
-
         // should be called only once
         verify(cursor).moveToNext();
 
@@ -152,10 +157,13 @@ class GetObjectStub {
         // actual item should be equals to expected
         assertThat(actualItem).isEqualTo(item);
 
-        if (withTypeMapping) {
-            // should be called only once because of Performance!
-            verify(storIOSQLite).internal();
+        // should be called only once because of Performance!
+        verify(storIOSQLite).internal();
+
+        // Get Operation should check cache of results
+        verify(internal).queryResultCache();
 
+        if (withTypeMapping) {
             // should be called only once because of Performance!
             verify(internal).typeMapping(TestItem.class);
 
@@ -175,6 +183,8 @@ class GetObjectStub {
                     public void call(TestItem testItem) {
                         // Get Operation should be subscribed to changes of tables from query
                         verify(storIOSQLite).observeChangesInTables(eq(singleton(query.table())));
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
 
                         verifyQueryBehavior(testItem);
                     }
@@ -199,6 +209,8 @@ class GetObjectStub {
                     public void call(TestItem testItem) {
                         // Get Operation should be subscribed to changes of tables from query
                         verify(storIOSQLite).observeChangesInTables(rawQuery.observesTables());
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
 
                         verifyRawQueryBehavior(testItem);
                     }
@@ -171,10 +171,13 @@ class GetObjectsStub {
         // list should be immutable!
         assertThatListIsImmutable(actualList);
 
-        if (withTypeMapping) {
-            // should be called only once because of Performance!
-            verify(storIOSQLite).internal();
+        // should be called only once because of Performance!
+        verify(storIOSQLite).internal();
 
+        // Get Operation should check cache of results
+        verify(internal).queryResultCache();
+
+        if (withTypeMapping) {
             // should be called only once because of Performance!
             verify(internal).typeMapping(TestItem.class);
 
@@ -194,6 +197,8 @@ class GetObjectsStub {
                     public void call(List<TestItem> testItems) {
                         // Get Operation should be subscribed to changes of tables from query
                         verify(storIOSQLite).observeChangesInTables(eq(singleton(query.table())));
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
 
                         verifyQueryBehavior(testItems);
                     }
@@ -220,6 +225,8 @@ class GetObjectsStub {
                     public void call(List<TestItem> testItems) {
                         // Get Operation should be subscribed to changes of tables from query
                         verify(storIOSQLite).observeChangesInTables(rawQuery.observesTables());
+                        verify(storIOSQLite).requeryScheduler();
+                        verify(storIOSQLite).requeryCoalescing();
 
                         verifyRawQueryBehavior(testItems);
                     }
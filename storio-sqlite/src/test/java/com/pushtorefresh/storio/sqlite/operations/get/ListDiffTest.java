@@ -0,0 +1,241 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ListDiffTest {
+
+    private static final ListDiff.KeyFunction<Item> KEY_FUNCTION = new ListDiff.KeyFunction<Item>() {
+        @Nullable
+        @Override
+        public Object keyOf(@NonNull Item item) {
+            return item.key;
+        }
+    };
+
+    @Test
+    public void fullReloadShouldNotContainChanges() {
+        final List<Item> list = asList(new Item(1L, "a"));
+        final ListDiff<Item> diff = ListDiff.fullReload(list);
+
+        assertThat(diff.list()).isSameAs(list);
+        assertThat(diff.isFullReload()).isTrue();
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.inserted()).isEmpty();
+        assertThat(diff.movedFrom()).isEmpty();
+        assertThat(diff.movedTo()).isEmpty();
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    public void shouldCalculateNoChangesForEqualLists() {
+        final List<Item> previous = items(1, 2, 3);
+        final List<Item> current = items(1, 2, 3);
+
+        final ListDiff<Item> diff = ListDiff.calculate(previous, current, KEY_FUNCTION, 0f);
+
+        assertThat(diff.list()).isSameAs(current);
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.inserted()).isEmpty();
+        assertThat(diff.movedFrom()).isEmpty();
+        assertThat(diff.movedTo()).isEmpty();
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    public void shouldCalculateInsertedAndRemovedItems() {
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2, 3, 4), items(5, 1, 3, 4, 6), KEY_FUNCTION, 1f);
+
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.removed()).containsExactly(1);
+        assertThat(diff.inserted()).containsExactly(0, 4);
+        assertThat(diff.movedFrom()).isEmpty();
+        assertThat(diff.movedTo()).isEmpty();
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    public void shouldCalculateChangedItems() {
+        final List<Item> previous = items(1, 2, 3);
+        final List<Item> current = asList(new Item(1L, "1"), new Item(2L, "changed"), new Item(3L, "3"));
+
+        final ListDiff<Item> diff = ListDiff.calculate(previous, current, KEY_FUNCTION, 1f);
+
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.changed()).containsExactly(1);
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.inserted()).isEmpty();
+        assertThat(diff.movedFrom()).isEmpty();
+        assertThat(diff.movedTo()).isEmpty();
+    }
+
+    @Test
+    public void shouldCalculateMinimalNumberOfMoves() {
+        // Only item 5 is moved, other items keep their relative order
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2, 3, 4, 5), items(5, 1, 2, 3, 4), KEY_FUNCTION, 1f);
+
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.movedFrom()).containsExactly(4);
+        assertThat(diff.movedTo()).containsExactly(0);
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.inserted()).isEmpty();
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    public void shouldCalculateMovesTogetherWithInsertsAndRemoves() {
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2, 3, 4), items(4, 2, 7, 3), KEY_FUNCTION, 1f);
+
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.removed()).containsExactly(0);
+        assertThat(diff.inserted()).containsExactly(2);
+        assertThat(diff.movedFrom()).containsExactly(3);
+        assertThat(diff.movedTo()).containsExactly(0);
+        assertThat(diff.changed()).isEmpty();
+    }
+
+    @Test
+    public void shouldReturnFullReloadIfNumberOfChangesExceedsRatio() {
+        final List<Item> current = items(3, 4, 5, 6);
+
+        // 4 removes and 4 inserts > 0.5 * 4
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2, 7, 8), current, KEY_FUNCTION, 0.5f);
+
+        assertThat(diff).isEqualTo(ListDiff.fullReload(current));
+    }
+
+    @Test
+    public void shouldReturnFullReloadIfNumberOfMovesExceedsRatio() {
+        final List<Item> current = items(4, 3, 2, 1);
+
+        // 3 moves > 0.5 * 4
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2, 3, 4), current, KEY_FUNCTION, 0.5f);
+
+        assertThat(diff).isEqualTo(ListDiff.fullReload(current));
+    }
+
+    @Test
+    public void shouldReturnFullReloadIfKeysAreNotUnique() {
+        final List<Item> current = asList(new Item(1L, "a"), new Item(1L, "b"));
+
+        final ListDiff<Item> diff = ListDiff.calculate(items(1), current, KEY_FUNCTION, 1f);
+
+        assertThat(diff).isEqualTo(ListDiff.fullReload(current));
+    }
+
+    @Test
+    public void shouldReturnFullReloadIfKeyIsNull() {
+        final List<Item> current = asList(new Item(null, "a"));
+
+        final ListDiff<Item> diff = ListDiff.calculate(items(1), current, KEY_FUNCTION, 1f);
+
+        assertThat(diff).isEqualTo(ListDiff.fullReload(current));
+    }
+
+    @Test
+    public void shouldCalculateDiffOfEmptyLists() {
+        final List<Item> current = emptyList();
+
+        final ListDiff<Item> diff = ListDiff.calculate(Collections.<Item>emptyList(), current, KEY_FUNCTION, 0f);
+
+        assertThat(diff.isFullReload()).isFalse();
+        assertThat(diff.list()).isEmpty();
+    }
+
+    @Test
+    public void gettersShouldReturnCopiesOfPositions() {
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2), items(2, 3), KEY_FUNCTION, 1f);
+
+        diff.removed()[0] = 100;
+        diff.inserted()[0] = 100;
+
+        assertThat(diff.removed()).containsExactly(0);
+        assertThat(diff.inserted()).containsExactly(1);
+    }
+
+    @Test
+    public void verifyEqualsAndHashCode() {
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2), items(2, 3), KEY_FUNCTION, 1f);
+        final ListDiff<Item> equalDiff = ListDiff.calculate(items(1, 2), items(2, 3), KEY_FUNCTION, 1f);
+
+        assertThat(diff).isEqualTo(equalDiff);
+        assertThat(diff.hashCode()).isEqualTo(equalDiff.hashCode());
+
+        assertThat(diff).isNotEqualTo(ListDiff.fullReload(items(2, 3)));
+        assertThat(diff).isNotEqualTo(ListDiff.calculate(items(1, 2), items(3, 2), KEY_FUNCTION, 1f));
+    }
+
+    @Test
+    public void verifyToString() {
+        final ListDiff<Item> diff = ListDiff.calculate(items(1, 2), items(2, 3), KEY_FUNCTION, 1f);
+
+        assertThat(diff.toString()).isEqualTo("ListDiff{" +
+                "list=" + diff.list() +
+                ", fullReload=false" +
+                ", removed=[0]" +
+                ", inserted=[1]" +
+                ", movedFrom=[]" +
+                ", movedTo=[]" +
+                ", changed=[]" +
+                '}');
+    }
+
+    @NonNull
+    private static List<Item> items(long... keys) {
+        final List<Item> items = new ArrayList<Item>(keys.length);
+
+        for (long key : keys) {
+            items.add(new Item(key, String.valueOf(key)));
+        }
+
+        return items;
+    }
+
+    private static final class Item {
+
+        @Nullable
+        final Long key;
+
+        @NonNull
+        final String value;
+
+        Item(@Nullable Long key, @NonNull String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Item item = (Item) o;
+
+            if (key != null ? !key.equals(item.key) : item.key != null) return false;
+            return value.equals(item.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = key != null ? key.hashCode() : 0;
+            result = 31 * result + value.hashCode();
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{key=" + key + ", value='" + value + "'}";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class LongColumnTest {
+
+    @Test
+    public void addShouldGrowBuffer() {
+        final LongColumn column = new LongColumn(0);
+
+        for (long i = 0; i < 100; i++) {
+            column.add(i);
+        }
+
+        assertThat(column.size()).isEqualTo(100);
+        assertThat(column.get(0)).isEqualTo(0L);
+        assertThat(column.get(99)).isEqualTo(99L);
+    }
+
+    @Test
+    public void clearShouldRemoveValues() {
+        final LongColumn column = new LongColumn(2);
+        column.add(1L);
+        column.add(2L);
+
+        column.clear(1);
+
+        assertThat(column.isEmpty()).isTrue();
+        assertThat(column.toArray()).isEmpty();
+    }
+
+    @Test
+    public void getShouldThrowExceptionIfIndexIsOutOfRange() {
+        final LongColumn column = new LongColumn(10);
+        column.add(1L);
+
+        try {
+            column.get(1);
+            failBecauseExceptionWasNotThrown(IndexOutOfBoundsException.class);
+        } catch (IndexOutOfBoundsException expected) {
+            assertThat(expected).hasMessage("Index: 1, Size: 1");
+        }
+    }
+
+    @Test
+    public void toArrayShouldCopyOnlyValues() {
+        final LongColumn column = new LongColumn(10);
+        column.add(1L);
+        column.add(2L);
+
+        final long[] values = column.toArray();
+        values[0] = 42L;
+
+        assertThat(values).hasSize(2);
+        assertThat(column.get(0)).isEqualTo(1L);
+    }
+
+    @Test
+    public void equalsAndHashCodeShouldIgnoreCapacity() {
+        final LongColumn column1 = new LongColumn(1);
+        final LongColumn column2 = new LongColumn(10);
+
+        column1.add(1L);
+        column2.add(1L);
+
+        assertThat(column1).isEqualTo(column2);
+        assertThat(column1.hashCode()).isEqualTo(column2.hashCode());
+    }
+
+    @Test
+    public void copyShouldNotShareBuffer() {
+        final LongColumn column = new LongColumn(10);
+        column.add(1L);
+
+        final LongColumn copy = column.copy();
+
+        column.clear(10);
+        column.add(2L);
+
+        assertThat(copy.toArray()).containsExactly(1L);
+        assertThat(column.toArray()).containsExactly(2L);
+    }
+}
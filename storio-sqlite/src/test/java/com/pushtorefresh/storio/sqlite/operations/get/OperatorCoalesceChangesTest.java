@@ -0,0 +1,128 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import rx.Subscriber;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OperatorCoalesceChangesTest {
+
+    @Test
+    public void shouldPassLatestOfChangesWhichArrivedBeforeSchedulerRanDrain() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler scheduler = new TestScheduler();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        changes
+                .lift(new OperatorCoalesceChanges(scheduler))
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("table_1"));
+        changes.onNext(Changes.newInstance("table_2"));
+        changes.onNext(Changes.newInstance("table_3"));
+        testSubscriber.assertNoValues();
+
+        scheduler.triggerActions();
+        testSubscriber.assertValue(Changes.newInstance("table_3"));
+
+        changes.onNext(Changes.newInstance("table_4"));
+        scheduler.triggerActions();
+        testSubscriber.assertValues(Changes.newInstance("table_3"), Changes.newInstance("table_4"));
+    }
+
+    @Test
+    public void shouldCoalesceChangesWhichArrivedWhileDownstreamIsBusy() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final List<Changes> received = new ArrayList<Changes>();
+
+        changes
+                .lift(new OperatorCoalesceChanges(null))
+                .subscribe(new Subscriber<Changes>() {
+                    @Override
+                    public void onCompleted() {
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                    }
+
+                    @Override
+                    public void onNext(Changes next) {
+                        received.add(next);
+
+                        if (received.size() == 1) {
+                            // Burst of changes while "query" is in flight
+                            changes.onNext(Changes.newInstance("table_2"));
+                            changes.onNext(Changes.newInstance("table_3"));
+                            changes.onNext(Changes.newInstance("table_4"));
+                        }
+                    }
+                });
+
+        changes.onNext(Changes.newInstance("table_1"));
+
+        assertThat(received).containsExactly(Changes.newInstance("table_1"), Changes.newInstance("table_4"));
+    }
+
+    @Test
+    public void shouldPassPendingChangeBeforeCompletion() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler scheduler = new TestScheduler();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        changes
+                .lift(new OperatorCoalesceChanges(scheduler))
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("test_table"));
+        changes.onCompleted();
+        testSubscriber.assertNoTerminalEvent();
+
+        scheduler.triggerActions();
+        testSubscriber.assertValue(Changes.newInstance("test_table"));
+        testSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void shouldPassError() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        final RuntimeException error = new RuntimeException("test exception");
+
+        changes
+                .lift(new OperatorCoalesceChanges(null))
+                .subscribe(testSubscriber);
+
+        changes.onError(error);
+
+        testSubscriber.assertNoValues();
+        testSubscriber.assertError(error);
+    }
+
+    @Test
+    public void shouldNotPassChangesAfterUnsubscribe() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler scheduler = new TestScheduler();
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        changes
+                .lift(new OperatorCoalesceChanges(scheduler))
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("test_table"));
+        testSubscriber.unsubscribe();
+        scheduler.triggerActions();
+
+        testSubscriber.assertNoValues();
+        assertThat(changes.hasObservers()).isFalse();
+    }
+}
@@ -0,0 +1,170 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetAggregateTest {
+
+    @Test
+    public void aggregateQueryShouldReplaceColumnsWithFunction() {
+        final RawQuery rawQuery = PreparedGetAggregate.aggregateQuery(
+                Query.builder()
+                        .table("test_table")
+                        .columns("column1", "column2")
+                        .where("column1 = ?")
+                        .whereArgs("arg1")
+                        .build(),
+                Aggregate.MAX,
+                "updated_at"
+        );
+
+        assertThat(rawQuery.query()).isEqualTo("SELECT MAX(updated_at) FROM test_table WHERE column1 = ?");
+        assertThat(rawQuery.args()).containsExactly("arg1");
+        assertThat(rawQuery.observesTables()).containsExactly("test_table");
+    }
+
+    @Test
+    public void shouldReturnResultOfAggregateFunction() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class))).thenReturn("2.5");
+
+        final Double average = new PreparedGetAggregate.Builder(storIOSQLite, Aggregate.AVG, "rating")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(average).isEqualTo(2.5);
+        verify(internal).simpleQueryForString(RawQuery.builder()
+                .query("SELECT AVG(rating) FROM test_table")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void shouldReturnMaxOfTextColumnAsString() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class))).thenReturn("zebra");
+
+        final String max = new PreparedGetAggregate.Builder(storIOSQLite, Aggregate.MAX, "title")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepareAsString()
+                .executeAsBlocking();
+
+        assertThat(max).isEqualTo("zebra");
+        verify(internal).simpleQueryForString(RawQuery.builder()
+                .query("SELECT MAX(title) FROM test_table")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void shouldReturnSumOfIntegerColumnAsLong() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(any(RawQuery.class))).thenReturn(Long.MAX_VALUE);
+
+        final Long sum = new PreparedGetAggregate.Builder(storIOSQLite, Aggregate.SUM, "size")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepareAsLong()
+                .executeAsBlocking();
+
+        assertThat(sum).isEqualTo(Long.MAX_VALUE);
+        verify(internal).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT SUM(size) FROM test_table")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void aggregateQueryShouldRejectGroupBy() {
+        try {
+            PreparedGetAggregate.aggregateQuery(
+                    Query.builder().table("test_table").groupBy("column1").build(),
+                    Aggregate.SUM,
+                    "column2"
+            );
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected.getMessage()).startsWith("Query of aggregate function must not have GROUP BY or HAVING");
+        }
+    }
+
+    @Test
+    public void aggregateQueryShouldRejectLimit() {
+        try {
+            PreparedGetAggregate.aggregateQuery(
+                    Query.builder().table("test_table").limit(10).build(),
+                    Aggregate.SUM,
+                    "column2"
+            );
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected.getMessage()).startsWith("Query of aggregate function must not have LIMIT");
+        }
+    }
+
+    @Test
+    public void shouldReturnNullIfThereAreNoValues() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class))).thenReturn(null);
+
+        final Double sum = new PreparedGetAggregate.Builder(storIOSQLite, Aggregate.SUM, "rating")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(sum).isNull();
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOExceptionForBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class))).thenReturn("not a number");
+
+        try {
+            new PreparedGetAggregate.Builder(storIOSQLite, Aggregate.MIN, "title")
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    public void aggregateShouldThrowExceptionIfColumnIsEmpty() {
+        try {
+            new PreparedGet.Builder(mock(StorIOSQLite.class)).aggregate(Aggregate.MAX, "");
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("Please specify column");
+        }
+    }
+}
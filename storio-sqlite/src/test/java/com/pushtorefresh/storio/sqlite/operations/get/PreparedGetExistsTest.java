@@ -0,0 +1,135 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetExistsTest {
+
+    @Test
+    public void existsQueryShouldWrapQuery() {
+        final RawQuery rawQuery = PreparedGetExists.existsQuery(Query.builder()
+                .table("test_table")
+                .where("column1 = ?")
+                .whereArgs("arg1")
+                .build());
+
+        assertThat(rawQuery.query()).isEqualTo("SELECT EXISTS(SELECT * FROM test_table WHERE column1 = ?)");
+        assertThat(rawQuery.args()).containsExactly("arg1");
+        assertThat(rawQuery.observesTables()).containsExactly("test_table");
+    }
+
+    @Test
+    public void existsQueryShouldWrapRawQueryWithoutTrailingSemicolon() {
+        final RawQuery rawQuery = PreparedGetExists.existsQuery(RawQuery.builder()
+                .query("SELECT * FROM test_table WHERE column1 = ?; ")
+                .args("arg1")
+                .observesTables("test_table")
+                .build());
+
+        assertThat(rawQuery.query()).isEqualTo("SELECT EXISTS(SELECT * FROM test_table WHERE column1 = ?)");
+        assertThat(rawQuery.args()).containsExactly("arg1");
+        assertThat(rawQuery.observesTables()).containsExactly("test_table");
+    }
+
+    @Test
+    public void shouldReturnTrueIfQueryHasResults() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(any(RawQuery.class))).thenReturn(1L);
+
+        final Boolean exists = new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(exists).isTrue();
+        verify(internal).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT EXISTS(SELECT * FROM test_table)")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void shouldReturnFalseIfQueryHasNoResults() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(any(RawQuery.class))).thenReturn(0L);
+
+        final Boolean exists = new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(RawQuery.builder().query("SELECT * FROM test_table").build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(exists).isFalse();
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOExceptionForBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(any(RawQuery.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedGetExists.Builder(storIOSQLite)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            IllegalStateException cause = (IllegalStateException) expected.getCause();
+            assertThat(cause).hasMessage("test exception");
+        }
+    }
+
+    @Test
+    public void shouldRequeryOnChangesOfTable() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(Observable.just(Changes.newInstance("test_table")));
+        when(internal.simpleQueryForLong(any(RawQuery.class))).thenReturn(0L, 1L);
+
+        final TestSubscriber<Boolean> testSubscriber = new TestSubscriber<Boolean>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent(60, SECONDS);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValues(false, true);
+
+        verify(internal, times(2)).simpleQueryForLong(any(RawQuery.class));
+    }
+}
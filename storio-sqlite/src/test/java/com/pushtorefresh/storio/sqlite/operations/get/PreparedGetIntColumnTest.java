@@ -0,0 +1,38 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetIntColumnTest {
+
+    @Test
+    public void shouldReadFirstColumnBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor cursor = mock(Cursor.class);
+        final Query query = Query.builder().table("test_table").columns("position").build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.query(query)).thenReturn(cursor);
+        when(cursor.getCount()).thenReturn(2);
+        when(cursor.moveToNext()).thenReturn(true, true, false);
+        when(cursor.getInt(0)).thenReturn(3, 0);
+
+        final IntColumn column = new PreparedGetIntColumn.Builder(storIOSQLite)
+                .withQuery(query)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(column.toArray()).containsExactly(3, 0);
+        verify(cursor).close();
+    }
+}
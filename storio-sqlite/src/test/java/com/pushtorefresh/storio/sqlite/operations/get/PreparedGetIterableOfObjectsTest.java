@@ -0,0 +1,242 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.observers.TestSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetIterableOfObjectsTest {
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+
+    @NonNull
+    private final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+    @NonNull
+    private final Cursor cursor = mock(Cursor.class);
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+
+    @NonNull
+    private final Query query = Query.builder().table("test_table").build();
+
+    @NonNull
+    private final List<TestItem> items = new ArrayList<TestItem>();
+
+    public PreparedGetIterableOfObjectsTest() {
+        items.add(new TestItem());
+        items.add(new TestItem());
+        items.add(new TestItem());
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(storIOSQLite.get()).thenReturn(new PreparedGet.Builder(storIOSQLite));
+        when(getResolver.performGet(storIOSQLite, query)).thenReturn(cursor);
+
+        when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+            int invocationsCount = 0;
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return invocationsCount++ < items.size();
+            }
+        });
+
+        when(getResolver.mapFromCursor(cursor)).thenAnswer(new Answer<TestItem>() {
+            int invocationsCount = 0;
+
+            @Override
+            public TestItem answer(InvocationOnMock invocation) throws Throwable {
+                return items.get(invocationsCount++);
+            }
+        });
+    }
+
+    @NonNull
+    private PreparedGetIterableOfObjects<TestItem> prepareGet() {
+        return storIOSQLite
+                .get()
+                .iterableOfObjects(TestItem.class)
+                .withQuery(query)
+                .withGetResolver(getResolver)
+                .prepare();
+    }
+
+    @Test
+    public void shouldMapRowsLazily() {
+        final CursorIterable<TestItem> iterable = prepareGet().executeAsBlocking();
+
+        verify(getResolver).performGet(storIOSQLite, query);
+        verify(getResolver, never()).mapFromCursor(cursor);
+
+        final Iterator<TestItem> iterator = iterable.iterator();
+
+        assertThat(iterator.next()).isEqualTo(items.get(0));
+        verify(getResolver, times(1)).mapFromCursor(cursor);
+
+        assertThat(iterator.next()).isEqualTo(items.get(1));
+        verify(getResolver, times(2)).mapFromCursor(cursor);
+
+        // Counting rows requires reading the whole result
+        verify(cursor, never()).getCount();
+        verify(cursor, never()).close();
+    }
+
+    @Test
+    public void shouldCloseCursorAfterLastRow() {
+        final List<TestItem> result = new ArrayList<TestItem>();
+
+        for (TestItem testItem : prepareGet().executeAsBlocking()) {
+            result.add(testItem);
+        }
+
+        assertThat(result).isEqualTo(items);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void closeShouldCloseCursorOnce() {
+        final CursorIterable<TestItem> iterable = prepareGet().executeAsBlocking();
+        final Iterator<TestItem> iterator = iterable.iterator();
+
+        iterator.next();
+
+        iterable.close();
+        iterable.close();
+
+        verify(cursor, times(1)).close();
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void shouldNotAllowSecondIteration() {
+        final CursorIterable<TestItem> iterable = prepareGet().executeAsBlocking();
+
+        iterable.iterator();
+
+        try {
+            iterable.iterator();
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("CursorIterable can be iterated only once");
+        }
+    }
+
+    @Test
+    public void shouldWrapMappingExceptionAndCloseCursor() {
+        final IllegalStateException cause = new IllegalStateException("test exception");
+        when(getResolver.mapFromCursor(cursor)).thenThrow(cause);
+
+        final Iterator<TestItem> iterator = prepareGet().executeAsBlocking().iterator();
+
+        try {
+            iterator.next();
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).isSameAs(cause);
+        }
+
+        verify(cursor).close();
+    }
+
+    @Test
+    public void shouldUseTypeMappingIfGetResolverIsNotSpecified() {
+        //noinspection unchecked
+        final SQLiteTypeMapping<TestItem> typeMapping = SQLiteTypeMapping.<TestItem>builder()
+                .putResolver(mock(PutResolver.class))
+                .getResolver(getResolver)
+                .deleteResolver(mock(DeleteResolver.class))
+                .build();
+
+        when(internal.typeMapping(TestItem.class)).thenReturn(typeMapping);
+
+        final CursorIterable<TestItem> iterable = storIOSQLite
+                .get()
+                .iterableOfObjects(TestItem.class)
+                .withQuery(query)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(iterable.iterator().next()).isEqualTo(items.get(0));
+    }
+
+    @Test
+    public void shouldFailIfNoTypeMappingAndNoGetResolver() {
+        final RawQuery rawQuery = RawQuery.builder().query("SELECT * FROM test_table").build();
+
+        try {
+            storIOSQLite
+                    .get()
+                    .iterableOfObjects(TestItem.class)
+                    .withQuery(rawQuery)
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    public void shouldEmitAllObjectsViaObservable() {
+        final TestSubscriber<TestItem> testSubscriber = new TestSubscriber<TestItem>();
+
+        prepareGet()
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertReceivedOnNext(items);
+        testSubscriber.assertCompleted();
+
+        verify(cursor, timeout(5000)).close();
+    }
+
+    @Test
+    public void observableShouldMapOnlyRequestedRowsAndCloseCursorOnUnsubscribe() {
+        final TestSubscriber<TestItem> testSubscriber = new TestSubscriber<TestItem>();
+
+        prepareGet()
+                .createObservable()
+                .take(1)
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValue(items.get(0));
+
+        // Cursor is closed on unsubscription which happens after completion
+        verify(cursor, timeout(5000)).close();
+        verify(getResolver, times(1)).mapFromCursor(cursor);
+    }
+}
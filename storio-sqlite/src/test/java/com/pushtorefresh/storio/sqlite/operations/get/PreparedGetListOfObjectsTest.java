@@ -1,9 +1,13 @@
 package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
@@ -19,13 +23,16 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -251,6 +258,8 @@ public class PreparedGetListOfObjectsTest {
             verify(internal).typeMapping(TestItem.class);
             verify(internal, never()).query(any(Query.class));
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(storIOSQLite).requeryScheduler();
+            verify(storIOSQLite).requeryCoalescing();
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
 
@@ -282,11 +291,105 @@ public class PreparedGetListOfObjectsTest {
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
             verify(internal, never()).rawQuery(any(RawQuery.class));
+            verify(storIOSQLite).requeryCoalescing();
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
     }
 
     // Because we run tests on this class with Enclosed runner, we need to wrap other tests into class
+    public static class WithQueryResultCache {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+
+        @NonNull
+        private final QueryResultCache queryResultCache = QueryResultCache.newInstance(10);
+
+        @SuppressWarnings("unchecked")
+        @NonNull
+        private final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+
+        public WithQueryResultCache() {
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.queryResultCache()).thenReturn(queryResultCache);
+            when(storIOSQLite.get()).thenReturn(new PreparedGet.Builder(storIOSQLite));
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(mock(Cursor.class));
+            when(getResolver.performGet(eq(storIOSQLite), any(RawQuery.class))).thenReturn(mock(Cursor.class));
+        }
+
+        @NonNull
+        private List<TestItem> get(@NonNull Query query) {
+            return storIOSQLite
+                    .get()
+                    .listOfObjects(TestItem.class)
+                    .withQuery(query)
+                    .withGetResolver(getResolver)
+                    .prepare()
+                    .executeAsBlocking();
+        }
+
+        @NonNull
+        private List<TestItem> get(@NonNull RawQuery rawQuery) {
+            return storIOSQLite
+                    .get()
+                    .listOfObjects(TestItem.class)
+                    .withQuery(rawQuery)
+                    .withGetResolver(getResolver)
+                    .prepare()
+                    .executeAsBlocking();
+        }
+
+        @Test
+        public void equalQueryShouldBeServedFromCache() {
+            final List<TestItem> firstResult = get(Query.builder().table("test_table").build());
+            final List<TestItem> secondResult = get(Query.builder().table("test_table").build());
+
+            assertThat(secondResult).isSameAs(firstResult);
+            verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
+
+            assertThat(queryResultCache.hitCount()).isEqualTo(1);
+            assertThat(queryResultCache.missCount()).isEqualTo(1);
+        }
+
+        @Test
+        public void changesOfTableShouldEvictResult() {
+            get(Query.builder().table("test_table").build());
+
+            queryResultCache.invalidate(singleton("test_table"));
+
+            get(Query.builder().table("test_table").build());
+
+            verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+        }
+
+        @Test
+        public void rawQueryWithoutObservedTablesShouldNotBeCached() {
+            final RawQuery rawQuery = RawQuery.builder().query("SELECT * FROM test_table").build();
+
+            get(rawQuery);
+            get(rawQuery);
+
+            verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(RawQuery.class));
+            assertThat(queryResultCache.size()).isEqualTo(0);
+        }
+
+        @Test
+        public void rawQueryWithObservedTablesShouldBeCached() {
+            final RawQuery rawQuery = RawQuery.builder()
+                    .query("SELECT * FROM test_table")
+                    .observesTables("test_table")
+                    .build();
+
+            get(rawQuery);
+            get(rawQuery);
+
+            verify(getResolver).performGet(eq(storIOSQLite), any(RawQuery.class));
+        }
+    }
+
     public static class OtherTests {
 
         @Test
@@ -347,6 +450,7 @@ public class PreparedGetListOfObjectsTest {
         @Test
         public void cursorMustBeClosedInCaseOfExceptionForExecuteAsBlocking() {
             final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
 
             //noinspection unchecked
             final GetResolver<Object> getResolver = mock(GetResolver.class);
@@ -386,13 +490,18 @@ public class PreparedGetListOfObjectsTest {
                 verify(cursor).getCount();
                 verify(cursor).moveToNext();
 
-                verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
+                verify(storIOSQLite).internal();
+
+                verify(storIOSQLite).internal();
+
+            verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
             }
         }
 
         @Test
         public void cursorMustBeClosedInCaseOfExceptionForObservable() {
             final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
 
             when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
                     .thenReturn(Observable.<Changes>empty());
@@ -441,12 +550,251 @@ public class PreparedGetListOfObjectsTest {
 
             //noinspection unchecked
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(storIOSQLite).requeryScheduler();
+            verify(storIOSQLite).requeryCoalescing();
             verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
             verify(getResolver).mapFromCursor(cursor);
             verify(cursor).getCount();
             verify(cursor).moveToNext();
 
+            verify(storIOSQLite).internal();
+
             verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
         }
+
+        @Test
+        public void createObservableWithDistinctResultsShouldSkipSameResults() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
+
+            final Changes changes = Changes.newInstance("test_table");
+
+            when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                    .thenReturn(Observable.just(changes, changes));
+
+            //noinspection unchecked
+            final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+
+            final Cursor cursor = mock(Cursor.class);
+
+            // Second result has same rows as first one, third one has one more row
+            when(cursor.getCount()).thenReturn(1, 1, 2);
+
+            when(cursor.moveToNext()).thenReturn(
+                    true, false,
+                    true, false,
+                    true, true, false
+            );
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                    .thenReturn(cursor);
+
+            final TestItem first = new TestItem();
+            final TestItem second = new TestItem();
+            final TestItem third = new TestItem();
+
+            when(getResolver.mapFromCursor(cursor))
+                    .thenReturn(first, first, second, third);
+
+            final TestSubscriber<List<TestItem>> testSubscriber = new TestSubscriber<List<TestItem>>();
+
+            new PreparedGetListOfObjects.Builder<TestItem>(storIOSQLite, TestItem.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .withGetResolver(getResolver)
+                    .distinctResults()
+                    .prepare()
+                    .createObservable()
+                    .subscribe(testSubscriber);
+
+            testSubscriber.awaitTerminalEvent();
+            testSubscriber.assertNoErrors();
+
+            final List<List<TestItem>> results = testSubscriber.getOnNextEvents();
+            assertThat(results).hasSize(2);
+            assertThat(results.get(0)).containsExactly(first);
+            assertThat(results.get(1)).containsExactly(second, third);
+
+            verify(getResolver, times(3)).performGet(eq(storIOSQLite), any(Query.class));
+            verify(getResolver, times(4)).mapFromCursor(cursor);
+            verify(cursor, times(3)).close();
+        }
+
+        @Test
+        public void distinctResultsShouldCompareResultsByEquals() {
+            //noinspection unchecked
+            final PreparedGetListOfObjects<TestItem> preparedGetListOfObjects
+                    = new PreparedGetListOfObjects<TestItem>(
+                    mock(StorIOSQLite.class),
+                    TestItem.class,
+                    Query.builder().table("test_table").build(),
+                    (GetResolver<TestItem>) mock(GetResolver.class)
+            );
+
+            final PreparedGetListOfObjects.DistinctResults<TestItem> distinctResults
+                    = new PreparedGetListOfObjects.DistinctResults<TestItem>(preparedGetListOfObjects);
+
+            final TestItem item = new TestItem();
+
+            assertThat(distinctResults.isNewResult(singletonList(item))).isTrue();
+            assertThat(distinctResults.isNewResult(singletonList(item))).isFalse();
+            assertThat(distinctResults.isNewResult(singletonList(new TestItem()))).isTrue();
+            assertThat(distinctResults.isNewResult(singletonList(item))).isTrue();
+        }
+
+        @Test
+        public void createDiffObservableShouldEmitFullReloadAndThenChanges() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
+
+            when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                    .thenReturn(Observable.just(Changes.newInstance("test_table")));
+
+            //noinspection unchecked
+            final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+
+            final Cursor cursor = mock(Cursor.class);
+
+            when(cursor.getCount()).thenReturn(2);
+
+            when(cursor.moveToNext()).thenReturn(true, true, false, true, true, false);
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                    .thenReturn(cursor);
+
+            final TestItem first = new TestItem();
+            final TestItem second = new TestItem();
+
+            when(getResolver.mapFromCursor(cursor))
+                    .thenReturn(first, second, second, first);
+
+            final PreparedGetListOfObjects<TestItem> preparedGetListOfObjects =
+                    new PreparedGetListOfObjects<TestItem>(
+                            storIOSQLite,
+                            TestItem.class,
+                            Query.builder().table("test_table").build(),
+                            getResolver
+                    );
+
+            final TestSubscriber<ListDiff<TestItem>> testSubscriber = new TestSubscriber<ListDiff<TestItem>>();
+
+            preparedGetListOfObjects
+                    .createDiffObservable(new ListDiff.KeyFunction<TestItem>() {
+                        @Nullable
+                        @Override
+                        public Object keyOf(@NonNull TestItem item) {
+                            return item.getId();
+                        }
+                    })
+                    .subscribe(testSubscriber);
+
+            testSubscriber.awaitTerminalEvent();
+            testSubscriber.assertNoErrors();
+
+            final List<ListDiff<TestItem>> diffs = testSubscriber.getOnNextEvents();
+            assertThat(diffs).hasSize(2);
+
+            assertThat(diffs.get(0).isFullReload()).isTrue();
+            assertThat(diffs.get(0).list()).containsExactly(first, second);
+
+            assertThat(diffs.get(1).isFullReload()).isFalse();
+            assertThat(diffs.get(1).list()).containsExactly(second, first);
+            assertThat(diffs.get(1).movedFrom()).containsExactly(1);
+            assertThat(diffs.get(1).movedTo()).containsExactly(0);
+            assertThat(diffs.get(1).removed()).isEmpty();
+            assertThat(diffs.get(1).inserted()).isEmpty();
+            assertThat(diffs.get(1).changed()).isEmpty();
+        }
+
+        @Test
+        public void createDiffObservableShouldThrowExceptionIfFullReloadRatioIsNegative() {
+            //noinspection unchecked
+            final PreparedGetListOfObjects<Object> preparedGetListOfObjects
+                    = new PreparedGetListOfObjects<Object>(
+                    mock(StorIOSQLite.class),
+                    Object.class,
+                    Query.builder().table("test_table").build(),
+                    (GetResolver<Object>) mock(GetResolver.class)
+            );
+
+            try {
+                //noinspection unchecked,ResourceType
+                preparedGetListOfObjects.createDiffObservable(mock(ListDiff.KeyFunction.class), -1f);
+                failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+            } catch (IllegalArgumentException expected) {
+                assertThat(expected).hasMessage("fullReloadRatio should be >= 0, but was = -1.0");
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void createDiffObservableShouldUseKeyFunctionOfTypeMapping() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            final SQLiteTypeMapping<TestItem> typeMapping = mock(SQLiteTypeMapping.class);
+            final ListDiff.KeyFunction<TestItem> keyFunction = mock(ListDiff.KeyFunction.class);
+            when(internal.typeMapping(TestItem.class)).thenReturn(typeMapping);
+            when(typeMapping.keyFunction()).thenReturn(keyFunction);
+
+            when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                    .thenReturn(Observable.just(Changes.newInstance("test_table")));
+
+            final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(cursor.getCount()).thenReturn(1);
+            when(cursor.moveToNext()).thenReturn(true, false, true, false);
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(cursor);
+
+            final TestItem item = new TestItem();
+            when(getResolver.mapFromCursor(cursor)).thenReturn(item);
+            when(keyFunction.keyOf(item)).thenReturn(1L);
+
+            final TestSubscriber<ListDiff<TestItem>> testSubscriber = new TestSubscriber<ListDiff<TestItem>>();
+
+            new PreparedGetListOfObjects<TestItem>(
+                    storIOSQLite,
+                    TestItem.class,
+                    Query.builder().table("test_table").build(),
+                    getResolver
+            )
+                    .createDiffObservable()
+                    .subscribe(testSubscriber);
+
+            testSubscriber.awaitTerminalEvent();
+            testSubscriber.assertNoErrors();
+
+            final List<ListDiff<TestItem>> diffs = testSubscriber.getOnNextEvents();
+            assertThat(diffs).hasSize(2);
+            assertThat(diffs.get(1).isFullReload()).isFalse();
+            assertThat(diffs.get(1).changed()).isEmpty();
+
+            verify(keyFunction, atLeastOnce()).keyOf(item);
+        }
+
+        @Test
+        public void createDiffObservableShouldThrowExceptionIfTypeMappingHasNoKeyFunction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
+
+            //noinspection unchecked
+            final PreparedGetListOfObjects<TestItem> preparedGetListOfObjects
+                    = new PreparedGetListOfObjects<TestItem>(
+                    storIOSQLite,
+                    TestItem.class,
+                    Query.builder().table("test_table").build(),
+                    (GetResolver<TestItem>) mock(GetResolver.class)
+            );
+
+            try {
+                //noinspection CheckResult
+                preparedGetListOfObjects.createDiffObservable();
+                failBecauseExceptionWasNotThrown(IllegalStateException.class);
+            } catch (IllegalStateException expected) {
+                assertThat(expected).hasMessage("Type mapping of this type does not have key function: " +
+                        "type = " + TestItem.class + ", please pass key function explicitly");
+            }
+        }
     }
 }
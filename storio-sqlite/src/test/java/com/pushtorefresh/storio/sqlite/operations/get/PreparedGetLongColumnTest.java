@@ -0,0 +1,160 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetLongColumnTest {
+
+    @Test
+    public void shouldReadFirstColumnWithQueryBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor cursor = mock(Cursor.class);
+        final Query query = Query.builder().table("test_table").columns("id").build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.query(query)).thenReturn(cursor);
+        when(cursor.getCount()).thenReturn(3);
+        when(cursor.moveToNext()).thenReturn(true, true, true, false);
+        when(cursor.getLong(0)).thenReturn(1L, 2L, Long.MAX_VALUE);
+
+        final LongColumn column = new PreparedGetLongColumn.Builder(storIOSQLite)
+                .withQuery(query)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(column.toArray()).containsExactly(1L, 2L, Long.MAX_VALUE);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void shouldReadFirstColumnWithRawQueryBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor cursor = mock(Cursor.class);
+        final RawQuery rawQuery = RawQuery.builder().query("SELECT id FROM test_table").build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.rawQuery(rawQuery)).thenReturn(cursor);
+        when(cursor.getCount()).thenReturn(0);
+        when(cursor.moveToNext()).thenReturn(false);
+
+        final LongColumn column = new PreparedGetLongColumn.Builder(storIOSQLite)
+                .withQuery(rawQuery)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(column.isEmpty()).isTrue();
+        verify(cursor).close();
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOExceptionForBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor cursor = mock(Cursor.class);
+        final Query query = Query.builder().table("test_table").build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.query(query)).thenReturn(cursor);
+        when(cursor.moveToNext()).thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedGetLongColumn.Builder(storIOSQLite)
+                    .withQuery(query)
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            IllegalStateException cause = (IllegalStateException) expected.getCause();
+            assertThat(cause).hasMessage("test exception");
+            verify(cursor).close();
+        }
+    }
+
+    @Test
+    public void createObservableShouldEmitCopiesOfReusedBuffer() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor firstCursor = mock(Cursor.class);
+        final Cursor secondCursor = mock(Cursor.class);
+        final Cursor thirdCursor = mock(Cursor.class);
+        final Query query = Query.builder().table("test_table").columns("id").build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(Observable.just(Changes.newInstance("test_table"), Changes.newInstance("test_table")));
+        when(internal.query(query)).thenReturn(firstCursor, secondCursor, thirdCursor);
+
+        when(firstCursor.getCount()).thenReturn(1);
+        when(firstCursor.moveToNext()).thenReturn(true, false);
+        when(firstCursor.getLong(0)).thenReturn(1L);
+
+        when(secondCursor.getCount()).thenReturn(2);
+        when(secondCursor.moveToNext()).thenReturn(true, true, false);
+        when(secondCursor.getLong(0)).thenReturn(1L, 2L);
+
+        when(thirdCursor.getCount()).thenReturn(2);
+        when(thirdCursor.moveToNext()).thenReturn(true, true, false);
+        when(thirdCursor.getLong(0)).thenReturn(1L, 2L);
+
+        final TestSubscriber<LongColumn> testSubscriber = new TestSubscriber<LongColumn>();
+
+        new PreparedGetLongColumn.Builder(storIOSQLite)
+                .withQuery(query)
+                .prepare()
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent(60, SECONDS);
+        testSubscriber.assertNoErrors();
+
+        final List<LongColumn> columns = testSubscriber.getOnNextEvents();
+        assertThat(columns).hasSize(3);
+
+        // Emitted column is not modified by the next read
+        assertThat(columns.get(0).toArray()).containsExactly(1L);
+        assertThat(columns.get(1).toArray()).containsExactly(1L, 2L);
+
+        // Unchanged values are emitted as the same instance
+        assertThat(columns.get(2)).isSameAs(columns.get(1));
+
+        verify(internal, times(3)).query(query);
+        verify(firstCursor).close();
+        verify(secondCursor).close();
+        verify(thirdCursor).close();
+    }
+
+    @Test
+    public void completeBuilderShouldThrowExceptionIfNoQueryWasSet() {
+        try {
+            new PreparedGetLongColumn.CompleteBuilder(mock(StorIOSQLite.class), null, null).prepare();
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("Please specify query");
+        }
+    }
+}
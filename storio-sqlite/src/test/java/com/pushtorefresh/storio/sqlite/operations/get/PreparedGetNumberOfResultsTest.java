@@ -6,6 +6,7 @@ import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import org.junit.Test;
 
@@ -19,6 +20,8 @@ import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PreparedGetNumberOfResultsTest {
@@ -187,14 +190,106 @@ public class PreparedGetNumberOfResultsTest {
     }
 
     @Test
-    public void verifyThatStandardGetResolverJustReturnsCursorGetCount() {
+    public void verifyThatStandardGetResolverReadsCountFromFirstRow() {
         final GetResolver<Integer> standardGetResolver
                 = PreparedGetNumberOfResults.CompleteBuilder.STANDARD_GET_RESOLVER;
 
         final Cursor cursor = mock(Cursor.class);
 
-        when(cursor.getCount()).thenReturn(12314);
+        when(cursor.moveToFirst()).thenReturn(true);
+        when(cursor.getInt(0)).thenReturn(12314);
 
         assertThat(standardGetResolver.mapFromCursor(cursor)).isEqualTo(12314);
+        verify(cursor, never()).getCount();
+    }
+
+    @Test
+    public void verifyThatStandardGetResolverPerformsCountQuery() {
+        final GetResolver<Integer> standardGetResolver
+                = PreparedGetNumberOfResults.CompleteBuilder.STANDARD_GET_RESOLVER;
+
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+
+        final Query query = Query.builder()
+                .table("test_table")
+                .where("a = ?")
+                .whereArgs("b")
+                .build();
+
+        assertThat(standardGetResolver.performGet(storIOSQLite, query)).isSameAs(cursor);
+
+        verify(internal).rawQuery(PreparedGetNumberOfResults.countQuery(query));
+        verify(internal, never()).query(any(Query.class));
+    }
+
+    @Test
+    public void countQueryShouldSelectCountFromTable() {
+        final RawQuery countQuery = PreparedGetNumberOfResults.countQuery(Query.builder()
+                .table("test_table")
+                .columns("a", "b")
+                .where("a = ?")
+                .whereArgs("c")
+                .orderBy("b")
+                .build());
+
+        assertThat(countQuery.query()).isEqualTo("SELECT COUNT(*) FROM test_table WHERE a = ?");
+        assertThat(countQuery.args()).containsExactly("c");
+        assertThat(countQuery.observesTables()).containsExactly("test_table");
+    }
+
+    @Test
+    public void countQueryShouldCountGroupsAsSubquery() {
+        final RawQuery countQuery = PreparedGetNumberOfResults.countQuery(Query.builder()
+                .table("test_table")
+                .columns("a", "COUNT(*) AS c")
+                .where("b = ?")
+                .whereArgs("d")
+                .groupBy("a")
+                .having("c > 1")
+                .build());
+
+        assertThat(countQuery.query())
+                .isEqualTo("SELECT COUNT(*) FROM (SELECT a, COUNT(*) AS c FROM test_table WHERE b = ? GROUP BY a HAVING c > 1)");
+        assertThat(countQuery.args()).containsExactly("d");
+    }
+
+    @Test
+    public void countQueryShouldRespectDistinctAndLimit() {
+        final RawQuery countQuery = PreparedGetNumberOfResults.countQuery(Query.builder()
+                .table("test_table")
+                .distinct(true)
+                .orderBy("a")
+                .limit(5, 10)
+                .build());
+
+        assertThat(countQuery.query())
+                .isEqualTo("SELECT COUNT(*) FROM (SELECT DISTINCT * FROM test_table ORDER BY a LIMIT 5, 10)");
+    }
+
+    @Test
+    public void countQueryShouldWrapRawQuery() {
+        final RawQuery countQuery = PreparedGetNumberOfResults.countQuery(RawQuery.builder()
+                .query("SELECT * FROM a JOIN b ON a.id = b.a_id WHERE b.c = ?; ")
+                .args("d")
+                .observesTables("a", "b")
+                .build());
+
+        assertThat(countQuery.query())
+                .isEqualTo("SELECT COUNT(*) FROM (SELECT * FROM a JOIN b ON a.id = b.a_id WHERE b.c = ?)");
+        assertThat(countQuery.args()).containsExactly("d");
+        assertThat(countQuery.observesTables()).containsOnly("a", "b");
+    }
+
+    @Test
+    public void shouldWrapOnlySelectStatementsIntoCountQuery() {
+        assertThat(PreparedGet.isSelect(" select * FROM test_table")).isTrue();
+        assertThat(PreparedGet.isSelect("VALUES (1), (2)")).isTrue();
+        assertThat(PreparedGet.isSelect("PRAGMA table_info(test_table)")).isFalse();
+        assertThat(PreparedGet.isSelect("WITH t AS (SELECT 1) DELETE FROM test_table")).isFalse();
     }
 }
@@ -227,6 +227,8 @@ public class PreparedGetObjectTest {
             verify(internal).typeMapping(TestItem.class);
             verify(internal, never()).query(any(Query.class));
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(storIOSQLite).requeryScheduler();
+            verify(storIOSQLite).requeryCoalescing();
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
 
@@ -293,6 +295,7 @@ public class PreparedGetObjectTest {
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
             verify(internal, never()).rawQuery(any(RawQuery.class));
+            verify(storIOSQLite).requeryCoalescing();
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
     }
@@ -361,14 +364,13 @@ public class PreparedGetObjectTest {
         @Test
         public void cursorMustBeClosedInCaseOfExceptionForExecuteAsBlocking() {
             final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
 
             //noinspection unchecked
             final GetResolver<Object> getResolver = mock(GetResolver.class);
 
             final Cursor cursor = mock(Cursor.class);
 
-            when(cursor.getCount()).thenReturn(10);
-
             when(cursor.moveToNext()).thenReturn(true);
 
             when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
@@ -397,8 +399,8 @@ public class PreparedGetObjectTest {
 
                 verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
                 verify(getResolver).mapFromCursor(cursor);
-                verify(cursor).getCount();
                 verify(cursor).moveToNext();
+                verify(storIOSQLite).internal();
 
                 verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
             }
@@ -407,6 +409,7 @@ public class PreparedGetObjectTest {
         @Test
         public void cursorMustBeClosedInCaseOfExceptionForObservable() {
             final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
 
             when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
                     .thenReturn(Observable.<Changes>empty());
@@ -416,8 +419,6 @@ public class PreparedGetObjectTest {
 
             final Cursor cursor = mock(Cursor.class);
 
-            when(cursor.getCount()).thenReturn(10);
-
             when(cursor.moveToNext()).thenReturn(true);
 
             when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
@@ -455,12 +456,86 @@ public class PreparedGetObjectTest {
 
             //noinspection unchecked
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(storIOSQLite).requeryScheduler();
+            verify(storIOSQLite).requeryCoalescing();
             verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
             verify(getResolver).mapFromCursor(cursor);
-            verify(cursor).getCount();
             verify(cursor).moveToNext();
 
+            verify(storIOSQLite).internal();
+
             verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
         }
+
+        @Test
+        public void shouldLimitQueryWithoutLimitToOneRow() {
+            final PreparedGetObject<TestItem> preparedGetObject = new PreparedGetObject.Builder<TestItem>(mock(StorIOSQLite.class), TestItem.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare();
+
+            assertThat(preparedGetObject.query).isEqualTo(Query.builder().table("test_table").limit(1).build());
+        }
+
+        @Test
+        public void shouldNotChangeOwnLimitOfQuery() {
+            final Query query = Query.builder().table("test_table").limit(5, 1).build();
+
+            final PreparedGetObject<TestItem> preparedGetObject = new PreparedGetObject.Builder<TestItem>(mock(StorIOSQLite.class), TestItem.class)
+                    .withQuery(query)
+                    .prepare();
+
+            assertThat(preparedGetObject.query).isSameAs(query);
+        }
+
+        @Test
+        public void shouldLimitRawQueryOnlyIfRequested() {
+            final RawQuery rawQuery = RawQuery.builder()
+                    .query("SELECT * FROM test_table WHERE a = ?;")
+                    .args("b")
+                    .observesTables("test_table")
+                    .build();
+
+            final PreparedGetObject<TestItem> asIs = new PreparedGetObject.Builder<TestItem>(mock(StorIOSQLite.class), TestItem.class)
+                    .withQuery(rawQuery)
+                    .prepare();
+
+            assertThat(asIs.rawQuery).isSameAs(rawQuery);
+
+            final PreparedGetObject<TestItem> limited = new PreparedGetObject.Builder<TestItem>(mock(StorIOSQLite.class), TestItem.class)
+                    .withQuery(rawQuery)
+                    .limitRawQueryToOneRow(true)
+                    .prepare();
+
+            assertThat(limited.rawQuery).isEqualTo(rawQuery
+                    .toBuilder()
+                    .query("SELECT * FROM (SELECT * FROM test_table WHERE a = ?) LIMIT 1")
+                    .build());
+        }
+
+        @Test
+        public void shouldReturnNullForEmptyCursorWithoutCountingRows() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.internal()).thenReturn(mock(StorIOSQLite.Internal.class));
+
+            //noinspection unchecked
+            final GetResolver<Object> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(cursor);
+
+            final Object result = new PreparedGetObject<Object>(
+                    storIOSQLite,
+                    Object.class,
+                    Query.builder().table("test_table").build(),
+                    getResolver
+            ).executeAsBlocking();
+
+            assertThat(result).isNull();
+
+            verify(cursor).moveToNext();
+            verify(cursor).close();
+            verify(getResolver, never()).mapFromCursor(any(Cursor.class));
+            verifyNoMoreInteractions(cursor);
+        }
     }
 }
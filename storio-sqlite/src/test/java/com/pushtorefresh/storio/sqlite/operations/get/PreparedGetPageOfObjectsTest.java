@@ -0,0 +1,299 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import rx.Observable;
+import rx.observers.TestSubscriber;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(Enclosed.class)
+public class PreparedGetPageOfObjectsTest {
+
+    public static class PageQuery {
+
+        @NonNull
+        private final Query baseQuery = Query.builder()
+                .table("tweets")
+                .where("author = ?")
+                .whereArgs("artem")
+                .build();
+
+        @Test
+        public void firstPageShouldNotHaveSeekCondition() {
+            final Query pageQuery = PreparedGetPageOfObjects.pageQuery(baseQuery, "_id", 10, false, null, false);
+
+            assertThat(pageQuery.where()).isEqualTo("author = ?");
+            assertThat(pageQuery.whereArgs()).containsExactly("artem");
+            assertThat(pageQuery.orderBy()).isEqualTo("_id ASC");
+            assertThat(pageQuery.limit()).isEqualTo("11");
+        }
+
+        @Test
+        public void nextPageShouldSeekAfterToken() {
+            final Query pageQuery = PreparedGetPageOfObjects.pageQuery(baseQuery, "_id", 10, false, "42", false);
+
+            assertThat(pageQuery.where()).isEqualTo("(author = ?) AND _id > ?");
+            assertThat(pageQuery.whereArgs()).containsExactly("artem", "42");
+            assertThat(pageQuery.orderBy()).isEqualTo("_id ASC");
+            assertThat(pageQuery.limit()).isEqualTo("11");
+        }
+
+        @Test
+        public void descendingPageShouldSeekBeforeToken() {
+            final Query query = Query.builder().table("tweets").build();
+            final Query pageQuery = PreparedGetPageOfObjects.pageQuery(query, "_id", 10, true, "42", false);
+
+            assertThat(pageQuery.where()).isEqualTo("_id < ?");
+            assertThat(pageQuery.whereArgs()).containsExactly("42");
+            assertThat(pageQuery.orderBy()).isEqualTo("_id DESC");
+        }
+
+        @Test
+        public void prefetchShouldLoadTwoPages() {
+            final Query pageQuery = PreparedGetPageOfObjects.pageQuery(baseQuery, "_id", 10, false, null, true);
+
+            assertThat(pageQuery.limit()).isEqualTo("21");
+        }
+
+        @Test
+        public void shouldNotAllowQueryWithOrderBy() {
+            try {
+                new PreparedGet.Builder(mock(StorIOSQLite.class))
+                        .pageOfObjects(TestItem.class)
+                        .withQuery(baseQuery.toBuilder().orderBy("_id").build());
+
+                failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+            } catch (IllegalArgumentException expected) {
+                assertThat(expected.getMessage()).startsWith("Pagination defines ORDER BY and LIMIT itself");
+            }
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void nonPositivePageSize() {
+            new PreparedGet.Builder(mock(StorIOSQLite.class))
+                    .pageOfObjects(TestItem.class)
+                    .withQuery(baseQuery)
+                    .keyColumn("_id")
+                    .pageSize(0);
+        }
+    }
+
+    public static class Execution {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+
+        @SuppressWarnings("unchecked")
+        @NonNull
+        private final GetResolver<TestItem> getResolver = mock(GetResolver.class);
+
+        @NonNull
+        private final Cursor cursor = mock(Cursor.class);
+
+        @NonNull
+        private final List<TestItem> rows = new ArrayList<TestItem>();
+
+        private int position = -1;
+
+        public Execution() {
+            for (int i = 0; i < 5; i++) {
+                rows.add(new TestItem());
+            }
+
+            when(storIOSQLite.get()).thenReturn(new PreparedGet.Builder(storIOSQLite));
+            when(getResolver.performGet(any(StorIOSQLite.class), any(Query.class))).thenReturn(cursor);
+
+            when(cursor.getColumnIndexOrThrow("_id")).thenReturn(0);
+
+            when(cursor.moveToPosition(anyInt())).thenAnswer(new Answer<Boolean>() {
+                @Override
+                public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                    position = (Integer) invocation.getArguments()[0];
+                    return true;
+                }
+            });
+
+            when(cursor.getString(0)).thenAnswer(new Answer<String>() {
+                @Override
+                public String answer(InvocationOnMock invocation) throws Throwable {
+                    return String.valueOf(rows.get(position).getId());
+                }
+            });
+
+            when(getResolver.mapFromCursor(cursor)).thenAnswer(new Answer<TestItem>() {
+                @Override
+                public TestItem answer(InvocationOnMock invocation) throws Throwable {
+                    return rows.get(position);
+                }
+            });
+        }
+
+        @NonNull
+        private PreparedGetPageOfObjects.CompleteBuilder<TestItem> builder() {
+            return storIOSQLite
+                    .get()
+                    .pageOfObjects(TestItem.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .keyColumn("_id")
+                    .withGetResolver(getResolver);
+        }
+
+        @Test
+        public void shouldReturnPageWithNextPageToken() {
+            when(cursor.getCount()).thenReturn(3); // page size + 1
+
+            final Page<TestItem> page = builder()
+                    .pageSize(2)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(page.items()).isEqualTo(asList(rows.get(0), rows.get(1)));
+            assertThat(page.hasNextPage()).isTrue();
+            assertThat(page.nextPageToken()).isEqualTo(String.valueOf(rows.get(1).getId()));
+            assertThat(page.prefetchedNextPage()).isNull();
+
+            verify(getResolver, times(2)).mapFromCursor(cursor);
+            verify(cursor).close();
+        }
+
+        @Test
+        public void lastPageShouldNotHaveNextPageToken() {
+            when(cursor.getCount()).thenReturn(2);
+
+            final Page<TestItem> page = builder()
+                    .pageSize(2)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(page.items()).hasSize(2);
+            assertThat(page.hasNextPage()).isFalse();
+            assertThat(page.nextPageToken()).isNull();
+        }
+
+        @Test
+        public void shouldPrefetchNextPage() {
+            when(cursor.getCount()).thenReturn(5); // two pages + 1
+
+            final Page<TestItem> page = builder()
+                    .pageSize(2)
+                    .prefetchNextPage(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(page.items()).isEqualTo(asList(rows.get(0), rows.get(1)));
+            assertThat(page.nextPageToken()).isEqualTo(String.valueOf(rows.get(1).getId()));
+
+            final Page<TestItem> nextPage = page.prefetchedNextPage();
+
+            assertThat(nextPage).isNotNull();
+            //noinspection ConstantConditions
+            assertThat(nextPage.items()).isEqualTo(asList(rows.get(2), rows.get(3)));
+            assertThat(nextPage.nextPageToken()).isEqualTo(String.valueOf(rows.get(3).getId()));
+
+            // Both pages are loaded by one query
+            verify(getResolver).performGet(any(StorIOSQLite.class), any(Query.class));
+        }
+
+        @Test
+        public void nextPageShouldSeekAfterTokenOfPreviousPage() {
+            when(cursor.getCount()).thenReturn(3);
+
+            final PreparedGetPageOfObjects<TestItem> firstPage = builder()
+                    .pageSize(2)
+                    .prepare();
+
+            final Page<TestItem> page = firstPage.executeAsBlocking();
+            final PreparedGetPageOfObjects<TestItem> secondPage = firstPage.nextPage(page);
+
+            assertThat(secondPage).isNotNull();
+            //noinspection ConstantConditions
+            assertThat(secondPage.query.whereArgs()).containsExactly(page.nextPageToken());
+
+            assertThat(firstPage.nextPage(new Page<TestItem>(Collections.<TestItem>emptyList(), null, null))).isNull();
+        }
+
+        @Test
+        public void shouldWrapExceptionIfKeyColumnIsNotInResult() {
+            final IllegalArgumentException cause = new IllegalArgumentException("column '_id' does not exist");
+            when(cursor.getColumnIndexOrThrow("_id")).thenThrow(cause);
+
+            try {
+                builder().prepare().executeAsBlocking();
+                failBecauseExceptionWasNotThrown(StorIOException.class);
+            } catch (StorIOException expected) {
+                assertThat(expected.getCause()).isSameAs(cause);
+            }
+
+            verify(cursor).close();
+        }
+
+        @Test
+        public void observableShouldReloadPageOnChangesInTable() {
+            when(cursor.getCount()).thenReturn(3);
+
+            when(storIOSQLite.observeChangesInTables(singleton("test_table")))
+                    .thenReturn(Observable.just(Changes.newInstance("test_table")));
+
+            final TestSubscriber<Page<TestItem>> testSubscriber = new TestSubscriber<Page<TestItem>>();
+
+            final Observable<Page<TestItem>> observable = builder()
+                    .pageSize(2)
+                    .prepare()
+                    .createObservable();
+
+            observable
+                    .take(2)
+                    .subscribe(testSubscriber);
+
+            testSubscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            testSubscriber.assertNoErrors();
+            assertThat(testSubscriber.getOnNextEvents()).hasSize(2);
+
+            verify(getResolver, times(2)).performGet(any(StorIOSQLite.class), any(Query.class));
+        }
+    }
+
+    public static class PageTest {
+
+        @Test
+        public void verifyEqualsAndHashCodeImplementation() {
+            EqualsVerifier
+                    .forClass(Page.class)
+                    .withPrefabValues(
+                            Page.class,
+                            new Page<String>(Collections.singletonList("a"), "1", null),
+                            new Page<String>(Collections.singletonList("b"), null, null)
+                    )
+                    .allFieldsShouldBeUsed()
+                    .verify();
+        }
+    }
+}
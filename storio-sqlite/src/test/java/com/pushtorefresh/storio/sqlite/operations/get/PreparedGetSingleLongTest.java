@@ -0,0 +1,64 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetSingleLongTest {
+
+    @Test
+    public void shouldReadValueWithQuery() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(any(RawQuery.class))).thenReturn(42L);
+
+        final Long value = new PreparedGetSingleLong.Builder(storIOSQLite)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .columns("updated_at")
+                        .where("column1 = ?")
+                        .whereArgs("arg1")
+                        .orderBy("updated_at DESC")
+                        .limit(1)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(value).isEqualTo(42L);
+        verify(internal).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT updated_at FROM test_table WHERE column1 = ? ORDER BY updated_at DESC LIMIT 1")
+                .args("arg1")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void shouldPassRawQueryAsIs() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final RawQuery rawQuery = RawQuery.builder()
+                .query("SELECT MAX(id) FROM test_table")
+                .build();
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForLong(rawQuery)).thenReturn(null);
+
+        final Long value = new PreparedGetSingleLong.Builder(storIOSQLite)
+                .withQuery(rawQuery)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(value).isNull();
+        verify(internal).simpleQueryForLong(rawQuery);
+    }
+}
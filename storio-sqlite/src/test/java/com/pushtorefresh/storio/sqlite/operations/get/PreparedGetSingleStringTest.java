@@ -0,0 +1,63 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetSingleStringTest {
+
+    @Test
+    public void shouldReadValueWithQuery() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class))).thenReturn("title");
+
+        final String value = new PreparedGetSingleString.Builder(storIOSQLite)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .columns("title")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(value).isEqualTo("title");
+        verify(internal).simpleQueryForString(RawQuery.builder()
+                .query("SELECT title FROM test_table")
+                .observesTables("test_table")
+                .build());
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOExceptionForBlocking() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(internal.simpleQueryForString(any(RawQuery.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedGetSingleString.Builder(storIOSQLite)
+                    .withQuery(RawQuery.builder().query("SELECT title FROM test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            IllegalStateException cause = (IllegalStateException) expected.getCause();
+            assertThat(cause).hasMessage("test exception");
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.RequeryCoalescing;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetTest {
+
+    @Test
+    public void observeChangesToRequeryShouldDeliverChangesOnRequeryScheduler() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler requeryScheduler = new TestScheduler();
+
+        when(storIOSQLite.observeChangesInTables(singleton("test_table"))).thenReturn(changes);
+        when(storIOSQLite.requeryScheduler()).thenReturn(requeryScheduler);
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .observeChangesToRequery(singleton("test_table"), null)
+                .subscribe(testSubscriber);
+
+        // Thread which notified about changes should not be blocked by subscribers
+        changes.onNext(Changes.newInstance("test_table"));
+        testSubscriber.assertNoValues();
+
+        requeryScheduler.triggerActions();
+        testSubscriber.assertValue(Changes.newInstance("test_table"));
+    }
+
+    @Test
+    public void observeChangesToRequeryShouldDeliverChangesOnNotifyingThreadWithoutRequeryScheduler() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final Changes changes = Changes.newInstance("test_table");
+
+        when(storIOSQLite.observeChangesInTables(singleton("test_table"))).thenReturn(Observable.just(changes));
+        when(storIOSQLite.requeryScheduler()).thenReturn(null);
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .observeChangesToRequery(singleton("test_table"), null)
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertValue(changes);
+        testSubscriber.assertCompleted();
+    }
+
+    @Test
+    public void observeChangesToRequeryShouldCoalesceChangesWhileBusy() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler requeryScheduler = new TestScheduler();
+
+        when(storIOSQLite.observeChangesInTables(singleton("test_table"))).thenReturn(changes);
+        when(storIOSQLite.requeryScheduler()).thenReturn(requeryScheduler);
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .observeChangesToRequery(singleton("test_table"), RequeryCoalescing.whileBusy())
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("test_table"));
+        changes.onNext(Changes.newInstance("test_table"));
+        changes.onNext(Changes.newInstance("test_table"));
+
+        requeryScheduler.triggerActions();
+        testSubscriber.assertValueCount(1);
+    }
+
+    @Test
+    public void observeChangesToRequeryShouldCoalesceChangesWithinWindow() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+        final TestScheduler requeryScheduler = new TestScheduler();
+
+        when(storIOSQLite.observeChangesInTables(singleton("test_table"))).thenReturn(changes);
+        when(storIOSQLite.requeryScheduler()).thenReturn(requeryScheduler);
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .observeChangesToRequery(singleton("test_table"), RequeryCoalescing.window(100, MILLISECONDS))
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("test_table"));
+        requeryScheduler.advanceTimeBy(50, MILLISECONDS);
+        changes.onNext(Changes.newInstance("test_table"));
+        testSubscriber.assertNoValues();
+
+        requeryScheduler.advanceTimeBy(50, MILLISECONDS);
+        testSubscriber.assertValueCount(1);
+
+        requeryScheduler.advanceTimeBy(100, MILLISECONDS);
+        testSubscriber.assertValueCount(1);
+    }
+
+    @Test
+    public void observeChangesToRequeryShouldSkipChangesOfOtherKeys() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(singleton("test_table"))).thenReturn(changes);
+
+        final TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        new PreparedGetObject.Builder<Object>(storIOSQLite, Object.class)
+                .withQuery(Query.builder().table("test_table").where("id = ?").whereArgs(42).build())
+                .observesKeys(42)
+                .prepare()
+                .observeChangesToRequery(singleton("test_table"), null)
+                .subscribe(testSubscriber);
+
+        changes.onNext(Changes.newInstance("test_table", singleton(1L)));
+        testSubscriber.assertNoValues();
+
+        changes.onNext(Changes.newInstance("test_table", singleton(42L)));
+        changes.onNext(Changes.newInstance("test_table"));
+        testSubscriber.assertValues(
+                Changes.newInstance("test_table", singleton(42L)),
+                Changes.newInstance("test_table")
+        );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void observedKeysShouldNotBeAllowedForRawQuery() {
+        new PreparedGetListOfObjects.Builder<Object>(mock(StorIOSQLite.class), Object.class)
+                .withQuery(RawQuery.builder().query("SELECT * FROM test_table").build())
+                .observesKeys(42)
+                .prepare();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void observedKeysShouldNotBeEmpty() {
+        new PreparedGetListOfObjects.Builder<Object>(mock(StorIOSQLite.class), Object.class)
+                .withQuery(Query.builder().table("test_table").build())
+                .observesKeys();
+    }
+}
@@ -0,0 +1,229 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RelationTest {
+
+    /**
+     * Parents are nicks, children are tweets in "nick:text" format.
+     */
+    static class TweetsRelation extends Relation<String, String> {
+
+        @NonNull
+        @Override
+        public Class<String> childType() {
+            return String.class;
+        }
+
+        @NonNull
+        @Override
+        public String childTable() {
+            return "tweets";
+        }
+
+        @NonNull
+        @Override
+        public String childKeyColumn() {
+            return "author";
+        }
+
+        @Nullable
+        @Override
+        public Object parentKey(@NonNull String parent) {
+            return parent;
+        }
+
+        @NonNull
+        @Override
+        public Object childKey(@NonNull String child) {
+            return child.substring(0, child.indexOf(':'));
+        }
+
+        @NonNull
+        @Override
+        public String attach(@NonNull String parent, @NonNull List<String> children) {
+            return parent + children;
+        }
+
+        @NonNull
+        @Override
+        public String childOrderBy() {
+            return "date";
+        }
+    }
+
+    private static class Stub {
+
+        @NonNull
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+
+        @NonNull
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        @NonNull
+        final GetResolver<String> childGetResolver;
+
+        @SuppressWarnings("unchecked")
+        Stub() {
+            childGetResolver = mock(GetResolver.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(storIOSQLite.get()).thenReturn(new PreparedGet.Builder(storIOSQLite));
+            when(internal.typeMapping(String.class)).thenReturn(SQLiteTypeMapping.<String>builder()
+                    .putResolver(mock(PutResolver.class))
+                    .getResolver(childGetResolver)
+                    .deleteResolver(mock(DeleteResolver.class))
+                    .build());
+        }
+
+        void childrenAre(@NonNull String... children) {
+            final Cursor cursor = mock(Cursor.class);
+            final List<Boolean> moves = new ArrayList<Boolean>();
+
+            for (int i = 1; i < children.length; i++) {
+                moves.add(true);
+            }
+
+            moves.add(false);
+
+            when(cursor.getCount()).thenReturn(children.length);
+            when(cursor.moveToNext()).thenReturn(true, moves.toArray(new Boolean[moves.size()]));
+            when(childGetResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(cursor);
+            when(childGetResolver.mapFromCursor(cursor)).thenReturn(
+                    children[0],
+                    Arrays.copyOfRange(children, 1, children.length)
+            );
+        }
+    }
+
+    @Test
+    public void childrenQueryShouldSelectChildrenOfAllKeys() {
+        final Query query = new TweetsRelation().childrenQuery(Arrays.<Object>asList("a", "b", "c"));
+
+        assertThat(query).isEqualTo(Query.builder()
+                .table("tweets")
+                .where("author IN (?,?,?)")
+                .whereArgs("a", "b", "c")
+                .orderBy("date")
+                .build());
+    }
+
+    @Test
+    public void loadShouldAttachChildrenLoadedByOneQuery() {
+        final Stub stub = new Stub();
+        stub.childrenAre("a:1", "c:2", "a:3");
+
+        final List<String> parents = new TweetsRelation().load(stub.storIOSQLite, Arrays.asList("a", "b", "c", "a"));
+
+        assertThat(parents).containsExactly("a[a:1, a:3]", "b[]", "c[c:2]", "a[a:1, a:3]");
+
+        // Duplicated parent keys should not be queried twice
+        verify(stub.childGetResolver).performGet(stub.storIOSQLite, Query.builder()
+                .table("tweets")
+                .where("author IN (?,?,?)")
+                .whereArgs("a", "b", "c")
+                .orderBy("date")
+                .build());
+    }
+
+    @Test
+    public void loadShouldSplitKeysIntoChunks() {
+        final Stub stub = new Stub();
+        stub.childrenAre("p0:1");
+
+        final List<String> parents = new ArrayList<String>();
+
+        for (int i = 0; i < Relation.MAX_KEYS_PER_QUERY + 1; i++) {
+            parents.add("p" + i);
+        }
+
+        final List<String> result = new TweetsRelation().load(stub.storIOSQLite, parents);
+
+        assertThat(result).hasSize(Relation.MAX_KEYS_PER_QUERY + 1);
+
+        final ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(stub.childGetResolver, times(2)).performGet(eq(stub.storIOSQLite), queries.capture());
+
+        assertThat(queries.getAllValues().get(0).whereArgs()).hasSize(Relation.MAX_KEYS_PER_QUERY);
+        assertThat(queries.getAllValues().get(1).whereArgs()).containsExactly("p" + Relation.MAX_KEYS_PER_QUERY);
+    }
+
+    @Test
+    public void listOfObjectsShouldLoadRelationAndObserveChildTable() {
+        final Stub stub = new Stub();
+        stub.childrenAre("a:1");
+
+        final Cursor parentsCursor = mock(Cursor.class);
+        //noinspection unchecked
+        final GetResolver<String> parentGetResolver = mock(GetResolver.class);
+        final Query parentsQuery = Query.builder().table("users").build();
+
+        when(parentGetResolver.performGet(stub.storIOSQLite, parentsQuery)).thenReturn(parentsCursor);
+        when(parentsCursor.getCount()).thenReturn(2);
+        when(parentsCursor.moveToNext()).thenReturn(true, true, false);
+        when(parentGetResolver.mapFromCursor(parentsCursor)).thenReturn("a", "b");
+
+        final PreparedGetListOfObjects<String> preparedGet = new PreparedGetListOfObjects.Builder<String>(stub.storIOSQLite, String.class)
+                .withQuery(parentsQuery)
+                .withGetResolver(parentGetResolver)
+                .withRelation(new TweetsRelation())
+                .prepare();
+
+        assertThat(preparedGet.executeAsBlocking()).containsExactly("a[a:1]", "b[]");
+        assertThat(preparedGet.readTables()).containsOnly("users", "tweets");
+
+        verify(parentsCursor).close();
+
+        // Read should not take write lock of the database
+        verify(stub.internal, never()).beginTransaction();
+    }
+
+    @Test
+    public void loadShouldMatchKeysOfDifferentTypesByStringValue() {
+        final Stub stub = new Stub();
+        stub.childrenAre("1:1", "2:2");
+
+        // Parent keys are Long, child keys are Integer
+        final Relation<String, String> relation = new TweetsRelation() {
+            @Nullable
+            @Override
+            public Object parentKey(@NonNull String parent) {
+                return Long.valueOf(parent);
+            }
+
+            @NonNull
+            @Override
+            public Object childKey(@NonNull String child) {
+                return Integer.valueOf(super.childKey(child).toString());
+            }
+        };
+
+        final List<String> parents = relation.load(stub.storIOSQLite, Arrays.asList("1", "2", "3"));
+
+        assertThat(parents).containsExactly("1[1:1]", "2[2:2]", "3[]");
+    }
+}
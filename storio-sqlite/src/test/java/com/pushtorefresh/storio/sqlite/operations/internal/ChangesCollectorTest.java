@@ -0,0 +1,86 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangesCollectorTest {
+
+    @Test
+    public void shouldCollectKeysOfTable() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(singleton("users"), "1");
+        collector.add(singleton("users"), "2");
+
+        assertThat(collector.toChanges()).isEqualTo(Changes.newInstance("users", asList("1", "2")));
+    }
+
+    @Test
+    public void changeWithoutKeyShouldMakeTableChangedEntirely() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(singleton("users"), "1");
+        collector.add(singleton("users"), null);
+        collector.add(singleton("users"), "2");
+
+        assertThat(collector.toChanges()).isEqualTo(Changes.newInstance("users"));
+    }
+
+    @Test
+    public void shouldKeepKeysOnlyOfTablesChangedByKeys() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(singleton("users"), "1");
+        collector.addTable("tweets");
+
+        final Map<String, Set<String>> keys = new HashMap<String, Set<String>>();
+        keys.put("users", singleton("1"));
+
+        assertThat(collector.toChanges())
+                .isEqualTo(Changes.newInstance(new HashSet<String>(asList("users", "tweets")), keys));
+    }
+
+    @Test
+    public void keyShouldBeIgnoredIfChangeAffectsSeveralTables() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(new HashSet<String>(asList("users", "tweets")), "1");
+
+        assertThat(collector.toChanges())
+                .isEqualTo(Changes.newInstance(new HashSet<String>(asList("users", "tweets"))));
+    }
+
+    @Test
+    public void changesShouldNotBeAffectedByFurtherCollection() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(singleton("users"), "1");
+        final Changes changes = collector.toChanges();
+
+        collector.add(singleton("users"), "2");
+        collector.addTable("tweets");
+
+        assertThat(changes).isEqualTo(Changes.newInstance("users", singleton("1")));
+    }
+
+    @Test
+    public void clearShouldRemoveAllChanges() {
+        final ChangesCollector collector = ChangesCollector.newInstance();
+
+        collector.add(singleton("users"), "1");
+        collector.clear();
+
+        assertThat(collector.isEmpty()).isTrue();
+        assertThat(collector.affectedTables()).isEmpty();
+    }
+}
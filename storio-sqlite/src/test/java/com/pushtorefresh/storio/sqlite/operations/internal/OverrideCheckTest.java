@@ -0,0 +1,53 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OverrideCheckTest {
+
+    static class Base<T> {
+        public String handle(@NonNull T object) {
+            return "base";
+        }
+
+        public int other(@NonNull T object) {
+            return 0;
+        }
+    }
+
+    static class NotOverriding extends Base<String> {
+    }
+
+    static class Overriding extends Base<String> {
+        @Override
+        public String handle(@NonNull String object) {
+            return "overriding";
+        }
+    }
+
+    static class ChildOfOverriding extends Overriding {
+    }
+
+    @NonNull
+    private final OverrideCheck handle = OverrideCheck.of(Base.class, String.class, Object.class);
+
+    @Test
+    public void shouldDetectNotOverriddenMethod() {
+        assertThat(handle.isOverriddenBy(Base.class)).isFalse();
+        assertThat(handle.isOverriddenBy(NotOverriding.class)).isFalse();
+    }
+
+    @Test
+    public void shouldDetectOverriddenMethod() {
+        assertThat(handle.isOverriddenBy(Overriding.class)).isTrue();
+        assertThat(handle.isOverriddenBy(ChildOfOverriding.class)).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowIfMethodNotFound() {
+        OverrideCheck.of(Base.class, long.class, Object.class);
+    }
+}
@@ -5,6 +5,7 @@ import android.database.Cursor;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
@@ -17,6 +18,8 @@ import java.util.Map;
 
 import rx.functions.Func1;
 
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Matchers.any;
@@ -56,7 +59,7 @@ public class DefaultPutResolverTest {
         when(cursor.getCount())
                 .thenReturn(0); // No results -> insert should be performed
 
-        when(internal.insert(any(InsertQuery.class), any(ContentValues.class)))
+        when(internal.insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE)))
                 .thenReturn(expectedInsertedId);
 
         final InsertQuery expectedInsertQuery = InsertQuery.builder()
@@ -107,13 +110,13 @@ public class DefaultPutResolverTest {
         verify(internal, times(1)).query(any(Query.class));
 
         // checks that required insert was performed
-        verify(internal, times(1)).insert(eq(expectedInsertQuery), eq(expectedContentValues));
+        verify(internal, times(1)).insertWithCompiledStatement(eq(expectedInsertQuery), eq(expectedContentValues), eq(CONFLICT_NONE));
 
         // only one insert should occur
-        verify(internal, times(1)).insert(any(InsertQuery.class), any(ContentValues.class));
+        verify(internal, times(1)).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
 
         // no updates should occur
-        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+        verify(internal, times(0)).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
 
         // put result checks
         assertThat(putResult.wasInserted()).isTrue();
@@ -151,7 +154,7 @@ public class DefaultPutResolverTest {
 
         final Integer expectedNumberOfRowsUpdated = 1;
 
-        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+        when(internal.updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class)))
                 .thenReturn(expectedNumberOfRowsUpdated);
 
         final UpdateQuery expectedUpdateQuery = UpdateQuery.builder()
@@ -204,13 +207,13 @@ public class DefaultPutResolverTest {
         verify(internal, times(1)).query(any(Query.class));
 
         // checks that required update was performed
-        verify(internal, times(1)).update(eq(expectedUpdateQuery), eq(expectedContentValues));
+        verify(internal, times(1)).updateWithCompiledStatement(eq(expectedUpdateQuery), eq(expectedContentValues));
 
         // only one update should occur
-        verify(internal, times(1)).update(any(UpdateQuery.class), any(ContentValues.class));
+        verify(internal, times(1)).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
 
         // no inserts should occur
-        verify(internal, times(0)).insert(any(InsertQuery.class), any(ContentValues.class));
+        verify(internal, times(0)).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
 
         // put result checks
         assertThat(putResult.wasInserted()).isFalse();
@@ -220,6 +223,213 @@ public class DefaultPutResolverTest {
         assertThat(putResult.insertedId()).isNull();
     }
 
+    /**
+     * Verifies behavior of {@link DefaultPutResolver} for "insert" with upsert
+     */
+    @Test
+    public void upsertInsert() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(null); // item without id, should be inserted
+
+        when(storIOSQLite.internal())
+                .thenReturn(internal);
+
+        final Long expectedInsertedId = 24L;
+
+        when(internal.updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(0); // Nothing was updated -> insert should be performed
+
+        when(internal.insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE)))
+                .thenReturn(expectedInsertedId);
+
+        final InsertQuery expectedInsertQuery = InsertQuery.builder()
+                .table(TestItem.TABLE)
+                .nullColumnHack(null)
+                .build();
+
+        final UpdateQuery expectedUpdateQuery = UpdateQuery.builder()
+                .table(TestItem.TABLE)
+                .where(TestItem.COLUMN_ID + " = ?")
+                .whereArgs(testItem.getId())
+                .build();
+
+        final PutResolver<TestItem> putResolver = new UpsertTestItemPutResolver(expectedInsertQuery);
+
+        final ContentValues expectedContentValues = TestItem.MAP_TO_CONTENT_VALUES.call(testItem);
+
+        // Performing Put that should "update" and then "insert"
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        verify(internal, times(1)).beginTransaction();
+        verify(internal, times(1)).setTransactionSuccessful();
+        verify(internal, times(1)).endTransaction();
+
+        // upsert should not query db before write
+        verify(internal, times(0)).query(any(Query.class));
+
+        // checks that required update was performed
+        verify(internal, times(1)).updateWithCompiledStatement(eq(expectedUpdateQuery), eq(expectedContentValues));
+
+        // checks that required insert was performed
+        verify(internal, times(1)).insertWithCompiledStatement(eq(expectedInsertQuery), eq(expectedContentValues), eq(CONFLICT_NONE));
+
+        // put result checks
+        assertThat(putResult.wasInserted()).isTrue();
+        assertThat(putResult.wasUpdated()).isFalse();
+
+        assertThat(putResult.insertedId()).isEqualTo(expectedInsertedId);
+        assertThat(putResult.numberOfRowsUpdated()).isNull();
+    }
+
+    /**
+     * Verifies behavior of {@link DefaultPutResolver} for "update" with upsert
+     */
+    @Test
+    public void upsertUpdate() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(1L); // item with some id, should be updated
+
+        when(storIOSQLite.internal())
+                .thenReturn(internal);
+
+        final Integer expectedNumberOfRowsUpdated = 1;
+
+        when(internal.updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(expectedNumberOfRowsUpdated);
+
+        final UpdateQuery expectedUpdateQuery = UpdateQuery.builder()
+                .table(TestItem.TABLE)
+                .where(TestItem.COLUMN_ID + " = ?")
+                .whereArgs(testItem.getId())
+                .build();
+
+        final PutResolver<TestItem> putResolver = new UpsertTestItemPutResolver(null);
+
+        final ContentValues expectedContentValues = TestItem.MAP_TO_CONTENT_VALUES.call(testItem);
+
+        // Performing Put that should "update"
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        verify(internal, times(1)).beginTransaction();
+        verify(internal, times(1)).setTransactionSuccessful();
+        verify(internal, times(1)).endTransaction();
+
+        // upsert should not query db before write
+        verify(internal, times(0)).query(any(Query.class));
+
+        // checks that required update was performed
+        verify(internal, times(1)).updateWithCompiledStatement(eq(expectedUpdateQuery), eq(expectedContentValues));
+
+        // no inserts should occur
+        verify(internal, times(0)).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+
+        // put result checks
+        assertThat(putResult.wasInserted()).isFalse();
+        assertThat(putResult.wasUpdated()).isTrue();
+
+        assertThat(putResult.numberOfRowsUpdated()).isEqualTo(expectedNumberOfRowsUpdated);
+        assertThat(putResult.insertedId()).isNull();
+    }
+
+    @Test
+    public void upsertUpdateShouldReturnKeyOfObject() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.internal())
+                .thenReturn(internal);
+
+        when(internal.updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        final PutResolver<TestItem> putResolver = new UpsertTestItemPutResolver(null) {
+            @Nullable
+            @Override
+            protected Object mapToKey(@NonNull TestItem object) {
+                return object.getId();
+            }
+        };
+
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        assertThat(putResult).isEqualTo(PutResult.newUpdateResult(1, TestItem.TABLE, 42L));
+        assertThat(putResult.affectedKey()).isEqualTo("42");
+        assertThat(PreparedPut.changesOf(putResult)).isEqualTo(Changes.newInstance(TestItem.TABLE, singletonList(42L)));
+    }
+
+    @Test
+    public void upsertInsertWithoutKeyShouldNotifyAboutWholeTable() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(null);
+
+        when(storIOSQLite.internal())
+                .thenReturn(internal);
+
+        when(internal.insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE)))
+                .thenReturn(24L);
+
+        final InsertQuery insertQuery = InsertQuery.builder()
+                .table(TestItem.TABLE)
+                .build();
+
+        final PutResolver<TestItem> putResolver = new UpsertTestItemPutResolver(insertQuery) {
+            @Nullable
+            @Override
+            protected Object mapToKey(@NonNull TestItem object) {
+                return object.getId();
+            }
+        };
+
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        assertThat(putResult.affectedKey()).isNull();
+        assertThat(PreparedPut.changesOf(putResult)).isEqualTo(Changes.newInstance(TestItem.TABLE));
+    }
+
+    private static class UpsertTestItemPutResolver extends DefaultPutResolver<TestItem> {
+
+        @Nullable
+        private final InsertQuery insertQuery;
+
+        UpsertTestItemPutResolver(@Nullable InsertQuery insertQuery) {
+            this.insertQuery = insertQuery;
+        }
+
+        @Override
+        protected boolean useUpsert() {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+            if (insertQuery == null) {
+                fail("Should not be called");
+            }
+            return insertQuery;
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+            return UpdateQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where(TestItem.COLUMN_ID + " = ?")
+                    .whereArgs(object.getId())
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull TestItem object) {
+            return TestItem.MAP_TO_CONTENT_VALUES.call(object);
+        }
+    }
+
     private static class TestItem {
 
         final static String TABLE = "someTable";
@@ -1,30 +1,41 @@
 package com.pushtorefresh.storio.sqlite.operations.put;
 
 import android.content.ContentValues;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 
 import java.util.List;
 
 import rx.Observable;
 import rx.observers.TestSubscriber;
 
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -192,8 +203,8 @@ public class PreparedPutCollectionOfObjectsTest {
             verify(storIOSQLite).put();
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
-            verify(internal, never()).insert(any(InsertQuery.class), any(ContentValues.class));
-            verify(internal, never()).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(internal, never()).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+            verify(internal, never()).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
 
@@ -227,8 +238,8 @@ public class PreparedPutCollectionOfObjectsTest {
             verify(storIOSQLite).put();
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
-            verify(internal, never()).insert(any(InsertQuery.class), any(ContentValues.class));
-            verify(internal, never()).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(internal, never()).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+            verify(internal, never()).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
 
@@ -260,8 +271,8 @@ public class PreparedPutCollectionOfObjectsTest {
             verify(storIOSQLite).put();
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
-            verify(internal, never()).insert(any(InsertQuery.class), any(ContentValues.class));
-            verify(internal, never()).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(internal, never()).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+            verify(internal, never()).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
 
@@ -295,8 +306,8 @@ public class PreparedPutCollectionOfObjectsTest {
             verify(storIOSQLite).put();
             verify(storIOSQLite).internal();
             verify(internal).typeMapping(TestItem.class);
-            verify(internal, never()).insert(any(InsertQuery.class), any(ContentValues.class));
-            verify(internal, never()).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(internal, never()).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+            verify(internal, never()).updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
     }
@@ -464,4 +475,415 @@ public class PreparedPutCollectionOfObjectsTest {
             verifyNoMoreInteractions(storIOSQLite, internal, putResolver);
         }
     }
+
+    public static class BulkInsert {
+
+        @NonNull
+        private final InsertQuery insertQuery = InsertQuery.builder()
+                .table(TestItem.TABLE)
+                .build();
+
+        @NonNull
+        private final DefaultPutResolver<TestItem> putResolver = new DefaultPutResolver<TestItem>() {
+            @NonNull
+            @Override
+            protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+                return insertQuery;
+            }
+
+            @NonNull
+            @Override
+            protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                throw new AssertionError("Should not be called");
+            }
+
+            @NonNull
+            @Override
+            protected ContentValues mapToContentValues(@NonNull TestItem object) {
+                return contentValues.get(items.indexOf(object));
+            }
+        };
+
+        @NonNull
+        private final List<TestItem> items = asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance());
+
+        @NonNull
+        private final List<ContentValues> contentValues
+                = asList(mock(ContentValues.class), mock(ContentValues.class), mock(ContentValues.class));
+
+        @Test
+        public void shouldBulkInsertObjectsInTransaction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.bulkInsert(insertQuery, contentValues)).thenReturn(new long[]{1, 2, 3});
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(putResolver)
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.numberOfInserts()).isEqualTo(3);
+            assertThat(putResults.results().get(items.get(0))).isEqualTo(PutResult.newInsertResult(1, TestItem.TABLE));
+            assertThat(putResults.results().get(items.get(1))).isEqualTo(PutResult.newInsertResult(2, TestItem.TABLE));
+            assertThat(putResults.results().get(items.get(2))).isEqualTo(PutResult.newInsertResult(3, TestItem.TABLE));
+
+            verify(internal).beginTransaction();
+            verify(internal).bulkInsert(insertQuery, contentValues);
+            verify(internal).setTransactionSuccessful();
+            verify(internal).endTransaction();
+
+            // Only one notification for all objects
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+
+            verify(internal, never()).insertWithCompiledStatement(any(InsertQuery.class), any(ContentValues.class), eq(CONFLICT_NONE));
+            verify(internal, never()).query(any(Query.class));
+        }
+
+        @Test
+        public void shouldNotifyAboutChangesOnceWithoutTransaction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.bulkInsert(insertQuery, contentValues)).thenReturn(new long[]{1, 2, 3});
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(putResolver)
+                    .useTransaction(false)
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.numberOfInserts()).isEqualTo(3);
+
+            verify(internal, never()).beginTransaction();
+            verify(internal).bulkInsert(insertQuery, contentValues);
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldReturnMappedKeys() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.bulkInsert(insertQuery, contentValues)).thenReturn(new long[]{1, 2, 3});
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new KeyedPutResolver())
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results().get(items.get(1)))
+                    .isEqualTo(PutResult.newInsertResult(2, TestItem.TABLE, 1));
+
+            // Observers of some rows should be able to skip re-query
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE, asList(0, 1, 2)));
+        }
+
+        @Test
+        public void shouldNotifyAboutTableWithoutKeysInSummaryOnlyMode() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.bulkInsert(insertQuery, contentValues)).thenReturn(new long[]{1, 2, 3});
+
+            new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new KeyedPutResolver())
+                    .useBulkInsert(true)
+                    .summaryOnly(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldPassObjectsToPutResolverWhichOverridesPerformPut() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            final PutResult putResult = PutResult.newUpdateResult(1, TestItem.TABLE);
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new KeyedPutResolver() {
+                        @NonNull
+                        @Override
+                        public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull TestItem object) {
+                            return putResult;
+                        }
+                    })
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.numberOfUpdates()).isEqualTo(3);
+            verify(internal, never()).bulkInsert(any(InsertQuery.class), anyListOf(ContentValues.class));
+        }
+
+        @Test
+        public void shouldPassObjectsToPutResolverWhichUsesUpsert() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.updateWithCompiledStatement(any(UpdateQuery.class), any(ContentValues.class))).thenReturn(1);
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new KeyedPutResolver() {
+                        @Override
+                        protected boolean useUpsert() {
+                            return true;
+                        }
+
+                        @NonNull
+                        @Override
+                        protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                            return UpdateQuery.builder().table(TestItem.TABLE).build();
+                        }
+                    })
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.numberOfUpdates()).isEqualTo(3);
+            verify(internal, never()).bulkInsert(any(InsertQuery.class), anyListOf(ContentValues.class));
+        }
+
+        private class KeyedPutResolver extends DefaultPutResolver<TestItem> {
+
+            @NonNull
+            @Override
+            protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+                return insertQuery;
+            }
+
+            @NonNull
+            @Override
+            protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                throw new AssertionError("Should not be called");
+            }
+
+            @NonNull
+            @Override
+            protected ContentValues mapToContentValues(@NonNull TestItem object) {
+                return contentValues.get(items.indexOf(object));
+            }
+
+            @Nullable
+            @Override
+            protected Object mapToKey(@NonNull TestItem object) {
+                return items.indexOf(object);
+            }
+        }
+
+        @Test
+        public void shouldPassObjectsToNonDefaultPutResolver() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> customPutResolver = mock(PutResolver.class);
+
+            final PutResult putResult = PutResult.newUpdateResult(1, TestItem.TABLE);
+
+            when(customPutResolver.performPut(same(storIOSQLite), any(TestItem.class))).thenReturn(putResult);
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(customPutResolver)
+                    .useBulkInsert(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.numberOfUpdates()).isEqualTo(3);
+
+            verify(customPutResolver).performPut(storIOSQLite, items.get(0));
+            verify(customPutResolver).performPut(storIOSQLite, items.get(1));
+            verify(customPutResolver).performPut(storIOSQLite, items.get(2));
+            verify(internal, never()).bulkInsert(any(InsertQuery.class), anyListOf(ContentValues.class));
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+    }
+
+    public static class SummaryOnly {
+
+        @Test
+        public void shouldReturnOnlySummary() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+            when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(
+                            PutResult.newInsertResult(1, TestItem.TABLE),
+                            PutResult.newUpdateResult(2, TestItem.TABLE),
+                            PutResult.newUpdateResult(0, "other_table")
+                    );
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance()))
+                    .withPutResolver(putResolver)
+                    .summaryOnly(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults).isEqualTo(PutResults.<TestItem>newSummaryInstance(1, 2, singleton(TestItem.TABLE)));
+            verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+    }
+
+    public static class YieldEvery {
+
+        @Test
+        public void shouldYieldTransactionEveryNumberOfObjects() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+            when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+            new PreparedPutCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance()))
+                    .withPutResolver(putResolver)
+                    .yieldEvery(2)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal).beginTransaction();
+            verify(internal, times(2)).yieldIfContendedSafely();
+            verify(internal).setTransactionSuccessful();
+            verify(internal).endTransaction();
+        }
+
+        @Test
+        public void shouldNotYieldWithoutTransaction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+            when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+            new PreparedPutCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance()))
+                    .withPutResolver(putResolver)
+                    .useTransaction(false)
+                    .yieldEvery(1)
+                    .prepare()
+                    .executeAsBlocking();
+
+            verify(internal, never()).yieldIfContendedSafely();
+        }
+
+        @Test
+        public void shouldYieldBetweenBulkInserts() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.bulkInsert(any(InsertQuery.class), anyListOf(ContentValues.class))).thenReturn(new long[]{1, 2}, new long[]{3});
+
+            final InsertQuery insertQuery = InsertQuery.builder().table(TestItem.TABLE).build();
+
+            final DefaultPutResolver<TestItem> putResolver = new DefaultPutResolver<TestItem>() {
+                @NonNull
+                @Override
+                protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+                    return insertQuery;
+                }
+
+                @NonNull
+                @Override
+                protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                    throw new AssertionError("Should not be called");
+                }
+
+                @NonNull
+                @Override
+                protected ContentValues mapToContentValues(@NonNull TestItem object) {
+                    return mock(ContentValues.class);
+                }
+            };
+
+            new PreparedPutCollectionOfObjects.Builder<TestItem>(
+                    storIOSQLite,
+                    asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance()))
+                    .withPutResolver(putResolver)
+                    .useBulkInsert(true)
+                    .yieldEvery(2)
+                    .prepare()
+                    .executeAsBlocking();
+
+            // Objects are inserted in chunks of 2 and 1, yield after the first chunk
+            verify(internal, times(2)).bulkInsert(any(InsertQuery.class), anyListOf(ContentValues.class));
+            verify(internal).yieldIfContendedSafely();
+        }
+
+        @Test
+        public void shouldNotifyAboutChangesCommittedByYieldEvenIfOperationFails() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+            when(storIOSQLite.internal()).thenReturn(internal);
+            when(internal.yieldIfContendedSafely()).thenReturn(true);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+            when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                    .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE))
+                    .thenThrow(new IllegalStateException("test exception"));
+
+            try {
+                new PreparedPutCollectionOfObjects.Builder<TestItem>(
+                        storIOSQLite,
+                        asList(TestItem.newInstance(), TestItem.newInstance()))
+                        .withPutResolver(putResolver)
+                        .yieldEvery(1)
+                        .prepare()
+                        .executeAsBlocking();
+
+                failBecauseExceptionWasNotThrown(StorIOException.class);
+            } catch (StorIOException expected) {
+                // first object was committed by the yield
+            }
+
+            final InOrder inOrder = inOrder(internal);
+            inOrder.verify(internal).yieldIfContendedSafely();
+            inOrder.verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+            inOrder.verify(internal).endTransaction();
+            verify(internal, never()).setTransactionSuccessful();
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void nonPositiveYieldEvery() {
+            new PreparedPutCollectionOfObjects.Builder<TestItem>(mock(StorIOSQLite.class), singletonList(TestItem.newInstance()))
+                    .yieldEvery(0);
+        }
+    }
 }
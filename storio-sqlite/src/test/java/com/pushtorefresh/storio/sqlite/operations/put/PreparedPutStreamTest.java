@@ -0,0 +1,303 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import rx.observers.TestSubscriber;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedPutStreamTest {
+
+    @Test
+    public void shouldCommitEveryNumberOfObjects() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(
+                        PutResult.newInsertResult(1, TestItem.TABLE),
+                        PutResult.newUpdateResult(2, TestItem.TABLE),
+                        PutResult.newInsertResult(3, TestItem.TABLE),
+                        PutResult.newInsertResult(4, TestItem.TABLE),
+                        PutResult.newInsertResult(5, TestItem.TABLE)
+                );
+
+        final List<TestItem> items = asList(
+                TestItem.newInstance(),
+                TestItem.newInstance(),
+                TestItem.newInstance(),
+                TestItem.newInstance(),
+                TestItem.newInstance()
+        );
+
+        final PutStreamResult putStreamResult = new PreparedPut.Builder(storIOSQLite)
+                .stream(items)
+                .withPutResolver(putResolver)
+                .commitEvery(2)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putStreamResult).isEqualTo(PutStreamResult.newInstance(4, 2, 3, singleton(TestItem.TABLE)));
+
+        verify(putResolver, times(5)).performPut(same(storIOSQLite), any(TestItem.class));
+        verify(internal, times(3)).beginTransaction();
+        verify(internal, times(3)).setTransactionSuccessful();
+        verify(internal, times(3)).endTransaction();
+
+        // One notification per commit
+        verify(internal, times(3)).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+    }
+
+    @Test
+    public void shouldConsumeIterableLazily() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+        final int numberOfItems = 10000;
+
+        // Generates objects on the fly, nothing is kept in memory
+        final Iterable<TestItem> items = new Iterable<TestItem>() {
+            @Override
+            public Iterator<TestItem> iterator() {
+                return new Iterator<TestItem>() {
+                    int count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return count < numberOfItems;
+                    }
+
+                    @Override
+                    public TestItem next() {
+                        count++;
+                        return TestItem.newInstance();
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+
+        final PutStreamResult putStreamResult = new PreparedPut.Builder(storIOSQLite)
+                .stream(items)
+                .withPutResolver(putResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putStreamResult.numberOfInserts()).isEqualTo(numberOfItems);
+        assertThat(putStreamResult.numberOfCommits()).isEqualTo(numberOfItems / PreparedPutStream.DEFAULT_COMMIT_EVERY_NUMBER_OF_OBJECTS);
+    }
+
+    @Test
+    public void shouldCommitEveryTime() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+        final PutStreamResult putStreamResult = new PreparedPut.Builder(storIOSQLite)
+                .stream(asList(TestItem.newInstance(), TestItem.newInstance(), TestItem.newInstance()))
+                .withPutResolver(putResolver)
+                .commitEvery(1, TimeUnit.NANOSECONDS)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putStreamResult.numberOfCommits()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotNotifyIfNothingWasChanged() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newUpdateResult(0, TestItem.TABLE));
+
+        final PutStreamResult putStreamResult = new PreparedPut.Builder(storIOSQLite)
+                .stream(singleton(TestItem.newInstance()))
+                .withPutResolver(putResolver)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putStreamResult.numberOfUpdates()).isEqualTo(0);
+        assertThat(putStreamResult.affectedTables()).isEmpty();
+        verify(internal, never()).notifyAboutChanges(any(Changes.class));
+    }
+
+    @Test
+    public void shouldUseTypeMappingIfPutResolverIsNotSpecified() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+        //noinspection unchecked
+        final SQLiteTypeMapping<TestItem> typeMapping = SQLiteTypeMapping.<TestItem>builder()
+                .putResolver(putResolver)
+                .getResolver(mock(GetResolver.class))
+                .deleteResolver(mock(DeleteResolver.class))
+                .build();
+
+        when(internal.typeMapping(TestItem.class)).thenReturn(typeMapping);
+
+        final PutStreamResult putStreamResult = new PreparedPut.Builder(storIOSQLite)
+                .stream(asList(TestItem.newInstance(), TestItem.newInstance()))
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putStreamResult.numberOfInserts()).isEqualTo(2);
+
+        // Type mapping should be resolved once for objects of the same type
+        verify(internal).typeMapping(TestItem.class);
+    }
+
+    @Test
+    public void shouldRollbackOnlyCurrentTransactionIfExceptionHasOccurred() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedPut.Builder(storIOSQLite)
+                    .stream(asList(TestItem.newInstance(), TestItem.newInstance()))
+                    .withPutResolver(putResolver)
+                    .commitEvery(1)
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).hasMessage("test exception");
+
+            final InOrder inOrder = inOrder(internal);
+
+            // First transaction is committed
+            inOrder.verify(internal).beginTransaction();
+            inOrder.verify(internal).setTransactionSuccessful();
+            inOrder.verify(internal).endTransaction();
+            inOrder.verify(internal).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+
+            // Second one is rolled back
+            inOrder.verify(internal).beginTransaction();
+            inOrder.verify(internal).endTransaction();
+            inOrder.verifyNoMoreInteractions();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveNumberOfObjects() {
+        try {
+            new PreparedPut.Builder(mock(StorIOSQLite.class))
+                    .stream(singleton(TestItem.newInstance()))
+                    .commitEvery(0);
+
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessage("numberOfObjects should be positive, but was = 0");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNonPositiveTime() {
+        try {
+            new PreparedPut.Builder(mock(StorIOSQLite.class))
+                    .stream(singleton(TestItem.newInstance()))
+                    .commitEvery(0, TimeUnit.SECONDS);
+
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessage("time should be positive, but was = 0");
+        }
+    }
+
+    @Test
+    public void shouldPutObjectsAsObservable() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        when(storIOSQLite.internal()).thenReturn(internal);
+
+        //noinspection unchecked
+        final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+
+        when(putResolver.performPut(same(storIOSQLite), any(TestItem.class)))
+                .thenReturn(PutResult.newInsertResult(1, TestItem.TABLE));
+
+        final TestSubscriber<PutStreamResult> testSubscriber = new TestSubscriber<PutStreamResult>();
+
+        new PreparedPut.Builder(storIOSQLite)
+                .stream(singleton(TestItem.newInstance()))
+                .withPutResolver(putResolver)
+                .prepare()
+                .createObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent();
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValue(PutStreamResult.newInstance(1, 0, 1, singleton(TestItem.TABLE)));
+    }
+}
@@ -211,4 +211,24 @@ public class PutResultTest {
                 .forClass(PutResult.class)
                 .check();
     }
+
+    @Test
+    public void createInsertResultWithAffectedKey() {
+        final PutResult putResult = PutResult.newInsertResult(1, "test_table", 42L);
+        assertThat(putResult.wasInserted()).isTrue();
+        assertThat(putResult.affectedTables()).containsOnly("test_table");
+        assertThat(putResult.affectedKey()).isEqualTo("42");
+    }
+
+    @Test
+    public void createUpdateResultWithAffectedKey() {
+        final PutResult putResult = PutResult.newUpdateResult(1, "test_table", "key");
+        assertThat(putResult.wasUpdated()).isTrue();
+        assertThat(putResult.affectedKey()).isEqualTo("key");
+    }
+
+    @Test
+    public void resultWithoutAffectedKey() {
+        assertThat(PutResult.newUpdateResult(1, "test_table").affectedKey()).isNull();
+    }
 }
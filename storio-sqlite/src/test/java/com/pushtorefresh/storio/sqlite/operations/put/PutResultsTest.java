@@ -4,11 +4,13 @@ import com.pushtorefresh.storio.test.ToStringChecker;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -64,6 +66,48 @@ public class PutResultsTest {
         assertThat(putResults.numberOfUpdates()).isEqualTo(6);
     }
 
+    @Test
+    public void affectedTablesShouldContainOnlyChangedTables() {
+        final Map<String, PutResult> putResultMap = new HashMap<String, PutResult>();
+
+        putResultMap.put("insert", PutResult.newInsertResult(1L, "table1"));
+        putResultMap.put("update", PutResult.newUpdateResult(1, "table2"));
+        putResultMap.put("nothing", PutResult.newUpdateResult(0, "table3"));
+
+        final PutResults<String> putResults = PutResults.newInstance(putResultMap);
+
+        assertThat(putResults.isSummaryOnly()).isFalse();
+        assertThat(putResults.affectedTables()).containsOnly("table1", "table2");
+
+        // Cached value
+        assertThat(putResults.affectedTables()).containsOnly("table1", "table2");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void summaryShouldNotAllowNullAffectedTables() {
+        //noinspection ConstantConditions
+        PutResults.newSummaryInstance(1, 1, null);
+    }
+
+    @Test
+    public void summaryShouldKeepOnlyCounters() {
+        final PutResults<String> putResults = PutResults.newSummaryInstance(3, 6, singleton("affected_table"));
+
+        assertThat(putResults.isSummaryOnly()).isTrue();
+        assertThat(putResults.results()).isEmpty();
+        assertThat(putResults.numberOfInserts()).isEqualTo(3);
+        assertThat(putResults.numberOfUpdates()).isEqualTo(6);
+        assertThat(putResults.affectedTables()).containsOnly("affected_table");
+    }
+
+    @Test
+    public void summaryShouldNotBeEqualToEmptyResults() {
+        final PutResults<String> summary = PutResults.newSummaryInstance(0, 0, Collections.<String>emptySet());
+        final PutResults<String> emptyResults = PutResults.newInstance(Collections.<String, PutResult>emptyMap());
+
+        assertThat(summary).isNotEqualTo(emptyResults);
+    }
+
     @Test
     public void verifyEqualsAndHashCodeImplementation() {
         EqualsVerifier
@@ -0,0 +1,49 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+import com.pushtorefresh.storio.test.ToStringChecker;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PutStreamResultTest {
+
+    @Test(expected = NullPointerException.class)
+    public void nullAffectedTables() {
+        //noinspection ConstantConditions
+        PutStreamResult.newInstance(0, 0, 0, null);
+    }
+
+    @Test
+    public void shouldKeepCounters() {
+        final Set<String> affectedTables = new HashSet<String>(asList("table1", "table2"));
+
+        final PutStreamResult putStreamResult = PutStreamResult.newInstance(3, 2, 1, affectedTables);
+
+        assertThat(putStreamResult.numberOfInserts()).isEqualTo(3);
+        assertThat(putStreamResult.numberOfUpdates()).isEqualTo(2);
+        assertThat(putStreamResult.numberOfCommits()).isEqualTo(1);
+        assertThat(putStreamResult.affectedTables()).isEqualTo(affectedTables);
+    }
+
+    @Test
+    public void verifyEqualsAndHashCodeImplementation() {
+        EqualsVerifier
+                .forClass(PutStreamResult.class)
+                .allFieldsShouldBeUsed()
+                .verify();
+    }
+
+    @Test
+    public void checkToStringImplementation() {
+        ToStringChecker
+                .forClass(PutStreamResult.class)
+                .check();
+    }
+}
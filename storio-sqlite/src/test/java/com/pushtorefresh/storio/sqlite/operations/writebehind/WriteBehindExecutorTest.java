@@ -0,0 +1,330 @@
+package com.pushtorefresh.storio.sqlite.operations.writebehind;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResult;
+import com.pushtorefresh.storio.sqlite.operations.delete.PreparedDelete;
+import com.pushtorefresh.storio.sqlite.operations.put.PreparedPut;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResult;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import rx.observers.TestSubscriber;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WriteBehindExecutorTest {
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+
+    @NonNull
+    private final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+    public WriteBehindExecutorTest() {
+        when(storIOSQLite.internal()).thenReturn(internal);
+        when(storIOSQLite.writeBehindExecutor()).thenCallRealMethod();
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static PreparedPut<PutResult> preparedPut(@NonNull PutResult putResult) {
+        final PreparedPut<PutResult> preparedPut = mock(PreparedPut.class);
+        when(preparedPut.executeAsBlocking()).thenReturn(putResult);
+        return preparedPut;
+    }
+
+    @Test
+    public void shouldCompleteFutureAfterCommit() throws Exception {
+        final PutResult putResult = PutResult.newInsertResult(1, "test_table");
+        final PreparedPut<PutResult> preparedPut = preparedPut(putResult);
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        assertThat(writeBehindExecutor.submit(preparedPut).get(5, TimeUnit.SECONDS)).isEqualTo(putResult);
+
+        final InOrder inOrder = inOrder(internal, preparedPut);
+        inOrder.verify(internal).beginTransaction();
+        inOrder.verify(preparedPut).executeAsBlocking();
+        inOrder.verify(internal).setTransactionSuccessful();
+        inOrder.verify(internal).endTransaction();
+
+        writeBehindExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldGroupOperationsQueuedDuringCommit() throws Exception {
+        final CountDownLatch firstOperationStarted = new CountDownLatch(1);
+        final CountDownLatch otherOperationsQueued = new CountDownLatch(1);
+
+        final PreparedPut<PutResult> firstPut = mock(PreparedPut.class);
+        when(firstPut.executeAsBlocking()).thenAnswer(new Answer<PutResult>() {
+            @Override
+            public PutResult answer(InvocationOnMock invocation) throws Throwable {
+                firstOperationStarted.countDown();
+                otherOperationsQueued.await(5, TimeUnit.SECONDS);
+                return PutResult.newInsertResult(1, "test_table");
+            }
+        });
+
+        final DeleteResult deleteResult = DeleteResult.newInstance(1, "test_table");
+        final PreparedDelete<DeleteResult> preparedDelete = mock(PreparedDelete.class);
+        when(preparedDelete.executeAsBlocking()).thenReturn(deleteResult);
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        writeBehindExecutor.submit(firstPut);
+        firstOperationStarted.await(5, TimeUnit.SECONDS);
+
+        final Future<PutResult> future2 = writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(2, "test_table")));
+        final Future<DeleteResult> future3 = writeBehindExecutor.submit(preparedDelete);
+        otherOperationsQueued.countDown();
+
+        assertThat(future2.get(5, TimeUnit.SECONDS).insertedId()).isEqualTo(2L);
+        assertThat(future3.get(5, TimeUnit.SECONDS)).isEqualTo(deleteResult);
+
+        // First group with one operation and second group with two operations
+        verify(internal, times(2)).beginTransaction();
+        verify(internal, times(2)).setTransactionSuccessful();
+        verify(internal, times(2)).endTransaction();
+
+        writeBehindExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldRespectMaxOperationsInGroup() throws Exception {
+        final CountDownLatch firstOperationStarted = new CountDownLatch(1);
+        final CountDownLatch otherOperationsQueued = new CountDownLatch(1);
+
+        final PreparedPut<PutResult> firstPut = mock(PreparedPut.class);
+        when(firstPut.executeAsBlocking()).thenAnswer(new Answer<PutResult>() {
+            @Override
+            public PutResult answer(InvocationOnMock invocation) throws Throwable {
+                firstOperationStarted.countDown();
+                otherOperationsQueued.await(5, TimeUnit.SECONDS);
+                return PutResult.newInsertResult(1, "test_table");
+            }
+        });
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite
+                .writeBehindExecutor()
+                .maxOperationsInGroup(2)
+                .build();
+
+        writeBehindExecutor.submit(firstPut);
+        firstOperationStarted.await(5, TimeUnit.SECONDS);
+
+        writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(2, "test_table")));
+        writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(3, "test_table")));
+        final Future<PutResult> lastFuture = writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(4, "test_table")));
+        otherOperationsQueued.countDown();
+
+        lastFuture.get(5, TimeUnit.SECONDS);
+
+        // [1], [2, 3], [4]
+        verify(internal, times(3)).beginTransaction();
+
+        writeBehindExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void failedOperationShouldNotFailOtherOperationsOfGroup() throws Exception {
+        final PreparedPut<PutResult> failingPut = mock(PreparedPut.class);
+        final StorIOException expected = new StorIOException("test exception");
+        when(failingPut.executeAsBlocking()).thenThrow(expected);
+
+        final PutResult putResult = PutResult.newInsertResult(1, "test_table");
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        final Future<PutResult> failedFuture = writeBehindExecutor.submit(failingPut);
+        final Future<PutResult> future = writeBehindExecutor.submit(preparedPut(putResult));
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(putResult);
+
+        try {
+            failedFuture.get(5, TimeUnit.SECONDS);
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isSameAs(expected);
+        }
+
+        writeBehindExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void failedOperationShouldAbortGroupAndOtherOperationsShouldBeExecutedAgain() throws Exception {
+        final CountDownLatch firstOperationStarted = new CountDownLatch(1);
+        final CountDownLatch otherOperationsQueued = new CountDownLatch(1);
+
+        final PreparedPut<PutResult> firstPut = mock(PreparedPut.class);
+        when(firstPut.executeAsBlocking()).thenAnswer(new Answer<PutResult>() {
+            @Override
+            public PutResult answer(InvocationOnMock invocation) throws Throwable {
+                firstOperationStarted.countDown();
+                otherOperationsQueued.await(5, TimeUnit.SECONDS);
+                return PutResult.newInsertResult(1, "test_table");
+            }
+        });
+
+        final PreparedPut<PutResult> put2 = preparedPut(PutResult.newInsertResult(2, "test_table"));
+        final PreparedPut<PutResult> failingPut = mock(PreparedPut.class);
+        when(failingPut.executeAsBlocking()).thenThrow(new IllegalStateException("constraint violation"));
+        final PreparedPut<PutResult> put4 = preparedPut(PutResult.newInsertResult(4, "test_table"));
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        writeBehindExecutor.submit(firstPut);
+        firstOperationStarted.await(5, TimeUnit.SECONDS);
+
+        final Future<PutResult> future2 = writeBehindExecutor.submit(put2);
+        final Future<PutResult> failedFuture = writeBehindExecutor.submit(failingPut);
+        final Future<PutResult> future4 = writeBehindExecutor.submit(put4);
+        otherOperationsQueued.countDown();
+
+        assertThat(future2.get(5, TimeUnit.SECONDS).insertedId()).isEqualTo(2L);
+        assertThat(future4.get(5, TimeUnit.SECONDS).insertedId()).isEqualTo(4L);
+
+        try {
+            failedFuture.get(5, TimeUnit.SECONDS);
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(StorIOException.class);
+            assertThat(e.getCause().getCause()).hasMessage("constraint violation");
+        }
+
+        // [1], [2, failed] rolled back, [2, 4] committed
+        verify(internal, times(3)).beginTransaction();
+        verify(internal, times(2)).setTransactionSuccessful();
+        verify(internal, times(3)).endTransaction();
+        verify(put2, times(2)).executeAsBlocking();
+        verify(failingPut).executeAsBlocking();
+        verify(put4).executeAsBlocking();
+
+        writeBehindExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void errorOnWriterThreadShouldFailPendingOperationsAndRejectNewOnes() throws Exception {
+        final CountDownLatch firstOperationStarted = new CountDownLatch(1);
+        final CountDownLatch otherOperationsQueued = new CountDownLatch(1);
+        final AssertionError error = new AssertionError("writer thread died");
+
+        final PreparedPut<PutResult> firstPut = mock(PreparedPut.class);
+        when(firstPut.executeAsBlocking()).thenAnswer(new Answer<PutResult>() {
+            @Override
+            public PutResult answer(InvocationOnMock invocation) throws Throwable {
+                firstOperationStarted.countDown();
+                otherOperationsQueued.await(5, TimeUnit.SECONDS);
+                throw error;
+            }
+        });
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        final Future<PutResult> firstFuture = writeBehindExecutor.submit(firstPut);
+        firstOperationStarted.await(5, TimeUnit.SECONDS);
+
+        final Future<PutResult> queuedFuture = writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(2, "test_table")));
+        otherOperationsQueued.countDown();
+
+        for (Future<PutResult> future : asList(firstFuture, queuedFuture)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                failBecauseExceptionWasNotThrown(ExecutionException.class);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(StorIOException.class);
+                assertThat(e.getCause().getCause()).isSameAs(error);
+            }
+        }
+
+        try {
+            writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(3, "test_table")));
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("Writer thread of WriteBehindExecutor failed");
+        }
+    }
+
+    @Test
+    public void failedCommitShouldFailAllOperationsOfGroup() throws Exception {
+        final IllegalStateException expected = new IllegalStateException("commit failed");
+        doThrow(expected).when(internal).endTransaction();
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        final Future<PutResult> future = writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(1, "test_table")));
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            failBecauseExceptionWasNotThrown(ExecutionException.class);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(StorIOException.class);
+            assertThat(e.getCause().getCause()).isSameAs(expected);
+        }
+
+        writeBehindExecutor.close();
+    }
+
+    @Test
+    public void shouldEmitResultViaObservable() {
+        final PutResult putResult = PutResult.newInsertResult(1, "test_table");
+
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        final TestSubscriber<PutResult> testSubscriber = new TestSubscriber<PutResult>();
+
+        writeBehindExecutor
+                .createObservable(preparedPut(putResult))
+                .subscribe(testSubscriber);
+
+        testSubscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValue(putResult);
+        testSubscriber.assertCompleted();
+
+        writeBehindExecutor.close();
+    }
+
+    @Test
+    public void shouldNotAcceptOperationsAfterClose() {
+        final WriteBehindExecutor writeBehindExecutor = storIOSQLite.writeBehindExecutor().build();
+
+        writeBehindExecutor.close();
+
+        try {
+            writeBehindExecutor.submit(preparedPut(PutResult.newInsertResult(1, "test_table")));
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("WriteBehindExecutor is closed");
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveMaxOperationsInGroup() {
+        storIOSQLite.writeBehindExecutor().maxOperationsInGroup(0);
+    }
+}